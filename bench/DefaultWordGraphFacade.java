@@ -0,0 +1,149 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import wordgraph.bench.WordGraphFacade;
+
+/**
+ * {@link WordGraphFacade}的实现，直接转发给默认包中的{@link WordGraph}和{@link CorpusGenerator}.
+ *
+ * <p>由基准类通过反射创建，因此需要公开的无参构造函数。</p>
+ */
+public final class DefaultWordGraphFacade implements WordGraphFacade {
+
+  private static final Tokenizer TOKENIZER = new UnicodeTokenizer();
+
+  @Override
+  public String word(int rank) {
+    return CorpusGenerator.word(rank);
+  }
+
+  @Override
+  public String generate(long seed, int vocabularySize, int tokens) {
+    return new CorpusGenerator(seed, vocabularySize, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(tokens);
+  }
+
+  @Override
+  public void writeCorpus(Path file, long seed, int vocabularySize, int tokens)
+      throws IOException {
+    new CorpusGenerator(seed, vocabularySize, CorpusGenerator.DEFAULT_EXPONENT)
+        .writeTo(file, tokens);
+  }
+
+  @Override
+  public Graph newGraph() {
+    return new GraphAdapter(new WordGraph());
+  }
+
+  @Override
+  public void tokenize(CharSequence text, Consumer<String> sink) {
+    TOKENIZER.tokenize(text, sink);
+  }
+
+  @Override
+  public void tokenizeWithRegex(String text, Consumer<String> sink) {
+    for (String word : text.replaceAll("[^a-zA-Z]", " ").toLowerCase().split("\\s+")) {
+      if (!word.isEmpty()) {
+        sink.accept(word);
+      }
+    }
+  }
+
+  /**
+   * 包装一个词图对象.
+   */
+  private static final class GraphAdapter implements Graph {
+    private final WordGraph graph;
+
+    GraphAdapter(WordGraph graph) {
+      this.graph = graph;
+    }
+
+    @Override
+    public void processTextFile(String filePath) throws IOException {
+      graph.processTextFile(filePath);
+    }
+
+    @Override
+    public void processText(String content) {
+      graph.processText(content);
+    }
+
+    @Override
+    public int buildDirectedWeightedGraph() {
+      graph.buildDirectedWeightedGraph();
+      return graph.getGraph().size();
+    }
+
+    @Override
+    public String showBridgeWords(String word1, String word2) {
+      return graph.showBridgeWords(word1, word2);
+    }
+
+    @Override
+    public String generateNewText(String inputText) {
+      return graph.generateNewText(inputText);
+    }
+
+    @Override
+    public String calcShortestPath(String word1, String word2) {
+      return graph.calcShortestPath(word1, word2);
+    }
+
+    @Override
+    public String streamShortestPaths(String word1, PathConsumer consumer) throws IOException {
+      return graph.streamShortestPaths(word1, new ShortestPathSink() {
+        @Override
+        public void begin(String source) {
+          consumer.consume(source);
+        }
+
+        @Override
+        public void beginTarget(String target, int distance) {
+          consumer.consume(distance);
+        }
+
+        @Override
+        public void path(int index, List<String> path) {
+          consumer.consume(path.size());
+        }
+
+        @Override
+        public void endTarget(String target) {
+          consumer.consume(target);
+        }
+
+        @Override
+        public void end(String source, int reachableCount) {
+          consumer.consume(reachableCount);
+        }
+      });
+    }
+
+    @Override
+    public Double calPageRank(String word) {
+      return graph.calPageRank(word);
+    }
+
+    @Override
+    public String randomWalk() {
+      return graph.randomWalk();
+    }
+
+    @Override
+    public int vocabularyId(String word) {
+      return graph.getVocabulary().idOf(word);
+    }
+
+    @Override
+    public int dictionaryId(CharSequence text, int start, int end) {
+      return graph.getWordDictionary().idOf(text, start, end);
+    }
+
+    @Override
+    public int dictionaryId(byte[] utf8, int offset, int length) {
+      return graph.getWordDictionary().idOf(utf8, offset, length);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+#!/bin/sh
+# 编译并运行JMH基准测试.
+#
+# 依赖与software_lab1.iml中的库版本相同，缺少时从Maven中央仓库下载到本地Maven仓库
+# (默认~/.m2/repository，可用MAVEN_REPOSITORY覆盖)。src中除测试以外的源文件和bench中的
+# 基准一起用javac编译到out/bench，JMH的注解处理器在编译时生成基准列表，
+# 然后以org.openjdk.jmh.Main运行，全部参数原样交给JMH，例如：
+#
+#   bench/run-benchmarks.sh                                  运行全部基准
+#   bench/run-benchmarks.sh WordGraphBenchmark -p tokens=10000
+#   bench/run-benchmarks.sh WordGraphBenchmark -rf json -rff jmh-result.json
+#   bench/run-benchmarks.sh -l                               列出全部基准
+set -e
+
+cd "$(dirname "$0")/.."
+REPOSITORY=${MAVEN_REPOSITORY:-$HOME/.m2/repository}
+CENTRAL=https://repo1.maven.org/maven2
+OUT=out/bench
+
+CLASSPATH=
+for artifact in \
+    org/openjdk/jmh/jmh-core/1.37/jmh-core-1.37.jar \
+    org/openjdk/jmh/jmh-generator-annprocess/1.37/jmh-generator-annprocess-1.37.jar \
+    net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar \
+    org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar \
+    com/github/spotbugs/spotbugs-annotations/4.0.1/spotbugs-annotations-4.0.1.jar \
+    com/google/code/findbugs/jsr305/3.0.2/jsr305-3.0.2.jar; do
+  jar="$REPOSITORY/$artifact"
+  if [ ! -f "$jar" ]; then
+    mkdir -p "$(dirname "$jar")"
+    echo "Downloading $artifact" >&2
+    curl -sSfL -o "$jar.part" "$CENTRAL/$artifact"
+    mv "$jar.part" "$jar"
+  fi
+  CLASSPATH="$CLASSPATH${CLASSPATH:+:}$jar"
+done
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+# shellcheck disable=SC2046
+javac -encoding UTF-8 -nowarn -d "$OUT" -cp "$CLASSPATH" -processorpath "$CLASSPATH" \
+    $(ls src/*.java | grep -v 'Test\.java$') \
+    bench/*.java bench/wordgraph/bench/*.java
+
+exec java -cp "$OUT:$CLASSPATH" org.openjdk.jmh.Main "$@"
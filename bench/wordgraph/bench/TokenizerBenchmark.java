@@ -0,0 +1,71 @@
+package wordgraph.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 分词的JMH基准测试，比较{@code UnicodeTokenizer}与原来的正则表达式切分.
+ *
+ * <p>文本由合成语料加上大写单词、标点和数字构成，两种方式得到相同的单词序列。
+ * 结果为切分整段文本的平均时间，词图通过{@link WordGraphFacade}访问：</p>
+ * <pre>
+ * bench/run-benchmarks.sh TokenizerBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+  @Param({"1000000"})
+  public int tokens;
+
+  @Param({"50000"})
+  public int vocabularySize;
+
+  @Param({"42"})
+  public long seed;
+
+  private WordGraphFacade facade;
+  private String text;
+
+  /**
+   * 生成文本：每7个单词有一个全大写，每5个单词后跟一个逗号，每11个单词后跟一个数字.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    facade = WordGraphFacade.create();
+    String[] words = facade.generate(seed, vocabularySize, tokens).split(" ");
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < words.length; i++) {
+      builder.append(i % 7 == 0 ? words[i].toUpperCase() : words[i])
+          .append(i % 5 == 0 ? ", " : i % 11 == 0 ? " 42 " : " ");
+    }
+    text = builder.toString();
+  }
+
+  @Benchmark
+  public void unicodeTokenizer(Blackhole blackhole) {
+    facade.tokenize(text, blackhole::consume);
+  }
+
+  @Benchmark
+  public void regex(Blackhole blackhole) {
+    facade.tokenizeWithRegex(text, blackhole::consume);
+  }
+}
@@ -0,0 +1,160 @@
+package wordgraph.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 词图各项功能的JMH基准测试.
+ *
+ * <p>语料由{@code CorpusGenerator}按固定种子生成，{@link #tokens}参数控制图的规模。
+ * 词图通过{@link WordGraphFacade}访问。通过{@link #main(String[])}运行时结果以JSON格式写出，
+ * 可直接在不同版本之间做差异对比；编译和运行方法见{@code bench/run-benchmarks.sh}：</p>
+ * <pre>
+ * bench/run-benchmarks.sh WordGraphBenchmark -rf json -rff jmh-result.json
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class WordGraphBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  public int tokens;
+
+  @Param({"50000"})
+  public int vocabularySize;
+
+  @Param({"42"})
+  public long seed;
+
+  private WordGraphFacade facade;
+  private Path corpusFile;
+  private WordGraphFacade.Graph loaded;
+  private String frequentWord;
+  private String targetWord;
+  private String bridgeWord1;
+  private String bridgeWord2;
+  private String inputText;
+
+  /**
+   * 生成语料文件并预先加载一份图供查询类基准使用.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    facade = WordGraphFacade.create();
+    corpusFile = Files.createTempFile("wordgraph-bench-", ".txt");
+    facade.writeCorpus(corpusFile, seed, vocabularySize, tokens);
+
+    loaded = facade.newGraph();
+    loaded.processTextFile(corpusFile.toString());
+
+    // 高频词几乎必然出现在图中，保证查询走完整的计算路径
+    frequentWord = facade.word(0);
+    targetWord = facade.word(20);
+    bridgeWord1 = facade.word(1);
+    bridgeWord2 = facade.word(2);
+    inputText = facade.generate(seed + 1, 200, 30);
+  }
+
+  /**
+   * 删除临时语料文件.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(corpusFile);
+  }
+
+  @Benchmark
+  public WordGraphFacade.Graph processTextFile() throws IOException {
+    WordGraphFacade.Graph graph = facade.newGraph();
+    graph.processTextFile(corpusFile.toString());
+    return graph;
+  }
+
+  @Benchmark
+  public int buildDirectedWeightedGraph() {
+    return loaded.buildDirectedWeightedGraph();
+  }
+
+  @Benchmark
+  public String showBridgeWords() {
+    return loaded.showBridgeWords(bridgeWord1, bridgeWord2);
+  }
+
+  @Benchmark
+  public String generateNewText() {
+    return loaded.generateNewText(inputText);
+  }
+
+  @Benchmark
+  public String calcShortestPathToTarget() {
+    return loaded.calcShortestPath(frequentWord, targetWord);
+  }
+
+  /**
+   * 所有目标模式的输出可能非常大，这里通过接收器消费结果，只测量计算本身.
+   */
+  @Benchmark
+  public String calcShortestPathAllTargets(Blackhole blackhole) throws IOException {
+    return loaded.streamShortestPaths(frequentWord, new WordGraphFacade.PathConsumer() {
+      @Override
+      public void consume(String value) {
+        blackhole.consume(value);
+      }
+
+      @Override
+      public void consume(int value) {
+        blackhole.consume(value);
+      }
+    });
+  }
+
+  @Benchmark
+  public Double calPageRank() {
+    return loaded.calPageRank(frequentWord);
+  }
+
+  @Benchmark
+  public String randomWalk() {
+    return loaded.randomWalk();
+  }
+
+  /**
+   * 运行全部基准并将结果以JSON格式写入文件.
+   *
+   * @param args 第一个参数为结果文件路径(默认jmh-result.json)
+   */
+  public static void main(String[] args) throws RunnerException {
+    String resultFile = args.length > 0 ? args[0] : "jmh-result.json";
+    Options options = new OptionsBuilder()
+        .include(WordGraphBenchmark.class.getSimpleName())
+        .resultFormat(ResultFormatType.JSON)
+        .result(resultFile)
+        .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,124 @@
+package wordgraph.bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * 基准测试访问词图的接口.
+ *
+ * <p>JMH的注解处理器拒绝默认包中的基准类，而词图的类都在默认包里，具名包中的代码无法直接引用。
+ * 实现类{@code DefaultWordGraphFacade}放在默认包中实现本接口，基准类只在初始化时
+ * 通过{@link #create()}反射创建一次实例，之后都是普通的接口调用；
+ * 接口只有一个实现，JIT会把调用内联，不影响测量结果。</p>
+ */
+public interface WordGraphFacade {
+
+  /**
+   * 创建默认包中的实现.
+   */
+  static WordGraphFacade create() {
+    try {
+      return Class.forName("DefaultWordGraphFacade").asSubclass(WordGraphFacade.class)
+          .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("DefaultWordGraphFacade is not on the classpath", e);
+    }
+  }
+
+  /**
+   * 返回合成语料中排名为rank的单词.
+   */
+  String word(int rank);
+
+  /**
+   * 以默认Zipf指数生成语料文本.
+   *
+   * @param seed 随机种子
+   * @param vocabularySize 词表大小
+   * @param tokens 单词数
+   */
+  String generate(long seed, int vocabularySize, int tokens);
+
+  /**
+   * 以默认Zipf指数生成语料并写入文件.
+   *
+   * @param file 目标文件
+   * @param seed 随机种子
+   * @param vocabularySize 词表大小
+   * @param tokens 单词数
+   */
+  void writeCorpus(Path file, long seed, int vocabularySize, int tokens) throws IOException;
+
+  /**
+   * 创建一个空的词图.
+   */
+  Graph newGraph();
+
+  /**
+   * 用默认的{@code UnicodeTokenizer}切分文本.
+   */
+  void tokenize(CharSequence text, Consumer<String> sink);
+
+  /**
+   * 用原来的正则表达式方式切分文本：非英文字母替换为空格，转为小写后按空白切分.
+   */
+  void tokenizeWithRegex(String text, Consumer<String> sink);
+
+  /**
+   * 一个词图对象上的操作，与{@code WordGraph}的同名方法相同.
+   */
+  interface Graph {
+
+    void processTextFile(String filePath) throws IOException;
+
+    void processText(String content);
+
+    /**
+     * 重新建图，返回有出边的单词数.
+     */
+    int buildDirectedWeightedGraph();
+
+    String showBridgeWords(String word1, String word2);
+
+    String generateNewText(String inputText);
+
+    String calcShortestPath(String word1, String word2);
+
+    /**
+     * 把到所有可达单词的最短路径逐条交给consumer.
+     *
+     * @return 起点不在图中等错误的提示信息，成功时返回null
+     */
+    String streamShortestPaths(String word1, PathConsumer consumer) throws IOException;
+
+    Double calPageRank(String word);
+
+    String randomWalk();
+
+    /**
+     * 在词表中按字符串键查找单词的编号，不存在时返回-1.
+     */
+    int vocabularyId(String word);
+
+    /**
+     * 在单词字典中按字符区间查找单词的编号，不区分大小写，不存在时返回-1.
+     */
+    int dictionaryId(CharSequence text, int start, int end);
+
+    /**
+     * 在单词字典中按UTF-8字节切片查找单词的编号，不区分大小写，不存在时返回-1.
+     */
+    int dictionaryId(byte[] utf8, int offset, int length);
+  }
+
+  /**
+   * 接收最短路径流中的各项结果，通常转交给JMH的{@code Blackhole}.
+   */
+  interface PathConsumer {
+
+    void consume(String value);
+
+    void consume(int value);
+  }
+}
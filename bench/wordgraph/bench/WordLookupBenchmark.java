@@ -0,0 +1,148 @@
+package wordgraph.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 查询文本的切分和单词查找的JMH基准测试，比较{@code toLowerCase().split}加字符串键查找
+ * 与{@code WordDictionary}直接查找.
+ *
+ * <p>词图通过{@link WordGraphFacade}访问。通过{@link #main(String[])}运行时启用
+ * {@link GCProfiler}，用{@code bench/run-benchmarks.sh}运行时加上{@code -prof gc}，
+ * 结果中的{@code gc.alloc.rate.norm}为每次操作分配的字节数：</p>
+ * <pre>
+ * bench/run-benchmarks.sh WordLookupBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+@State(Scope.Benchmark)
+public class WordLookupBenchmark {
+
+  @Param({"100000"})
+  public int tokens;
+
+  @Param({"50000"})
+  public int vocabularySize;
+
+  @Param({"42"})
+  public long seed;
+
+  private WordGraphFacade.Graph loaded;
+  private String query;
+  private byte[] queryBytes;
+  private String bridgeWord1;
+  private String bridgeWord2;
+
+  /**
+   * 建图，并生成首字母大写的查询文本，使小写转换必须创建新字符串.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    WordGraphFacade facade = WordGraphFacade.create();
+    loaded = facade.newGraph();
+    loaded.processText(facade.generate(seed, vocabularySize, tokens));
+
+    StringBuilder text = new StringBuilder();
+    for (String word : facade.generate(seed + 1, 200, 30).split(" ")) {
+      text.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length())
+          .append(' ');
+    }
+    query = text.toString().trim();
+    queryBytes = query.getBytes(StandardCharsets.UTF_8);
+    bridgeWord1 = facade.word(1).toUpperCase();
+    bridgeWord2 = facade.word(2).toUpperCase();
+  }
+
+  /**
+   * 原来的方式：整段转为小写，按正则切分，再以字符串为键查找.
+   */
+  @Benchmark
+  public void splitAndLookup(Blackhole blackhole) {
+    for (String word : query.toLowerCase().split("\\s+")) {
+      blackhole.consume(loaded.vocabularyId(word));
+    }
+  }
+
+  /**
+   * 扫描空白得到单词区间，直接在字典中查找.
+   */
+  @Benchmark
+  public void dictionaryLookup(Blackhole blackhole) {
+    int length = query.length();
+    int start = 0;
+    while (start < length) {
+      int end = query.indexOf(' ', start);
+      if (end < 0) {
+        end = length;
+      }
+      blackhole.consume(loaded.dictionaryId(query, start, end));
+      start = end + 1;
+    }
+  }
+
+  /**
+   * 直接在UTF-8字节切片上查找，例如从网络或文件缓冲区中读出的查询.
+   */
+  @Benchmark
+  public void utf8Lookup(Blackhole blackhole) {
+    int start = 0;
+    for (int i = 0; i <= queryBytes.length; i++) {
+      if (i == queryBytes.length || queryBytes[i] == ' ') {
+        blackhole.consume(loaded.dictionaryId(queryBytes, start, i - start));
+        start = i + 1;
+      }
+    }
+  }
+
+  @Benchmark
+  public String showBridgeWords() {
+    return loaded.showBridgeWords(bridgeWord1, bridgeWord2);
+  }
+
+  /**
+   * 完整的生成新文本查询，切分和查找不分配内存，分配的只有输出和桥接词候选.
+   */
+  @Benchmark
+  public String generateNewText() {
+    return loaded.generateNewText(query);
+  }
+
+  /**
+   * 启用GC分析器运行全部基准，并将结果以JSON格式写入文件.
+   *
+   * @param args 第一个参数为结果文件路径(默认jmh-lookup-result.json)
+   */
+  public static void main(String[] args) throws RunnerException {
+    String resultFile = args.length > 0 ? args[0] : "jmh-lookup-result.json";
+    Options options = new OptionsBuilder()
+        .include(WordLookupBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.JSON)
+        .result(resultFile)
+        .build();
+    new Runner(options).run();
+  }
+}
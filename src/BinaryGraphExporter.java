@@ -0,0 +1,128 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 以紧凑的二进制边表导出.
+ *
+ * <p>格式(整数除魔数外均为变长编码)：魔数"WGB1"、单词数、每个单词的UTF-8字节数和内容、
+ * 源单词数，随后每个源单词依次为单词编号、出度和各条边的(目标编号, 权重)。
+ * 单词编号按写出顺序从0分配，大多数编号和权重只占1到3字节。
+ * 写出时需要单词到编号的映射，内存与单词数成正比，与边数无关。</p>
+ */
+public class BinaryGraphExporter implements GraphExporter {
+
+  static final int MAGIC = 0x57474231;  // "WGB1"
+
+  @Override
+  public String getName() {
+    return "Binary edge list";
+  }
+
+  @Override
+  public String getExtension() {
+    return "wgb";
+  }
+
+  @Override
+  public void export(Map<String, Map<String, Integer>> graph, ChannelOutput out)
+      throws IOException {
+    // 有出边的单词在前，只作为目标的单词在后
+    Map<String, Integer> ids = new HashMap<>(graph.size() * 4 / 3 + 1);
+    for (String node : graph.keySet()) {
+      ids.put(node, ids.size());
+    }
+    int sourceCount = ids.size();
+    for (Map<String, Integer> edges : graph.values()) {
+      for (String target : edges.keySet()) {
+        ids.putIfAbsent(target, ids.size());
+      }
+    }
+    String[] words = new String[ids.size()];
+    for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+      words[entry.getValue()] = entry.getKey();
+    }
+
+    out.writeInt(MAGIC).writeVarInt(words.length);
+    for (String word : words) {
+      out.writeString(word);
+    }
+    out.writeVarInt(sourceCount);
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      out.writeVarInt(ids.get(entry.getKey())).writeVarInt(entry.getValue().size());
+      for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+        out.writeVarInt(ids.get(edge.getKey())).writeVarInt(edge.getValue());
+      }
+    }
+  }
+
+  /**
+   * 读取二进制边表文件，按扩展名自动解压.
+   *
+   * @param file 文件
+   * @return 邻接表
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  public static Map<String, Map<String, Integer>> read(Path file) throws IOException {
+    CompressionCodec codec = CompressionCodecs.forPath(file);
+    try (InputStream raw = Files.newInputStream(file);
+         InputStream in = codec == null ? raw : codec.decompress(raw)) {
+      return read(in);
+    }
+  }
+
+  /**
+   * 从流中读取二进制边表.
+   *
+   * @param stream 输入流，不会被关闭
+   * @return 邻接表
+   */
+  public static Map<String, Map<String, Integer>> read(InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a binary edge list");
+    }
+    String[] words = new String[readVarInt(in)];
+    for (int i = 0; i < words.length; i++) {
+      byte[] bytes = new byte[readVarInt(in)];
+      in.readFully(bytes);
+      words[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    int sources = readVarInt(in);
+    Map<String, Map<String, Integer>> graph = new HashMap<>(sources * 4 / 3 + 1);
+    for (int i = 0; i < sources; i++) {
+      String source = words[readVarInt(in)];
+      int degree = readVarInt(in);
+      Map<String, Integer> edges = new HashMap<>(degree * 4 / 3 + 1);
+      for (int j = 0; j < degree; j++) {
+        String target = words[readVarInt(in)];
+        edges.put(target, readVarInt(in));
+      }
+      graph.put(source, edges);
+    }
+    return graph;
+  }
+
+  private static int readVarInt(DataInputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.read();
+      if (b < 0) {
+        throw new EOFException("Truncated varint");
+      }
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+}
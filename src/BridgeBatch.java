@@ -0,0 +1,379 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 批量查询桥接词.
+ *
+ * <p>构建时把邻接表转换为按编号保存的出边和入边数组(CSR格式)，每个单词的邻居按编号升序排列。
+ * 单词对(a, b)的桥接词就是a的出边邻居与b的入边邻居的交集，用一次归并求出，
+ * 不需要像{@link WordGraph#showBridgeWords(String, String)}那样为每次查询创建集合和拼接字符串。</p>
+ *
+ * <p>{@link #run(BufferedReader, ChannelOutput)}按块读入单词对，块内分成若干段并行求值，
+ * 每段把结果写入自己可复用的缓冲区，再按输入顺序写出；内存占用只与块大小有关。
+ * 构建完成后本类是只读的，可以被多个线程同时使用，图被修改后需重新构建。</p>
+ */
+public final class BridgeBatch {
+
+  // 每次读入的单词对数和并行求值时每段的单词对数
+  private static final int CHUNK_PAIRS = 1 << 16;
+  private static final int BLOCK_PAIRS = 1024;
+
+  /**
+   * 单词对的查询结果状态，与showBridgeWords的err1、err2、err3对应.
+   */
+  public enum Status {
+    /** 存在桥接词. */
+    FOUND,
+    /** 词1不在文本中(err1). */
+    MISSING_WORD1,
+    /** 词2不在文本中(err2). */
+    MISSING_WORD2,
+    /** 两个词都存在但没有桥接词(err3). */
+    NO_BRIDGE
+  }
+
+  /**
+   * 一个单词对的查询结果.
+   */
+  public static final class Result {
+    private final String word1;
+    private final String word2;
+    private final Status status;
+    private final List<String> bridges;
+
+    Result(String word1, String word2, Status status, List<String> bridges) {
+      this.word1 = word1;
+      this.word2 = word2;
+      this.status = status;
+      this.bridges = bridges;
+    }
+
+    public String getWord1() {
+      return word1;
+    }
+
+    public String getWord2() {
+      return word2;
+    }
+
+    public Status getStatus() {
+      return status;
+    }
+
+    /**
+     * 返回桥接词，按单词编号排列，没有时为空列表.
+     */
+    public List<String> getBridges() {
+      return bridges;
+    }
+  }
+
+  private final Vocabulary vocabulary;
+  // 编号到单词；图中不在词表里的单词编号接在词表之后
+  private final String[] words;
+  private final Map<String, Integer> extraIds;
+  private final int[] outOffsets;
+  private final int[] outTargets;
+  private final int[] inOffsets;
+  private final int[] inSources;
+
+  /**
+   * 为图建立查询索引.
+   *
+   * @param graph 邻接表
+   * @param vocabulary 文本中出现的单词，用于判断单词是否存在
+   */
+  public BridgeBatch(Map<String, Map<String, Integer>> graph, Vocabulary vocabulary) {
+    this.vocabulary = vocabulary;
+    extraIds = new HashMap<>();
+    List<String> extraWords = new ArrayList<>();
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      addExtra(entry.getKey(), extraWords);
+      for (String target : entry.getValue().keySet()) {
+        addExtra(target, extraWords);
+      }
+    }
+    int n = vocabulary.size() + extraWords.size();
+    words = new String[n];
+    for (int id = 0; id < vocabulary.size(); id++) {
+      words[id] = vocabulary.word(id);
+    }
+    for (int i = 0; i < extraWords.size(); i++) {
+      words[vocabulary.size() + i] = extraWords.get(i);
+    }
+
+    // 先统计出度和入度，再按前缀和填入
+    outOffsets = new int[n + 1];
+    inOffsets = new int[n + 1];
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      outOffsets[idOf(entry.getKey()) + 1] += entry.getValue().size();
+      for (String target : entry.getValue().keySet()) {
+        inOffsets[idOf(target) + 1]++;
+      }
+    }
+    for (int id = 0; id < n; id++) {
+      outOffsets[id + 1] += outOffsets[id];
+      inOffsets[id + 1] += inOffsets[id];
+    }
+    outTargets = new int[outOffsets[n]];
+    inSources = new int[inOffsets[n]];
+    int[] inPositions = Arrays.copyOf(inOffsets, n);
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      int source = idOf(entry.getKey());
+      int position = outOffsets[source];
+      for (String target : entry.getValue().keySet()) {
+        int targetId = idOf(target);
+        outTargets[position++] = targetId;
+        inSources[inPositions[targetId]++] = source;
+      }
+    }
+    IntStream.range(0, n).parallel().forEach(id -> {
+      Arrays.sort(outTargets, outOffsets[id], outOffsets[id + 1]);
+      Arrays.sort(inSources, inOffsets[id], inOffsets[id + 1]);
+    });
+  }
+
+  private void addExtra(String word, List<String> extraWords) {
+    if (!vocabulary.contains(word) && !extraIds.containsKey(word)) {
+      extraIds.put(word, vocabulary.size() + extraWords.size());
+      extraWords.add(word);
+    }
+  }
+
+  private int idOf(String word) {
+    int id = vocabulary.idOf(word);
+    if (id >= 0) {
+      return id;
+    }
+    Integer extra = extraIds.get(word);
+    return extra == null ? -1 : extra;
+  }
+
+  /**
+   * 每段单词对的可复用结果缓冲区.
+   */
+  private static final class Block {
+    private final Status[] statuses = new Status[BLOCK_PAIRS];
+    // 第k个单词对的桥接词编号为bridges[offsets[k], offsets[k + 1])
+    private final int[] offsets = new int[BLOCK_PAIRS + 1];
+    private int[] bridges = new int[BLOCK_PAIRS];
+    private int size;
+
+    void add(Status status, int[] source, int from, int count) {
+      statuses[size] = status;
+      int start = offsets[size];
+      if (start + count > bridges.length) {
+        bridges = Arrays.copyOf(bridges, Math.max(bridges.length * 2, start + count));
+      }
+      System.arraycopy(source, from, bridges, start, count);
+      offsets[++size] = start + count;
+    }
+  }
+
+  /**
+   * 求单词对的桥接词，写入bridges[0, 返回值)，不存在时返回负数.
+   *
+   * @return 桥接词个数；词1不存在返回-1，词2不存在返回-2
+   */
+  private int evaluate(String word1, String word2, int[] bridges) {
+    // 小写转换在单词已是小写时返回原字符串，不分配内存
+    word1 = word1.toLowerCase();
+    word2 = word2.toLowerCase();
+    if (!vocabulary.contains(word1)) {
+      return -1;
+    }
+    if (!vocabulary.contains(word2)) {
+      return -2;
+    }
+    int a = idOf(word1);
+    int b = idOf(word2);
+    int i = outOffsets[a];
+    int iEnd = outOffsets[a + 1];
+    int j = inOffsets[b];
+    int jEnd = inOffsets[b + 1];
+    int count = 0;
+    while (i < iEnd && j < jEnd) {
+      int x = outTargets[i];
+      int y = inSources[j];
+      if (x < y) {
+        i++;
+      } else if (x > y) {
+        j++;
+      } else {
+        bridges[count++] = x;
+        i++;
+        j++;
+      }
+    }
+    return count;
+  }
+
+  private static Status statusOf(int count) {
+    if (count == -1) {
+      return Status.MISSING_WORD1;
+    }
+    if (count == -2) {
+      return Status.MISSING_WORD2;
+    }
+    return count == 0 ? Status.NO_BRIDGE : Status.FOUND;
+  }
+
+  /**
+   * 求一个单词对的结构化结果.
+   *
+   * @param word1 词语1
+   * @param word2 词语2
+   * @return 查询结果
+   */
+  public Result query(String word1, String word2) {
+    int[] bridges = new int[maxBridges(word1)];
+    int count = evaluate(word1, word2, bridges);
+    if (count <= 0) {
+      return new Result(word1, word2, statusOf(count), Collections.emptyList());
+    }
+    String[] found = new String[count];
+    for (int k = 0; k < count; k++) {
+      found[k] = words[bridges[k]];
+    }
+    return new Result(word1, word2, Status.FOUND, Arrays.asList(found));
+  }
+
+  /**
+   * 对单词对流逐个求值，并行与否由输入流决定.
+   *
+   * @param pairs 单词对，每个数组前两个元素为词语1和词语2
+   * @return 与输入顺序相同的结果流
+   */
+  public Stream<Result> query(Stream<String[]> pairs) {
+    return pairs.map(pair -> query(pair[0], pair[1]));
+  }
+
+  private int maxBridges(String word1) {
+    int a = idOf(word1.toLowerCase());
+    return a < 0 ? 0 : outOffsets[a + 1] - outOffsets[a];
+  }
+
+  /**
+   * 读入单词对并行求值，按输入顺序写出结果.
+   *
+   * <p>输入每行一个单词对，两个单词以空白分隔，空行被跳过。
+   * 输出每行为"词语1\t词语2\t状态\t桥接词1,桥接词2,..."，状态为{@link Status}的名称。</p>
+   *
+   * @param pairs 单词对输入
+   * @param out 结果输出
+   * @return 处理的单词对数
+   * @throws IOException 读写失败或某行不是两个单词
+   */
+  public long run(BufferedReader pairs, ChannelOutput out) throws IOException {
+    String[] first = new String[CHUNK_PAIRS];
+    String[] second = new String[CHUNK_PAIRS];
+    int blockCount = (CHUNK_PAIRS + BLOCK_PAIRS - 1) / BLOCK_PAIRS;
+    Block[] blocks = new Block[blockCount];
+    int maxDegree = 0;
+    for (int id = 0; id < words.length; id++) {
+      maxDegree = Math.max(maxDegree, outOffsets[id + 1] - outOffsets[id]);
+    }
+    int scratchSize = maxDegree;
+    // 每个线程复用一个足以容纳最大出度的临时数组
+    ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[scratchSize]);
+    for (int b = 0; b < blockCount; b++) {
+      blocks[b] = new Block();
+    }
+
+    long total = 0;
+    long lineNumber = 0;
+    String line;
+    int size = 0;
+    boolean more = true;
+    while (more) {
+      line = pairs.readLine();
+      more = line != null;
+      if (more) {
+        lineNumber++;
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+          continue;
+        }
+        int split = indexOfWhitespace(trimmed);
+        String word2 = split < 0 ? "" : trimmed.substring(split + 1).trim();
+        if (split < 0 || indexOfWhitespace(word2) >= 0) {
+          throw new IOException("Line " + lineNumber + " is not a word pair: " + line);
+        }
+        first[size] = trimmed.substring(0, split);
+        second[size] = word2;
+        size++;
+      }
+      if (size == CHUNK_PAIRS || (!more && size > 0)) {
+        int pairCount = size;
+        int used = (pairCount + BLOCK_PAIRS - 1) / BLOCK_PAIRS;
+        IntStream.range(0, used).parallel().forEach(b -> {
+          Block block = blocks[b];
+          block.size = 0;
+          int[] buffer = scratch.get();
+          for (int k = b * BLOCK_PAIRS; k < Math.min(pairCount, (b + 1) * BLOCK_PAIRS); k++) {
+            int count = evaluate(first[k], second[k], buffer);
+            block.add(statusOf(count), buffer, 0, Math.max(count, 0));
+          }
+        });
+        for (int b = 0; b < used; b++) {
+          write(blocks[b], first, second, b * BLOCK_PAIRS, out);
+        }
+        total += pairCount;
+        size = 0;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * 读入文件中的单词对并把结果写入文件，以.gz结尾的文件按gzip格式读写.
+   *
+   * @param pairs 单词对文件
+   * @param results 结果文件
+   * @return 处理的单词对数
+   */
+  public long run(Path pairs, Path results) throws IOException {
+    try (OperationMetrics.Timer timer =
+             OperationMetrics.global().start(OperationMetrics.Operation.BRIDGE);
+         BufferedReader reader = CompressionCodecs.newReader(pairs);
+         ChannelOutput out = ChannelOutput.open(results,
+             results.getFileName().toString().endsWith(".gz"))) {
+      long count = run(reader, out);
+      timer.tokens(count).vertices(words.length).edges(outTargets.length);
+      return count;
+    }
+  }
+
+  private void write(Block block, String[] first, String[] second, int start,
+                     ChannelOutput out) throws IOException {
+    for (int k = 0; k < block.size; k++) {
+      out.write(first[start + k]).writeByte('\t').write(second[start + k]).writeByte('\t')
+          .write(block.statuses[k].name()).writeByte('\t');
+      for (int e = block.offsets[k]; e < block.offsets[k + 1]; e++) {
+        if (e > block.offsets[k]) {
+          out.writeByte(',');
+        }
+        out.write(words[block.bridges[e]]);
+      }
+      out.writeByte('\n');
+    }
+  }
+
+  private static int indexOfWhitespace(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (Character.isWhitespace(text.charAt(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
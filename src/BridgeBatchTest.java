@@ -0,0 +1,122 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BridgeBatchTest {
+
+  private static String expectedLine(WordGraph graph, String word1, String word2) {
+    String single = graph.showBridgeWords(word1, word2);
+    switch (single) {
+      case "err1":
+        return word1 + "\t" + word2 + "\tMISSING_WORD1\t";
+      case "err2":
+        return word1 + "\t" + word2 + "\tMISSING_WORD2\t";
+      case "err3":
+        return word1 + "\t" + word2 + "\tNO_BRIDGE\t";
+      default:
+        return word1 + "\t" + word2 + "\tFOUND\t" + single;
+    }
+  }
+
+  private static String run(BridgeBatch batch, String input) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ChannelOutput out = new ChannelOutput(Channels.newChannel(bytes),
+        ByteBuffer.allocate(64))) {
+      batch.run(new BufferedReader(new StringReader(input)), out);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  // 测试用例1：批量结果与逐个调用showBridgeWords相同，输出顺序与输入相同
+  @Test
+  public void testMatchesSingleQueries() throws Exception {
+    WordGraph graph = new WordGraph();
+    graph.processText(new CorpusGenerator(3, 300, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(20000));
+    Random random = new Random(4);
+    StringBuilder input = new StringBuilder();
+    List<String> expected = new ArrayList<>();
+    // 超过一个读入块，覆盖分块和分段
+    for (int i = 0; i < 70000; i++) {
+      String word1 = i % 997 == 0 ? "missing" : CorpusGenerator.word(random.nextInt(320));
+      String word2 = CorpusGenerator.word(random.nextInt(320));
+      input.append(word1).append(i % 2 == 0 ? " " : "\t ").append(word2).append('\n');
+      if (i % 5000 == 0) {
+        input.append('\n');
+      }
+      expected.add(expectedLine(graph, word1, word2));
+    }
+    String[] lines = run(graph.getBridgeBatch(), input.toString()).split("\n");
+    assertEquals(expected.size(), lines.length);
+    for (int i = 0; i < lines.length; i++) {
+      String[] actual = lines[i].split("\t", -1);
+      String[] wanted = expected.get(i).split("\t", -1);
+      assertEquals(Arrays.asList(wanted).subList(0, 3), Arrays.asList(actual).subList(0, 3));
+      // 单次查询的桥接词按散列顺序排列，只比较集合
+      assertEquals(new HashSet<>(Arrays.asList(wanted[3].split(", "))),
+          new HashSet<>(Arrays.asList(actual[3].split(","))));
+    }
+  }
+
+  // 测试用例2：结构化结果和并行流查询
+  @Test
+  public void testStructuredResults() {
+    WordGraph graph = new WordGraph();
+    graph.processText("a x b a y b a c");
+    BridgeBatch batch = graph.getBridgeBatch();
+    BridgeBatch.Result result = batch.query("A", "b");
+    assertEquals(BridgeBatch.Status.FOUND, result.getStatus());
+    assertEquals(new HashSet<>(Arrays.asList("x", "y")), new HashSet<>(result.getBridges()));
+    assertEquals(BridgeBatch.Status.MISSING_WORD1, batch.query("z", "b").getStatus());
+    assertEquals(BridgeBatch.Status.MISSING_WORD2, batch.query("a", "z").getStatus());
+    assertEquals(BridgeBatch.Status.NO_BRIDGE, batch.query("c", "b").getStatus());
+    assertTrue(batch.query("c", "a").getBridges().isEmpty());
+
+    List<BridgeBatch.Status> statuses = batch.query(Arrays.asList(
+        new String[] {"a", "b"}, new String[] {"b", "x"}, new String[] {"q", "a"})
+        .parallelStream()).map(BridgeBatch.Result::getStatus).collect(Collectors.toList());
+    assertEquals(Arrays.asList(BridgeBatch.Status.FOUND, BridgeBatch.Status.FOUND,
+        BridgeBatch.Status.MISSING_WORD1), statuses);
+    assertSame(batch, graph.getBridgeBatch());
+    graph.processText("a b");
+    assertNotSame(batch, graph.getBridgeBatch());
+  }
+
+  // 测试用例3：文件输入输出，格式错误的行报告行号
+  @Test
+  public void testFilesAndMalformedInput() throws Exception {
+    WordGraph graph = new WordGraph();
+    graph.processText("a x b");
+    Path pairs = Files.createTempFile("pairs", ".txt");
+    Path results = Files.createTempFile("bridges", ".tsv");
+    try {
+      Files.write(pairs, "a b\nb a\n".getBytes(StandardCharsets.UTF_8));
+      assertEquals(2, graph.getBridgeBatch().run(pairs, results));
+      assertEquals(Arrays.asList("a\tb\tFOUND\tx", "b\ta\tNO_BRIDGE\t"),
+          Files.readAllLines(results, StandardCharsets.UTF_8));
+      try {
+        run(graph.getBridgeBatch(), "a b\n\na b c\n");
+        fail("expected IOException");
+      } catch (IOException e) {
+        assertTrue(e.getMessage().contains("Line 3"));
+      }
+    } finally {
+      Files.deleteIfExists(pairs);
+      Files.deleteIfExists(results);
+    }
+  }
+}
@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 词图上的介数中心性和接近中心性.
+ *
+ * <p>介数中心性使用Brandes算法：对每个源单词运行{@link ShortestPaths#dijkstra}，
+ * 按距离顺序统计最短路径条数σ，再按距离倒序累加依赖值δ。
+ * 因此与{@link WordGraph#calcShortestPath(String, String)}使用同一套最短路径定义，
+ * 边的长度为权重，等长的多条最短路径平均分摊。</p>
+ *
+ * <p>接近中心性在同一遍计算中得到：设从v可达r个单词(含v)、距离之和为S、图中共n个单词，
+ * 则值为((r-1)/(n-1))·((r-1)/S)(Wasserman-Faust定义)，适用于不连通的有向图。</p>
+ *
+ * <p>各源单词并行处理，每个线程累加到自己的数组中，最后合并。
+ * 指定源单词预算k小于单词数n时只随机抽取k个源单词，介数按n/k放大作为无偏估计，
+ * 接近中心性只对抽中的源单词给出精确值。</p>
+ */
+public final class Centrality {
+
+  private Centrality() {
+  }
+
+  /**
+   * 中心性计算结果.
+   */
+  public static final class Result {
+    private final Map<String, Double> betweenness;
+    private final Map<String, Double> closeness;
+    private final int sourceCount;
+    private final int vertexCount;
+
+    Result(Map<String, Double> betweenness, Map<String, Double> closeness,
+           int sourceCount, int vertexCount) {
+      this.betweenness = betweenness;
+      this.closeness = closeness;
+      this.sourceCount = sourceCount;
+      this.vertexCount = vertexCount;
+    }
+
+    /**
+     * 返回每个单词的介数中心性(有序单词对计数，未归一化).
+     */
+    public Map<String, Double> getBetweenness() {
+      return betweenness;
+    }
+
+    /**
+     * 返回接近中心性，近似模式下只包含被抽中的源单词.
+     */
+    public Map<String, Double> getCloseness() {
+      return closeness;
+    }
+
+    /**
+     * 返回实际处理的源单词数.
+     */
+    public int getSourceCount() {
+      return sourceCount;
+    }
+
+    public int getVertexCount() {
+      return vertexCount;
+    }
+
+    /**
+     * 是否为抽样得到的近似结果.
+     */
+    public boolean isApproximate() {
+      return sourceCount < vertexCount;
+    }
+  }
+
+  /**
+   * 每个线程的累加器和可复用的临时数组.
+   */
+  private static final class Accumulator {
+    private final double[] betweenness;
+    private final double[] closeness;
+    private final double[] sigma;
+    private final double[] delta;
+
+    Accumulator(int n) {
+      betweenness = new double[n];
+      closeness = new double[n];
+      Arrays.fill(closeness, Double.NaN);
+      sigma = new double[n];
+      delta = new double[n];
+    }
+
+    Accumulator merge(Accumulator other) {
+      for (int i = 0; i < betweenness.length; i++) {
+        betweenness[i] += other.betweenness[i];
+        if (!Double.isNaN(other.closeness[i])) {
+          closeness[i] = other.closeness[i];
+        }
+      }
+      return this;
+    }
+  }
+
+  /**
+   * 精确计算所有单词的介数和接近中心性.
+   *
+   * @param graph 邻接表
+   * @return 计算结果
+   */
+  public static Result compute(Map<String, Map<String, Integer>> graph) {
+    return compute(graph, Integer.MAX_VALUE, new Random(0));
+  }
+
+  /**
+   * 计算介数和接近中心性，单词数超过预算时随机抽取源单词.
+   *
+   * @param graph 邻接表
+   * @param sourceBudget 最多处理的源单词数
+   * @param random 抽样使用的随机数生成器
+   * @return 计算结果
+   */
+  public static Result compute(Map<String, Map<String, Integer>> graph, int sourceBudget,
+                               Random random) {
+    if (sourceBudget <= 0) {
+      throw new IllegalArgumentException("sourceBudget must be positive: " + sourceBudget);
+    }
+    Set<String> allNodes = new HashSet<>(graph.keySet());
+    for (Map<String, Integer> edges : graph.values()) {
+      allNodes.addAll(edges.keySet());
+    }
+    // 排序后抽样，相同的随机种子得到相同的源单词
+    List<String> nodes = new ArrayList<>(allNodes);
+    Collections.sort(nodes);
+    int n = nodes.size();
+    Map<String, Integer> index = new HashMap<>(n * 4 / 3 + 1);
+    for (int i = 0; i < n; i++) {
+      index.put(nodes.get(i), i);
+    }
+
+    List<String> sources = nodes;
+    if (sourceBudget < n) {
+      sources = new ArrayList<>(nodes);
+      Collections.shuffle(sources, random);
+      sources = sources.subList(0, sourceBudget);
+    }
+
+    Accumulator total = sources.parallelStream()
+        .collect(() -> new Accumulator(n),
+            (accumulator, source) -> accumulate(graph, allNodes, index, source, accumulator),
+            Accumulator::merge);
+
+    double scale = sources.size() < n ? (double) n / sources.size() : 1.0;
+    Map<String, Double> betweenness = new HashMap<>(n * 4 / 3 + 1);
+    Map<String, Double> closeness = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      betweenness.put(nodes.get(i), total.betweenness[i] * scale);
+      if (!Double.isNaN(total.closeness[i])) {
+        closeness.put(nodes.get(i), total.closeness[i]);
+      }
+    }
+    return new Result(betweenness, closeness, sources.size(), n);
+  }
+
+  private static void accumulate(Map<String, Map<String, Integer>> graph, Set<String> allNodes,
+                                 Map<String, Integer> index, String source,
+                                 Accumulator accumulator) {
+    ShortestPaths.Result paths = ShortestPaths.dijkstra(graph, allNodes, source, null);
+    Map<String, Integer> distances = paths.getDistances();
+    Map<String, List<String>> predecessors = paths.getPredecessors();
+
+    // 边权重至少为1，按距离排序即为最短路径DAG的拓扑序
+    List<String> order = new ArrayList<>();
+    long distanceSum = 0;
+    for (Map.Entry<String, Integer> entry : distances.entrySet()) {
+      if (entry.getValue() != Integer.MAX_VALUE) {
+        order.add(entry.getKey());
+        distanceSum += entry.getValue();
+      }
+    }
+    order.sort(Comparator.comparingInt(distances::get));
+
+    double[] sigma = accumulator.sigma;
+    double[] delta = accumulator.delta;
+    for (String node : order) {
+      int v = index.get(node);
+      delta[v] = 0;
+      if (node.equals(source)) {
+        sigma[v] = 1;
+        continue;
+      }
+      double count = 0;
+      for (String predecessor : predecessors.get(node)) {
+        count += sigma[index.get(predecessor)];
+      }
+      sigma[v] = count;
+    }
+    for (int i = order.size() - 1; i >= 0; i--) {
+      String node = order.get(i);
+      int w = index.get(node);
+      double share = (1 + delta[w]) / sigma[w];
+      for (String predecessor : predecessors.get(node)) {
+        int p = index.get(predecessor);
+        delta[p] += sigma[p] * share;
+      }
+      if (!node.equals(source)) {
+        accumulator.betweenness[w] += delta[w];
+      }
+    }
+
+    int n = index.size();
+    int reachable = order.size();
+    accumulator.closeness[index.get(source)] = reachable > 1
+        ? ((reachable - 1) / (double) (n - 1)) * ((reachable - 1) / (double) distanceSum)
+        : 0.0;
+  }
+}
@@ -0,0 +1,74 @@
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CentralityTest {
+
+  // 测试用例1：介数与逐条枚举最短路径的结果一致
+  @Test
+  public void testBetweennessMatchesPathEnumeration() throws Exception {
+    WordGraph wordGraph = new WordGraph();
+    wordGraph.processText(new CorpusGenerator(5, 60, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(400));
+    Map<String, Map<String, Integer>> graph = wordGraph.getGraph();
+    Set<String> nodes = new HashSet<>(graph.keySet());
+    for (Map<String, Integer> edges : graph.values()) {
+      nodes.addAll(edges.keySet());
+    }
+
+    Map<String, Double> expected = new HashMap<>();
+    for (String node : nodes) {
+      expected.put(node, 0.0);
+    }
+    for (String source : nodes) {
+      ShortestPaths.Result paths = ShortestPaths.dijkstra(graph, nodes, source, null);
+      for (String target : nodes) {
+        if (target.equals(source) || paths.getDistances().get(target) == Integer.MAX_VALUE) {
+          continue;
+        }
+        Map<String, Integer> passes = new HashMap<>();
+        int total = ShortestPaths.forEachPath(paths.getPredecessors(), source, target,
+            (index, path) -> {
+              for (String inner : path.subList(1, path.size() - 1)) {
+                passes.merge(inner, 1, Integer::sum);
+              }
+              return true;
+            });
+        for (Map.Entry<String, Integer> entry : passes.entrySet()) {
+          expected.merge(entry.getKey(), entry.getValue() / (double) total, Double::sum);
+        }
+      }
+    }
+
+    Centrality.Result result = Centrality.compute(graph);
+    assertFalse(result.isApproximate());
+    assertEquals(nodes.size(), result.getCloseness().size());
+    for (String node : nodes) {
+      assertEquals(node, expected.get(node), result.getBetweenness().get(node), 1e-9);
+    }
+  }
+
+  // 测试用例2：链上的中间单词介数最大，接近中心性按可达单词计算
+  @Test
+  public void testChainAndSampling() {
+    WordGraph wordGraph = new WordGraph();
+    wordGraph.processText("a b c d");
+    Centrality.Result result = Centrality.compute(wordGraph.getGraph());
+    assertEquals(2.0, result.getBetweenness().get("b"), 1e-9);
+    assertEquals(2.0, result.getBetweenness().get("c"), 1e-9);
+    assertEquals(0.0, result.getBetweenness().get("a"), 1e-9);
+    // a可达3个单词，距离之和为6
+    assertEquals(0.5, result.getCloseness().get("a"), 1e-9);
+    assertEquals(0.0, result.getCloseness().get("d"), 1e-9);
+
+    Centrality.Result sampled = Centrality.compute(wordGraph.getGraph(), 2, new Random(1));
+    assertTrue(sampled.isApproximate());
+    assertEquals(2, sampled.getSourceCount());
+    assertEquals(2, sampled.getCloseness().size());
+    assertEquals(4, sampled.getBetweenness().size());
+  }
+}
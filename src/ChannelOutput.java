@@ -0,0 +1,228 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 通过一个可复用的字节缓冲区向通道顺序写出数据.
+ *
+ * <p>文本直接按UTF-8编码进缓冲区，整数按十进制或变长编码写入，都不创建中间字符串；
+ * 缓冲区写满时一次性写入通道。因此无论写出多少数据，内存占用只有缓冲区本身。
+ * 写入文件时使用{@link FileChannel}，可选地经过gzip压缩。本类不是线程安全的。</p>
+ */
+public final class ChannelOutput implements Closeable {
+
+  /** 默认缓冲区大小. */
+  public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+  private long bytesWritten = 0;
+
+  /**
+   * 包装任意通道.
+   *
+   * @param channel 目标通道，关闭本对象时一并关闭
+   * @param buffer 写缓冲区，至少8字节
+   */
+  public ChannelOutput(WritableByteChannel channel, ByteBuffer buffer) {
+    if (buffer.capacity() < 8) {
+      throw new IllegalArgumentException("buffer too small: " + buffer.capacity());
+    }
+    this.channel = channel;
+    this.buffer = buffer;
+    buffer.clear();
+  }
+
+  /**
+   * 创建或覆盖文件并打开输出.
+   *
+   * <p>不压缩时直接写入{@link FileChannel}，使用直接缓冲区避免额外复制；
+   * 压缩时经过{@link GZIPOutputStream}，使用堆缓冲区。</p>
+   *
+   * @param file 目标文件
+   * @param gzip 是否以gzip压缩
+   * @return 输出
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_OUT")
+  public static ChannelOutput open(Path file, boolean gzip) throws IOException {
+    FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    if (!gzip) {
+      return new ChannelOutput(fileChannel, ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE));
+    }
+    try {
+      WritableByteChannel compressed = Channels.newChannel(
+          new GZIPOutputStream(Channels.newOutputStream(fileChannel), 64 * 1024));
+      return new ChannelOutput(compressed, ByteBuffer.allocate(DEFAULT_BUFFER_SIZE));
+    } catch (IOException e) {
+      fileChannel.close();
+      throw e;
+    }
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      bytesWritten += channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * 写出一个字节.
+   */
+  public ChannelOutput writeByte(int value) throws IOException {
+    ensure(1);
+    buffer.put((byte) value);
+    return this;
+  }
+
+  /**
+   * 按大端序写出4字节整数.
+   */
+  public ChannelOutput writeInt(int value) throws IOException {
+    ensure(4);
+    buffer.putInt(value);
+    return this;
+  }
+
+  /**
+   * 以变长编码写出非负整数，每字节7位，小于128的值只占1字节.
+   */
+  public ChannelOutput writeVarInt(int value) throws IOException {
+    if (value < 0) {
+      throw new IllegalArgumentException("negative varint: " + value);
+    }
+    ensure(5);
+    int remaining = value;
+    while (remaining >= 0x80) {
+      buffer.put((byte) (remaining | 0x80));
+      remaining >>>= 7;
+    }
+    buffer.put((byte) remaining);
+    return this;
+  }
+
+  /**
+   * 以十进制文本写出整数.
+   */
+  public ChannelOutput writeDecimal(long value) throws IOException {
+    ensure(20);
+    if (value == Long.MIN_VALUE) {
+      return write("-9223372036854775808");
+    }
+    long remaining = value;
+    if (remaining < 0) {
+      buffer.put((byte) '-');
+      remaining = -remaining;
+    }
+    int start = buffer.position();
+    do {
+      buffer.put((byte) ('0' + remaining % 10));
+      remaining /= 10;
+    } while (remaining > 0);
+    // 数字是倒序写入的，原地翻转
+    for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+      byte swap = buffer.get(i);
+      buffer.put(i, buffer.get(j));
+      buffer.put(j, swap);
+    }
+    return this;
+  }
+
+  /**
+   * 以UTF-8写出文本，不成对的代理字符写为'?'.
+   */
+  public ChannelOutput write(CharSequence text) throws IOException {
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        ensure(1);
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        ensure(2);
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(text.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, text.charAt(++i));
+          ensure(4);
+          buffer.put((byte) (0xF0 | (codePoint >> 18)));
+          buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+          buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+          buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+          ensure(1);
+          buffer.put((byte) '?');
+        }
+      } else {
+        ensure(3);
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+    return this;
+  }
+
+  /**
+   * 写出文本的UTF-8字节数和字节内容(字节数为变长编码).
+   */
+  public ChannelOutput writeString(String text) throws IOException {
+    int bytes = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        bytes += 1;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else {
+        bytes += Character.isSurrogate(c) ? 1 : 3;
+      }
+    }
+    writeVarInt(bytes);
+    return write(text);
+  }
+
+  /**
+   * 返回已写入通道的字节数(不含缓冲区中尚未写出的部分).
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * 把缓冲区中的数据写入通道.
+   */
+  public void flush() throws IOException {
+    flushBuffer();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flushBuffer();
+    } finally {
+      channel.close();
+    }
+  }
+}
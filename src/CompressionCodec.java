@@ -0,0 +1,30 @@
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 压缩文本文件的解码器.
+ *
+ * <p>内置{@link GzipCodec}；其他格式(如zstd)可以实现本接口，
+ * 并在{@code META-INF/services/CompressionCodec}中登记，
+ * 由{@link CompressionCodecs}通过{@link java.util.ServiceLoader}自动发现。</p>
+ */
+public interface CompressionCodec {
+
+  /**
+   * 返回编码名称，例如"gzip".
+   */
+  String getName();
+
+  /**
+   * 返回该编码对应的文件扩展名(不含点，小写)，例如"gz".
+   */
+  String getExtension();
+
+  /**
+   * 将压缩字节流包装为解压后的字节流.
+   *
+   * @param compressed 压缩数据，返回的流关闭时一并关闭
+   * @return 解压后的数据
+   */
+  InputStream decompress(InputStream compressed) throws IOException;
+}
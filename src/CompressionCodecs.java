@@ -0,0 +1,121 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * 按文件扩展名选择解码器，并以流式方式打开可能被压缩的文本文件.
+ *
+ * <p>内置gzip，其余解码器通过{@link ServiceLoader}发现，
+ * 例如把实现了{@link CompressionCodec}的zstd插件放到类路径上即可读取.zst文件。
+ * 压缩文件的解压在独立线程中进行，经{@link ReadAheadInputStream}的有界缓冲区交给分词器。</p>
+ */
+public final class CompressionCodecs {
+
+  private static final Map<String, CompressionCodec> BY_EXTENSION = load();
+
+  private CompressionCodecs() {
+  }
+
+  private static Map<String, CompressionCodec> load() {
+    Map<String, CompressionCodec> codecs = new LinkedHashMap<>();
+    CompressionCodec gzip = new GzipCodec();
+    codecs.put(gzip.getExtension(), gzip);
+    for (CompressionCodec codec : ServiceLoader.load(CompressionCodec.class)) {
+      codecs.putIfAbsent(codec.getExtension().toLowerCase(Locale.ROOT), codec);
+    }
+    return Collections.unmodifiableMap(codecs);
+  }
+
+  /**
+   * 返回已注册的解码器，键为文件扩展名.
+   */
+  public static Map<String, CompressionCodec> getCodecs() {
+    return BY_EXTENSION;
+  }
+
+  /**
+   * 根据文件扩展名查找解码器.
+   *
+   * @param file 文件路径
+   * @return 对应的解码器，未压缩时返回null
+   */
+  public static CompressionCodec forPath(Path file) {
+    Path fileName = file.getFileName();
+    if (fileName == null) {
+      return null;
+    }
+    String name = fileName.toString();
+    int dot = name.lastIndexOf('.');
+    if (dot < 0) {
+      return null;
+    }
+    return BY_EXTENSION.get(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * 去掉压缩扩展名后的文件名，例如"a.txt.gz"返回"a.txt".
+   *
+   * @param file 文件路径
+   * @return 逻辑文件名
+   */
+  public static String logicalName(Path file) {
+    Path fileName = file.getFileName();
+    String name = fileName == null ? file.toString() : fileName.toString();
+    CompressionCodec codec = forPath(file);
+    return codec == null ? name
+        : name.substring(0, name.length() - codec.getExtension().length() - 1);
+  }
+
+  /**
+   * 以UTF-8打开文本文件，压缩文件在后台线程中边解压边读取.
+   *
+   * @param file 文件路径
+   * @return 字符流，调用方负责关闭
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  public static BufferedReader newReader(Path file) throws IOException {
+    if (forPath(file) == null) {
+      return Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    }
+    return newReader(Files.newInputStream(file), file);
+  }
+
+  /**
+   * 按文件名选择解码器，以UTF-8读取已打开的原始字节流.
+   *
+   * <p>调用方可以包装原始字节流以统计已读取的字节数，见{@link ProgressiveLoader}。
+   * 与{@link Files#newBufferedReader(Path, java.nio.charset.Charset)}相同，
+   * 遇到非法的UTF-8字节时抛出{@link java.nio.charset.CharacterCodingException}，而不是替换为U+FFFD。</p>
+   *
+   * @param raw 文件的原始字节流，关闭返回的字符流或打开失败时一并关闭
+   * @param file 决定解码器的文件路径
+   * @return 字符流，调用方负责关闭
+   */
+  public static BufferedReader newReader(InputStream raw, Path file) throws IOException {
+    CompressionCodec codec = forPath(file);
+    if (codec == null) {
+      return new BufferedReader(new InputStreamReader(raw, StandardCharsets.UTF_8.newDecoder()));
+    }
+    InputStream decompressed;
+    try {
+      decompressed = codec.decompress(raw);
+    } catch (IOException | RuntimeException e) {
+      raw.close();
+      throw e;
+    }
+    InputStream readAhead = new ReadAheadInputStream(decompressed,
+        codec.getName() + "-" + file.getFileName());
+    return new BufferedReader(
+        new InputStreamReader(readAhead, StandardCharsets.UTF_8.newDecoder()));
+  }
+}
@@ -0,0 +1,112 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CompressionCodecsTest {
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(data);
+    }
+    return bytes.toByteArray();
+  }
+
+  // 测试用例1：按扩展名选择解码器
+  @Test
+  public void testCodecLookup() {
+    assertEquals("gzip", CompressionCodecs.forPath(Path.of("corpus", "a.TXT.GZ")).getName());
+    assertNull(CompressionCodecs.forPath(Path.of("corpus", "a.txt")));
+    assertEquals("a.txt", CompressionCodecs.logicalName(Path.of("corpus", "a.txt.gz")));
+  }
+
+  // 测试用例2：gzip文件加载结果与未压缩文件相同
+  @Test
+  public void testGzipFileMatchesPlainFile() throws IOException {
+    String text = new CorpusGenerator(7, 500, CorpusGenerator.DEFAULT_EXPONENT).generate(50000);
+    byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+    Path plainFile = Files.createTempFile("corpus", ".txt");
+    Path gzipFile = Files.createTempFile("corpus", ".txt.gz");
+    try {
+      Files.write(plainFile, plain);
+      Files.write(gzipFile, gzip(plain));
+      WordGraph expected = new WordGraph();
+      expected.processTextFile(plainFile.toString());
+      WordGraph actual = new WordGraph();
+      actual.processTextFile(gzipFile.toString());
+      assertEquals(expected.getGraph(), actual.getGraph());
+      assertEquals(expected.getWordCount(), actual.getWordCount());
+    } finally {
+      Files.deleteIfExists(plainFile);
+      Files.deleteIfExists(gzipFile);
+    }
+  }
+
+  // 测试用例3：小缓冲区下预读流按顺序交付全部数据
+  @Test
+  public void testReadAheadPreservesOrder() throws IOException {
+    byte[] data = new byte[100_003];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i * 31);
+    }
+    ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    try (InputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), "test", 97,
+        2)) {
+      in.transferTo(copy);
+    }
+    assertTrue(Arrays.equals(data, copy.toByteArray()));
+  }
+
+  // 测试用例4：截断的压缩文件在读取方抛出异常
+  @Test
+  public void testTruncatedGzipFails() throws IOException {
+    byte[] compressed = gzip("hello world again".getBytes(StandardCharsets.UTF_8));
+    Path file = Files.createTempFile("truncated", ".gz");
+    try {
+      Files.write(file, Arrays.copyOf(compressed, compressed.length - 6));
+      try (BufferedReader reader = CompressionCodecs.newReader(file)) {
+        while (reader.read() != -1) {
+          // 读到损坏位置时应抛出异常
+        }
+        fail("Expected IOException");
+      } catch (IOException e) {
+        // 预期的异常
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // 测试用例5：源流抛出运行时异常时读取方收到同一异常，而不是永远阻塞
+  @Test(timeout = 10000)
+  public void testReadAheadPropagatesRuntimeException() throws IOException {
+    IllegalStateException cause = new IllegalStateException("broken source");
+    InputStream source = new InputStream() {
+      private int count = 0;
+
+      @Override
+      public int read() {
+        if (count++ == 300) {
+          throw cause;
+        }
+        return 'a';
+      }
+    };
+    try (InputStream in = new ReadAheadInputStream(source, "test", 97, 2)) {
+      in.transferTo(new ByteArrayOutputStream());
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertSame(cause, e);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 可复现的合成英文语料生成器.
+ *
+ * <p>词频服从Zipf分布：排名为r(从1开始)的单词出现概率与 1/r^s 成正比，
+ * 与自然语言的长尾分布相近。相同的种子、词表大小和指数总是生成完全相同的文本，
+ * 便于在不同版本之间对比性能测试结果。</p>
+ *
+ * <p>生成的单词只包含小写ASCII字母，并随机插入标点和换行，
+ * 因而会经过与真实文件相同的分词路径。</p>
+ */
+public class CorpusGenerator {
+
+  /** 默认Zipf指数，接近英文语料的经验值. */
+  public static final double DEFAULT_EXPONENT = 1.07;
+
+  private static final String[] PUNCTUATION = {",", ".", ";", "!", "?"};
+
+  private final long seed;
+  private final double[] cumulative;
+
+  /**
+   * 创建语料生成器.
+   *
+   * @param seed 随机种子
+   * @param vocabularySize 词表大小
+   * @param exponent Zipf指数
+   */
+  public CorpusGenerator(long seed, int vocabularySize, double exponent) {
+    if (vocabularySize <= 0) {
+      throw new IllegalArgumentException("vocabularySize must be positive: " + vocabularySize);
+    }
+    this.seed = seed;
+    this.cumulative = new double[vocabularySize];
+    double sum = 0;
+    for (int rank = 0; rank < vocabularySize; rank++) {
+      sum += 1.0 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = sum;
+    }
+    for (int rank = 0; rank < vocabularySize; rank++) {
+      cumulative[rank] /= sum;
+    }
+  }
+
+  /**
+   * 返回指定排名(从0开始)对应的单词.
+   *
+   * <p>排名按26进制编码为字母序列，并保证长度至少为2，例如0对应"aa"。</p>
+   *
+   * @param rank 单词排名
+   * @return 单词
+   */
+  public static String word(int rank) {
+    StringBuilder builder = new StringBuilder();
+    int value = rank;
+    do {
+      builder.append((char) ('a' + value % 26));
+      value /= 26;
+    } while (value > 0);
+    if (builder.length() < 2) {
+      builder.append('a');
+    }
+    return builder.reverse().toString();
+  }
+
+  /**
+   * 返回词表大小.
+   */
+  public int getVocabularySize() {
+    return cumulative.length;
+  }
+
+  /**
+   * 生成包含指定数量单词的文本.
+   *
+   * @param tokens 单词数
+   * @return 生成的文本
+   */
+  public String generate(int tokens) {
+    StringBuilder builder = new StringBuilder(tokens * 6);
+    Random random = new Random(seed);
+    for (int i = 0; i < tokens; i++) {
+      appendToken(builder, random, i);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * 将生成的文本写入文件.
+   *
+   * @param file 目标文件
+   * @param tokens 单词数
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_OUT")
+  public void writeTo(Path file, long tokens) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writeTo(writer, tokens);
+    }
+  }
+
+  /**
+   * 将生成的文本写入输出流，不在内存中保留整段文本.
+   *
+   * @param writer 输出目标
+   * @param tokens 单词数
+   */
+  public void writeTo(Writer writer, long tokens) throws IOException {
+    Random random = new Random(seed);
+    StringBuilder builder = new StringBuilder(256);
+    for (long i = 0; i < tokens; i++) {
+      appendToken(builder, random, i);
+      if (builder.length() > 200) {
+        writer.append(builder);
+        builder.setLength(0);
+      }
+    }
+    writer.append(builder);
+  }
+
+  private void appendToken(StringBuilder builder, Random random, long index) {
+    if (index > 0) {
+      // 约每12个词插入一个标点，每80个词换行
+      int roll = random.nextInt(80);
+      if (roll == 0) {
+        builder.append('\n');
+      } else if (roll < 7) {
+        builder.append(PUNCTUATION[roll % PUNCTUATION.length]).append(' ');
+      } else {
+        builder.append(' ');
+      }
+    }
+    builder.append(word(sampleRank(random)));
+  }
+
+  private int sampleRank(Random random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+}
@@ -0,0 +1,343 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 并行加载多个文本文件并合并为一个词图.
+ *
+ * <p>每个文件由工作线程独立分词并统计本文件内的二元组(相邻词对)次数，
+ * 主线程在文件完成后立即把部分计数合并到总图中。同时在途的文件数不超过工作线程数，
+ * 因此内存占用只取决于线程数，而与文件总数无关。</p>
+ *
+ * <p>文件按路径排序后处理。启用跨文件二元组时，前一个文件的最后一个词与
+ * 后一个文件的第一个词之间也会连一条边，相当于把所有文件按顺序拼接后加载。</p>
+ */
+public class CorpusLoader {
+
+  private final Tokenizer tokenizer;
+  private final int threads;
+  private final boolean crossFileBigrams;
+
+  /**
+   * 创建语料加载器.
+   *
+   * @param tokenizer 分词器
+   * @param threads 工作线程数
+   * @param crossFileBigrams 是否在相邻文件之间建立二元组
+   */
+  public CorpusLoader(Tokenizer tokenizer, int threads, boolean crossFileBigrams) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive: " + threads);
+    }
+    this.tokenizer = tokenizer;
+    this.threads = threads;
+    this.crossFileBigrams = crossFileBigrams;
+  }
+
+  /**
+   * 将文件、目录或glob模式解析为按路径排序的文件列表.
+   *
+   * <p>目录会递归收集其中所有.txt文件及其压缩形式(如.txt.gz)；包含{@code *}、{@code ?}、{@code [}或{@code {}
+   * 的参数视为glob模式，从第一个通配符之前的目录开始匹配，
+   * 例如{@code corpus/**}{@code /*.txt}。</p>
+   *
+   * @param spec 文件路径、目录或glob模式
+   * @return 文件列表
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  public static List<Path> resolve(String spec) throws IOException {
+    int wildcard = firstWildcard(spec);
+    if (wildcard < 0) {
+      Path path = Paths.get(spec);
+      if (!Files.isDirectory(path)) {
+        return Collections.singletonList(path);
+      }
+      return listFiles(path, CorpusLoader::isTextFile, path);
+    }
+    String normalized = spec.replace('\\', '/');
+    int slash = normalized.lastIndexOf('/', wildcard);
+    Path base = slash < 0 ? Paths.get(".") : Paths.get(normalized.substring(0, slash + 1));
+    String pattern = normalized.substring(slash + 1);
+    return listFiles(base, FileSystems.getDefault().getPathMatcher("glob:" + pattern), base);
+  }
+
+  private static boolean isTextFile(Path path) {
+    return CompressionCodecs.logicalName(path).toLowerCase(Locale.ROOT).endsWith(".txt");
+  }
+
+  private static int firstWildcard(String spec) {
+    for (int i = 0; i < spec.length(); i++) {
+      char c = spec.charAt(i);
+      if (c == '*' || c == '?' || c == '[' || c == '{') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static List<Path> listFiles(Path base, PathMatcher matcher, Path root)
+      throws IOException {
+    try (Stream<Path> stream = Files.walk(base)) {
+      return stream
+          .filter(Files::isRegularFile)
+          .filter(path -> matcher.matches(root.relativize(path)))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * 单个文件的加载统计.
+   */
+  public static final class FileStats {
+    private final Path file;
+    private final long tokens;
+    private final long bytes;
+    private final long nanos;
+
+    FileStats(Path file, long tokens, long bytes, long nanos) {
+      this.file = file;
+      this.tokens = tokens;
+      this.bytes = bytes;
+      this.nanos = nanos;
+    }
+
+    public Path getFile() {
+      return file;
+    }
+
+    public long getTokens() {
+      return tokens;
+    }
+
+    /**
+     * 返回从磁盘读取的字节数，压缩文件为压缩后的大小.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * 返回该文件的处理吞吐量(MB/s).
+     */
+    public double getMegabytesPerSecond() {
+      return nanos == 0 ? 0.0 : bytes / 1e6 / (nanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: %d tokens, %d bytes, %.1f ms, %.2f MB/s",
+          file, tokens, bytes, nanos / 1e6, getMegabytesPerSecond());
+    }
+  }
+
+  /**
+   * 一次加载的汇总报告.
+   */
+  public static final class LoadReport {
+    private final List<FileStats> files;
+    private final long tokens;
+    private final long bytes;
+    private final long nanos;
+
+    LoadReport(List<FileStats> files, long tokens, long bytes, long nanos) {
+      this.files = Collections.unmodifiableList(files);
+      this.tokens = tokens;
+      this.bytes = bytes;
+      this.nanos = nanos;
+    }
+
+    /**
+     * 按路径顺序返回各文件的统计.
+     */
+    public List<FileStats> getFiles() {
+      return files;
+    }
+
+    public long getTokens() {
+      return tokens;
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * 返回墙钟时间下的总吞吐量(MB/s).
+     */
+    public double getMegabytesPerSecond() {
+      return nanos == 0 ? 0.0 : bytes / 1e6 / (nanos / 1e9);
+    }
+
+    /**
+     * 返回墙钟时间下每秒处理的词元数.
+     */
+    public double getTokensPerSecond() {
+      return nanos == 0 ? 0.0 : tokens / (nanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d files, %d tokens, %d bytes in %.1f ms (%.2f MB/s, %.0f tokens/s)",
+          files.size(), tokens, bytes, nanos / 1e6, getMegabytesPerSecond(),
+          getTokensPerSecond());
+    }
+  }
+
+  /**
+   * 单个文件的部分结果.
+   */
+  private static final class Partial {
+    private final int index;
+    private final Map<String, Map<String, Integer>> counts = new HashMap<>();
+    private final Set<String> vocabulary = new HashSet<>();
+    private String first;
+    private String last;
+    private long tokens;
+    private FileStats stats;
+
+    Partial(int index) {
+      this.index = index;
+    }
+
+    void accept(String word) {
+      if (last != null) {
+        counts.computeIfAbsent(last, k -> new HashMap<>()).merge(word, 1, Integer::sum);
+      } else {
+        first = word;
+      }
+      vocabulary.add(word);
+      last = word;
+      tokens++;
+    }
+  }
+
+  /**
+   * 并行加载文件列表，并将合并后的图装入目标词图.
+   *
+   * @param files 按处理顺序排列的文件列表
+   * @param target 目标词图，原有内容将被替换
+   * @return 加载报告
+   */
+  public LoadReport load(List<Path> files, WordGraph target) throws IOException {
+    long start = System.nanoTime();
+    Map<String, Map<String, Integer>> merged = new HashMap<>();
+    Set<String> vocabulary = new HashSet<>();
+    FileStats[] stats = new FileStats[files.size()];
+    String[] firsts = new String[files.size()];
+    String[] lasts = new String[files.size()];
+    long tokens = 0;
+    long bytes = 0;
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "corpus-loader");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      CompletionService<Partial> completion = new ExecutorCompletionService<>(executor);
+      int submitted = 0;
+      int completed = 0;
+      while (completed < files.size()) {
+        // 同时在途的文件数不超过线程数，保证内存只与线程数相关
+        while (submitted < files.size() && submitted - completed < threads) {
+          final int index = submitted++;
+          completion.submit(() -> tokenizeFile(index, files.get(index)));
+        }
+        Partial partial = take(completion);
+        completed++;
+        mergeInto(merged, partial.counts);
+        vocabulary.addAll(partial.vocabulary);
+        stats[partial.index] = partial.stats;
+        firsts[partial.index] = partial.first;
+        lasts[partial.index] = partial.last;
+        tokens += partial.tokens;
+        bytes += partial.stats.getBytes();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (crossFileBigrams) {
+      String previous = null;
+      for (int i = 0; i < files.size(); i++) {
+        if (firsts[i] == null) {
+          continue;  // 空文件不打断拼接
+        }
+        if (previous != null) {
+          merged.computeIfAbsent(previous, k -> new HashMap<>())
+              .merge(firsts[i], 1, Integer::sum);
+        }
+        previous = lasts[i];
+      }
+    }
+
+    target.installCorpus(merged, vocabulary, tokens);
+    List<FileStats> fileStats = new ArrayList<>();
+    Collections.addAll(fileStats, stats);
+    return new LoadReport(fileStats, tokens, bytes, System.nanoTime() - start);
+  }
+
+  private Partial tokenizeFile(int index, Path file) throws IOException {
+    long start = System.nanoTime();
+    Partial partial = new Partial(index);
+    try (BufferedReader reader = CompressionCodecs.newReader(file)) {
+      tokenizer.tokenize(reader, partial::accept);
+    }
+    partial.stats = new FileStats(file, partial.tokens, Files.size(file),
+        System.nanoTime() - start);
+    return partial;
+  }
+
+  private static Partial take(CompletionService<Partial> completion) throws IOException {
+    try {
+      Future<Partial> future = completion.take();
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Corpus loading interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Failed to load corpus file: " + cause.getMessage(), cause);
+    }
+  }
+
+  private static void mergeInto(Map<String, Map<String, Integer>> merged,
+                                Map<String, Map<String, Integer>> partial) {
+    for (Map.Entry<String, Map<String, Integer>> entry : partial.entrySet()) {
+      Map<String, Integer> edges = merged.get(entry.getKey());
+      if (edges == null) {
+        merged.put(entry.getKey(), entry.getValue());  // 直接复用部分结果，避免复制
+        continue;
+      }
+      for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+        edges.merge(edge.getKey(), edge.getValue(), Integer::sum);
+      }
+    }
+  }
+}
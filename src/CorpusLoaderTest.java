@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CorpusLoaderTest {
+
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("corpus");
+    Files.write(directory.resolve("a.txt"), "the cat sat".getBytes(StandardCharsets.UTF_8));
+    Files.write(directory.resolve("b.txt"), "on the mat".getBytes(StandardCharsets.UTF_8));
+    Files.createDirectory(directory.resolve("sub"));
+    Files.write(directory.resolve("sub").resolve("c.txt"),
+        "the cat ran".getBytes(StandardCharsets.UTF_8));
+    Files.write(directory.resolve("notes.md"), "ignored".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  // 测试用例1：目录递归收集.txt文件并按路径排序
+  @Test
+  public void testResolveDirectory() throws IOException {
+    List<Path> files = CorpusLoader.resolve(directory.toString());
+    assertEquals(Arrays.asList(directory.resolve("a.txt"), directory.resolve("b.txt"),
+        directory.resolve("sub").resolve("c.txt")), files);
+  }
+
+  // 测试用例2：跨文件二元组与拼接后单文件加载的结果一致
+  @Test
+  public void testCrossFileMatchesConcatenation() throws IOException {
+    WordGraph expected = new WordGraph();
+    expected.processText("the cat sat on the mat the cat ran");
+
+    WordGraph actual = new WordGraph();
+    CorpusLoader.LoadReport report = new CorpusLoader(new UnicodeTokenizer(), 2, true)
+        .load(CorpusLoader.resolve(directory.toString()), actual);
+    assertEquals(expected.getGraph(), actual.getGraph());
+    assertEquals(9, report.getTokens());
+    assertEquals(9, actual.getWordCount());
+    assertEquals(3, report.getFiles().size());
+  }
+
+  // 测试用例3：不跨文件时文件之间没有边，桥接词查询使用合并后的词表
+  @Test
+  public void testFilesKeptSeparate() throws IOException {
+    WordGraph graph = new WordGraph();
+    new CorpusLoader(new UnicodeTokenizer(), 1, false)
+        .load(CorpusLoader.resolve(directory + "/**.txt"), graph);
+    assertFalse(graph.getGraph().get("sat") != null
+        && graph.getGraph().get("sat").containsKey("on"));
+    assertEquals(2, (int) graph.getGraph().get("the").get("cat"));
+    assertEquals("err3", graph.showBridgeWords("sat", "mat"));
+    assertEquals("cat", graph.showBridgeWords("the", "sat"));
+  }
+}
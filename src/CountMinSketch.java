@@ -0,0 +1,162 @@
+/**
+ * 使用保守更新的Count-Min Sketch，用于估计大量键的出现次数.
+ *
+ * <p>sketch由depth行、每行width个计数器组成，每行使用独立的散列函数。
+ * 估计值取各行对应计数器的最小值，永远不会低于真实次数。
+ * 设共插入N次，宽度w ≥ e/ε、深度d ≥ ln(1/δ)，则对任一键，
+ * 估计值超出真实次数εN以上的概率不超过δ。</p>
+ *
+ * <p>保守更新只增加等于当前最小值的计数器，在上述上界不变的前提下显著降低高估。
+ * 本类不是线程安全的。</p>
+ */
+public final class CountMinSketch {
+
+  private final int width;
+  private final int depth;
+  private final int mask;
+  private final int[] counters;
+  private final long[] seeds;
+  private final int[] positions;
+  private long totalCount = 0;
+
+  /**
+   * 创建指定尺寸的sketch，宽度向上取整为2的幂.
+   *
+   * @param width 每行计数器个数
+   * @param depth 行数
+   */
+  public CountMinSketch(int width, int depth) {
+    if (width <= 0 || depth <= 0) {
+      throw new IllegalArgumentException("width and depth must be positive");
+    }
+    int rounded = Integer.highestOneBit(width);
+    if (rounded < width) {
+      rounded <<= 1;
+    }
+    if (rounded <= 0 || (long) rounded * depth > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("sketch too large: " + width + " x " + depth);
+    }
+    this.width = rounded;
+    this.depth = depth;
+    this.mask = rounded - 1;
+    this.counters = new int[rounded * depth];
+    this.seeds = new long[depth];
+    this.positions = new int[depth];
+    long seed = 0x9E3779B97F4A7C15L;
+    for (int row = 0; row < depth; row++) {
+      seed = mix(seed + row);
+      seeds[row] = seed;
+    }
+  }
+
+  /**
+   * 按误差参数创建sketch：宽度为⌈e/ε⌉，深度为⌈ln(1/δ)⌉.
+   *
+   * @param epsilon 相对误差ε，估计值至多高估εN
+   * @param delta 超出误差上界的概率δ
+   * @return sketch
+   */
+  public static CountMinSketch withErrorBounds(double epsilon, double delta) {
+    if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+      throw new IllegalArgumentException("epsilon and delta must be in (0, 1)");
+    }
+    int width = (int) Math.ceil(Math.E / epsilon);
+    int depth = (int) Math.ceil(Math.log(1 / delta));
+    return new CountMinSketch(width, depth);
+  }
+
+  // SplitMix64的最终混合函数
+  private static long mix(long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private void locate(long key) {
+    for (int row = 0; row < depth; row++) {
+      positions[row] = row * width + (int) (mix(key ^ seeds[row]) & mask);
+    }
+  }
+
+  /**
+   * 将键的次数加一(保守更新)，并返回更新后的估计值.
+   *
+   * @param key 键
+   * @return 更新后的估计次数
+   */
+  public int addAndEstimate(long key) {
+    totalCount++;
+    locate(key);
+    int min = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      min = Math.min(min, counters[positions[row]]);
+    }
+    if (min == Integer.MAX_VALUE) {
+      return min;  // 计数器饱和
+    }
+    int updated = min + 1;
+    for (int row = 0; row < depth; row++) {
+      if (counters[positions[row]] < updated) {
+        counters[positions[row]] = updated;
+      }
+    }
+    return updated;
+  }
+
+  /**
+   * 返回键的估计次数，不低于真实次数.
+   *
+   * @param key 键
+   */
+  public int estimate(long key) {
+    locate(key);
+    int min = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      min = Math.min(min, counters[positions[row]]);
+    }
+    return min;
+  }
+
+  /**
+   * 返回实际使用的宽度.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * 返回行数.
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * 返回已插入的总次数N.
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * 返回相对误差ε = e/w.
+   */
+  public double getEpsilon() {
+    return Math.E / width;
+  }
+
+  /**
+   * 返回单个键超出误差上界的概率δ = e^(-d).
+   */
+  public double getDelta() {
+    return Math.exp(-depth);
+  }
+
+  /**
+   * 返回计数器占用的字节数.
+   */
+  public long getMemoryBytes() {
+    return 4L * counters.length;
+  }
+}
@@ -0,0 +1,58 @@
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 以CSV边表导出，每行一条边：source,target,weight.
+ *
+ * <p>首行为表头；包含逗号、引号或换行的单词按RFC 4180加引号并把引号写两次。</p>
+ */
+public class CsvGraphExporter implements GraphExporter {
+
+  @Override
+  public String getName() {
+    return "CSV edge list";
+  }
+
+  @Override
+  public String getExtension() {
+    return "csv";
+  }
+
+  @Override
+  public void export(Map<String, Map<String, Integer>> graph, ChannelOutput out)
+      throws IOException {
+    out.write("source,target,weight\n");
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      String source = entry.getKey();
+      for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+        writeField(out, source);
+        out.writeByte(',');
+        writeField(out, edge.getKey());
+        out.writeByte(',');
+        out.writeDecimal(edge.getValue());
+        out.writeByte('\n');
+      }
+    }
+  }
+
+  private static void writeField(ChannelOutput out, String value) throws IOException {
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      out.write(value);
+      return;
+    }
+    out.writeByte('"');
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) == '"') {
+        out.write(value.subSequence(start, i + 1)).writeByte('"');
+        start = i + 1;
+      }
+    }
+    out.write(value.subSequence(start, value.length())).writeByte('"');
+  }
+}
@@ -0,0 +1,317 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * 并行的Δ-stepping单源最短路径算法.
+ *
+ * <p>距离按宽度Δ划分为桶，第i个桶包含距离在[iΔ, (i+1)Δ)内的节点。
+ * 每轮取出编号最小的非空桶，并行松弛桶中所有节点的轻边(权重不超过Δ)，
+ * 轻边可能把节点重新放回同一个桶，直到该桶不再变化；随后并行松弛整桶已确定节点的重边。
+ * 边权重是二元组出现次数(正整数)，Δ=1时每个桶恰好对应一个距离值，整桶一次确定。</p>
+ *
+ * <p>距离用{@link AtomicIntegerArray}的CAS取最小值更新，每个线程把距离变短的节点收集到
+ * 自己的列表中，合并后再放入桶。求出全部距离后，满足dist(u)+w(u,v)=dist(v)的边(u,v)
+ * 即为最短路径边，u为v的前驱，因此距离和前驱集合都与{@link ShortestPaths#dijkstra}相同，
+ * 前驱按距离升序排列，等距前驱的相对顺序可能不同。</p>
+ */
+public final class DeltaStepping {
+
+  /** 默认桶宽. */
+  public static final int DEFAULT_DELTA = 1;
+  // 桶中节点少于该值时顺序松弛，避免并行调度开销超过收益
+  private static final int PARALLEL_FRONTIER = 256;
+  private static final int INFINITY = Integer.MAX_VALUE;
+
+  private DeltaStepping() {
+  }
+
+  /**
+   * 按整数编号保存的图(CSR格式).
+   */
+  private static final class IndexedGraph {
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    IndexedGraph(Map<String, Map<String, Integer>> graph, Set<String> allNodes) {
+      names = allNodes.toArray(new String[0]);
+      ids = new HashMap<>(names.length * 4 / 3 + 1);
+      for (int i = 0; i < names.length; i++) {
+        ids.put(names[i], i);
+      }
+      offsets = new int[names.length + 1];
+      for (int i = 0; i < names.length; i++) {
+        Map<String, Integer> edges = graph.get(names[i]);
+        offsets[i + 1] = offsets[i] + (edges == null ? 0 : edges.size());
+      }
+      targets = new int[offsets[names.length]];
+      weights = new int[offsets[names.length]];
+      // 每个源节点写入自己的区间，查找只读散列表，可以并行
+      IntStream.range(0, names.length).parallel().forEach(source -> {
+        Map<String, Integer> edges = graph.get(names[source]);
+        if (edges == null) {
+          return;
+        }
+        int position = offsets[source];
+        for (Map.Entry<String, Integer> edge : edges.entrySet()) {
+          Integer target = ids.get(edge.getKey());
+          if (target == null) {
+            continue;  // 不在节点集合中的邻居
+          }
+          targets[position] = target;
+          weights[position] = edge.getValue();
+          position++;
+        }
+        // 被跳过的边用-1填充
+        Arrays.fill(targets, position, offsets[source + 1], -1);
+      });
+    }
+  }
+
+  /**
+   * 可增长的int列表.
+   */
+  private static final class IntBag {
+    private int[] values = new int[16];
+    private int size = 0;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    IntBag addAll(IntBag other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.values[i]);
+      }
+      return this;
+    }
+  }
+
+  /**
+   * 以默认桶宽计算到所有节点的最短路径.
+   *
+   * @param graph 有向图结构
+   * @param allNodes 参与计算的全部节点
+   * @param source 起点
+   * @return 与{@link ShortestPaths#dijkstra}相同形式的距离与前驱
+   */
+  public static ShortestPaths.Result shortestPaths(Map<String, Map<String, Integer>> graph,
+                                                   Set<String> allNodes, String source) {
+    return shortestPaths(graph, allNodes, source, DEFAULT_DELTA);
+  }
+
+  /**
+   * 计算到所有节点的最短路径.
+   *
+   * @param graph 有向图结构
+   * @param allNodes 参与计算的全部节点
+   * @param source 起点
+   * @param delta 桶宽Δ
+   * @return 与{@link ShortestPaths#dijkstra}相同形式的距离与前驱
+   */
+  public static ShortestPaths.Result shortestPaths(Map<String, Map<String, Integer>> graph,
+                                                   Set<String> allNodes, String source,
+                                                   int delta) {
+    if (delta <= 0) {
+      throw new IllegalArgumentException("delta must be positive: " + delta);
+    }
+    IndexedGraph indexed = new IndexedGraph(graph, allNodes);
+    int n = indexed.names.length;
+    AtomicIntegerArray dist = new AtomicIntegerArray(n);
+    for (int i = 0; i < n; i++) {
+      dist.set(i, INFINITY);
+    }
+    Integer start = indexed.ids.get(source);
+    if (start != null) {
+      run(indexed, dist, start, delta);
+    }
+    return toResult(indexed, dist);
+  }
+
+  private static void run(IndexedGraph g, AtomicIntegerArray dist, int start, int delta) {
+    int n = g.names.length;
+    // lightDone[v]记录v的轻边已按哪个距离松弛过，桶中的重复项据此跳过
+    int[] lightDone = new int[n];
+    Arrays.fill(lightDone, INFINITY);
+    boolean[] settled = new boolean[n];
+    List<IntBag> buckets = new ArrayList<>();
+    dist.set(start, 0);
+    place(buckets, start, 0, delta);
+
+    for (int i = 0; i < buckets.size(); i++) {
+      IntBag bucket = buckets.get(i);
+      if (bucket == null || bucket.size == 0) {
+        continue;
+      }
+      IntBag settledNodes = new IntBag();
+      while (buckets.get(i).size > 0) {
+        IntBag current = buckets.get(i);
+        buckets.set(i, new IntBag());
+        IntBag frontier = new IntBag();
+        for (int k = 0; k < current.size; k++) {
+          int v = current.values[k];
+          int d = dist.get(v);
+          if (d / delta != i || lightDone[v] == d) {
+            continue;  // 已移到更小的桶或已按该距离处理
+          }
+          lightDone[v] = d;
+          frontier.add(v);
+          if (!settled[v]) {
+            settled[v] = true;
+            settledNodes.add(v);
+          }
+        }
+        IntBag improved = relax(g, dist, frontier, delta, true);
+        placeAll(buckets, dist, improved, delta);
+      }
+      buckets.set(i, null);
+      IntBag improved = relax(g, dist, settledNodes, delta, false);
+      placeAll(buckets, dist, improved, delta);
+    }
+  }
+
+  /**
+   * 并行松弛一组节点的轻边或重边，返回距离变短的节点(可能重复).
+   */
+  private static IntBag relax(IndexedGraph g, AtomicIntegerArray dist, IntBag nodes, int delta,
+                              boolean light) {
+    IntStream indices = IntStream.range(0, nodes.size);
+    if (nodes.size >= PARALLEL_FRONTIER) {
+      indices = indices.parallel();
+    }
+    return indices.collect(IntBag::new, (improved, k) -> {
+      int u = nodes.values[k];
+      int du = dist.get(u);
+      for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+        int v = g.targets[e];
+        int w = g.weights[e];
+        if (v < 0 || (w <= delta) != light) {
+          continue;
+        }
+        int candidate = du + w;
+        int known = dist.get(v);
+        while (candidate < known) {
+          if (dist.compareAndSet(v, known, candidate)) {
+            improved.add(v);
+            break;
+          }
+          known = dist.get(v);
+        }
+      }
+    }, IntBag::addAll);
+  }
+
+  private static void placeAll(List<IntBag> buckets, AtomicIntegerArray dist, IntBag nodes,
+                               int delta) {
+    for (int k = 0; k < nodes.size; k++) {
+      int v = nodes.values[k];
+      place(buckets, v, dist.get(v), delta);
+    }
+  }
+
+  private static void place(List<IntBag> buckets, int node, int distance, int delta) {
+    int index = distance / delta;
+    while (buckets.size() <= index) {
+      buckets.add(null);
+    }
+    if (buckets.get(index) == null) {
+      buckets.set(index, new IntBag());
+    }
+    buckets.get(index).add(node);
+  }
+
+  private static int countTight(IndexedGraph g, AtomicIntegerArray dist, int u) {
+    int du = dist.get(u);
+    if (du == INFINITY) {
+      return 0;
+    }
+    int count = 0;
+    for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+      int v = g.targets[e];
+      if (v >= 0 && (long) du + g.weights[e] == dist.get(v)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * 由最终距离求出前驱集合，转换为与Dijkstra相同形式的结果.
+   */
+  private static ShortestPaths.Result toResult(IndexedGraph g, AtomicIntegerArray dist) {
+    int n = g.names.length;
+    // 先并行统计每个节点的最短路径出边数，再按前缀和并行写入(v, u)对
+    int[] counts = new int[n + 1];
+    IntStream.range(0, n).parallel().forEach(u -> counts[u + 1] = countTight(g, dist, u));
+    for (int u = 0; u < n; u++) {
+      counts[u + 1] += counts[u];
+    }
+    long[] tight = new long[counts[n]];
+    IntStream.range(0, n).parallel().forEach(u -> {
+      int du = dist.get(u);
+      if (du == INFINITY) {
+        return;
+      }
+      int position = counts[u];
+      for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+        int v = g.targets[e];
+        if (v >= 0 && (long) du + g.weights[e] == dist.get(v)) {
+          tight[position++] = ((long) v << 32) | u;
+        }
+      }
+    });
+    Arrays.parallelSort(tight);
+
+    Map<String, Integer> distances = new HashMap<>(n * 4 / 3 + 1);
+    Map<String, List<String>> predecessors = new HashMap<>(n * 4 / 3 + 1);
+    for (int v = 0; v < n; v++) {
+      distances.put(g.names[v], dist.get(v));
+    }
+    // 按v分组后，组内前驱按距离升序排列，与Dijkstra的出队顺序一致
+    boolean[] hasPredecessors = new boolean[n];
+    for (int from = 0; from < tight.length; ) {
+      int v = (int) (tight[from] >>> 32);
+      int to = from;
+      while (to < tight.length && (int) (tight[to] >>> 32) == v) {
+        to++;
+      }
+      String[] group = new String[to - from];
+      if (group.length == 1) {
+        group[0] = g.names[(int) tight[from]];
+      } else {
+        Integer[] ids = new Integer[group.length];
+        for (int k = from; k < to; k++) {
+          ids[k - from] = (int) tight[k];
+        }
+        Arrays.sort(ids, Comparator.comparingInt(dist::get));
+        for (int k = 0; k < ids.length; k++) {
+          group[k] = g.names[ids[k]];
+        }
+      }
+      predecessors.put(g.names[v], Arrays.asList(group));
+      hasPredecessors[v] = true;
+      from = to;
+    }
+    // 没有前驱的节点共用一个空列表
+    List<String> none = Collections.emptyList();
+    for (int v = 0; v < n; v++) {
+      if (!hasPredecessors[v]) {
+        predecessors.put(g.names[v], none);
+      }
+    }
+    return new ShortestPaths.Result(distances, predecessors);
+  }
+}
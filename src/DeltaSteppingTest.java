@@ -0,0 +1,63 @@
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DeltaSteppingTest {
+
+  private static Set<String> nodesOf(Map<String, Map<String, Integer>> graph) {
+    Set<String> nodes = new HashSet<>(graph.keySet());
+    for (Map<String, Integer> edges : graph.values()) {
+      nodes.addAll(edges.keySet());
+    }
+    return nodes;
+  }
+
+  private static void assertSameAsDijkstra(Map<String, Map<String, Integer>> graph,
+                                           String source, int delta) {
+    Set<String> nodes = nodesOf(graph);
+    ShortestPaths.Result expected = ShortestPaths.dijkstra(graph, nodes, source, null);
+    ShortestPaths.Result actual = DeltaStepping.shortestPaths(graph, nodes, source, delta);
+    assertEquals(expected.getDistances(), actual.getDistances());
+    for (String node : nodes) {
+      List<String> predecessors = actual.getPredecessors().get(node);
+      assertEquals(node, new HashSet<>(expected.getPredecessors().get(node)),
+          new HashSet<>(predecessors));
+      assertEquals(predecessors.size(), new HashSet<>(predecessors).size());
+    }
+  }
+
+  // 测试用例1：不同桶宽下距离和前驱集合都与Dijkstra一致
+  @Test
+  public void testMatchesDijkstra() {
+    WordGraph wordGraph = new WordGraph();
+    wordGraph.processText(new CorpusGenerator(11, 3000, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(60000));
+    Map<String, Map<String, Integer>> graph = wordGraph.getGraph();
+    for (int delta : new int[] {1, 3, 50}) {
+      assertSameAsDijkstra(graph, CorpusGenerator.word(0), delta);
+      assertSameAsDijkstra(graph, CorpusGenerator.word(500), delta);
+    }
+  }
+
+  // 测试用例2：轻边使节点在同一个桶内多次变短，以及不可达节点
+  @Test
+  public void testReinsertionWithinBucket() {
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    graph.computeIfAbsent("s", k -> new HashMap<>()).put("a", 4);
+    graph.get("s").put("b", 1);
+    graph.computeIfAbsent("b", k -> new HashMap<>()).put("c", 1);
+    graph.computeIfAbsent("c", k -> new HashMap<>()).put("a", 1);
+    graph.computeIfAbsent("a", k -> new HashMap<>()).put("d", 2);
+    graph.get("b").put("d", 5);
+    graph.computeIfAbsent("x", k -> new HashMap<>()).put("s", 1);
+    assertSameAsDijkstra(graph, "s", 10);
+    ShortestPaths.Result result = DeltaStepping.shortestPaths(graph, nodesOf(graph), "s", 10);
+    assertEquals(Integer.valueOf(5), result.getDistances().get("d"));
+    assertEquals(Integer.MAX_VALUE, result.getDistances().get("x").intValue());
+    assertTrue(result.getPredecessors().get("x").isEmpty());
+  }
+}
@@ -0,0 +1,40 @@
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 以Graphviz的DOT格式导出，供{@link GraphVisualizer}渲染.
+ */
+public class DotGraphExporter implements GraphExporter {
+
+  @Override
+  public String getName() {
+    return "Graphviz DOT";
+  }
+
+  @Override
+  public String getExtension() {
+    return "dot";
+  }
+
+  @Override
+  public void export(Map<String, Map<String, Integer>> graph, ChannelOutput out)
+      throws IOException {
+    out.write("digraph G {\n");
+    out.write("  rankdir=LR;\n"); // 从左到右布局
+    out.write("  node [shape=circle];\n\n");
+    // 添加所有节点
+    for (String node : graph.keySet()) {
+      out.write("  \"").write(node).write("\";\n");
+    }
+    out.write("\n");
+    // 添加所有边
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      String source = entry.getKey();
+      for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+        out.write("  \"").write(source).write("\" -> \"").write(edge.getKey())
+            .write("\" [label=\"").writeDecimal(edge.getValue()).write("\"];\n");
+      }
+    }
+    out.write("}\n");
+  }
+}
@@ -0,0 +1,187 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 词图上的排行榜(top-K)查询.
+ *
+ * <p>每个查询并行遍历邻接表，每个线程维护一个容量为K的最小堆，
+ * 只有优于堆顶的候选才会入堆，最后合并各线程的堆。
+ * 整体代价为O(n log K)，不会对全部顶点或边排序。</p>
+ *
+ * <p>结果按分值从高到低排列，分值相同时按单词字母顺序排列，因此与线程调度无关。</p>
+ */
+public final class GraphAnalytics {
+
+  /**
+   * 度的统计方式.
+   */
+  public enum DegreeKind {
+    /** 不同后继单词的个数. */
+    OUT,
+    /** 不同前驱单词的个数. */
+    IN,
+    /** 出边权重之和. */
+    WEIGHTED_OUT,
+    /** 入边权重之和. */
+    WEIGHTED_IN
+  }
+
+  private GraphAnalytics() {
+  }
+
+  /**
+   * 返回权重最大的K条边.
+   *
+   * @param graph 邻接表
+   * @param k 结果数量
+   * @return 按权重从高到低排列的边
+   */
+  public static List<WeightedEdge> topEdges(Map<String, Map<String, Integer>> graph, int k) {
+    checkK(k);
+    Comparator<WeightedEdge> order = WeightedEdge.BY_WEIGHT_DESCENDING;
+    return graph.entrySet().parallelStream()
+        .collect(() -> new TopK<>(k, order),
+            (top, entry) -> {
+              String source = entry.getKey();
+              for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+                int weight = edge.getValue();
+                // 先与堆顶比较，避免为不可能入选的边创建对象
+                if (!top.isFull() || weight >= top.worst().getWeight()) {
+                  top.offer(new WeightedEdge(source, edge.getKey(), weight));
+                }
+              }
+            },
+            TopK::merge)
+        .toSortedList();
+  }
+
+  /**
+   * 返回度最大的K个单词.
+   *
+   * <p>出度类统计只包含有出边的单词，入度类统计只包含有入边的单词。</p>
+   *
+   * @param graph 邻接表
+   * @param kind 度的统计方式
+   * @param k 结果数量
+   * @return 按度从高到低排列的单词
+   */
+  public static List<ScoredItem> topDegree(Map<String, Map<String, Integer>> graph,
+                                           DegreeKind kind, int k) {
+    checkK(k);
+    switch (kind) {
+      case OUT:
+        return topOf(graph, k, Map::size);
+      case WEIGHTED_OUT:
+        return topOf(graph, k, GraphAnalytics::sumWeights);
+      case IN:
+        return topScores(inDegrees(graph, false), k);
+      case WEIGHTED_IN:
+        return topScores(inDegrees(graph, true), k);
+      default:
+        throw new IllegalArgumentException("Unknown degree kind: " + kind);
+    }
+  }
+
+  /**
+   * 返回分值最高的K个单词，例如PageRank结果.
+   *
+   * @param scores 单词到分值的映射
+   * @param k 结果数量
+   * @return 按分值从高到低排列的单词
+   */
+  public static List<ScoredItem> topScores(Map<String, ? extends Number> scores, int k) {
+    checkK(k);
+    return topOf(scores, k, Number::doubleValue);
+  }
+
+  private static <V> List<ScoredItem> topOf(Map<String, V> values, int k,
+                                            ToDoubleFunction<? super V> scorer) {
+    Comparator<ScoredItem> order = ScoredItem.BY_SCORE_DESCENDING;
+    return values.entrySet().parallelStream()
+        .collect(() -> new TopK<>(k, order),
+            (top, entry) -> {
+              double score = scorer.applyAsDouble(entry.getValue());
+              if (!top.isFull() || score >= top.worst().getScore()) {
+                top.offer(new ScoredItem(entry.getKey(), score));
+              }
+            },
+            TopK::merge)
+        .toSortedList();
+  }
+
+  private static long sumWeights(Map<String, Integer> edges) {
+    long sum = 0;
+    for (int weight : edges.values()) {
+      sum += weight;
+    }
+    return sum;
+  }
+
+  private static Map<String, Long> inDegrees(Map<String, Map<String, Integer>> graph,
+                                             boolean weighted) {
+    // 每个线程先统计到自己的映射中，最后合并，避免共享计数器的竞争
+    return graph.values().parallelStream()
+        .collect(HashMap::new,
+            (counts, edges) -> {
+              for (Map.Entry<String, Integer> edge : edges.entrySet()) {
+                counts.merge(edge.getKey(), weighted ? (long) edge.getValue() : 1L, Long::sum);
+              }
+            },
+            (left, right) -> right.forEach((word, count) -> left.merge(word, count, Long::sum)));
+  }
+
+  private static void checkK(int k) {
+    if (k <= 0) {
+      throw new IllegalArgumentException("k must be positive: " + k);
+    }
+  }
+
+  /**
+   * 容量固定的候选集合，堆顶是当前入选者中最差的一个.
+   */
+  private static final class TopK<T> {
+    private final int k;
+    private final Comparator<T> order;
+    private final PriorityQueue<T> heap;
+
+    TopK(int k, Comparator<T> order) {
+      this.k = k;
+      this.order = order;
+      this.heap = new PriorityQueue<>(Math.min(k, 1024) + 1, order.reversed());
+    }
+
+    boolean isFull() {
+      return heap.size() >= k;
+    }
+
+    T worst() {
+      return heap.peek();
+    }
+
+    void offer(T item) {
+      if (heap.size() < k) {
+        heap.add(item);
+      } else if (order.compare(item, heap.peek()) < 0) {
+        heap.poll();
+        heap.add(item);
+      }
+    }
+
+    void merge(TopK<T> other) {
+      for (T item : other.heap) {
+        offer(item);
+      }
+    }
+
+    List<T> toSortedList() {
+      List<T> result = new ArrayList<>(heap);
+      result.sort(order);
+      return result;
+    }
+  }
+}
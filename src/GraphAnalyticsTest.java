@@ -0,0 +1,57 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GraphAnalyticsTest {
+
+  private WordGraph wordGraph;
+
+  @Before
+  public void setUp() {
+    wordGraph = new WordGraph();
+    wordGraph.processText(new CorpusGenerator(3, 2000, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(100000));
+  }
+
+  // 测试用例1：最重的边与完整排序的前K项一致
+  @Test
+  public void testTopEdgesMatchesFullSort() {
+    List<WeightedEdge> all = new ArrayList<>();
+    wordGraph.getGraph().forEach((source, edges) -> edges.forEach(
+        (target, weight) -> all.add(new WeightedEdge(source, target, weight))));
+    all.sort(WeightedEdge.BY_WEIGHT_DESCENDING);
+    assertEquals(all.subList(0, 50), wordGraph.topEdges(50));
+  }
+
+  // 测试用例2：入度与完整统计排序后的前K项一致
+  @Test
+  public void testTopInDegreeMatchesFullSort() {
+    Map<String, Integer> inDegree = new HashMap<>();
+    wordGraph.getGraph().values().forEach(
+        edges -> edges.keySet().forEach(target -> inDegree.merge(target, 1, Integer::sum)));
+    List<ScoredItem> all = new ArrayList<>();
+    inDegree.forEach((word, degree) -> all.add(new ScoredItem(word, degree)));
+    all.sort(ScoredItem.BY_SCORE_DESCENDING);
+    assertEquals(all.subList(0, 30),
+        wordGraph.topDegree(GraphAnalytics.DegreeKind.IN, 30));
+  }
+
+  // 测试用例3：K大于元素数时返回全部元素，分值相同按字母排序
+  @Test
+  public void testSmallGraphAndTies() {
+    WordGraph small = new WordGraph();
+    small.processText("a b a c a b");
+    assertEquals(Arrays.asList(new ScoredItem("a", 2), new ScoredItem("b", 1),
+        new ScoredItem("c", 1)), small.topDegree(GraphAnalytics.DegreeKind.OUT, 10));
+    assertEquals(Arrays.asList(new WeightedEdge("a", "b", 2), new WeightedEdge("a", "c", 1),
+        new WeightedEdge("b", "a", 1)), small.topEdges(3));
+    List<ScoredItem> ranks = small.topPageRank(1);
+    assertEquals(1, ranks.size());
+    assertEquals("a", ranks.get(0).getWord());
+  }
+}
@@ -0,0 +1,31 @@
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 把有向词图流式写出为某种文件格式.
+ *
+ * <p>实现逐个节点、逐条边写入{@link ChannelOutput}，不在内存中拼接完整的输出，
+ * 因此导出的内存占用与边数无关。内置CSV边表、GraphML、紧凑二进制和DOT四种格式，
+ * 其他格式可以实现本接口并在{@code META-INF/services/GraphExporter}中登记，
+ * 由{@link GraphExporters}通过{@link java.util.ServiceLoader}自动发现。</p>
+ */
+public interface GraphExporter {
+
+  /**
+   * 返回格式名称，例如"GraphML".
+   */
+  String getName();
+
+  /**
+   * 返回该格式的文件扩展名(不含点，小写)，例如"graphml".
+   */
+  String getExtension();
+
+  /**
+   * 写出整个图.
+   *
+   * @param graph 邻接表
+   * @param out 输出，由调用方关闭
+   */
+  void export(Map<String, Map<String, Integer>> graph, ChannelOutput out) throws IOException;
+}
@@ -0,0 +1,102 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * 按文件扩展名选择导出格式，并把图流式写入文件.
+ *
+ * <p>内置CSV、GraphML、二进制和DOT，其余格式通过{@link ServiceLoader}发现。
+ * 文件名以".gz"结尾时输出经gzip压缩，例如"graph.csv.gz"。</p>
+ */
+public final class GraphExporters {
+
+  private static final Map<String, GraphExporter> BY_EXTENSION = load();
+
+  private GraphExporters() {
+  }
+
+  private static Map<String, GraphExporter> load() {
+    Map<String, GraphExporter> exporters = new LinkedHashMap<>();
+    for (GraphExporter exporter : new GraphExporter[] {new CsvGraphExporter(),
+        new GraphMlExporter(), new BinaryGraphExporter(), new DotGraphExporter()}) {
+      exporters.put(exporter.getExtension(), exporter);
+    }
+    for (GraphExporter exporter : ServiceLoader.load(GraphExporter.class)) {
+      exporters.putIfAbsent(exporter.getExtension().toLowerCase(Locale.ROOT), exporter);
+    }
+    return Collections.unmodifiableMap(exporters);
+  }
+
+  /**
+   * 返回已注册的导出格式，键为文件扩展名.
+   */
+  public static Map<String, GraphExporter> getExporters() {
+    return BY_EXTENSION;
+  }
+
+  /**
+   * 根据文件扩展名查找导出格式，忽略末尾的".gz".
+   *
+   * @param file 文件路径
+   * @return 导出格式，无法识别时返回null
+   */
+  public static GraphExporter forPath(Path file) {
+    String name = nameOf(file);
+    if (isGzip(file)) {
+      name = name.substring(0, name.length() - 3);
+    }
+    int dot = name.lastIndexOf('.');
+    return dot < 0 ? null : BY_EXTENSION.get(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+  }
+
+  private static String nameOf(Path file) {
+    Path fileName = file.getFileName();
+    return fileName == null ? "" : fileName.toString();
+  }
+
+  private static boolean isGzip(Path file) {
+    return nameOf(file).toLowerCase(Locale.ROOT).endsWith(".gz");
+  }
+
+  /**
+   * 按扩展名选择格式导出图.
+   *
+   * @param graph 邻接表
+   * @param file 目标文件，以".gz"结尾时压缩
+   * @return 写入文件的字节数
+   * @throws IOException 扩展名无法识别或写入失败
+   */
+  public static long export(Map<String, Map<String, Integer>> graph, Path file)
+      throws IOException {
+    GraphExporter exporter = forPath(file);
+    if (exporter == null) {
+      throw new IOException("Unknown export format: " + file.getFileName());
+    }
+    return export(graph, file, exporter, isGzip(file));
+  }
+
+  /**
+   * 以指定格式导出图.
+   *
+   * @param graph 邻接表
+   * @param file 目标文件
+   * @param exporter 导出格式
+   * @param gzip 是否压缩
+   * @return 写入文件的字节数(压缩时为压缩前的字节数)
+   */
+  public static long export(Map<String, Map<String, Integer>> graph, Path file,
+                            GraphExporter exporter, boolean gzip) throws IOException {
+    try (OperationMetrics.Timer timer =
+             OperationMetrics.global().start(OperationMetrics.Operation.EXPORT);
+         ChannelOutput out = ChannelOutput.open(file, gzip)) {
+      timer.vertices(graph.size());
+      exporter.export(graph, out);
+      out.flush();
+      return out.getBytesWritten();
+    }
+  }
+}
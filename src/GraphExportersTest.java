@@ -0,0 +1,92 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GraphExportersTest {
+
+  private static Map<String, Map<String, Integer>> sampleGraph() {
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    graph.computeIfAbsent("a,b", k -> new HashMap<>()).put("say \"hi\"", 3);
+    graph.get("a,b").put("<x&y>", 200);
+    graph.computeIfAbsent("中文", k -> new HashMap<>()).put("a,b", 70000);
+    return graph;
+  }
+
+  // 测试用例1：二进制边表与CSV可以还原出原图，gzip输出可以解压
+  @Test
+  public void testRoundTrip() throws Exception {
+    WordGraph wordGraph = new WordGraph();
+    wordGraph.processText(new CorpusGenerator(3, 2000, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(30000));
+    Path binary = Files.createTempFile("graph", ".wgb.gz");
+    Path csv = Files.createTempFile("graph", ".csv");
+    try {
+      GraphExporters.export(wordGraph.getGraph(), binary);
+      assertEquals(wordGraph.getGraph(), BinaryGraphExporter.read(binary));
+      assertEquals(sampleGraph(), readBinary(sampleGraph()));
+
+      GraphExporters.export(sampleGraph(), csv);
+      List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+      assertEquals("source,target,weight", lines.get(0));
+      assertEquals(4, lines.size());
+      assertTrue(lines.contains("\"a,b\",\"say \"\"hi\"\"\",3"));
+      assertTrue(lines.contains("中文,\"a,b\",70000"));
+    } finally {
+      Files.deleteIfExists(binary);
+      Files.deleteIfExists(csv);
+    }
+  }
+
+  private static Map<String, Map<String, Integer>> readBinary(
+      Map<String, Map<String, Integer>> graph) throws Exception {
+    Path file = Files.createTempFile("sample", ".wgb");
+    try {
+      GraphExporters.export(graph, file);
+      return BinaryGraphExporter.read(file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // 测试用例2：GraphML转义特殊字符，DOT格式与原有输出一致，未知扩展名报错
+  @Test
+  public void testGraphMlAndDot() throws Exception {
+    Path graphMl = Files.createTempFile("graph", ".graphml");
+    Path dot = Files.createTempFile("graph", ".dot");
+    try {
+      GraphExporters.export(sampleGraph(), graphMl);
+      String xml = new String(Files.readAllBytes(graphMl), StandardCharsets.UTF_8);
+      assertTrue(xml.contains("<node id=\"&lt;x&amp;y&gt;\"/>"));
+      assertTrue(xml.contains("<edge source=\"a,b\" target=\"say &quot;hi&quot;\">"
+          + "<data key=\"weight\">3</data></edge>"));
+
+      Map<String, Map<String, Integer>> graph = new HashMap<>();
+      graph.computeIfAbsent("to", k -> new HashMap<>()).put("be", 2);
+      GraphExporters.export(graph, dot);
+      try (BufferedReader reader = Files.newBufferedReader(dot, StandardCharsets.UTF_8)) {
+        StringBuilder text = new StringBuilder();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+          text.append(line).append('\n');
+        }
+        assertEquals("digraph G {\n  rankdir=LR;\n  node [shape=circle];\n\n  \"to\";\n\n"
+            + "  \"to\" -> \"be\" [label=\"2\"];\n}\n", text.toString());
+      }
+    } finally {
+      Files.deleteIfExists(graphMl);
+      Files.deleteIfExists(dot);
+    }
+    try {
+      GraphExporters.export(sampleGraph(), Path.of("graph.unknown"));
+      fail("expected IOException");
+    } catch (IOException expected) {
+      assertTrue(expected.getMessage().contains("Unknown export format"));
+    }
+  }
+}
@@ -1,25 +1,22 @@
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.awt.BorderLayout;
+import java.awt.Color;
 import java.awt.GridLayout;
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.security.SecureRandom;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
@@ -27,34 +24,59 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 
 
 public class GraphGui extends JFrame {
 
-  private Map<String, Map<String, Integer>> graph;
-  private List<String> words;
+  private WordGraph wordGraph;
   private JTextArea outputArea;
   private JTextField word1Field;
   private JTextField word2Field;
   private JTextField inputTextField;
   private File selectedFile = null;
   private JLabel statusLabel;
-  private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+  private GraphTableModel graphTableModel;
+  // 已加载的图按文件名保存在工作区中，首次加载时创建
+  private GraphWorkspace workspace;
+  private String currentGraphName = null;
+  // 正在后台加载的文件，加载过程中wordGraph为其最新的部分快照
+  private BackgroundLoad<?, ?> loadWorker;
+  private JLabel partialLabel;
+  // 同一版本的图重复保存图片时直接复制缓存的渲染结果，首次使用Graphviz时创建
+  private RenderCache renderCache;
+  // 超过该节点数时Graphviz过慢，直接使用内置渲染器
+  private static final int BUILTIN_RENDER_THRESHOLD = 2000;
+  private static final String[] IMAGE_FORMATS = {"png", "svg", "pdf"};
+  private static final int RENDER_CACHE_ARTIFACTS = 32;
+  // 输出区域最多显示的字符数，完整结果需保存到文件
+  private static final long MAX_PREVIEW_CHARS = 2_000_000L;
+  // 单词数超过该值时介数和接近中心性只抽样这么多个源单词
+  private static final int CENTRALITY_SOURCE_BUDGET = 500;
+  // PageRank对话框中显示的相关单词数
+  private static final int RELATED_WORDS = 10;
+  // 后台加载时发布部分快照的间隔
+  private static final long LOAD_SNAPSHOT_INTERVAL_MILLIS = 500;
 
   /**
    * 初始化图形用户界面并配置所有UI组件.
    *
    * <p>该构造函数执行以下主要操作：
    * <ol>
-   *   <li>初始化数据存储结构：创建邻接表({@link #graph})和单词列表({@link #words})</li>
+   *   <li>初始化数据存储结构：创建无界面的词图核心({@link WordGraph})</li>
    *   <li>配置主窗口属性：设置标题为"Graph Analysis Tool"，窗口尺寸800x600，居中显示，
    *       并定义关闭操作行为</li>
    *   <li>构建UI组件层级：
@@ -84,8 +106,7 @@ public class GraphGui extends JFrame {
    */
   public GraphGui() {
     // 实例字段初始化
-    this.graph = new HashMap<>();
-    this.words = new ArrayList<>();
+    this.wordGraph = new WordGraph();
 
     // Set up the JFrame
     setTitle("Graph Analysis Tool");
@@ -96,16 +117,24 @@ public class GraphGui extends JFrame {
     JPanel mainPanel = new JPanel(new BorderLayout());
     mainPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
     // Create button panel
-    JPanel buttonPanel = new JPanel(new GridLayout(7, 1, 0, 5));
+    JPanel buttonPanel = new JPanel(new GridLayout(0, 1, 0, 5));
 
     // Add file selection button
     JButton loadFileButton = new JButton("Load Text File");
     loadFileButton.addActionListener(e -> selectFile());
     buttonPanel.add(loadFileButton);
 
+    JButton loadDirectoryButton = new JButton("Load Directory");
+    loadDirectoryButton.addActionListener(e -> selectCorpus());
+    buttonPanel.add(loadDirectoryButton);
+
+    JButton switchGraphButton = new JButton("Switch Graph");
+    switchGraphButton.addActionListener(e -> switchGraphGui());
+    buttonPanel.add(switchGraphButton);
+
     // Add function buttons
     JButton showGraphButton = new JButton("Display Graph");
-    showGraphButton.addActionListener(e -> showDirectedGraph(graph));
+    showGraphButton.addActionListener(e -> showDirectedGraph(wordGraph.getGraph()));
     buttonPanel.add(showGraphButton);
 
     JButton bridgeWordsButton = new JButton("Show Bridge Words");
@@ -124,6 +153,10 @@ public class GraphGui extends JFrame {
     pageRankButton.addActionListener(e -> calculatePageRankGui());
     buttonPanel.add(pageRankButton);
 
+    JButton topKButton = new JButton("Top-K Analytics");
+    topKButton.addActionListener(e -> showTopKGui());
+    buttonPanel.add(topKButton);
+
     JButton randomWalkButton = new JButton("Random Walk");
     randomWalkButton.addActionListener(e -> performRandomWalk());
     buttonPanel.add(randomWalkButton);
@@ -132,19 +165,34 @@ public class GraphGui extends JFrame {
     visualizeButton.addActionListener(e -> saveGraphImage());
     buttonPanel.add(visualizeButton);
 
+    JButton exportButton = new JButton("Export Graph");
+    exportButton.addActionListener(e -> exportGraph());
+    buttonPanel.add(exportButton);
+
+    JButton metricsButton = new JButton("Show Metrics");
+    metricsButton.addActionListener(e -> showMetrics());
+    buttonPanel.add(metricsButton);
+
     // Create output area
     outputArea = new JTextArea();
     outputArea.setEditable(false);
     outputArea.setLineWrap(true);
     outputArea.setWrapStyleWord(true);
     JScrollPane scrollPane = new JScrollPane(outputArea);
+    // 加载过程中提示查询结果只基于已读入的部分文本
+    partialLabel = new JLabel();
+    partialLabel.setForeground(Color.RED);
+    partialLabel.setVisible(false);
+    JPanel outputPanel = new JPanel(new BorderLayout());
+    outputPanel.add(partialLabel, BorderLayout.NORTH);
+    outputPanel.add(scrollPane, BorderLayout.CENTER);
 
     // Create status label
     statusLabel = new JLabel("Status: Ready");
     statusLabel.setBorder(new EmptyBorder(5, 0, 0, 0));
 
     // Add components to main panel
-    mainPanel.add(scrollPane, BorderLayout.CENTER);
+    mainPanel.add(outputPanel, BorderLayout.CENTER);
     mainPanel.add(buttonPanel, BorderLayout.WEST);
     mainPanel.add(statusLabel, BorderLayout.SOUTH);
 
@@ -155,27 +203,273 @@ public class GraphGui extends JFrame {
   private void selectFile() {
     JFileChooser fileChooser = new JFileChooser();
     fileChooser.setDialogTitle("Select Text File");
-    fileChooser.setFileFilter(new FileNameExtensionFilter("Text files", "txt"));
+    fileChooser.setFileFilter(new FileNameExtensionFilter("Text files (.txt, .gz)", "txt", "gz"));
 
     int result = fileChooser.showOpenDialog(this);
     if (result == JFileChooser.APPROVE_OPTION) {
       selectedFile = fileChooser.getSelectedFile();
+      cancelLoading();
+      statusLabel.setText("Status: Loading " + selectedFile.getName() + "...");
+      new LoadWorker(selectedFile).start();
+    }
+  }
+
+  /**
+   * 在后台线程中加载到新建的图，同一时间只有一个加载.
+   *
+   * <p>每个加载都写入自己新建的图。被取消的加载可能还要运行一小段时间才发现中断，
+   * 它写入的图不会再被界面或之后的加载使用。</p>
+   */
+  private abstract class BackgroundLoad<T, V> extends SwingWorker<T, V> {
+    final WordGraph target = newGraph();
+    private final WordGraph previousGraph = wordGraph;
+    private final String previousName = currentGraphName;
+
+    /**
+     * 把加载目标设为当前图并开始加载.
+     */
+    void start() {
+      loadWorker = this;
+      wordGraph = target;
+      currentGraphName = null;
+      execute();
+    }
+
+    /**
+     * 当前图恢复为开始加载前的图.
+     */
+    void restorePrevious() {
+      wordGraph = previousGraph;
+      currentGraphName = previousName;
+    }
+  }
+
+  /**
+   * 在后台线程中加载文件，加载过程中把部分快照设为当前图.
+   */
+  private final class LoadWorker
+      extends BackgroundLoad<ProgressiveLoader.Progress, ProgressiveLoader.Progress> {
+    private final File file;
+
+    LoadWorker(File file) {
+      this.file = file;
+    }
+
+    @Override
+    protected ProgressiveLoader.Progress doInBackground() throws IOException {
+      return new ProgressiveLoader(LOAD_SNAPSHOT_INTERVAL_MILLIS)
+          .load(file.toPath(), target, this::publish);
+    }
+
+    @Override
+    protected void process(List<ProgressiveLoader.Progress> chunks) {
+      ProgressiveLoader.Progress latest = chunks.get(chunks.size() - 1);
+      if (loadWorker != this || isCancelled() || latest.isComplete()) {
+        return;
+      }
+      wordGraph = latest.getGraph();
+      partialLabel.setText("Partial graph: queries see only the first "
+          + String.format("%.0f%%", latest.getFraction() * 100) + " of " + file.getName());
+      partialLabel.setVisible(true);
+      statusLabel.setText("Status: Loading " + file.getName() + " - " + latest);
+    }
+
+    @Override
+    protected void done() {
+      if (loadWorker != this || isCancelled()) {
+        return;
+      }
+      loadWorker = null;
+      partialLabel.setVisible(false);
+      wordGraph = target;
       try {
-        processTextFile(selectedFile.getAbsolutePath());
-        statusLabel.setText("Status: File loaded - " + selectedFile.getName());
-        outputArea.setText("File loaded successfully: " + selectedFile.getName() + "\n");
-        outputArea.append("Total words processed: " + words.size());
-      } catch (IOException e) {
-        JOptionPane.showMessageDialog(this, "Error loading file: " + e.getMessage(),
-            "File Error", JOptionPane.ERROR_MESSAGE);
+        ProgressiveLoader.Progress progress = get();
+        addToWorkspace(file.getName());
+        statusLabel.setText("Status: File loaded - " + file.getName() + " - " + progress);
+        outputArea.setText("File loaded successfully: " + file.getName() + "\n");
+        outputArea.append("Total words processed: " + wordGraph.getWordCount());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException | IOException e) {
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        JOptionPane.showMessageDialog(GraphGui.this,
+            "Error loading file: " + cause.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
         statusLabel.setText("Status: Error loading file");
+        wordGraph.clear();
       }
     }
   }
 
+  /**
+   * 取消正在进行的加载，当前图恢复为开始加载前的图.
+   */
+  private void cancelLoading() {
+    if (loadWorker != null) {
+      loadWorker.cancel(true);
+      loadWorker.restorePrevious();
+      loadWorker = null;
+      partialLabel.setVisible(false);
+    }
+  }
+
+  private void selectCorpus() {
+    cancelLoading();
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Select Corpus Directory");
+    fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+    if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    File directory = fileChooser.getSelectedFile();
+
+    JPanel optionsPanel = new JPanel(new GridLayout(0, 1, 0, 5));
+    optionsPanel.add(new JLabel("File pattern (glob, relative to the directory):"));
+    JTextField patternField = new JTextField("**.{txt,txt.gz}");
+    optionsPanel.add(patternField);
+    JCheckBox crossFileBox = new JCheckBox("Link last word of each file to the next file");
+    optionsPanel.add(crossFileBox);
+    int choice = JOptionPane.showConfirmDialog(this, optionsPanel, "Load Directory",
+        JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+    if (choice != JOptionPane.OK_OPTION) {
+      return;
+    }
+
+    String spec = directory.getAbsolutePath() + File.separator + patternField.getText().trim();
+    statusLabel.setText("Status: Loading corpus from " + directory.getName() + "...");
+    new CorpusWorker(directory, spec, crossFileBox.isSelected()).start();
+  }
+
+  /**
+   * 在后台线程中查找并加载目录中的多个文件.
+   */
+  private final class CorpusWorker extends BackgroundLoad<CorpusLoader.LoadReport, Void> {
+    private final File directory;
+    private final String spec;
+    private final boolean crossFile;
+
+    CorpusWorker(File directory, String spec, boolean crossFile) {
+      this.directory = directory;
+      this.spec = spec;
+      this.crossFile = crossFile;
+    }
+
+    /**
+     * 没有匹配的文件时返回null.
+     */
+    @Override
+    protected CorpusLoader.LoadReport doInBackground() throws IOException {
+      List<Path> files = CorpusLoader.resolve(spec);
+      if (files.isEmpty()) {
+        return null;
+      }
+      CorpusLoader loader = new CorpusLoader(target.getTokenizer(),
+          Runtime.getRuntime().availableProcessors(), crossFile);
+      return loader.load(files, target);
+    }
+
+    @Override
+    protected void done() {
+      if (loadWorker != this || isCancelled()) {
+        return;
+      }
+      loadWorker = null;
+      try {
+        CorpusLoader.LoadReport report = get();
+        if (report == null) {
+          restorePrevious();
+          statusLabel.setText("Status: No files match " + spec);
+          JOptionPane.showMessageDialog(GraphGui.this, "No files match " + spec,
+              "Load Directory", JOptionPane.WARNING_MESSAGE);
+          return;
+        }
+        addToWorkspace(directory.getName() + File.separator);
+        selectedFile = directory;
+        statusLabel.setText("Status: Corpus loaded - " + report);
+        StringBuilder text = new StringBuilder("Corpus loaded from: ")
+            .append(directory.getName()).append('\n').append(report).append("\n\n");
+        for (CorpusLoader.FileStats stats : report.getFiles()) {
+          text.append(stats).append('\n');
+        }
+        outputArea.setText(text.toString());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException | IOException e) {
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        JOptionPane.showMessageDialog(GraphGui.this,
+            "Error loading corpus: " + cause.getMessage(), "File Error",
+            JOptionPane.ERROR_MESSAGE);
+        statusLabel.setText("Status: Error loading corpus");
+        wordGraph.clear();
+      }
+    }
+  }
+
+  /**
+   * 创建一个空图，沿用当前图的分词器.
+   */
+  private WordGraph newGraph() {
+    WordGraph graph = new WordGraph();
+    graph.setTokenizer(wordGraph.getTokenizer());
+    return graph;
+  }
+
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  private void addToWorkspace(String name) throws IOException {
+    if (workspace == null) {
+      Path directory = Files.createTempDirectory("wordgraph-workspace");
+      GraphWorkspace created = new GraphWorkspace(Runtime.getRuntime().maxMemory() / 4,
+          directory);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          created.clear();
+          Files.deleteIfExists(directory);
+        } catch (IOException ignored) {
+          // 临时目录由系统清理
+        }
+      }));
+      workspace = created;
+    }
+    workspace.put(name, wordGraph);
+    currentGraphName = name;
+  }
+
+  private void switchGraphGui() {
+    if (workspace == null || workspace.names().isEmpty()) {
+      JOptionPane.showMessageDialog(this, "No graphs loaded yet",
+          "Switch Graph", JOptionPane.INFORMATION_MESSAGE);
+      return;
+    }
+    List<String> names = workspace.names();
+    Collections.reverse(names);  // 最近使用的排在前面
+    JComboBox<String> nameBox = new JComboBox<>(names.toArray(new String[0]));
+    nameBox.setSelectedItem(currentGraphName);
+    int choice = JOptionPane.showConfirmDialog(this, nameBox, "Switch Graph",
+        JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+    if (choice != JOptionPane.OK_OPTION) {
+      return;
+    }
+    String name = (String) nameBox.getSelectedItem();
+    cancelLoading();
+    try {
+      boolean resident = workspace.isResident(name);
+      wordGraph = workspace.get(name);
+      currentGraphName = name;
+      statusLabel.setText("Status: Switched to " + name
+          + (resident ? "" : " (reloaded from snapshot)"));
+      outputArea.setText("Current graph: " + name + "\n"
+          + "Total words processed: " + wordGraph.getWordCount() + "\n"
+          + "Graphs in workspace: " + names.size() + ", resident estimate: "
+          + workspace.getResidentBytes() / (1024 * 1024) + " MB of "
+          + workspace.getBudgetBytes() / (1024 * 1024) + " MB");
+    } catch (IOException e) {
+      JOptionPane.showMessageDialog(this, "Error reloading graph: " + e.getMessage(),
+          "File Error", JOptionPane.ERROR_MESSAGE);
+      statusLabel.setText("Status: Error reloading graph");
+    }
+  }
 
   private void showBridgeWordsGui() {
-    if (graph.isEmpty()) {
+    if (wordGraph.isEmpty()) {
       showNoGraphError();
       return;
     }
@@ -229,7 +523,7 @@ public class GraphGui extends JFrame {
   }
 
   private void generateNewTextGui() {
-    if (graph.isEmpty()) {
+    if (wordGraph.isEmpty()) {
       showNoGraphError();
       return;
     }
@@ -244,6 +538,12 @@ public class GraphGui extends JFrame {
     inputPanel.add(new JLabel("Input Text:"), BorderLayout.NORTH);
     inputTextField = new JTextField();
     inputPanel.add(inputTextField, BorderLayout.CENTER);
+    // 阶数2只使用图中的二元组，更高阶时桥接词需与前文一起在原文中出现
+    JComboBox<Integer> orderBox = new JComboBox<>(new Integer[] {2, 3, 4, 5});
+    JPanel orderPanel = new JPanel(new BorderLayout(5, 5));
+    orderPanel.add(new JLabel("N-gram order:"), BorderLayout.WEST);
+    orderPanel.add(orderBox, BorderLayout.CENTER);
+    inputPanel.add(orderPanel, BorderLayout.SOUTH);
 
     JButton submitButton = new JButton("Generate Text");
     submitButton.addActionListener(e -> {
@@ -255,7 +555,9 @@ public class GraphGui extends JFrame {
         return;
       }
 
-      String newText = generateNewText(inputText);
+      int order = (Integer) orderBox.getSelectedItem();
+      String newText = order == 2 ? generateNewText(inputText)
+          : wordGraph.generateNewText(inputText, order);
       outputArea.setText("Original text:\n" + inputText + "\n\nGenerated text with bridge words:\n"
           + newText);
       statusLabel.setText("Status: New text generated");
@@ -264,13 +566,13 @@ public class GraphGui extends JFrame {
 
     dialog.add(inputPanel, BorderLayout.CENTER);
     dialog.add(submitButton, BorderLayout.SOUTH);
-    dialog.setSize(400, 150);
+    dialog.setSize(400, 180);
     dialog.setLocationRelativeTo(this);
     dialog.setVisible(true);
   }
 
   private void calculateShortestPathGui() {
-    if (graph.isEmpty()) {
+    if (wordGraph.isEmpty()) {
       showNoGraphError();
       return;
     }
@@ -290,6 +592,8 @@ public class GraphGui extends JFrame {
     word2Field = new JTextField();
     inputPanel.add(word2Field);
 
+    JCheckBox saveToFileBox = new JCheckBox("Save all-targets result to file");
+
     JButton submitButton = new JButton("Calculate Path");
     submitButton.addActionListener(e -> {
       String word1 = word1Field.getText().trim();
@@ -303,22 +607,108 @@ public class GraphGui extends JFrame {
       String word2 = word2Field.getText().trim();
       // word2 may be empty, that's valid for our new functionality
 
+      if (word2.isEmpty()) {
+        // 所有目标模式：结果流式写出，界面只保留有限长度的预览
+        dialog.dispose();
+        streamAllShortestPaths(word1, saveToFileBox.isSelected());
+        return;
+      }
       String result = calcShortestPath(word1, word2);
       outputArea.setText(result);
       statusLabel.setText("Status: Shortest path(s) calculated");
       dialog.dispose();
     });
 
+    JPanel southPanel = new JPanel(new GridLayout(2, 1, 0, 5));
+    southPanel.add(saveToFileBox);
+    southPanel.add(submitButton);
+
     dialog.add(inputPanel, BorderLayout.CENTER);
-    dialog.add(submitButton, BorderLayout.SOUTH);
-    dialog.setSize(300, 150);
+    dialog.add(southPanel, BorderLayout.SOUTH);
+    dialog.setSize(300, 180);
     dialog.setLocationRelativeTo(this);
     dialog.setVisible(true);
   }
 
+  private void streamAllShortestPaths(String word1, boolean saveToFile) {
+    File fileToSave = null;
+    if (saveToFile) {
+      JFileChooser fileChooser = new JFileChooser();
+      fileChooser.setDialogTitle("Save Shortest Paths");
+      fileChooser.setFileFilter(new FileNameExtensionFilter("Text files", "txt"));
+      if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+        return;
+      }
+      fileToSave = fileChooser.getSelectedFile();
+      if (!fileToSave.getName().toLowerCase().endsWith(".txt")) {
+        fileToSave = new File(fileToSave.getAbsolutePath() + ".txt");
+      }
+    }
+    // 大图上所有目标的路径可能很多，与加载和渲染一样在后台线程中计算和写出
+    statusLabel.setText("Status: Calculating shortest paths from \"" + word1 + "\"...");
+    new PathWorker(wordGraph, word1, fileToSave).execute();
+  }
+
+  /**
+   * 在后台计算到所有目标的最短路径，写入文件或生成有限长度的预览.
+   *
+   * <p>计算使用启动时的图对象；加载新文件时会换成新的图对象，不影响正在进行的计算。</p>
+   */
+  private final class PathWorker extends SwingWorker<String, Void> {
+    private final WordGraph graph;
+    private final String word1;
+    private final File fileToSave;
+    private boolean saved;
+
+    PathWorker(WordGraph graph, String word1, File fileToSave) {
+      this.graph = graph;
+      this.word1 = word1;
+      this.fileToSave = fileToSave;
+    }
+
+    /**
+     * 返回要显示的文本：错误信息、预览或保存位置.
+     */
+    @Override
+    @SuppressFBWarnings("PATH_TRAVERSAL_OUT")
+    protected String doInBackground() throws IOException {
+      if (fileToSave == null) {
+        StringWriter writer = new StringWriter();
+        String error = graph.streamShortestPaths(word1,
+            new TextPathSink(writer, MAX_PREVIEW_CHARS));
+        return error != null ? error : writer.toString();
+      }
+      String error;
+      try (BufferedWriter writer = Files.newBufferedWriter(fileToSave.toPath(),
+          StandardCharsets.UTF_8)) {
+        error = graph.streamShortestPaths(word1, new TextPathSink(writer));
+      }
+      if (error != null) {
+        return error;
+      }
+      saved = true;
+      return "Shortest paths from \"" + word1 + "\" saved to: " + fileToSave.getAbsolutePath();
+    }
+
+    @Override
+    protected void done() {
+      try {
+        outputArea.setText(get());
+        statusLabel.setText(saved ? "Status: Shortest paths saved to " + fileToSave.getName()
+            : "Status: Shortest path(s) calculated");
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        JOptionPane.showMessageDialog(GraphGui.this,
+            "Error saving file: " + e.getCause().getMessage(),
+            "Save Error", JOptionPane.ERROR_MESSAGE);
+        statusLabel.setText("Status: Error saving shortest paths");
+      }
+    }
+  }
 
   private void calculatePageRankGui() {
-    if (graph.isEmpty()) {
+    if (wordGraph.isEmpty()) {
       showNoGraphError();
       return;
     }
@@ -345,7 +735,19 @@ public class GraphGui extends JFrame {
       }
 
       Double prValue = calPageRank(word);
-      outputArea.setText("PageRank of \"" + word + "\": " + String.format("%.6f", prValue));
+      StringBuilder text = new StringBuilder("PageRank of \"").append(word).append("\": ")
+          .append(String.format("%.6f", prValue));
+      // 以该单词为种子的个性化PageRank只访问其附近的单词
+      List<ScoredItem> related = wordGraph.relatedWords(RELATED_WORDS, word);
+      if (!related.isEmpty()) {
+        text.append("\n\nRelated words:\n");
+        int rank = 1;
+        for (ScoredItem item : related) {
+          text.append(rank++).append(". ").append(item.getWord()).append(": ")
+              .append(String.format("%.6f", item.getScore())).append('\n');
+        }
+      }
+      outputArea.setText(text.toString());
       statusLabel.setText("Status: PageRank calculated");
       dialog.dispose();
     });
@@ -357,9 +759,100 @@ public class GraphGui extends JFrame {
     dialog.setVisible(true);
   }
 
+  private void showTopKGui() {
+    if (wordGraph.isEmpty()) {
+      showNoGraphError();
+      return;
+    }
+
+    JDialog dialog = new JDialog(this, "Top-K Analytics", true);
+    dialog.setLayout(new BorderLayout(10, 10));
+
+    JPanel inputPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+    inputPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+    inputPanel.add(new JLabel("Query:"));
+    String[] queries = {"Heaviest edges", "Out-degree", "In-degree", "Weighted out-degree",
+        "Weighted in-degree", "Betweenness", "Closeness", "PageRank"};
+    JComboBox<String> queryBox = new JComboBox<>(queries);
+    inputPanel.add(queryBox);
+
+    inputPanel.add(new JLabel("K:"));
+    JTextField kField = new JTextField("20");
+    inputPanel.add(kField);
+
+    JButton submitButton = new JButton("Show Top-K");
+    submitButton.addActionListener(e -> {
+      int k;
+      try {
+        k = Integer.parseInt(kField.getText().trim());
+      } catch (NumberFormatException ex) {
+        k = 0;
+      }
+      if (k <= 0) {
+        JOptionPane.showMessageDialog(dialog, "K must be a positive integer",
+            "Input Error", JOptionPane.ERROR_MESSAGE);
+        return;
+      }
+
+      String query = (String) queryBox.getSelectedItem();
+      StringBuilder text = new StringBuilder("Top ").append(k).append(": ")
+          .append(query).append("\n\n");
+      int rank = 1;
+      if (queryBox.getSelectedIndex() == 0) {
+        for (WeightedEdge edge : wordGraph.topEdges(k)) {
+          text.append(rank++).append(". ").append(edge).append('\n');
+        }
+      } else {
+        List<ScoredItem> items;
+        switch (queryBox.getSelectedIndex()) {
+          case 1:
+            items = wordGraph.topDegree(GraphAnalytics.DegreeKind.OUT, k);
+            break;
+          case 2:
+            items = wordGraph.topDegree(GraphAnalytics.DegreeKind.IN, k);
+            break;
+          case 3:
+            items = wordGraph.topDegree(GraphAnalytics.DegreeKind.WEIGHTED_OUT, k);
+            break;
+          case 4:
+            items = wordGraph.topDegree(GraphAnalytics.DegreeKind.WEIGHTED_IN, k);
+            break;
+          case 5:
+            items = GraphAnalytics.topScores(
+                wordGraph.computeCentrality(CENTRALITY_SOURCE_BUDGET).getBetweenness(), k);
+            break;
+          case 6:
+            items = GraphAnalytics.topScores(
+                wordGraph.computeCentrality(CENTRALITY_SOURCE_BUDGET).getCloseness(), k);
+            break;
+          default:
+            items = wordGraph.topPageRank(k);
+            break;
+        }
+        boolean fractional = queryBox.getSelectedIndex() >= 5;
+        for (ScoredItem item : items) {
+          text.append(rank++).append(". ").append(item.getWord()).append(": ")
+              .append(fractional ? String.format("%.6f", item.getScore())
+                  : String.valueOf((long) item.getScore()))
+              .append('\n');
+        }
+      }
+      outputArea.setText(text.toString());
+      statusLabel.setText("Status: Top-K computed");
+      dialog.dispose();
+    });
+
+    dialog.add(inputPanel, BorderLayout.CENTER);
+    dialog.add(submitButton, BorderLayout.SOUTH);
+    dialog.setSize(340, 150);
+    dialog.setLocationRelativeTo(this);
+    dialog.setVisible(true);
+  }
+
   @SuppressFBWarnings("PATH_TRAVERSAL_IN")
   private void performRandomWalk() {
-    if (graph.isEmpty()) {
+    if (wordGraph.isEmpty()) {
       showNoGraphError();
       return;
     }
@@ -394,41 +887,221 @@ public class GraphGui extends JFrame {
   }
 
   private void saveGraphImage() {
-    if (graph.isEmpty()) {
+    if (wordGraph.isEmpty()) {
       showNoGraphError();
       return;
     }
 
     JFileChooser fileChooser = new JFileChooser();
     fileChooser.setDialogTitle("Save Graph Image");
-    fileChooser.setFileFilter(new FileNameExtensionFilter("PNG images", "png"));
+    fileChooser.setAcceptAllFileFilterUsed(false);
+    List<FileNameExtensionFilter> filters = new ArrayList<>();
+    for (String format : IMAGE_FORMATS) {
+      FileNameExtensionFilter filter = new FileNameExtensionFilter(
+          format.toUpperCase() + " images", format);
+      filters.add(filter);
+      fileChooser.addChoosableFileFilter(filter);
+    }
+    fileChooser.setFileFilter(filters.get(0));
+    // 裁剪选项：只保留权重足够大的边，或只保留加权出度最大的若干个单词
+    JPanel accessory = new JPanel(new GridLayout(0, 1, 0, 2));
+    accessory.setBorder(new EmptyBorder(0, 10, 0, 0));
+    JCheckBox allFormatsBox = new JCheckBox("Save PNG, SVG and PDF");
+    accessory.add(allFormatsBox);
+    accessory.add(new JLabel("Minimum edge weight:"));
+    JSpinner minWeightSpinner = new JSpinner(new SpinnerNumberModel(1, 1, Integer.MAX_VALUE, 1));
+    accessory.add(minWeightSpinner);
+    accessory.add(new JLabel("Maximum words (0 = all):"));
+    JSpinner maxWordsSpinner = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 100));
+    accessory.add(maxWordsSpinner);
+    fileChooser.setAccessory(accessory);
 
     int result = fileChooser.showSaveDialog(this);
     if (result == JFileChooser.APPROVE_OPTION) {
       File file = fileChooser.getSelectedFile();
       String filePath = file.getAbsolutePath();
 
-      // Ensure filename ends with .png
-      if (!filePath.toLowerCase().endsWith(".png")) {
-        filePath += ".png";
+      // 文件名没有图片扩展名时按所选过滤器补上
+      String format = null;
+      for (String candidate : IMAGE_FORMATS) {
+        if (filePath.toLowerCase().endsWith("." + candidate)) {
+          format = candidate;
+        }
+      }
+      if (format == null) {
+        format = IMAGE_FORMATS[Math.max(0, filters.indexOf(fileChooser.getFileFilter()))];
+        filePath += "." + format;
+      }
+
+      String outputPath = filePath.substring(0, filePath.lastIndexOf('.'));
+      RenderOptions options = new RenderOptions((Integer) minWeightSpinner.getValue(),
+          (Integer) maxWordsSpinner.getValue());
+      String[] formats = allFormatsBox.isSelected() ? IMAGE_FORMATS : new String[] {format};
+      statusLabel.setText("Status: Rendering graph image...");
+      new RenderWorker(wordGraph.getGraph(), wordGraph.getVersion(), options, outputPath,
+          formats).execute();
+    }
+  }
+
+  /**
+   * 在后台线程中渲染图像，布局可能需要数十秒，不能阻塞事件分发线程.
+   *
+   * <p>Graphviz不可用或裁剪后的图超过{@link #BUILTIN_RENDER_THRESHOLD}个单词时
+   * 使用内置渲染器，只能输出PNG；请求了其他格式时告知用户。</p>
+   */
+  private final class RenderWorker extends SwingWorker<List<String>, Void> {
+    private final Map<String, Map<String, Integer>> graph;
+    private final long version;
+    private final RenderOptions options;
+    private final String outputPath;
+    private final String[] formats;
+    private boolean graphvizAvailable;
+    private boolean builtin;
+
+    RenderWorker(Map<String, Map<String, Integer>> graph, long version, RenderOptions options,
+                 String outputPath, String[] formats) {
+      this.graph = graph;
+      this.version = version;
+      this.options = options;
+      this.outputPath = outputPath;
+      this.formats = formats;
+    }
+
+    @Override
+    protected List<String> doInBackground() throws IOException, InterruptedException {
+      List<String> imagePaths = new ArrayList<>();
+      Map<String, Map<String, Integer>> pruned = options.apply(graph);
+      graphvizAvailable = GraphVisualizer.isGraphvizAvailable();
+      builtin = pruned.size() > BUILTIN_RENDER_THRESHOLD || !graphvizAvailable;
+      if (builtin) {
+        imagePaths.add(GraphRenderer.renderToPng(pruned, outputPath,
+            GraphRenderer.DEFAULT_TIME_BUDGET_MILLIS));
+      } else {
+        for (Path image : getRenderCache().render(graph, version, options, outputPath,
+            formats)) {
+          imagePaths.add(image.toString());
+        }
       }
+      return imagePaths;
+    }
 
+    @Override
+    protected void done() {
       try {
-        String imagePath = GraphVisualizer.visualizeDirectedGraph(
-            graph,
-            filePath.substring(0, filePath.lastIndexOf('.')),
-            "png"
-        );
-        outputArea.setText("Graph image saved to: " + imagePath);
-        statusLabel.setText("Status: Graph image saved");
-      } catch (Exception e) {
-        JOptionPane.showMessageDialog(this, "Error saving graph image: " + e.getMessage(),
+        List<String> imagePaths = get();
+        outputArea.setText("Graph image saved to: " + String.join("\n", imagePaths));
+        if (builtin && !(formats.length == 1 && "png".equals(formats[0]))) {
+          String message = "SVG and PDF output needs Graphviz and at most "
+              + BUILTIN_RENDER_THRESHOLD + " words after pruning; "
+              + (graphvizAvailable ? "the graph is too large" : "Graphviz is not installed")
+              + ", so only a PNG image was saved.";
+          outputArea.append("\n\n" + message);
+          statusLabel.setText("Status: Graph image saved as PNG only");
+          JOptionPane.showMessageDialog(GraphGui.this, message, "Save Graph Image",
+              JOptionPane.INFORMATION_MESSAGE);
+        } else {
+          statusLabel.setText("Status: Graph image saved");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        JOptionPane.showMessageDialog(GraphGui.this,
+            "Error saving graph image: " + e.getCause().getMessage(),
             "Save Error", JOptionPane.ERROR_MESSAGE);
         statusLabel.setText("Status: Error saving graph image");
       }
     }
   }
 
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  private synchronized RenderCache getRenderCache() throws IOException {
+    if (renderCache == null) {
+      Path directory = Files.createTempDirectory("wordgraph-render");
+      RenderCache created = new RenderCache(directory, RENDER_CACHE_ARTIFACTS);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          created.clear();
+          Files.deleteIfExists(directory);
+        } catch (IOException ignored) {
+          // 临时目录由系统清理
+        }
+      }));
+      renderCache = created;
+    }
+    return renderCache;
+  }
+
+  private void exportGraph() {
+    if (wordGraph.isEmpty()) {
+      showNoGraphError();
+      return;
+    }
+
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Export Graph");
+    fileChooser.setAcceptAllFileFilterUsed(false);
+    List<GraphExporter> exporters = new ArrayList<>(GraphExporters.getExporters().values());
+    List<FileNameExtensionFilter> filters = new ArrayList<>();
+    for (GraphExporter exporter : exporters) {
+      FileNameExtensionFilter filter = new FileNameExtensionFilter(
+          exporter.getName() + " (." + exporter.getExtension() + ", ."
+              + exporter.getExtension() + ".gz)", exporter.getExtension(), "gz");
+      filters.add(filter);
+      fileChooser.addChoosableFileFilter(filter);
+    }
+    fileChooser.setFileFilter(filters.get(0));
+    if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    // 文件名没有可识别的扩展名时按所选过滤器补上
+    File file = fileChooser.getSelectedFile();
+    if (GraphExporters.forPath(file.toPath()) == null) {
+      int selected = filters.indexOf(fileChooser.getFileFilter());
+      GraphExporter exporter = exporters.get(Math.max(0, selected));
+      file = new File(file.getAbsolutePath() + "." + exporter.getExtension());
+    }
+    try {
+      long bytes = GraphExporters.export(wordGraph.getGraph(), file.toPath());
+      outputArea.setText("Graph exported to: " + file.getAbsolutePath() + "\n"
+          + "Edges: " + wordGraph.getEdgeCount() + ", bytes: " + bytes);
+      statusLabel.setText("Status: Graph exported to " + file.getName());
+    } catch (IOException e) {
+      JOptionPane.showMessageDialog(this, "Error exporting graph: " + e.getMessage(),
+          "Export Error", JOptionPane.ERROR_MESSAGE);
+      statusLabel.setText("Status: Error exporting graph");
+    }
+  }
+
+  private void showMetrics() {
+    OperationMetrics metrics = OperationMetrics.global();
+    String[] columns = {"Operation", "Count", "Mean (ms)", "P50 (ms)", "P99 (ms)", "Max (ms)"};
+    OperationMetrics.Operation[] operations = OperationMetrics.Operation.values();
+    Object[][] rows = new Object[operations.length][];
+    for (int i = 0; i < operations.length; i++) {
+      OperationMetrics.Operation operation = operations[i];
+      rows[i] = new Object[] {
+          operation.name(),
+          metrics.getCount(operation),
+          String.format("%.3f", metrics.getMeanMillis(operation)),
+          String.format("%.3f", metrics.getPercentileMillis(operation, 0.5)),
+          String.format("%.3f", metrics.getPercentileMillis(operation, 0.99)),
+          String.format("%.3f", metrics.getMaxMillis(operation))
+      };
+    }
+    JTable table = new JTable(rows, columns);
+    table.setEnabled(false);
+
+    JDialog dialog = new JDialog(this, "Operation Metrics", false);
+    dialog.setLayout(new BorderLayout(5, 5));
+    dialog.add(new JScrollPane(table), BorderLayout.CENTER);
+    dialog.add(new JLabel("  Also exported via JMX as " + OperationMetrics.OBJECT_NAME),
+        BorderLayout.SOUTH);
+    dialog.setSize(600, 260);
+    dialog.setLocationRelativeTo(this);
+    dialog.setVisible(true);
+  }
+
   private void showNoGraphError() {
     JOptionPane.showMessageDialog(this, "Please load a text file first",
         "No Graph", JOptionPane.WARNING_MESSAGE);
@@ -438,50 +1111,34 @@ public class GraphGui extends JFrame {
    * 处理文本文件，提取文本内容，去除换行符，保留字母.
    *
    * @param filePath 文件路径
+   * @see WordGraph#processTextFile(String)
    */
-  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
   public void processTextFile(String filePath) throws IOException {
-    StringBuilder content = new StringBuilder();
-    // 修改后的读取代码
-    try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath),
-        StandardCharsets.UTF_8)) {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        // 保留原始换行处理逻辑
-        content.append(line).append(" ");
-      }
+    try {
+      wordGraph.processTextFile(filePath);
     } catch (IOException e) {
       // 保持原有的异常处理逻辑
       JOptionPane.showMessageDialog(this, "Error reading file: " + e.getMessage(),
           "Read Error", JOptionPane.ERROR_MESSAGE);
       statusLabel.setText("Status: Error loading file");
+      wordGraph.clear();
     }
-
-    // 处理文本：去除标点，只保留字母，转换为小写
-    String processedText = content.toString().replaceAll("[^a-zA-Z]", " ").toLowerCase();
-    String[] wordArray = processedText.split("\\s+");
-
-    words = new ArrayList<>(Arrays.asList(wordArray));
-    words.removeIf(String::isEmpty); // 移除空字符串
-
-    buildDirectedWeightedGraph();
   }
 
   /**
    * 构建加权有向图.
+   *
+   * @see WordGraph#buildDirectedWeightedGraph()
    */
   public void buildDirectedWeightedGraph() {
-    graph.clear();
-
-    for (int i = 0; i < words.size() - 1; i++) {
-      String current = words.get(i);
-      String next = words.get(i + 1);
+    wordGraph.buildDirectedWeightedGraph();
+  }
 
-      // 更新或创建边及其权重
-      graph.putIfAbsent(current, new HashMap<>());
-      Map<String, Integer> edges = graph.get(current);
-      edges.put(next, edges.getOrDefault(next, 0) + 1);
-    }
+  /**
+   * 返回界面所使用的词图核心.
+   */
+  public WordGraph getWordGraph() {
+    return wordGraph;
   }
 
   /**
@@ -496,522 +1153,114 @@ public class GraphGui extends JFrame {
       return;
     }
 
-    outputArea.setText("");
-    outputArea.append("Directed Weighted Graph Structure:\n\n");
-
-    // Sort the entries alphabetically for better readability
-    List<Map.Entry<String, Map<String, Integer>>> sortedEntries =
-        new ArrayList<>(g.entrySet());
-    Collections.sort(sortedEntries,
-        Comparator.comparing(Map.Entry::getKey));
+    // 排序索引每个图版本只计算一次，各行在滚动到可见区域时才生成
+    if (graphTableModel == null || graphTableModel.getVersion() != wordGraph.getVersion()) {
+      graphTableModel = new GraphTableModel(g, wordGraph.getVersion());
+    }
+    GraphTableModel model = graphTableModel;
+    model.setPrefixFilter("");
+
+    JDialog dialog = new JDialog(this, "Directed Weighted Graph Structure", false);
+    dialog.setLayout(new BorderLayout(5, 5));
+
+    JPanel filterPanel = new JPanel(new BorderLayout(5, 5));
+    filterPanel.setBorder(new EmptyBorder(10, 10, 0, 10));
+    filterPanel.add(new JLabel("Prefix filter:"), BorderLayout.WEST);
+    JTextField filterField = new JTextField();
+    filterPanel.add(filterField, BorderLayout.CENTER);
+    JLabel countLabel = new JLabel(model.getRowCount() + " / " + model.getTotalRowCount());
+    filterPanel.add(countLabel, BorderLayout.EAST);
+
+    filterField.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+        update();
+      }
 
-    for (Map.Entry<String, Map<String, Integer>> entry : sortedEntries) {
-      outputArea.append(entry.getKey() + " -> ");
-      List<String> edges = new ArrayList<>();
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+        update();
+      }
 
-      // Sort edges alphabetically
-      List<Map.Entry<String, Integer>> sortedEdges =
-          new ArrayList<>(entry.getValue().entrySet());
-      Collections.sort(sortedEdges,
-          Comparator.comparing(Map.Entry::getKey));
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+        update();
+      }
 
-      for (Map.Entry<String, Integer> edge : sortedEdges) {
-        edges.add(edge.getKey() + "(" + edge.getValue() + ")");
+      private void update() {
+        model.setPrefixFilter(filterField.getText().trim());
+        countLabel.setText(model.getRowCount() + " / " + model.getTotalRowCount());
       }
-      outputArea.append(String.join(", ", edges) + "\n");
-    }
+    });
 
+    JTable table = new JTable(model);
+    table.getColumnModel().getColumn(0).setPreferredWidth(120);
+    table.getColumnModel().getColumn(1).setPreferredWidth(70);
+    table.getColumnModel().getColumn(2).setPreferredWidth(500);
+
+    dialog.add(filterPanel, BorderLayout.NORTH);
+    dialog.add(new JScrollPane(table), BorderLayout.CENTER);
+    dialog.setSize(750, 500);
+    dialog.setLocationRelativeTo(this);
+    dialog.setVisible(true);
+
+    outputArea.setText("Directed Weighted Graph Structure: " + model.getTotalRowCount()
+        + " words with outgoing edges (see table view).");
     statusLabel.setText("Status: Graph displayed");
   }
 
   /**
    * 要求函数2：查询桥接词.
    *
-   * @param word1 带查询的词语1
-   * @param word2 带查询的词语2
-   * @return bridgeWords 形如桥接词1, 桥接词2, ... 的桥接词列表
+   * @see WordGraph#showBridgeWords(String, String)
    */
   public String showBridgeWords(String word1, String word2) {
-    word1 = word1.toLowerCase();  // 将单词转换为小写以统一比较
-    word2 = word2.toLowerCase();
-
-    // 创建一个包含所有唯一单词的集合，用于快速存在性检查
-    // this.words 包含文件中的所有单词（可能有重复）
-    // 使用HashSet可高效判断单词是否存在
-    Set<String> allUniqueWordsInText = new HashSet<>(this.words);
-
-    // 检查1：确认word1存在于文本中
-    if (!allUniqueWordsInText.contains(word1)) {
-      return "err1";  // "未找到词1 \"" + word1 + "\" 在图中！"
-    }
-
-    // 检查2：确认word2存在于文本中
-    if (!allUniqueWordsInText.contains(word2)) {
-      return "err2";  // "未找到词2 \"" + word2 + "\" 在图中！"
-    }
-
-    // 检查3：确认word1有出边（即存在后续连接词）
-    // 若word1在图中但没有出边，则无法形成路径
-    if (!graph.containsKey(word1)) {
-      return "err3";  // "未找到从 \"" + word1 + "\" 到 \"" + word2 + "\" 的桥梁词！"
-    }
-
-    // 收集候选桥梁词
-    Set<String> bridgeWords = new HashSet<>();
-    // 获取word1的直接后续词（可能的桥梁词）
-    Map<String, Integer> neighborsOfWord1 = graph.get(word1);
-
-    // 遍历每个候选桥梁词
-    for (String potentialBridge : neighborsOfWord1.keySet()) {
-      // 检查候选词是否指向word2：
-      // 1. 候选词必须存在于图中（即有出边）
-      // 2. 其出边必须包含word2
-      if (graph.containsKey(potentialBridge)) {
-        Map<String, Integer> nextLevel = graph.get(potentialBridge);
-        if (nextLevel.containsKey(word2)) {
-          bridgeWords.add(potentialBridge);  // 确认符合条件的桥梁词
-        }
-      }
-    }
-
-    if (bridgeWords.isEmpty()) {
-      return "err3";
-    } else {
-      return String.join(", ", bridgeWords);
-    }
+    return wordGraph.showBridgeWords(word1, word2);
   }
 
   /**
    * 要求函数3：根据桥接词生成新文本.
    *
-   * @param inputText 输入文本
-   * @return 输入文本和输出文本拼接结果
+   * @see WordGraph#generateNewText(String)
    */
   public String generateNewText(String inputText) {
-    String[] inputWords = inputText.toLowerCase().split("\\s+");
-    List<String> result = new ArrayList<>();
-
-    for (int i = 0; i < inputWords.length - 1; i++) {
-      result.add(inputWords[i]);
-
-      String word1 = inputWords[i];
-      String word2 = inputWords[i + 1];
-
-      if (graph.containsKey(word1) && graph.containsKey(word2)) {
-        Set<String> bridgeWords = new HashSet<>();
-        Map<String, Integer> neighbors1 = graph.get(word1);
-
-        for (String neighbor : neighbors1.keySet()) {
-          if (graph.containsKey(neighbor) && graph.get(neighbor).containsKey(word2)) {
-            bridgeWords.add(neighbor);
-          }
-        }
-
-        if (!bridgeWords.isEmpty()) {
-          // 随机选择桥接词
-          String[] bridges = bridgeWords.toArray(new String[0]);
-
-          int randomIndex = SECURE_RANDOM.nextInt(bridges.length);
-          String selected = bridges[randomIndex];
-
-          result.add(selected);
-        }
-      }
-    }
-
-    result.add(inputWords[inputWords.length - 1]);
-    return String.join(" ", result);
+    return wordGraph.generateNewText(inputText);
   }
 
   /**
    * 要求函数4：计算最短路径.
    *
-   * @param word1 用于查找最短路径的词1
-   * @param word2 用于查找最短路径的词2（如果为空，则计算word1到所有其他单词的最短路径）
-   * @return 最短路径，可以直接用于输出
+   * @see WordGraph#calcShortestPath(String, String)
    */
   public String calcShortestPath(String word1, String word2) {
-
-    // 1. 确定图中需要考虑的所有节点集合
-    // 包括有边的节点和可能来自输入文本的孤立单词
-    Set<String> allNodesInGraph = new HashSet<>();
-    if (!graph.isEmpty()) {
-      allNodesInGraph.addAll(graph.keySet()); // Nodes with outgoing edges
-      for (Map<String, Integer> neighborMap : graph.values()) {
-        allNodesInGraph.addAll(neighborMap.keySet()); // Nodes with incoming edges
-      }
-    }
-
-    // 如果图(边结构)为空但文件中有加载单词
-    // 将所有唯一单词视为(孤立的)节点
-    if (allNodesInGraph.isEmpty() && !this.words.isEmpty()) {
-      allNodesInGraph.addAll(new HashSet<>(this.words));
-    }
-
-    if (allNodesInGraph.isEmpty()) {
-      return "The graph is effectively empty. No words to calculate paths for.";
-    }
-
-    // 2. 验证word1和word2是否在所有节点集合中
-    if (!allNodesInGraph.contains(word1)) {
-      return "Word \"" + word1 + "\" not in the graph!";
-    }
-    boolean findAllPaths = word2 == null || word2.trim().isEmpty();
-    if (!findAllPaths && !allNodesInGraph.contains(word2)) {
-      return "Word \"" + word2 + "\" not in the graph!";
-    }
-
-    // 3. 初始化Dijkstra算法数据结构
-    Map<String, Integer> distances = new HashMap<>();           // 存储到每个节点的最短距离
-    Map<String, List<String>> predecessors = new HashMap<>();   // 存储前驱节点
-    for (String node : allNodesInGraph) {
-      distances.put(node, Integer.MAX_VALUE);                   // 初始距离设为无穷大
-      predecessors.put(node, new ArrayList<>());                // 初始化前驱列表
-    }
-    distances.put(word1, 0);    // 起点到自身的距离为0
-
-    // 使用优先队列(按距离排序)来选择下一个处理的节点
-    PriorityQueue<String> queue = new PriorityQueue<>(
-        Comparator.comparingInt(node -> distances.getOrDefault(node, Integer.MAX_VALUE)));
-    queue.add(word1);
-    Set<String> processedNodes = new HashSet<>();
-
-    // 4. 运行Dijkstra算法
-    while (!queue.isEmpty()) {
-      String current = queue.poll(); // 取出当前距离最小的节点
-      if (processedNodes.contains(current)) {
-        continue; // 跳过已处理的节点
-      }
-      processedNodes.add(current);
-      if (!findAllPaths && current.equals(word2)) {
-        break;  // 如果找到目标节点且不需要所有路径，提前退出
-      }
-      Integer currentDistance = distances.get(current);
-      if (currentDistance == Integer.MAX_VALUE) {
-        continue; // 不可达节点跳过
-      }
-
-      // 从图结构中获取当前节点的邻居(有出边的节点)
-      Map<String, Integer> neighbors = graph.get(current);
-      if (neighbors == null || neighbors.isEmpty()) {
-        continue; // 当前节点没有出边则跳过
-      }
-
-      // 遍历所有邻居节点
-      for (Map.Entry<String, Integer> neighborEntry : neighbors.entrySet()) {
-        String neighbor = neighborEntry.getKey();
-        Integer weight = neighborEntry.getValue();
-
-        // 只考虑在我们定义的节点集合中的邻居
-        if (!allNodesInGraph.contains(neighbor)) {
-          continue;
-        }
-
-        int newDistToNeighbor = currentDistance + weight;   // 计算新距离
-        Integer knownDistToNeighbor = distances.get(neighbor);
-
-        // 如果找到更短的路径
-        if (newDistToNeighbor < knownDistToNeighbor) {
-          distances.put(neighbor, newDistToNeighbor);   // 更新距离
-          predecessors.get(neighbor).clear();           // 清除旧前驱
-          predecessors.get(neighbor).add(current);      // 添加新前驱
-          queue.remove(neighbor);                       // 更新优先级(通过重新添加)
-          queue.add(neighbor);
-        } else if (newDistToNeighbor == knownDistToNeighbor
-            && newDistToNeighbor != Integer.MAX_VALUE) {
-          // 如果找到相同距离的路径
-          // 添加额外前驱(多路径)
-          predecessors.get(neighbor).add(current);
-        }
-      }
-    }
-
-    // 5. 构建并返回结果字符串
-    StringBuilder resultBuilder = new StringBuilder();
-    if (findAllPaths) {
-      // 输出从word1到所有其他可达单词的最短路径
-      resultBuilder.append("Shortest paths from \"").append(word1)
-          .append("\" to all other reachable words:\n\n");
-      List<Map.Entry<String, Integer>> sortedPaths = new ArrayList<>();
-
-      // 收集所有可达路径(排除起点自身和不可达节点)
-      for (Map.Entry<String, Integer> entry : distances.entrySet()) {
-        if (!entry.getKey().equals(word1) && entry.getValue() != Integer.MAX_VALUE) {
-          sortedPaths.add(entry);
-        }
-      }
-
-      // 按距离和单词字母顺序排序
-      sortedPaths.sort((e1, e2) -> {
-        int distComp = e1.getValue().compareTo(e2.getValue());
-        return (distComp != 0) ? distComp : e1.getKey().compareTo(e2.getKey());
-      });
-      if (sortedPaths.isEmpty()) {
-        resultBuilder.append("No other words are reachable from \"").append(word1).append("\".\n");
-      } else {
-        // 输出每条路径的详细信息
-        for (Map.Entry<String, Integer> entry : sortedPaths) {
-          String target = entry.getKey();
-          resultBuilder.append("To \"").append(target).append("\" (distance: ")
-              .append(entry.getValue()).append("):\n");
-          List<List<String>> allShortestPathsToTarget = getAllPaths(predecessors, word1, target);
-          for (int i = 0; i < allShortestPathsToTarget.size(); i++) {
-            resultBuilder.append("  Path ").append(i + 1).append(": ")
-                .append(String.join(" -> ", allShortestPathsToTarget.get(i)))
-                .append("\n");
-          }
-          resultBuilder.append("\n");
-        }
-      }
-    } else {
-      // 输出到特定word2的路径
-      Integer targetDistance = distances.get(word2);
-      if (targetDistance == Integer.MAX_VALUE) {
-        return "No path from \"" + word1 + "\" to \"" + word2 + "\"!";
-      }
-      if (word1.equals(word2)) {
-        // 处理起点和终点相同的情况
-        resultBuilder.append("Shortest path from \"").append(word1).append("\" to itself:\n");
-        resultBuilder.append("Distance: 0\n\nPath 1: ").append(word1).append("\n");
-      } else {
-        // 输出到word2的路径信息
-        resultBuilder.append("Shortest path from \"").append(word1).append("\" to \"")
-            .append(word2).append("\":\n");
-        resultBuilder.append("Distance: ").append(targetDistance).append("\n\n");
-        List<List<String>> allShortestPathsToTarget = getAllPaths(predecessors, word1, word2);
-        // 输出所有最短路径
-        for (int i = 0; i < allShortestPathsToTarget.size(); i++) {
-          resultBuilder.append("Path ").append(i + 1).append(": ")
-              .append(String.join(" -> ", allShortestPathsToTarget.get(i))).append("\n");
-        }
-      }
-    }
-    return resultBuilder.toString();
+    return wordGraph.calcShortestPath(word1, word2);
   }
 
   /**
-   * 使用回溯法获取所有可能的最短路径.
-   */
-  private static List<List<String>> getAllPaths(Map<String, List<String>> predecessors,
-                                                String start, String end) {
-    List<List<String>> result = new ArrayList<>();
-
-    // 使用DFS递归构建所有路径
-    findAllPaths(predecessors, result, new ArrayList<>(), end, start);
-
-    return result;
-  }
-
-  /**
-   * 递归辅助方法 - 回溯法找出所有路径.
+   * 计算word1到所有可达单词的最短路径，并按目标逐个推送给接收器.
+   *
+   * @see WordGraph#streamShortestPaths(String, ShortestPathSink)
    */
-  private static void findAllPaths(Map<String, List<String>> predecessors,
-                                   List<List<String>> result,
-                                   List<String> currentPath,
-                                   String current,
-                                   String start) {
-    // 添加当前节点
-    currentPath.add(0, current);
-
-    // 基本情况：如果当前节点是起点
-    if (current.equals(start)) {
-      result.add(new ArrayList<>(currentPath));
-    } else {
-      // 获取前驱列表，确保不为null
-      List<String> predecessorList = predecessors.get(current);
-      if (predecessorList != null) {
-        // 递归检查所有前驱节点
-        for (String predecessor : predecessorList) {
-          findAllPaths(predecessors, result, currentPath, predecessor, start);
-        }
-      }
-    }
-
-    // 回溯
-    currentPath.remove(0);
+  public String streamShortestPaths(String word1, ShortestPathSink sink) throws IOException {
+    return wordGraph.streamShortestPaths(word1, sink);
   }
 
   /**
-   * 要求函数5：计算单词的PageRank值，计算全部节点.
+   * 要求函数5：计算单词的PageRank值.
    *
-   * @param word 要查询的单词
-   * @return 该单词的PageRank值
+   * @see WordGraph#calPageRank(String)
    */
   public Double calPageRank(String word) {
-    word = word.toLowerCase();
-
-    // 首先收集图中所有节点，包括只作为目标节点的节点
-    // 添加所有作为源节点的节点
-    Set<String> allNodes = new HashSet<>(graph.keySet());
-
-    // 添加所有作为目标节点的节点
-    for (Map<String, Integer> edges : graph.values()) {
-      allNodes.addAll(edges.keySet());
-    }
-
-    // 检查要查询的词是否存在于图中
-    if (!allNodes.contains(word)) {
-      return 0.0; // 单词不在图中
-    }
-
-    int numNodes = allNodes.size();
-
-    // 参数设置
-    final int maxIterations = 100; // 最大迭代次数
-    final double tolerance = 1e-6; // 收敛阈值
-
-    // 进行随机游走统计访问频次
-    Map<String, Integer> visitCounts = new HashMap<>();
-
-    List<String> nodes = new ArrayList<>(graph.keySet());
-    String currentNode = nodes.get(SECURE_RANDOM.nextInt(nodes.size()));
-    Map<String, Double> prValues = new HashMap<>();
-
-    for (int i = 0; i < 10000; i++) {
-      visitCounts.put(currentNode, visitCounts.getOrDefault(currentNode, 0) + 1);
-
-      // 检查当前节点是否在图中，以及该节点是否有出边
-      if (!graph.containsKey(currentNode) || graph.get(currentNode).isEmpty()) {
-        // 如果当前节点不在图中或没有出边，随机选择一个新节点
-        currentNode = nodes.get(SECURE_RANDOM.nextInt(nodes.size()));
-        continue;
-      }
-
-      // 安全地获取邻居节点
-      Map<String, Integer> currentNeighbors = graph.get(currentNode);
-      List<String> neighbors = new ArrayList<>(currentNeighbors.keySet());
-
-      if (neighbors.isEmpty()) {
-        // 如果没有邻居，随机选择一个新节点
-        currentNode = nodes.get(SECURE_RANDOM.nextInt(nodes.size()));
-        continue;
-      }
-
-      currentNode = neighbors.get(SECURE_RANDOM.nextInt(neighbors.size()));
-    }
-
-    // 归一化为初始PR值
-    double sumPre = visitCounts.values().stream().mapToInt(Integer::intValue).sum();
-    for (String node : allNodes) {
-
-      prValues.put(node, visitCounts.getOrDefault(node, 0) / sumPre);
-    }
-
-    // PageRank迭代计算
-    for (int i = 0; i < maxIterations; i++) {
-      Map<String, Double> newPrValues = new HashMap<>();
-
-      // 初始化新的PR值
-      for (String node : allNodes) {
-        newPrValues.put(node, (1 - 0.85) / numNodes);
-      }
-
-      // 计算每个节点的PR值贡献
-      for (String node : allNodes) {
-
-        double pr = prValues.get(node);
-
-        if (graph.containsKey(node) && !graph.get(node).isEmpty()) {
-          // 有出边的节点
-          Map<String, Integer> outEdges = graph.get(node);
-          int totalWeight = outEdges.values().stream().mapToInt(Integer::intValue).sum();
-
-          for (Map.Entry<String, Integer> edge : outEdges.entrySet()) {
-            String target = edge.getKey();
-            double weight = edge.getValue() / (double) totalWeight;
-            newPrValues.put(target, newPrValues.get(target) + 0.85 * pr * weight);
-          }
-        } else {
-          // 出度为0的节点或不在图中作为源节点的节点
-          // 将PR值均匀分配给所有节点
-          for (String target : allNodes) {
-            newPrValues.put(target, newPrValues.get(target) + 0.85 * pr / numNodes);
-          }
-        }
-      }
-
-      // 检查是否收敛
-      double diff = 0.0;
-      for (String node : allNodes) {
-        diff += Math.abs(newPrValues.get(node) - prValues.get(node));
-      }
-
-      // 更新PR值
-      prValues = newPrValues;
-
-      if (diff < tolerance) {
-        break; // 收敛
-      }
-    }
-
-    // 归一化PR值，确保总和为1
-    double sum = prValues.values().stream().mapToDouble(Double::doubleValue).sum();
-    if (sum > 0) {
-      for (Map.Entry<String, Double> entry : prValues.entrySet()) {
-        prValues.put(entry.getKey(), entry.getValue() / sum);
-      }
-    }
-
-    return prValues.getOrDefault(word, 0.0);
+    return wordGraph.calPageRank(word);
   }
 
-
-
   /**
    * 要求函数6：随机游走.
    *
-   * @return 随机游走路径信息
+   * @see WordGraph#randomWalk()
    */
   public String randomWalk() {
-    if (graph.isEmpty()) {
-      return "Graph is empty!";
-    }
-
-    List<String> nodes = new ArrayList<>(graph.keySet());
-    String current = nodes.get(SECURE_RANDOM.nextInt(nodes.size()));
-    Set<String> visitedEdges = new HashSet<>();
-    List<String> path = new ArrayList<>();
-    path.add(current);
-
-    while (true) {
-      Map<String, Integer> neighbors = graph.get(current);
-      if (neighbors == null || neighbors.isEmpty()) {
-        break;
-      }
-
-      // 根据权重选择下一个节点
-      int totalWeight = neighbors.values().stream().mapToInt(Integer::intValue).sum();
-      int randomValue = SECURE_RANDOM.nextInt(totalWeight);
-      int cumulativeWeight = 0;
-      String next = null;
-
-      for (Map.Entry<String, Integer> entry : neighbors.entrySet()) {
-        cumulativeWeight += entry.getValue();
-        if (randomValue < cumulativeWeight) {
-          next = entry.getKey();
-          break;
-        }
-      }
-
-      if (next == null) {
-        break;
-      }
-
-      String edge = current + "->" + next;
-
-
-      path.add(next);
-      current = next;
-
-      if (visitedEdges.contains(edge)) {
-        break;
-      }
-      visitedEdges.add(edge);
-
-
-    }
-
-    return "Random walk: " + String.join(" -> ", path);
+    return wordGraph.randomWalk();
   }
 
   /**
@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 以GraphML导出，节点id为单词本身，边带有整数属性weight.
+ *
+ * <p>先写出所有有出边的单词，再写出只作为目标出现的单词，最后写出边。
+ * 只有后一类单词需要记录在集合中去重，因此额外内存与这类单词的个数成正比。</p>
+ */
+public class GraphMlExporter implements GraphExporter {
+
+  @Override
+  public String getName() {
+    return "GraphML";
+  }
+
+  @Override
+  public String getExtension() {
+    return "graphml";
+  }
+
+  @Override
+  public void export(Map<String, Map<String, Integer>> graph, ChannelOutput out)
+      throws IOException {
+    out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+        .write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n")
+        .write("  <key id=\"weight\" for=\"edge\" attr.name=\"weight\" attr.type=\"int\"/>\n")
+        .write("  <graph id=\"G\" edgedefault=\"directed\">\n");
+    for (String node : graph.keySet()) {
+      writeNode(out, node);
+    }
+    Set<String> sinks = new HashSet<>();
+    for (Map<String, Integer> edges : graph.values()) {
+      for (String target : edges.keySet()) {
+        if (!graph.containsKey(target) && sinks.add(target)) {
+          writeNode(out, target);
+        }
+      }
+    }
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+        out.write("    <edge source=\"");
+        writeEscaped(out, entry.getKey());
+        out.write("\" target=\"");
+        writeEscaped(out, edge.getKey());
+        out.write("\"><data key=\"weight\">").writeDecimal(edge.getValue())
+            .write("</data></edge>\n");
+      }
+    }
+    out.write("  </graph>\n</graphml>\n");
+  }
+
+  private static void writeNode(ChannelOutput out, String node) throws IOException {
+    out.write("    <node id=\"");
+    writeEscaped(out, node);
+    out.write("\"/>\n");
+  }
+
+  private static void writeEscaped(ChannelOutput out, String value) throws IOException {
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      String entity;
+      switch (value.charAt(i)) {
+        case '&':
+          entity = "&amp;";
+          break;
+        case '<':
+          entity = "&lt;";
+          break;
+        case '>':
+          entity = "&gt;";
+          break;
+        case '"':
+          entity = "&quot;";
+          break;
+        default:
+          continue;
+      }
+      out.write(value.subSequence(start, i)).write(entity);
+      start = i + 1;
+    }
+    out.write(value.subSequence(start, value.length()));
+  }
+}
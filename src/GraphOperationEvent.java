@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 词图操作对应的JDK Flight Recorder事件.
+ *
+ * <p>每次加载、构建、查询或渲染都会提交一个事件，事件的持续时间即操作耗时，
+ * 并附带与该操作相关的规模信息；不相关的字段保持为0。
+ * 未开启JFR记录时事件不会被提交，开销可以忽略。</p>
+ *
+ * @see OperationMetrics
+ */
+@Name("wordgraph.Operation")
+@Label("Word Graph Operation")
+@Category("Word Graph")
+@Description("A load, build, query or render operation on the word graph")
+public class GraphOperationEvent extends Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Tokens")
+  long tokens;
+
+  @Label("Vertices")
+  long vertices;
+
+  @Label("Edges")
+  long edges;
+
+  @Label("Iterations")
+  long iterations;
+
+  @Label("Paths")
+  long paths;
+}
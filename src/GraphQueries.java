@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 只依赖邻接表的查询算法，供{@link WordGraph}和{@link SlidingWindowGraph}共用.
+ *
+ * <p>方法不保存任何状态，调用方负责在查询期间保证图不被修改。</p>
+ */
+public final class GraphQueries {
+
+  private GraphQueries() {
+  }
+
+  /**
+   * 查询从word1经一个中间词到达word2的桥接词.
+   *
+   * @param graph 邻接表
+   * @param vocabulary 判断单词是否出现在文本中
+   * @param word1 小写的词语1
+   * @param word2 小写的词语2
+   * @return 逗号分隔的桥接词；词1不存在返回"err1"，词2不存在返回"err2"，没有桥接词返回"err3"
+   */
+  public static String bridgeWords(Map<String, Map<String, Integer>> graph,
+                                   Predicate<String> vocabulary, String word1, String word2) {
+    // 检查1：确认word1存在于文本中
+    if (!vocabulary.test(word1)) {
+      return "err1";  // "未找到词1 \"" + word1 + "\" 在图中！"
+    }
+
+    // 检查2：确认word2存在于文本中
+    if (!vocabulary.test(word2)) {
+      return "err2";  // "未找到词2 \"" + word2 + "\" 在图中！"
+    }
+
+    // 检查3：确认word1有出边（即存在后续连接词）
+    // 若word1在图中但没有出边，则无法形成路径
+    if (!graph.containsKey(word1)) {
+      return "err3";  // "未找到从 \"" + word1 + "\" 到 \"" + word2 + "\" 的桥梁词！"
+    }
+
+    // 收集候选桥梁词
+    Set<String> bridgeWords = new HashSet<>();
+    // 获取word1的直接后续词（可能的桥梁词）
+    Map<String, Integer> neighborsOfWord1 = graph.get(word1);
+
+    // 遍历每个候选桥梁词
+    for (String potentialBridge : neighborsOfWord1.keySet()) {
+      // 检查候选词是否指向word2：
+      // 1. 候选词必须存在于图中（即有出边）
+      // 2. 其出边必须包含word2
+      if (graph.containsKey(potentialBridge)) {
+        Map<String, Integer> nextLevel = graph.get(potentialBridge);
+        if (nextLevel.containsKey(word2)) {
+          bridgeWords.add(potentialBridge);  // 确认符合条件的桥梁词
+        }
+      }
+    }
+
+    if (bridgeWords.isEmpty()) {
+      return "err3";
+    } else {
+      return String.join(", ", bridgeWords);
+    }
+  }
+
+  /**
+   * 从随机起点开始按边权重随机游走，直到走到没有出边的节点或第一次重复经过某条边.
+   *
+   * @param graph 邻接表
+   * @param random 随机数来源
+   * @return 经过的节点序列，图为空时返回空列表
+   */
+  public static List<String> randomWalk(Map<String, Map<String, Integer>> graph,
+                                        Random random) {
+    if (graph.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    List<String> nodes = new ArrayList<>(graph.keySet());
+    String current = nodes.get(random.nextInt(nodes.size()));
+    Set<String> visitedEdges = new HashSet<>();
+    List<String> path = new ArrayList<>();
+    path.add(current);
+
+    while (true) {
+      Map<String, Integer> neighbors = graph.get(current);
+      if (neighbors == null || neighbors.isEmpty()) {
+        break;
+      }
+
+      // 根据权重选择下一个节点
+      int totalWeight = neighbors.values().stream().mapToInt(Integer::intValue).sum();
+      int randomValue = random.nextInt(totalWeight);
+      int cumulativeWeight = 0;
+      String next = null;
+
+      for (Map.Entry<String, Integer> entry : neighbors.entrySet()) {
+        cumulativeWeight += entry.getValue();
+        if (randomValue < cumulativeWeight) {
+          next = entry.getKey();
+          break;
+        }
+      }
+
+      if (next == null) {
+        break;
+      }
+
+      String edge = current + "->" + next;
+
+      path.add(next);
+      current = next;
+
+      if (visitedEdges.contains(edge)) {
+        break;
+      }
+      visitedEdges.add(edge);
+    }
+    return path;
+  }
+}
@@ -0,0 +1,461 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
+
+/**
+ * 不依赖Graphviz的纯Java有向图渲染器.
+ *
+ * <p>布局采用Fruchterman-Reingold力导向算法，斥力部分使用Barnes-Hut四叉树近似，
+ * 使每轮迭代的复杂度为O(n log n)。四叉树在每轮迭代开始时串行构建，
+ * 之后各节点的斥力在并行流中独立计算；引力沿边串行累加。</p>
+ *
+ * <p>迭代在达到最大轮数或超出时间预算时停止，随后使用Java2D光栅化并通过
+ * {@link ImageIO}写出PNG。节点数较少时绘制标签与箭头，节点数较多时只绘制点和半透明的边，
+ * 以保证10万节点规模的图也能在预算内完成。</p>
+ *
+ * @see GraphVisualizer 基于Graphviz的渲染实现
+ */
+public final class GraphRenderer {
+
+  /** 默认布局时间预算(毫秒). */
+  public static final long DEFAULT_TIME_BUDGET_MILLIS = 20_000L;
+
+  private static final int MAX_ITERATIONS = 300;
+  private static final double THETA = 0.9;
+  private static final int MAX_TREE_DEPTH = 48;
+  private static final int LABEL_LIMIT = 500;
+  private static final int MIN_IMAGE_SIZE = 800;
+  private static final int MAX_IMAGE_SIZE = 4096;
+  private static final long LAYOUT_SEED = 20220317L;
+  private static final ThreadLocal<int[]> STACKS =
+      ThreadLocal.withInitial(() -> new int[4 * MAX_TREE_DEPTH + 8]);
+
+  private GraphRenderer() {
+  }
+
+  /**
+   * 对有向图进行力导向布局并输出PNG图像.
+   *
+   * @param graph 有向图结构
+   * @param outputPath 输出文件路径(不含扩展名)
+   * @param timeBudgetMillis 布局阶段的时间预算(毫秒)
+   * @return 生成的图像文件路径
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_OUT")
+  public static String renderToPng(
+      Map<String, Map<String, Integer>> graph,
+      String outputPath,
+      long timeBudgetMillis) throws IOException {
+
+    // 1. 为所有节点(含仅作为目标的节点)分配连续编号
+    Map<String, Integer> index = new HashMap<>();
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      index.putIfAbsent(entry.getKey(), index.size());
+      for (String target : entry.getValue().keySet()) {
+        index.putIfAbsent(target, index.size());
+      }
+    }
+    String[] names = new String[index.size()];
+    for (Map.Entry<String, Integer> entry : index.entrySet()) {
+      names[entry.getValue()] = entry.getKey();
+    }
+
+    int edgeCount = 0;
+    for (Map<String, Integer> edges : graph.values()) {
+      edgeCount += edges.size();
+    }
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    int e = 0;
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      int source = index.get(entry.getKey());
+      for (String target : entry.getValue().keySet()) {
+        sources[e] = source;
+        targets[e] = index.get(target);
+        e++;
+      }
+    }
+
+    // 2. 计算布局并光栅化
+    try (OperationMetrics.Timer timer =
+             OperationMetrics.global().start(OperationMetrics.Operation.RENDER)) {
+      timer.vertices(names.length).edges(edgeCount);
+      double[] positions = layout(names.length, sources, targets, timeBudgetMillis);
+      BufferedImage image = rasterize(names, sources, targets, positions);
+
+      String imageFilePath = outputPath + ".png";
+      if (!ImageIO.write(image, "png", new File(imageFilePath))) {
+        throw new IOException("No PNG writer available");
+      }
+      return imageFilePath;
+    }
+  }
+
+  /**
+   * 计算力导向布局.
+   *
+   * @return 交错存放的坐标数组 {x0, y0, x1, y1, ...}
+   */
+  static double[] layout(int n, int[] sources, int[] targets, long timeBudgetMillis) {
+    double[] pos = new double[2 * n];
+    if (n == 0) {
+      return pos;
+    }
+    long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+
+    double side = Math.sqrt(n) * 100.0;
+    double k = side / Math.sqrt(n);
+    double kk = k * k;
+    Random random = new Random(LAYOUT_SEED);
+    for (int i = 0; i < 2 * n; i++) {
+      pos[i] = random.nextDouble() * side;
+    }
+
+    double[] disp = new double[2 * n];
+    double temperature = side / 10.0;
+    double cooling = temperature / (MAX_ITERATIONS + 1);
+    QuadTree tree = new QuadTree(n);
+
+    for (int iter = 0; iter < MAX_ITERATIONS && System.nanoTime() < deadline; iter++) {
+      tree.build(pos, n);
+
+      // 斥力：每个节点独立遍历四叉树，可并行
+      IntStream.range(0, n).parallel().forEach(
+          i -> tree.repulsion(i, pos, kk, disp, STACKS.get()));
+
+      // 引力：沿边累加
+      for (int edge = 0; edge < sources.length; edge++) {
+        int u = sources[edge];
+        int v = targets[edge];
+        if (u == v) {
+          continue;
+        }
+        double dx = pos[2 * u] - pos[2 * v];
+        double dy = pos[2 * u + 1] - pos[2 * v + 1];
+        double dist = Math.max(Math.sqrt(dx * dx + dy * dy), 0.01);
+        double force = dist / k;
+        disp[2 * u] -= dx * force;
+        disp[2 * u + 1] -= dy * force;
+        disp[2 * v] += dx * force;
+        disp[2 * v + 1] += dy * force;
+      }
+
+      // 按当前温度限制位移
+      final double t = temperature;
+      IntStream.range(0, n).parallel().forEach(i -> {
+        double dx = disp[2 * i];
+        double dy = disp[2 * i + 1];
+        double len = Math.sqrt(dx * dx + dy * dy);
+        if (len > 0) {
+          double step = Math.min(len, t) / len;
+          pos[2 * i] += dx * step;
+          pos[2 * i + 1] += dy * step;
+        }
+        disp[2 * i] = 0;
+        disp[2 * i + 1] = 0;
+      });
+      temperature = Math.max(temperature - cooling, k * 0.01);
+    }
+    return pos;
+  }
+
+  private static BufferedImage rasterize(String[] names, int[] sources, int[] targets,
+                                         double[] pos) {
+    int n = names.length;
+    int size = (int) Math.min(MAX_IMAGE_SIZE, Math.max(MIN_IMAGE_SIZE, Math.sqrt(n) * 40));
+    BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    try {
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, size, size);
+      if (n == 0) {
+        return image;
+      }
+      boolean small = n <= LABEL_LIMIT;
+      if (small) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      }
+
+      // 将布局坐标映射到图像坐标(保留边距)
+      double minX = Double.MAX_VALUE;
+      double minY = Double.MAX_VALUE;
+      double maxX = -Double.MAX_VALUE;
+      double maxY = -Double.MAX_VALUE;
+      for (int i = 0; i < n; i++) {
+        minX = Math.min(minX, pos[2 * i]);
+        maxX = Math.max(maxX, pos[2 * i]);
+        minY = Math.min(minY, pos[2 * i + 1]);
+        maxY = Math.max(maxY, pos[2 * i + 1]);
+      }
+      double margin = size * 0.05;
+      double scale = (size - 2 * margin) / Math.max(Math.max(maxX - minX, maxY - minY), 1e-9);
+      float[] sx = new float[n];
+      float[] sy = new float[n];
+      for (int i = 0; i < n; i++) {
+        sx[i] = (float) (margin + (pos[2 * i] - minX) * scale);
+        sy[i] = (float) (margin + (pos[2 * i + 1] - minY) * scale);
+      }
+
+      float radius = small ? 6f : 1.5f;
+      if (small) {
+        g.setColor(new Color(120, 120, 120));
+        g.setStroke(new BasicStroke(1f));
+        Line2D.Float line = new Line2D.Float();
+        for (int e = 0; e < sources.length; e++) {
+          int u = sources[e];
+          int v = targets[e];
+          line.setLine(sx[u], sy[u], sx[v], sy[v]);
+          g.draw(line);
+          if (u != v) {
+            drawArrowHead(g, sx[u], sy[u], sx[v], sy[v], radius);
+          }
+        }
+        g.setColor(new Color(30, 90, 180));
+        Ellipse2D.Float dot = new Ellipse2D.Float();
+        for (int i = 0; i < n; i++) {
+          dot.setFrame(sx[i] - radius, sy[i] - radius, 2 * radius, 2 * radius);
+          g.fill(dot);
+        }
+      } else {
+        // 大图使用不透明整数坐标绘制，避免抗锯齿与alpha混合的慢速路径
+        g.setColor(new Color(215, 215, 215));
+        for (int e = 0; e < sources.length; e++) {
+          int u = sources[e];
+          int v = targets[e];
+          g.drawLine(Math.round(sx[u]), Math.round(sy[u]), Math.round(sx[v]), Math.round(sy[v]));
+        }
+        g.setColor(new Color(30, 90, 180));
+        for (int i = 0; i < n; i++) {
+          g.fillRect(Math.round(sx[i] - radius), Math.round(sy[i] - radius), 3, 3);
+        }
+      }
+
+      if (small) {
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+        for (int i = 0; i < n; i++) {
+          g.drawString(names[i], sx[i] + radius + 2, sy[i] - radius);
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+    return image;
+  }
+
+  private static void drawArrowHead(Graphics2D g, float x1, float y1, float x2, float y2,
+                                    float radius) {
+    double angle = Math.atan2(y2 - y1, x2 - x1);
+    double tipX = x2 - Math.cos(angle) * radius;
+    double tipY = y2 - Math.sin(angle) * radius;
+    double wing = 7.0;
+    int[] xs = {
+        (int) Math.round(tipX),
+        (int) Math.round(tipX - wing * Math.cos(angle - Math.PI / 7)),
+        (int) Math.round(tipX - wing * Math.cos(angle + Math.PI / 7))
+    };
+    int[] ys = {
+        (int) Math.round(tipY),
+        (int) Math.round(tipY - wing * Math.sin(angle - Math.PI / 7)),
+        (int) Math.round(tipY - wing * Math.sin(angle + Math.PI / 7))
+    };
+    g.fillPolygon(xs, ys, 3);
+  }
+
+  /**
+   * 以扁平数组存储的Barnes-Hut四叉树.
+   *
+   * <p>每个树节点记录其正方形区域、质量与质心；叶节点至多保存一个物体，
+   * 超过最大深度后重合的物体会被合并到同一叶节点中。</p>
+   */
+  private static final class QuadTree {
+    private static final int EMPTY = -1;
+    private static final int MERGED = -2;
+
+    private int[] children;
+    private int[] body;
+    private double[] mass;
+    private double[] comX;
+    private double[] comY;
+    private double[] originX;
+    private double[] originY;
+    private double[] size;
+    private int count;
+
+    QuadTree(int n) {
+      allocate(Math.max(16, 2 * n));
+    }
+
+    private void allocate(int capacity) {
+      children = new int[4 * capacity];
+      body = new int[capacity];
+      mass = new double[capacity];
+      comX = new double[capacity];
+      comY = new double[capacity];
+      originX = new double[capacity];
+      originY = new double[capacity];
+      size = new double[capacity];
+    }
+
+    private void grow() {
+      int capacity = body.length * 2;
+      children = Arrays.copyOf(children, 4 * capacity);
+      body = Arrays.copyOf(body, capacity);
+      mass = Arrays.copyOf(mass, capacity);
+      comX = Arrays.copyOf(comX, capacity);
+      comY = Arrays.copyOf(comY, capacity);
+      originX = Arrays.copyOf(originX, capacity);
+      originY = Arrays.copyOf(originY, capacity);
+      size = Arrays.copyOf(size, capacity);
+    }
+
+    private int newNode(double x, double y, double s) {
+      if (count == body.length) {
+        grow();
+      }
+      int node = count++;
+      Arrays.fill(children, 4 * node, 4 * node + 4, EMPTY);
+      body[node] = EMPTY;
+      mass[node] = 0;
+      comX[node] = 0;
+      comY[node] = 0;
+      originX[node] = x;
+      originY[node] = y;
+      size[node] = s;
+      return node;
+    }
+
+    void build(double[] pos, int n) {
+      double minX = Double.MAX_VALUE;
+      double minY = Double.MAX_VALUE;
+      double maxX = -Double.MAX_VALUE;
+      double maxY = -Double.MAX_VALUE;
+      for (int i = 0; i < n; i++) {
+        minX = Math.min(minX, pos[2 * i]);
+        maxX = Math.max(maxX, pos[2 * i]);
+        minY = Math.min(minY, pos[2 * i + 1]);
+        maxY = Math.max(maxY, pos[2 * i + 1]);
+      }
+      count = 0;
+      newNode(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), 1e-6) * 1.0001);
+      for (int i = 0; i < n; i++) {
+        insert(i, pos);
+      }
+    }
+
+    private void insert(int item, double[] pos) {
+      double x = pos[2 * item];
+      double y = pos[2 * item + 1];
+      int node = 0;
+      for (int depth = 0; ; depth++) {
+        if (isLeaf(node)) {
+          if (mass[node] == 0) {
+            body[node] = item;
+            mass[node] = 1;
+            comX[node] = x;
+            comY[node] = y;
+            return;
+          }
+          if (depth >= MAX_TREE_DEPTH) {
+            // 近乎重合的物体合并到同一叶节点
+            body[node] = MERGED;
+            accumulate(node, x, y);
+            return;
+          }
+          // 分裂叶节点：将已有物体下沉到对应子节点
+          int existing = body[node];
+          body[node] = EMPTY;
+          int child = childFor(node, pos[2 * existing], pos[2 * existing + 1]);
+          body[child] = existing;
+          mass[child] = 1;
+          comX[child] = pos[2 * existing];
+          comY[child] = pos[2 * existing + 1];
+        }
+        accumulate(node, x, y);
+        node = childFor(node, x, y);
+      }
+    }
+
+    private void accumulate(int node, double x, double y) {
+      double m = mass[node];
+      comX[node] = (comX[node] * m + x) / (m + 1);
+      comY[node] = (comY[node] * m + y) / (m + 1);
+      mass[node] = m + 1;
+    }
+
+    private boolean isLeaf(int node) {
+      int base = 4 * node;
+      return children[base] == EMPTY && children[base + 1] == EMPTY
+          && children[base + 2] == EMPTY && children[base + 3] == EMPTY;
+    }
+
+    private int childFor(int node, double x, double y) {
+      double half = size[node] / 2;
+      int quadrant = (x >= originX[node] + half ? 1 : 0) + (y >= originY[node] + half ? 2 : 0);
+      int slot = 4 * node + quadrant;
+      if (children[slot] == EMPTY) {
+        double ox = originX[node] + ((quadrant & 1) != 0 ? half : 0);
+        double oy = originY[node] + ((quadrant & 2) != 0 ? half : 0);
+        int child = newNode(ox, oy, half);
+        children[slot] = child;
+      }
+      return children[slot];
+    }
+
+    void repulsion(int item, double[] pos, double kk, double[] disp, int[] stack) {
+      double x = pos[2 * item];
+      double y = pos[2 * item + 1];
+      double fx = 0;
+      double fy = 0;
+      int top = 0;
+      stack[top++] = 0;
+      while (top > 0) {
+        int node = stack[--top];
+        if (mass[node] == 0 || body[node] == item) {
+          continue;
+        }
+        double dx = x - comX[node];
+        double dy = y - comY[node];
+        double distSq = dx * dx + dy * dy;
+        boolean leaf = isLeaf(node);
+        if (leaf || size[node] * size[node] < THETA * THETA * distSq) {
+          double m = mass[node];
+          if (distSq < 1e-4) {
+            if (body[node] == MERGED) {
+              m -= 1; // 与自身重合的合并叶，扣除自身质量
+            }
+            dx = 0.01 * ((item & 1) == 0 ? 1 : -1);
+            dy = 0.01;
+            distSq = dx * dx + dy * dy;
+          }
+          double force = kk * m / distSq;
+          fx += dx * force;
+          fy += dy * force;
+        } else {
+          int base = 4 * node;
+          for (int q = 0; q < 4; q++) {
+            if (children[base + q] != EMPTY) {
+              stack[top++] = children[base + q];
+            }
+          }
+        }
+      }
+      disp[2 * item] += fx;
+      disp[2 * item + 1] += fy;
+    }
+  }
+}
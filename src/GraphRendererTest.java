@@ -0,0 +1,68 @@
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+public class GraphRendererTest {
+
+  private static final long BUDGET_MILLIS = 1000;
+  // 超出预算后当前一轮迭代仍会完成，光栅化和写文件也不计入预算
+  private static final long LAYOUT_SLACK_MILLIS = 1000;
+  private static final long RENDER_SLACK_MILLIS = 15000;
+
+  // 测试用例1：大图的布局在时间预算内停止，坐标都是有限值
+  @Test
+  public void testLayoutStopsWithinBudget() {
+    int n = 50000;
+    int[] sources = new int[4 * n];
+    int[] targets = new int[sources.length];
+    Random random = new Random(7);
+    for (int e = 0; e < sources.length; e++) {
+      sources[e] = random.nextInt(n);
+      targets[e] = random.nextInt(n);
+    }
+    long start = System.nanoTime();
+    double[] positions = GraphRenderer.layout(n, sources, targets, BUDGET_MILLIS);
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    assertTrue("layout took " + elapsedMillis + " ms",
+        elapsedMillis < BUDGET_MILLIS + LAYOUT_SLACK_MILLIS);
+    assertEquals(2 * n, positions.length);
+    for (double position : positions) {
+      assertTrue(Double.isFinite(position));
+    }
+  }
+
+  // 测试用例2：由合成语料建立的大图在无界面环境下输出PNG
+  @Test
+  public void testLargeGraphToPng() throws Exception {
+    WordGraph wordGraph = new WordGraph();
+    wordGraph.processText(new CorpusGenerator(5, 50000, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(300000));
+    Map<String, Map<String, Integer>> graph = wordGraph.getGraph();
+    assertTrue("graph has " + graph.size() + " words", graph.size() > 20000);
+
+    Path directory = Files.createTempDirectory("graph-renderer");
+    String outputPath = directory.resolve("large").toString();
+    try {
+      long start = System.nanoTime();
+      String imagePath = GraphRenderer.renderToPng(graph, outputPath, BUDGET_MILLIS);
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+      assertTrue("rendering took " + elapsedMillis + " ms",
+          elapsedMillis < BUDGET_MILLIS + RENDER_SLACK_MILLIS);
+
+      assertEquals(outputPath + ".png", imagePath);
+      BufferedImage image = ImageIO.read(new File(imagePath));
+      assertNotNull(image);
+      assertTrue(image.getWidth() >= 800 && image.getHeight() >= 800);
+    } finally {
+      Files.deleteIfExists(directory.resolve("large.png"));
+      Files.deleteIfExists(directory);
+    }
+  }
+}
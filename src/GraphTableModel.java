@@ -0,0 +1,146 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * 以虚拟化表格形式展示有向图邻接表的数据模型.
+ *
+ * <p>构造时只对源节点做一次排序得到索引，每一行的边列表在{@link #getValueAt(int, int)}
+ * 被调用(即滚动到可见区域)时才排序并拼接，并保存在有限大小的LRU缓存中。
+ * 前缀过滤通过在有序索引上二分查找得到连续区间，不复制任何数据。</p>
+ *
+ * <p>模型与图的某个版本绑定，图重新构建后应创建新的模型。</p>
+ */
+public class GraphTableModel extends AbstractTableModel {
+
+  private static final long serialVersionUID = 1L;
+  private static final String[] COLUMNS = {"Word", "Out-degree", "Edges"};
+  private static final int ROW_CACHE_SIZE = 512;
+
+  private final transient Map<String, Map<String, Integer>> graph;
+  private final String[] sortedWords;
+  private final long version;
+  private int from;
+  private int to;
+  private final transient Map<String, String> rowCache =
+      new LinkedHashMap<String, String>(ROW_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+          return size() > ROW_CACHE_SIZE;
+        }
+      };
+
+  /**
+   * 为指定版本的图创建表格模型.
+   *
+   * @param graph 有向图结构
+   * @param version 图的版本号
+   */
+  public GraphTableModel(Map<String, Map<String, Integer>> graph, long version) {
+    this.graph = graph;
+    this.version = version;
+    this.sortedWords = graph.keySet().toArray(new String[0]);
+    Arrays.sort(sortedWords);
+    this.from = 0;
+    this.to = sortedWords.length;
+  }
+
+  /**
+   * 返回模型对应的图版本号.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * 只显示以指定前缀开头的单词，前缀为空时显示全部.
+   *
+   * <p>前缀按{@link UnicodeTokenizer#foldCase(CharSequence)}折叠，与分词得到的单词一致，
+   * 不受默认区域设置影响。</p>
+   *
+   * @param prefix 单词前缀
+   */
+  public void setPrefixFilter(String prefix) {
+    if (prefix == null || prefix.isEmpty()) {
+      from = 0;
+      to = sortedWords.length;
+    } else {
+      String folded = UnicodeTokenizer.foldCase(prefix);
+      from = lowerBound(folded);
+      to = lowerBound(folded + Character.MAX_VALUE);
+    }
+    fireTableDataChanged();
+  }
+
+  /**
+   * 返回未过滤时的总行数.
+   */
+  public int getTotalRowCount() {
+    return sortedWords.length;
+  }
+
+  private int lowerBound(String key) {
+    int lo = 0;
+    int hi = sortedWords.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (sortedWords[mid].compareTo(key) < 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  @Override
+  public int getRowCount() {
+    return to - from;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return COLUMNS.length;
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return COLUMNS[column];
+  }
+
+  @Override
+  public Class<?> getColumnClass(int column) {
+    return column == 1 ? Integer.class : String.class;
+  }
+
+  @Override
+  public Object getValueAt(int row, int column) {
+    String word = sortedWords[from + row];
+    switch (column) {
+      case 0:
+        return word;
+      case 1:
+        return graph.get(word).size();
+      default:
+        return rowCache.computeIfAbsent(word, this::formatEdges);
+    }
+  }
+
+  private String formatEdges(String word) {
+    // 与原文本视图保持一致：按字母序列出 目标(权重)
+    List<String> targets = new ArrayList<>(graph.get(word).keySet());
+    Collections.sort(targets);
+    StringBuilder builder = new StringBuilder();
+    for (String target : targets) {
+      if (builder.length() > 0) {
+        builder.append(", ");
+      }
+      builder.append(target).append('(').append(graph.get(word).get(target)).append(')');
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,112 @@
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GraphTableModelTest {
+
+  /**
+   * 记录keySet调用次数的出边表，用于观察边列表何时被排序拼接.
+   */
+  private static final class CountingEdges extends HashMap<String, Integer> {
+    private static final long serialVersionUID = 1L;
+    private int keySetCalls = 0;
+
+    @Override
+    public Set<String> keySet() {
+      keySetCalls++;
+      return super.keySet();
+    }
+  }
+
+  private static Map<String, Map<String, Integer>> graph(int words) {
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    for (int i = 0; i < words; i++) {
+      CountingEdges edges = new CountingEdges();
+      edges.put(CorpusGenerator.word(i + 1), 2);
+      edges.put(CorpusGenerator.word(i + 2), 1);
+      graph.put(CorpusGenerator.word(i), edges);
+    }
+    return graph;
+  }
+
+  // 测试用例1：行按单词排序，边列表按目标排序并带权重
+  @Test
+  public void testRowsAndColumns() {
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    graph.put("new", new HashMap<>(Map.of("worlds", 1, "life", 2)));
+    graph.put("explore", new HashMap<>(Map.of("strange", 1)));
+    GraphTableModel model = new GraphTableModel(graph, 7);
+
+    assertEquals(7, model.getVersion());
+    assertEquals(2, model.getRowCount());
+    assertEquals(3, model.getColumnCount());
+    assertEquals(Integer.class, model.getColumnClass(1));
+    assertEquals("explore", model.getValueAt(0, 0));
+    assertEquals("new", model.getValueAt(1, 0));
+    assertEquals(2, model.getValueAt(1, 1));
+    assertEquals("life(2), worlds(1)", model.getValueAt(1, 2));
+  }
+
+  // 测试用例2：边列表在首次显示时才生成，缓存按最近使用顺序淘汰
+  @Test
+  public void testEdgesFormattedLazilyWithLruCache() {
+    Map<String, Map<String, Integer>> graph = graph(2000);
+    GraphTableModel model = new GraphTableModel(graph, 1);
+    String first = (String) model.getValueAt(0, 0);
+    CountingEdges edges = (CountingEdges) graph.get(first);
+    assertEquals(0, edges.keySetCalls);
+
+    model.getValueAt(0, 1);
+    assertEquals(0, edges.keySetCalls);
+    String formatted = (String) model.getValueAt(0, 2);
+    assertEquals(1, edges.keySetCalls);
+    assertEquals(formatted, model.getValueAt(0, 2));
+    assertEquals(1, edges.keySetCalls);
+
+    // 显示足够多的其他行后第一行被淘汰，再次显示时重新生成相同的内容
+    for (int row = 1; row < model.getRowCount(); row++) {
+      model.getValueAt(row, 2);
+    }
+    assertEquals(formatted, model.getValueAt(0, 2));
+    assertEquals(2, edges.keySetCalls);
+  }
+
+  // 测试用例3：前缀过滤按分词器的规则折叠大小写，得到连续的行区间
+  @Test
+  public void testPrefixFilterFoldsCase() {
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    for (String word : new String[] {"straße", "strange", "stream", "σοφία", "ink"}) {
+      graph.put(word, new HashMap<>(Map.of("x", 1)));
+    }
+    GraphTableModel model = new GraphTableModel(graph, 1);
+    assertEquals(5, model.getTotalRowCount());
+
+    model.setPrefixFilter("STRA");
+    assertEquals(2, model.getRowCount());
+    assertEquals("strange", model.getValueAt(0, 0));
+    assertEquals("straße", model.getValueAt(1, 0));
+
+    model.setPrefixFilter("ΣΟΦ");
+    assertEquals(1, model.getRowCount());
+    assertEquals("σοφία", model.getValueAt(0, 0));
+
+    // 土耳其语区域下toLowerCase会把I转为无点的ı，折叠结果不受影响
+    Locale locale = Locale.getDefault();
+    try {
+      Locale.setDefault(new Locale("tr", "TR"));
+      model.setPrefixFilter("IN");
+      assertEquals(1, model.getRowCount());
+      assertEquals("ink", model.getValueAt(0, 0));
+    } finally {
+      Locale.setDefault(locale);
+    }
+
+    model.setPrefixFilter("missing");
+    assertEquals(0, model.getRowCount());
+    model.setPrefixFilter("");
+    assertEquals(5, model.getRowCount());
+  }
+}
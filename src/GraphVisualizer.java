@@ -1,9 +1,7 @@
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 
 /**
@@ -26,6 +24,8 @@ import java.util.Map;
  *   <li>返回生成图像文件的绝对路径</li>
  * </ol>
  *
+ * <p>未安装Graphviz或图规模过大时，可改用{@link GraphRenderer}的纯Java渲染。</p>
+ *
  * @see <a href="https://graphviz.org/">Graphviz官方网站</a>
  */
 public class GraphVisualizer {
@@ -43,15 +43,20 @@ public class GraphVisualizer {
       String outputPath,
       String format) throws IOException, InterruptedException {
 
-    // 1. 生成DOT文件
-    String dotFilePath = outputPath + ".dot";
-    generateDotFile(graph, dotFilePath);
+    try (OperationMetrics.Timer timer =
+             OperationMetrics.global().start(OperationMetrics.Operation.RENDER)) {
+      timer.vertices(graph.size());
+
+      // 1. 生成DOT文件
+      String dotFilePath = outputPath + ".dot";
+      generateDotFile(graph, dotFilePath);
 
-    // 2. 调用Graphviz生成图像
-    String imageFilePath = outputPath + "." + format;
-    generateImage(dotFilePath, imageFilePath, format);
+      // 2. 调用Graphviz生成图像
+      String imageFilePath = outputPath + "." + format;
+      generateImage(dotFilePath, imageFilePath, format);
 
-    return imageFilePath;
+      return imageFilePath;
+    }
   }
 
   @SuppressFBWarnings("PATH_TRAVERSAL_OUT")
@@ -60,31 +65,69 @@ public class GraphVisualizer {
       String dotFilePath
   ) throws IOException {
 
-    try (BufferedWriter writer = new BufferedWriter(
-        new OutputStreamWriter(new FileOutputStream(dotFilePath), StandardCharsets.UTF_8))) {
-      writer.write("digraph G {\n");
-      writer.write("  rankdir=LR;\n"); // 从左到右布局
-      writer.write("  node [shape=circle];\n\n");
-      // 添加所有节点
-      for (String node : graph.keySet()) {
-        writer.write("  \"" + node + "\";\n");
-      }
-      writer.write("\n");
-      // 添加所有边
-      for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
-        String source = entry.getKey();
-        for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
-          String target = edge.getKey();
-          int weight = edge.getValue();
-          writer.write("  \"" + source + "\" -> \"" + target
-              + "\" [label=\"" + weight + "\"];\n");
-        }
-      }
-      writer.write("}\n");
+    try (ChannelOutput out = ChannelOutput.open(Paths.get(dotFilePath), false)) {
+      new DotGraphExporter().export(graph, out);
+    }
+  }
+
+  /**
+   * 检查Graphviz的dot命令是否可用.
+   *
+   * @return 可以执行{@code dot -V}时返回true
+   */
+  @SuppressFBWarnings({"COMMAND_INJECTION"})
+  public static boolean isGraphvizAvailable() {
+    try {
+      Process process = new ProcessBuilder("dot", "-V")
+          .redirectErrorStream(true)
+          .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+          .start();
+      return process.waitFor() == 0;
+    } catch (IOException e) {
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
     }
   }
 
+  /**
+   * 启动一个Graphviz进程把DOT文件渲染为指定格式，不等待其结束.
+   *
+   * <p>参数直接传给{@link ProcessBuilder}而不经过命令行拆分，路径中可以包含空格。
+   * 多个格式可以各启动一个进程并发渲染。</p>
+   *
+   * @param dotFile DOT文件
+   * @param imageFile 输出文件
+   * @param format 输出格式(png, pdf, svg等)
+   * @return 已启动的进程
+   */
   @SuppressFBWarnings({"COMMAND_INJECTION"})
+  public static Process startGraphviz(Path dotFile, Path imageFile, String format)
+      throws IOException {
+    if (!format.matches("[A-Za-z0-9:]+")) {
+      throw new IllegalArgumentException("Invalid Graphviz format: " + format);
+    }
+    return new ProcessBuilder("dot", "-T" + format, dotFile.toString(),
+        "-o", imageFile.toString())
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start();
+  }
+
+  /**
+   * 等待{@link #startGraphviz}启动的进程结束.
+   *
+   * @param process Graphviz进程
+   * @throws IOException 进程以非0状态退出
+   */
+  public static void awaitGraphviz(Process process) throws IOException, InterruptedException {
+    int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IOException("Graphviz execution failed with exit code: " + exitCode);
+    }
+  }
+
   private static void generateImage(
       String dotFilePath,
       String outputImagePath,
@@ -92,24 +135,11 @@ public class GraphVisualizer {
   ) throws IOException, InterruptedException {
 
     // 检查Graphviz是否安装
-    String graphvizPath = "dot"; // 默认在PATH中
-    try {
-      Process process = Runtime.getRuntime().exec(graphvizPath + " -V");
-      process.waitFor();
-    } catch (Exception e) {
+    if (!isGraphvizAvailable()) {
       throw new IOException("Graphviz (dot) not found. Please install Graphviz first.");
     }
 
     // 执行dot命令生成图像
-    String command = String.format("%s -T%s %s -o %s",
-        graphvizPath, format, dotFilePath, outputImagePath);
-
-    Process process = Runtime.getRuntime().exec(command);
-    int exitCode = process.waitFor();
-
-    if (exitCode != 0) {
-      throw new IOException("Graphviz execution failed with exit code: " + exitCode);
-    }
+    awaitGraphviz(startGraphviz(Paths.get(dotFilePath), Paths.get(outputImagePath), format));
   }
 }
-
@@ -0,0 +1,327 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 同时保留多个命名词图的工作区，按内存预算淘汰最久未使用的图.
+ *
+ * <p>每个图的内存占用按词表大小、词元数、源单词数和边数粗略估计。
+ * 驻留图的估计总量超过预算时，最久未使用的图被写入快照文件，其数据随即被清空；
+ * 下次通过{@link #get(String)}访问时从快照重新载入同一个{@link WordGraph}对象，
+ * 因此分词器、近似构建等设置保持不变。刚访问的图不会被淘汰，即使它本身超过预算。</p>
+ *
+ * <p>快照保存词表、词元序列和邻接表，重新载入时不需要重新分词和构建。
+ * 被淘汰的图对象在重新载入前为空，调用方应通过工作区访问图而不是长期持有引用。
+ * 所有方法都是同步的。</p>
+ */
+public final class GraphWorkspace {
+
+  private static final int SNAPSHOT_MAGIC = 0x57475331;  // "WGS1"
+  // 64位JVM(压缩指针)下的粗略对象开销
+  private static final long WORD_BYTES = 96;     // String、byte[]、词表散列项和数组槽
+  private static final long SOURCE_BYTES = 112;  // 外层散列项、内层HashMap及其初始表
+  private static final long EDGE_BYTES = 56;     // 内层散列项、Integer和表槽
+
+  private final long budgetBytes;
+  private final Path snapshotDirectory;
+  // 按使用顺序排列，第一个为最久未使用；只有put和get更新顺序，查询状态不影响淘汰
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+  private long residentBytes = 0;
+  private long snapshotCounter = 0;
+  private long evictionCount = 0;
+  private long reloadCount = 0;
+
+  private static final class Entry {
+    private final WordGraph graph;
+    private long bytes;
+    // 被淘汰时为快照文件，驻留时为null
+    private Path snapshot;
+
+    Entry(WordGraph graph) {
+      this.graph = graph;
+    }
+  }
+
+  /**
+   * 创建工作区.
+   *
+   * @param budgetBytes 驻留图的估计内存总量上限
+   * @param snapshotDirectory 保存快照的目录，必须已存在
+   */
+  public GraphWorkspace(long budgetBytes, Path snapshotDirectory) {
+    if (budgetBytes <= 0) {
+      throw new IllegalArgumentException("budget must be positive: " + budgetBytes);
+    }
+    this.budgetBytes = budgetBytes;
+    this.snapshotDirectory = snapshotDirectory;
+  }
+
+  /**
+   * 估计图占用的堆内存字节数.
+   *
+   * @param graph 词图
+   */
+  public static long estimateBytes(WordGraph graph) {
+    long bytes = WORD_BYTES * graph.getVocabulary().size();
+    if (graph.getTokenStream() != null) {
+      bytes += 4L * graph.getTokenStream().size();
+    }
+    if (graph.getOffHeapGraph() != null) {
+      return bytes + graph.getOffHeapGraph().getStorageBytes();
+    }
+    return bytes + SOURCE_BYTES * graph.getGraph().size() + EDGE_BYTES * graph.getEdgeCount();
+  }
+
+  /**
+   * 以name登记图并标记为最近使用，替换同名的图.
+   *
+   * @param name 名称
+   * @param graph 词图
+   * @throws IOException 淘汰其他图时写快照失败
+   */
+  public synchronized void put(String name, WordGraph graph) throws IOException {
+    remove(name);
+    Entry entry = new Entry(graph);
+    entry.bytes = estimateBytes(graph);
+    residentBytes += entry.bytes;
+    entries.put(name, entry);
+    enforceBudget(name);
+  }
+
+  /**
+   * 返回名为name的图并标记为最近使用，被淘汰的图先从快照重新载入.
+   *
+   * @param name 名称
+   * @return 词图，未登记时返回null
+   * @throws IOException 读取快照或淘汰其他图时失败
+   */
+  public synchronized WordGraph get(String name) throws IOException {
+    Entry entry = entries.remove(name);
+    if (entry == null) {
+      return null;
+    }
+    entries.put(name, entry);
+    if (entry.snapshot != null) {
+      readSnapshot(entry.snapshot, entry.graph);
+      Files.deleteIfExists(entry.snapshot);  // 重新载入后图可能被修改，旧快照作废
+      entry.snapshot = null;
+      reloadCount++;
+    } else {
+      residentBytes -= entry.bytes;
+    }
+    // 调用方可能在两次访问之间重新加载了文本，每次访问都重新估计
+    entry.bytes = estimateBytes(entry.graph);
+    residentBytes += entry.bytes;
+    enforceBudget(name);
+    return entry.graph;
+  }
+
+  /**
+   * 移除名为name的图并删除其快照.
+   *
+   * @param name 名称
+   * @return 是否存在该图
+   */
+  public synchronized boolean remove(String name) throws IOException {
+    Entry entry = entries.remove(name);
+    if (entry == null) {
+      return false;
+    }
+    if (entry.snapshot != null) {
+      Files.deleteIfExists(entry.snapshot);
+    } else {
+      residentBytes -= entry.bytes;
+    }
+    return true;
+  }
+
+  /**
+   * 移除所有图并删除快照.
+   */
+  public synchronized void clear() throws IOException {
+    for (String name : names()) {
+      remove(name);
+    }
+  }
+
+  /**
+   * 返回所有图的名称，按从最久未使用到最近使用排列.
+   */
+  public synchronized List<String> names() {
+    return new ArrayList<>(entries.keySet());
+  }
+
+  /**
+   * 名为name的图是否驻留在内存中.
+   *
+   * @param name 名称
+   */
+  public synchronized boolean isResident(String name) {
+    Entry entry = entries.get(name);
+    return entry != null && entry.snapshot == null;
+  }
+
+  /**
+   * 返回驻留图的估计内存总量.
+   */
+  public synchronized long getResidentBytes() {
+    return residentBytes;
+  }
+
+  public long getBudgetBytes() {
+    return budgetBytes;
+  }
+
+  /**
+   * 返回累计淘汰次数.
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * 返回累计从快照重新载入的次数.
+   */
+  public synchronized long getReloadCount() {
+    return reloadCount;
+  }
+
+  private void enforceBudget(String keep) throws IOException {
+    for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+      if (residentBytes <= budgetBytes) {
+        return;
+      }
+      Entry entry = candidate.getValue();
+      if (entry.snapshot != null || candidate.getKey().equals(keep)) {
+        continue;
+      }
+      Path snapshot = snapshotDirectory.resolve("graph-" + (++snapshotCounter) + ".snapshot");
+      writeSnapshot(snapshot, entry.graph);
+      entry.snapshot = snapshot;
+      entry.graph.clear();
+      residentBytes -= entry.bytes;
+      entry.bytes = 0;
+      evictionCount++;
+    }
+  }
+
+  @SuppressFBWarnings("PATH_TRAVERSAL_OUT")
+  private static void writeSnapshot(Path file, WordGraph graph) throws IOException {
+    Vocabulary vocabulary = graph.getVocabulary();
+    Map<String, Map<String, Integer>> adjacency = graph.getGraph();
+    // 图中可能有不在词表中的单词(例如外部装入的图)，编号接在词表之后
+    Map<String, Integer> extraIds = new HashMap<>();
+    List<String> extraWords = new ArrayList<>();
+    for (Map.Entry<String, Map<String, Integer>> entry : adjacency.entrySet()) {
+      addExtra(vocabulary, extraIds, extraWords, entry.getKey());
+      for (String target : entry.getValue().keySet()) {
+        addExtra(vocabulary, extraIds, extraWords, target);
+      }
+    }
+
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+      out.writeInt(SNAPSHOT_MAGIC);
+      out.writeInt(vocabulary.size());
+      out.writeInt(extraWords.size());
+      for (String word : vocabulary.words()) {
+        writeWord(out, word);
+      }
+      for (String word : extraWords) {
+        writeWord(out, word);
+      }
+      out.writeLong(graph.getTokenCount());
+      out.writeLong(graph.getMaxWeightOverestimate());
+      TokenIdStream tokens = graph.getTokenStream();
+      out.writeInt(tokens == null ? -1 : tokens.size());
+      if (tokens != null) {
+        for (int i = 0; i < tokens.size(); i++) {
+          out.writeInt(tokens.get(i));
+        }
+      }
+      out.writeInt(adjacency.size());
+      for (Map.Entry<String, Map<String, Integer>> entry : adjacency.entrySet()) {
+        out.writeInt(idOf(vocabulary, extraIds, entry.getKey()));
+        out.writeInt(entry.getValue().size());
+        for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+          out.writeInt(idOf(vocabulary, extraIds, edge.getKey()));
+          out.writeInt(edge.getValue());
+        }
+      }
+    }
+  }
+
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  private static void readSnapshot(Path file, WordGraph graph) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+      if (in.readInt() != SNAPSHOT_MAGIC) {
+        throw new IOException("Not a graph snapshot: " + file);
+      }
+      int vocabularySize = in.readInt();
+      String[] words = new String[vocabularySize + in.readInt()];
+      Vocabulary vocabulary = new Vocabulary();
+      for (int id = 0; id < words.length; id++) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        words[id] = new String(bytes, StandardCharsets.UTF_8);
+        if (id < vocabularySize) {
+          vocabulary.intern(words[id]);
+        }
+      }
+      long tokenCount = in.readLong();
+      long maxWeightOverestimate = in.readLong();
+      int tokenSize = in.readInt();
+      TokenIdStream tokens = null;
+      if (tokenSize >= 0) {
+        tokens = new TokenIdStream(tokenSize);
+        for (int i = 0; i < tokenSize; i++) {
+          tokens.add(in.readInt());
+        }
+      }
+      int sources = in.readInt();
+      Map<String, Map<String, Integer>> adjacency = new HashMap<>(sources * 4 / 3 + 1);
+      for (int i = 0; i < sources; i++) {
+        String source = words[in.readInt()];
+        int degree = in.readInt();
+        Map<String, Integer> edges = new HashMap<>(degree * 4 / 3 + 1);
+        for (int j = 0; j < degree; j++) {
+          String target = words[in.readInt()];
+          edges.put(target, in.readInt());
+        }
+        adjacency.put(source, edges);
+      }
+      graph.restore(adjacency, vocabulary, tokens, tokenCount, maxWeightOverestimate);
+    }
+  }
+
+  private static void addExtra(Vocabulary vocabulary, Map<String, Integer> extraIds,
+                               List<String> extraWords, String word) {
+    if (!vocabulary.contains(word) && !extraIds.containsKey(word)) {
+      extraIds.put(word, vocabulary.size() + extraWords.size());
+      extraWords.add(word);
+    }
+  }
+
+  private static int idOf(Vocabulary vocabulary, Map<String, Integer> extraIds, String word) {
+    int id = vocabulary.idOf(word);
+    return id >= 0 ? id : extraIds.get(word);
+  }
+
+  private static void writeWord(DataOutputStream out, String word) throws IOException {
+    byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+}
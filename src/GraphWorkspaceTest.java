@@ -0,0 +1,107 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GraphWorkspaceTest {
+
+  private static WordGraph load(long seed) {
+    WordGraph graph = new WordGraph();
+    graph.processText(new CorpusGenerator(seed, 500, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(5000));
+    return graph;
+  }
+
+  // 测试用例1：超过预算时淘汰最久未使用的图，再次访问时透明地重新载入
+  @Test
+  public void testEvictsLeastRecentlyUsedAndReloads() throws Exception {
+    Path directory = Files.createTempDirectory("workspace");
+    WordGraph first = load(1);
+    WordGraph second = load(2);
+    WordGraph third = load(3);
+    Map<String, Map<String, Integer>> expected = new HashMap<>(first.getGraph());
+    String path = first.calcShortestPath(CorpusGenerator.word(0),
+        CorpusGenerator.word(7));
+    long budget = GraphWorkspace.estimateBytes(first) * 5 / 2;
+    GraphWorkspace workspace = new GraphWorkspace(budget, directory);
+    try {
+      workspace.put("first", first);
+      workspace.put("second", second);
+      assertTrue(workspace.isResident("first"));
+      workspace.put("third", third);
+      assertFalse(workspace.isResident("first"));
+      assertTrue(first.isEmpty());
+      assertTrue(workspace.getResidentBytes() <= budget);
+
+      WordGraph reloaded = workspace.get("first");
+      assertSame(first, reloaded);
+      assertEquals(expected, reloaded.getGraph());
+      assertEquals(5000, reloaded.getWordCount());
+      assertEquals(path,
+        reloaded.calcShortestPath(CorpusGenerator.word(0), CorpusGenerator.word(7)));
+      assertFalse(workspace.isResident("second"));
+      assertEquals(2, workspace.getEvictionCount());
+      assertEquals(1, workspace.getReloadCount());
+      assertEquals(Arrays.asList("second", "third", "first"), workspace.names());
+    } finally {
+      workspace.clear();
+      Files.delete(directory);
+    }
+  }
+
+  // 测试用例2：没有词元序列的图(多文件装入)也能保存并重新载入
+  @Test
+  public void testReloadsInstalledCorpus() throws Exception {
+    Path directory = Files.createTempDirectory("workspace");
+    WordGraph installed = new WordGraph();
+    Map<String, Map<String, Integer>> merged = new HashMap<>();
+    merged.computeIfAbsent("alpha", k -> new HashMap<>()).put("beta", 3);
+    merged.computeIfAbsent("beta", k -> new HashMap<>()).put("gamma", 1);
+    Set<String> vocabulary = new HashSet<>(Arrays.asList("alpha", "beta", "gamma"));
+    installed.installCorpus(merged, vocabulary, 7);
+    GraphWorkspace workspace = new GraphWorkspace(1, directory);
+    try {
+      workspace.put("installed", installed);
+      workspace.put("other", load(4));
+      assertFalse(workspace.isResident("installed"));
+      workspace.get("installed");
+      assertEquals(merged, installed.getGraph());
+      assertNull(installed.getTokenStream());
+      assertEquals(7, installed.getWordCount());
+      assertEquals("beta", installed.showBridgeWords("alpha", "gamma"));
+      assertTrue(workspace.remove("other"));
+      assertFalse(workspace.remove("other"));
+    } finally {
+      workspace.clear();
+      Files.delete(directory);
+    }
+  }
+
+  // 测试用例3：超出int范围的词元总数完整地保存和重新载入
+  @Test
+  public void testReloadsTokenCountBeyondIntRange() throws Exception {
+    Path directory = Files.createTempDirectory("workspace");
+    WordGraph installed = new WordGraph();
+    Map<String, Map<String, Integer>> merged = new HashMap<>();
+    merged.computeIfAbsent("alpha", k -> new HashMap<>()).put("beta", 1);
+    installed.installCorpus(merged, new HashSet<>(Arrays.asList("alpha", "beta")),
+        5_000_000_000L);
+    GraphWorkspace workspace = new GraphWorkspace(1, directory);
+    try {
+      workspace.put("installed", installed);
+      workspace.put("other", load(5));
+      assertFalse(workspace.isResident("installed"));
+      workspace.get("installed");
+      assertEquals(5_000_000_000L, installed.getTokenCount());
+      assertEquals(Integer.MAX_VALUE, installed.getWordCount());
+    } finally {
+      workspace.clear();
+      Files.delete(directory);
+    }
+  }
+}
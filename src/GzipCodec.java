@@ -0,0 +1,26 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 基于JDK {@link GZIPInputStream}的gzip解码器.
+ */
+public class GzipCodec implements CompressionCodec {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Override
+  public String getName() {
+    return "gzip";
+  }
+
+  @Override
+  public String getExtension() {
+    return "gz";
+  }
+
+  @Override
+  public InputStream decompress(InputStream compressed) throws IOException {
+    return new GZIPInputStream(compressed, BUFFER_SIZE);
+  }
+}
@@ -0,0 +1,387 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 以词元编号保存的N元语法计数.
+ *
+ * <p>所有长度不超过N的N元组存放在一棵按层排列的有序前缀树中：第j层(从0开始)依次保存
+ * 全部不同的(j+1)元组的最后一个词元编号和出现次数，同一前缀的子节点在下一层连续存放、
+ * 按编号升序排列，父节点只记录其子节点区间的起点。共同前缀只保存一次，
+ * 每个节点固定占12字节，而嵌套的{@code Map}每个N元组需要若干对象。</p>
+ *
+ * <p>前缀树由词元位置的排序数组一次构建：对前N个词元做N轮稳定的计数排序，
+ * 相邻位置的公共前缀长度决定从哪一层开始新建节点。查询长度为m的上下文时
+ * 逐层在子节点区间内二分查找，共需m次O(log V)的查找。</p>
+ */
+public final class NGramModel {
+
+  private static final int NODE_BYTES = 12;  // 编号、次数和子节点区间起点各一个int
+
+  private final Vocabulary vocabulary;
+  private final int order;
+  // 第j层节点的最后一个词元编号、出现次数和子节点在第j+1层的起点(多一个哨兵)
+  private final int[][] ids;
+  private final int[][] counts;
+  private final int[][] childStart;
+
+  private NGramModel(Vocabulary vocabulary, int order, int[][] ids, int[][] counts,
+                     int[][] childStart) {
+    this.vocabulary = vocabulary;
+    this.order = order;
+    this.ids = ids;
+    this.counts = counts;
+    this.childStart = childStart;
+  }
+
+  /**
+   * 可增长的int数组.
+   */
+  private static final class IntArray {
+    private int[] values = new int[16];
+    private int size = 0;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size + (size >> 1) + 1);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+
+  /**
+   * 统计词元序列中所有长度不超过order的N元组.
+   *
+   * @param tokens 词元编号序列
+   * @param vocabulary 编号对应的词表
+   * @param order 最大阶数N，至少为1
+   * @return N元语法模型
+   */
+  public static NGramModel build(TokenIdStream tokens, Vocabulary vocabulary, int order) {
+    if (order < 1) {
+      throw new IllegalArgumentException("order must be positive: " + order);
+    }
+    int n = tokens.size();
+    int[] sequence = new int[n];
+    for (int i = 0; i < n; i++) {
+      sequence[i] = tokens.get(i);
+    }
+    int[] positions = sortPositions(sequence, vocabulary.size(), order);
+
+    IntArray[] levelIds = new IntArray[order];
+    IntArray[] levelCounts = new IntArray[order];
+    IntArray[] levelChildren = new IntArray[order];
+    for (int j = 0; j < order; j++) {
+      levelIds[j] = new IntArray();
+      levelCounts[j] = new IntArray();
+      levelChildren[j] = new IntArray();
+    }
+    int previous = -1;
+    for (int position : positions) {
+      int depth = Math.min(order, n - position);
+      int common = 0;
+      if (previous >= 0) {
+        int limit = Math.min(depth, n - previous);
+        while (common < limit && sequence[position + common] == sequence[previous + common]) {
+          common++;
+        }
+      }
+      // 公共前缀之后的每一层都是新的N元组
+      for (int j = common; j < depth; j++) {
+        levelIds[j].add(sequence[position + j]);
+        levelCounts[j].add(0);
+        levelChildren[j].add(j + 1 < order ? levelIds[j + 1].size : 0);
+      }
+      for (int j = 0; j < depth; j++) {
+        levelCounts[j].values[levelCounts[j].size - 1]++;
+      }
+      previous = position;
+    }
+
+    int[][] ids = new int[order][];
+    int[][] counts = new int[order][];
+    int[][] childStart = new int[order][];
+    for (int j = 0; j < order; j++) {
+      levelChildren[j].add(j + 1 < order ? levelIds[j + 1].size : 0);
+      ids[j] = levelIds[j].toArray();
+      counts[j] = levelCounts[j].toArray();
+      childStart[j] = levelChildren[j].toArray();
+    }
+    return new NGramModel(vocabulary, order, ids, counts, childStart);
+  }
+
+  /**
+   * 按从每个位置开始的前order个词元对位置排序，超出序列末尾视为最小.
+   */
+  private static int[] sortPositions(int[] sequence, int vocabularySize, int order) {
+    int n = sequence.length;
+    int[] positions = new int[n];
+    int[] buffer = new int[n];
+    for (int i = 0; i < n; i++) {
+      positions[i] = i;
+    }
+    int[] bucketStart = new int[vocabularySize + 2];
+    // 最低位优先的基数排序，每轮按第d个词元稳定排序
+    for (int d = order - 1; d >= 0; d--) {
+      Arrays.fill(bucketStart, 0);
+      for (int i = 0; i < n; i++) {
+        bucketStart[key(sequence, i + d) + 1]++;
+      }
+      for (int b = 1; b < bucketStart.length; b++) {
+        bucketStart[b] += bucketStart[b - 1];
+      }
+      for (int position : positions) {
+        buffer[bucketStart[key(sequence, position + d)]++] = position;
+      }
+      int[] swap = positions;
+      positions = buffer;
+      buffer = swap;
+    }
+    return positions;
+  }
+
+  private static int key(int[] sequence, int index) {
+    return index < sequence.length ? sequence[index] + 1 : 0;
+  }
+
+  /**
+   * 返回最大阶数N.
+   */
+  public int getOrder() {
+    return order;
+  }
+
+  /**
+   * 返回不同k元组的个数.
+   *
+   * @param k 阶数，1到N
+   */
+  public int getDistinctCount(int k) {
+    checkOrder(k);
+    return ids[k - 1].length;
+  }
+
+  /**
+   * 返回k元组所在层占用的字节数.
+   *
+   * @param k 阶数，1到N
+   */
+  public long getStorageBytes(int k) {
+    checkOrder(k);
+    return (long) NODE_BYTES * ids[k - 1].length + 4;
+  }
+
+  /**
+   * 返回各阶N元组数量和占用内存的报告.
+   */
+  public String getMemoryReport() {
+    StringBuilder report = new StringBuilder();
+    long total = 0;
+    for (int k = 1; k <= order; k++) {
+      total += getStorageBytes(k);
+      report.append(String.format("order %d: %,d n-grams, %,d bytes%n",
+          k, getDistinctCount(k), getStorageBytes(k)));
+    }
+    report.append(String.format("total: %,d bytes%n", total));
+    return report.toString();
+  }
+
+  private void checkOrder(int k) {
+    if (k < 1 || k > order) {
+      throw new IllegalArgumentException("order " + k + " out of range [1, " + order + "]");
+    }
+  }
+
+  /**
+   * 查找N元组对应的节点，不存在时返回-1.
+   */
+  private int find(int[] gram, int from, int to) {
+    int low = 0;
+    int high = ids[0].length;
+    int node = -1;
+    for (int j = 0; j < to - from; j++) {
+      node = Arrays.binarySearch(ids[j], low, high, gram[from + j]);
+      if (node < 0) {
+        return -1;
+      }
+      if (j + 1 < to - from) {
+        low = childStart[j][node];
+        high = childStart[j][node + 1];
+      }
+    }
+    return node;
+  }
+
+  /**
+   * 返回N元组在文本中的出现次数.
+   *
+   * @param words 长度1到N的单词序列
+   * @return 出现次数，包含词表外的单词时为0
+   */
+  public int count(String... words) {
+    checkOrder(words.length);
+    int[] gram = toIds(words);
+    if (gram == null) {
+      return 0;
+    }
+    int node = find(gram, 0, gram.length);
+    return node < 0 ? 0 : counts[gram.length - 1][node];
+  }
+
+  private int[] toIds(String[] words) {
+    int[] gram = new int[words.length];
+    for (int i = 0; i < words.length; i++) {
+      gram[i] = vocabulary.idOf(words[i]);
+      if (gram[i] < 0) {
+        return null;
+      }
+    }
+    return gram;
+  }
+
+  /**
+   * 以上下文的后继单词按出现次数加权随机选择下一个单词.
+   *
+   * <p>使用上下文末尾最多N-1个单词；该上下文在文本中没有后继时逐个去掉最前面的单词重试(回退)，
+   * 上下文为空时按单词频率选择。</p>
+   *
+   * @param context 已生成的单词，可以为空
+   * @param random 随机数生成器
+   * @return 下一个单词，文本为空时返回null
+   */
+  public String next(String[] context, Random random) {
+    int length = Math.min(context.length, order - 1);
+    int[] gram = new int[length];
+    int known = 0;
+    // 词表外的单词之前的上下文无法匹配，只保留其后的部分
+    for (int i = context.length - length; i < context.length; i++) {
+      int id = context[i] == null ? -1 : vocabulary.idOf(context[i]);
+      if (id < 0) {
+        known = 0;
+        continue;
+      }
+      gram[known++] = id;
+    }
+    for (int from = 0; from <= known; from++) {
+      int level = known - from;
+      int low = 0;
+      int high = ids[0].length;
+      if (level > 0) {
+        int node = find(gram, from, known);
+        if (node < 0) {
+          continue;
+        }
+        low = childStart[level - 1][node];
+        high = childStart[level - 1][node + 1];
+      }
+      if (low < high) {
+        return vocabulary.word(ids[level][sample(counts[level], low, high, random)]);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 以上下文为起点续写文本.
+   *
+   * @param seed 起始单词
+   * @param length 续写的单词数
+   * @param random 随机数生成器
+   * @return 起始单词和续写部分，以空格分隔
+   */
+  public String generate(String[] seed, int length, Random random) {
+    String[] text = Arrays.copyOf(seed, seed.length + length);
+    int size = seed.length;
+    for (int i = 0; i < length; i++) {
+      int start = Math.max(0, size - (order - 1));
+      String word = next(Arrays.copyOfRange(text, start, size), random);
+      if (word == null) {
+        break;
+      }
+      text[size++] = word;
+    }
+    return String.join(" ", Arrays.copyOf(text, size));
+  }
+
+  /**
+   * 选择连接两个单词的桥接词，优先使用更长的上下文.
+   *
+   * <p>候选词b需使(上下文..., word1, b, word2)在文本中出现，按该N元组的次数加权选择；
+   * 没有候选时去掉上下文最前面的单词重试，最短为(word1, b, word2)。
+   * 要求N至少为3。</p>
+   *
+   * @param context word1之前已生成的单词，null与词表外的单词相同，截断前面的上下文
+   * @param word1 前一个单词
+   * @param word2 后一个单词
+   * @param random 随机数生成器
+   * @return 桥接词，不存在时返回null
+   */
+  public String bridge(String[] context, String word1, String word2, Random random) {
+    if (order < 3) {
+      throw new IllegalStateException("bridge words need order >= 3, model order is " + order);
+    }
+    int first = vocabulary.idOf(word1);
+    int last = vocabulary.idOf(word2);
+    if (first < 0 || last < 0) {
+      return null;
+    }
+    int length = Math.min(context.length, order - 3);
+    int[] gram = new int[length + 1];
+    int known = 0;
+    for (int i = context.length - length; i < context.length; i++) {
+      int id = context[i] == null ? -1 : vocabulary.idOf(context[i]);
+      if (id < 0) {
+        known = 0;
+        continue;
+      }
+      gram[known++] = id;
+    }
+    gram[known++] = first;
+    for (int from = 0; from < known; from++) {
+      int level = known - from;
+      int node = find(gram, from, known);
+      if (node < 0) {
+        continue;
+      }
+      // 逐个检查word1之后的候选词是否还能接上word2
+      int low = childStart[level - 1][node];
+      int high = childStart[level - 1][node + 1];
+      int[] weights = new int[high - low];
+      for (int candidate = low; candidate < high; candidate++) {
+        int childLow = childStart[level][candidate];
+        int childHigh = childStart[level][candidate + 1];
+        int child = Arrays.binarySearch(ids[level + 1], childLow, childHigh, last);
+        weights[candidate - low] = child < 0 ? 0 : counts[level + 1][child];
+      }
+      int chosen = sample(weights, 0, weights.length, random);
+      if (chosen >= 0) {
+        return vocabulary.word(ids[level][low + chosen]);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 在values[low, high)中按值加权随机选择下标，权重全为0时返回-1.
+   */
+  private static int sample(int[] values, int low, int high, Random random) {
+    long total = 0;
+    for (int i = low; i < high; i++) {
+      total += values[i];
+    }
+    if (total == 0) {
+      return -1;
+    }
+    long target = (long) (random.nextDouble() * total);
+    for (int i = low; i < high; i++) {
+      target -= values[i];
+      if (target < 0) {
+        return i;
+      }
+    }
+    return high - 1;
+  }
+}
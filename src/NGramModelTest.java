@@ -0,0 +1,76 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class NGramModelTest {
+
+  private static WordGraph load(String text) {
+    WordGraph graph = new WordGraph();
+    graph.processText(text);
+    return graph;
+  }
+
+  // 测试用例1：各阶计数与直接统计的结果一致
+  @Test
+  public void testCountsMatchDirectCounting() {
+    WordGraph graph = load(new CorpusGenerator(5, 200, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(20000));
+    TokenIdStream tokens = graph.getTokenStream();
+    Vocabulary vocabulary = graph.getVocabulary();
+    NGramModel model = graph.getNGramModel(4);
+    for (int k = 1; k <= 4; k++) {
+      Map<String, Integer> expected = new HashMap<>();
+      for (int i = 0; i + k <= tokens.size(); i++) {
+        StringBuilder key = new StringBuilder();
+        for (int j = 0; j < k; j++) {
+          key.append(vocabulary.word(tokens.get(i + j))).append(' ');
+        }
+        expected.merge(key.toString(), 1, Integer::sum);
+      }
+      assertEquals(expected.size(), model.getDistinctCount(k));
+      for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+        assertEquals(entry.getValue().intValue(), model.count(entry.getKey().split(" ")));
+      }
+    }
+    // 二元组计数就是图的边权重
+    for (Map.Entry<String, Map<String, Integer>> source : graph.getGraph().entrySet()) {
+      for (Map.Entry<String, Integer> edge : source.getValue().entrySet()) {
+        assertEquals(edge.getValue().intValue(), model.count(source.getKey(), edge.getKey()));
+      }
+    }
+    assertEquals(0, model.count("no-such-word", CorpusGenerator.word(0)));
+    assertTrue(model.getMemoryReport().contains("order 4:"));
+  }
+
+  // 测试用例2：每个二元上下文都有后继时，续写只产生原文中出现过的三元组
+  @Test
+  public void testGenerateFollowsText() {
+    NGramModel model = load("the cat sat on the mat and the cat ate the rat the cat sat")
+        .getNGramModel(3);
+    String[] words = model.generate(new String[] {"the", "cat"}, 20, new Random(1))
+        .split(" ");
+    assertTrue(words.length > 2);
+    for (int i = 0; i + 3 <= words.length; i++) {
+      assertTrue(model.count(words[i], words[i + 1], words[i + 2]) > 0);
+    }
+  }
+
+  // 测试用例3：高阶桥接词要求与前文一起出现，找不到时缩短上下文
+  @Test
+  public void testBridgeUsesLongerContext() {
+    WordGraph graph = load("a x b c y d a z d c z b");
+    NGramModel model = graph.getNGramModel(4);
+    Random random = new Random(2);
+    // 二元桥接词a->{x,z}->{b,d}，三元组中a x b和a z d各只有一个
+    assertEquals("x", model.bridge(new String[0], "a", "b", random));
+    assertEquals("z", model.bridge(new String[0], "a", "d", random));
+    // 上下文d a出现过，d a z d存在；c a没有出现，回退到a z d
+    assertEquals("z", model.bridge(new String[] {"d"}, "a", "d", random));
+    assertEquals("z", model.bridge(new String[] {"c"}, "a", "d", random));
+    assertNull(model.bridge(new String[0], "b", "a", random));
+    assertEquals("a x b", graph.generateNewText("a b", 4));
+    assertEquals("a x b", graph.generateNewText("a b", 3));
+  }
+}
@@ -0,0 +1,508 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 存放在堆外内存中的只读有向词图.
+ *
+ * <p>词表和邻接表都以紧凑数组保存在直接缓冲区({@link ByteBuffer#allocateDirect})
+ * 或内存映射文件中，不占用Java堆，也不会被垃圾收集器扫描：</p>
+ * <ul>
+ *   <li>词表：所有单词的UTF-8字节依次排列，另有每个单词的起始偏移；</li>
+ *   <li>散列表：开放寻址，槽中保存单词编号加一，散列值与{@link String#hashCode()}相同，
+ *       查找时直接逐字符比较UTF-8字节与查询字符串，不创建临时对象；</li>
+ *   <li>邻接表：CSR格式，每个源单词的后继按编号排序，权重与后继一一对应。</li>
+ * </ul>
+ *
+ * <p>{@link #asMap()}把这些数组包装成与{@link WordGraph#getGraph()}相同形状的只读映射，
+ * 因此最短路径、PageRank、随机游走和桥接词查询无需修改即可在堆外图上运行。
+ * 基于文件创建的图可以用{@link #open(Path)}重新映射，无需再次加载文本。</p>
+ *
+ * <p>JDK 17中{@code MemorySegment}仍处于孵化阶段，因此使用{@link ByteBuffer}实现；
+ * 每个数组单独分配或映射，单个数组不超过2GB。映射在缓冲区被回收时解除。</p>
+ */
+public final class OffHeapGraph {
+
+  private static final int MAGIC = 0x57474F48;  // "WGOH"
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_BYTES = 32;
+
+  private final int vertexCount;
+  private final int edgeCount;
+  private final int sourceCount;
+  private final IntBuffer wordOffsets;
+  private final ByteBuffer wordBytes;
+  private final IntBuffer slots;
+  private final int slotMask;
+  private final IntBuffer edgeOffsets;
+  private final IntBuffer targets;
+  private final IntBuffer weights;
+  private final Map<String, Map<String, Integer>> view = new GraphView();
+
+  private OffHeapGraph(int vertexCount, int edgeCount, int sourceCount, IntBuffer wordOffsets,
+                       ByteBuffer wordBytes, IntBuffer slots, IntBuffer edgeOffsets,
+                       IntBuffer targets, IntBuffer weights) {
+    this.vertexCount = vertexCount;
+    this.edgeCount = edgeCount;
+    this.sourceCount = sourceCount;
+    this.wordOffsets = wordOffsets;
+    this.wordBytes = wordBytes;
+    this.slots = slots;
+    this.slotMask = slots.capacity() - 1;
+    this.edgeOffsets = edgeOffsets;
+    this.targets = targets;
+    this.weights = weights;
+  }
+
+  /**
+   * 依次分配各数组的存储空间：直接缓冲区或同一文件中的连续映射区域.
+   */
+  private static final class Allocator {
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private long position = 0;
+
+    Allocator(FileChannel channel, FileChannel.MapMode mode) {
+      this.channel = channel;
+      this.mode = mode;
+    }
+
+    ByteBuffer allocate(long bytes) throws IOException {
+      if (bytes > Integer.MAX_VALUE) {
+        throw new IOException("Section too large for a single buffer: " + bytes + " bytes");
+      }
+      ByteBuffer buffer;
+      if (channel == null) {
+        buffer = ByteBuffer.allocateDirect((int) bytes);
+      } else {
+        buffer = channel.map(mode, position, bytes);
+        position += (bytes + 7) & ~7L;  // 各区域按8字节对齐
+      }
+      return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+
+  /**
+   * 在直接缓冲区中创建图的堆外副本.
+   *
+   * @param graph 邻接表
+   * @return 堆外图
+   */
+  public static OffHeapGraph create(Map<String, Map<String, Integer>> graph) {
+    try {
+      return write(graph, new Allocator(null, null));
+    } catch (IOException e) {
+      throw new IllegalStateException("Direct buffer allocation cannot fail with I/O", e);
+    }
+  }
+
+  /**
+   * 在内存映射文件中创建图的副本，文件已存在时被覆盖.
+   *
+   * @param graph 邻接表
+   * @param file 映射文件
+   * @return 堆外图
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  public static OffHeapGraph create(Map<String, Map<String, Integer>> graph, Path file)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      // 映射在通道关闭后仍然有效
+      return write(graph, new Allocator(channel, FileChannel.MapMode.READ_WRITE));
+    }
+  }
+
+  /**
+   * 以只读方式映射由{@link #create(Map, Path)}生成的文件.
+   *
+   * @param file 映射文件
+   * @return 堆外图
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  public static OffHeapGraph open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      Allocator allocator = new Allocator(channel, FileChannel.MapMode.READ_ONLY);
+      ByteBuffer header = allocator.allocate(HEADER_BYTES);
+      if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+        throw new IOException("Not an off-heap graph file: " + file);
+      }
+      int n = header.getInt(8);
+      int m = header.getInt(12);
+      int sources = header.getInt(16);
+      int tableSize = header.getInt(20);
+      int byteLength = header.getInt(24);
+      IntBuffer wordOffsets = allocator.allocate(4L * (n + 1)).asIntBuffer();
+      ByteBuffer wordBytes = allocator.allocate(byteLength);
+      IntBuffer slots = allocator.allocate(4L * tableSize).asIntBuffer();
+      IntBuffer edgeOffsets = allocator.allocate(4L * (n + 1)).asIntBuffer();
+      IntBuffer targets = allocator.allocate(4L * m).asIntBuffer();
+      IntBuffer weights = allocator.allocate(4L * m).asIntBuffer();
+      return new OffHeapGraph(n, m, sources, wordOffsets, wordBytes, slots, edgeOffsets,
+          targets, weights);
+    }
+  }
+
+  private static OffHeapGraph write(Map<String, Map<String, Integer>> graph,
+                                    Allocator allocator) throws IOException {
+    // 分配编号：包括只作为目标出现的单词
+    Map<String, Integer> ids = new HashMap<>();
+    List<String> words = new ArrayList<>();
+    long m = 0;
+    int sources = 0;
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      intern(ids, words, entry.getKey());
+      for (String target : entry.getValue().keySet()) {
+        intern(ids, words, target);
+      }
+      m += entry.getValue().size();
+      if (!entry.getValue().isEmpty()) {
+        sources++;
+      }
+    }
+    int n = words.size();
+    if (m > Integer.MAX_VALUE / 4) {
+      throw new IOException("Too many edges for off-heap storage: " + m);
+    }
+    byte[][] encoded = new byte[n][];
+    long byteLength = 0;
+    for (int id = 0; id < n; id++) {
+      encoded[id] = words.get(id).getBytes(StandardCharsets.UTF_8);
+      byteLength += encoded[id].length;
+    }
+    int tableSize = Integer.highestOneBit(Math.max(2, n) * 2 - 1) << 1;
+
+    ByteBuffer header = allocator.allocate(HEADER_BYTES);
+    if (byteLength > Integer.MAX_VALUE) {
+      throw new IOException("Vocabulary too large for off-heap storage: " + byteLength);
+    }
+    header.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, n).putInt(12, (int) m)
+        .putInt(16, sources).putInt(20, tableSize).putInt(24, (int) byteLength);
+    IntBuffer wordOffsets = allocator.allocate(4L * (n + 1)).asIntBuffer();
+    ByteBuffer wordBytes = allocator.allocate(byteLength);
+    IntBuffer slots = allocator.allocate(4L * tableSize).asIntBuffer();
+    IntBuffer edgeOffsets = allocator.allocate(4L * (n + 1)).asIntBuffer();
+    IntBuffer targets = allocator.allocate(4L * m).asIntBuffer();
+    IntBuffer weights = allocator.allocate(4L * m).asIntBuffer();
+
+    int offset = 0;
+    for (int id = 0; id < n; id++) {
+      wordOffsets.put(id, offset);
+      wordBytes.put(offset, encoded[id]);
+      offset += encoded[id].length;
+      int slot = spread(words.get(id).hashCode()) & (tableSize - 1);
+      while (slots.get(slot) != 0) {
+        slot = (slot + 1) & (tableSize - 1);
+      }
+      slots.put(slot, id + 1);
+    }
+    wordOffsets.put(n, offset);
+
+    int position = 0;
+    for (int id = 0; id < n; id++) {
+      edgeOffsets.put(id, position);
+      Map<String, Integer> edges = graph.get(words.get(id));
+      if (edges == null || edges.isEmpty()) {
+        continue;
+      }
+      // 后继按编号排序，查找单条边时可以二分
+      long[] packed = new long[edges.size()];
+      int k = 0;
+      for (Map.Entry<String, Integer> edge : edges.entrySet()) {
+        packed[k++] = ((long) ids.get(edge.getKey()) << 32) | (edge.getValue() & 0xFFFFFFFFL);
+      }
+      Arrays.sort(packed);
+      for (long value : packed) {
+        targets.put(position, (int) (value >>> 32));
+        weights.put(position, (int) value);
+        position++;
+      }
+    }
+    edgeOffsets.put(n, position);
+    return new OffHeapGraph(n, (int) m, sources, wordOffsets, wordBytes, slots, edgeOffsets,
+        targets, weights);
+  }
+
+  private static void intern(Map<String, Integer> ids, List<String> words, String word) {
+    if (!ids.containsKey(word)) {
+      ids.put(word, words.size());
+      words.add(word);
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * 返回单词的编号，不存在时返回-1；查找过程不创建对象.
+   *
+   * @param word 单词
+   */
+  public int idOf(CharSequence word) {
+    int hash = 0;
+    for (int i = 0; i < word.length(); i++) {
+      hash = 31 * hash + word.charAt(i);
+    }
+    int slot = spread(hash) & slotMask;
+    while (true) {
+      int stored = slots.get(slot);
+      if (stored == 0) {
+        return -1;
+      }
+      if (matches(stored - 1, word)) {
+        return stored - 1;
+      }
+      slot = (slot + 1) & slotMask;
+    }
+  }
+
+  /**
+   * 逐个解码UTF-8字节并与字符序列比较.
+   */
+  private boolean matches(int id, CharSequence word) {
+    int position = wordOffsets.get(id);
+    int end = wordOffsets.get(id + 1);
+    int index = 0;
+    while (position < end) {
+      int b = wordBytes.get(position) & 0xFF;
+      int codePoint;
+      if (b < 0x80) {
+        codePoint = b;
+        position += 1;
+      } else if (b < 0xE0) {
+        codePoint = ((b & 0x1F) << 6) | (wordBytes.get(position + 1) & 0x3F);
+        position += 2;
+      } else if (b < 0xF0) {
+        codePoint = ((b & 0x0F) << 12) | ((wordBytes.get(position + 1) & 0x3F) << 6)
+            | (wordBytes.get(position + 2) & 0x3F);
+        position += 3;
+      } else {
+        codePoint = ((b & 0x07) << 18) | ((wordBytes.get(position + 1) & 0x3F) << 12)
+            | ((wordBytes.get(position + 2) & 0x3F) << 6) | (wordBytes.get(position + 3) & 0x3F);
+        position += 4;
+      }
+      if (index >= word.length() || Character.codePointAt(word, index) != codePoint) {
+        return false;
+      }
+      index += Character.charCount(codePoint);
+    }
+    return index == word.length();
+  }
+
+  /**
+   * 返回编号对应的单词.
+   *
+   * @param id 编号
+   */
+  public String word(int id) {
+    int start = wordOffsets.get(id);
+    byte[] bytes = new byte[wordOffsets.get(id + 1) - start];
+    wordBytes.get(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * 返回单词数(包括没有出边的单词).
+   */
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * 返回边数.
+   */
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * 返回堆外数据占用的字节数.
+   */
+  public long getStorageBytes() {
+    return HEADER_BYTES + 4L * wordOffsets.capacity() + wordBytes.capacity()
+        + 4L * slots.capacity() + 4L * edgeOffsets.capacity() + 8L * edgeCount;
+  }
+
+  /**
+   * 返回编号为id的单词的出度.
+   */
+  public int outDegree(int id) {
+    return edgeOffsets.get(id + 1) - edgeOffsets.get(id);
+  }
+
+  /**
+   * 返回从source到target的边权重，不存在时返回0.
+   *
+   * @param source 源单词编号
+   * @param target 目标单词编号
+   */
+  public int weight(int source, int target) {
+    int low = edgeOffsets.get(source);
+    int high = edgeOffsets.get(source + 1) - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int value = targets.get(mid);
+      if (value < target) {
+        low = mid + 1;
+      } else if (value > target) {
+        high = mid - 1;
+      } else {
+        return weights.get(mid);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * 返回与{@link WordGraph#getGraph()}形状相同的只读视图.
+   *
+   * <p>视图只包含有出边的单词；键和值在遍历时从堆外数据解码，查找不创建字符串。</p>
+   */
+  public Map<String, Map<String, Integer>> asMap() {
+    return view;
+  }
+
+  private final class GraphView extends AbstractMap<String, Map<String, Integer>> {
+    private final Set<Map.Entry<String, Map<String, Integer>>> entries = new AbstractSet<>() {
+      @Override
+      public Iterator<Map.Entry<String, Map<String, Integer>>> iterator() {
+        return new Iterator<>() {
+          private int next = advance(0);
+
+          private int advance(int from) {
+            int id = from;
+            while (id < vertexCount && outDegree(id) == 0) {
+              id++;
+            }
+            return id;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return next < vertexCount;
+          }
+
+          @Override
+          public Map.Entry<String, Map<String, Integer>> next() {
+            if (next >= vertexCount) {
+              throw new NoSuchElementException();
+            }
+            int id = next;
+            next = advance(id + 1);
+            return new SimpleImmutableEntry<>(word(id), new AdjacencyView(id));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return sourceCount;
+      }
+    };
+
+    @Override
+    public Set<Map.Entry<String, Map<String, Integer>>> entrySet() {
+      return entries;
+    }
+
+    @Override
+    public int size() {
+      return sourceCount;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public Map<String, Integer> get(Object key) {
+      if (!(key instanceof CharSequence)) {
+        return null;
+      }
+      int id = idOf((CharSequence) key);
+      return id < 0 || outDegree(id) == 0 ? null : new AdjacencyView(id);
+    }
+  }
+
+  private final class AdjacencyView extends AbstractMap<String, Integer> {
+    private final int source;
+
+    AdjacencyView(int source) {
+      this.source = source;
+    }
+
+    @Override
+    public int size() {
+      return outDegree(source);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public Integer get(Object key) {
+      if (!(key instanceof CharSequence)) {
+        return null;
+      }
+      int target = idOf((CharSequence) key);
+      if (target < 0) {
+        return null;
+      }
+      int weight = weight(source, target);
+      return weight == 0 ? null : weight;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Integer>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Map.Entry<String, Integer>> iterator() {
+          return new Iterator<>() {
+            private int position = edgeOffsets.get(source);
+            private final int end = edgeOffsets.get(source + 1);
+
+            @Override
+            public boolean hasNext() {
+              return position < end;
+            }
+
+            @Override
+            public Map.Entry<String, Integer> next() {
+              if (position >= end) {
+                throw new NoSuchElementException();
+              }
+              int index = position++;
+              return new SimpleImmutableEntry<>(word(targets.get(index)), weights.get(index));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return outDegree(source);
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,57 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class OffHeapGraphTest {
+
+  // 测试用例1：堆外视图与堆上邻接表相等，查询结果一致
+  @Test
+  public void testViewMatchesHeapGraph() throws Exception {
+    String text = new CorpusGenerator(17, 800, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(20000) + " café naïve 中文 café";
+    WordGraph heap = new WordGraph();
+    heap.processText(text);
+    WordGraph offHeap = new WordGraph();
+    offHeap.processText(text);
+    offHeap.moveGraphOffHeap(null);
+
+    assertNotNull(offHeap.getOffHeapGraph());
+    assertEquals(heap.getGraph(), offHeap.getGraph());
+    assertEquals(heap.getGraph().size(), offHeap.getGraph().size());
+    assertEquals(Integer.valueOf(1), offHeap.getGraph().get("café").get("naïve"));
+    assertNull(offHeap.getGraph().get("missing"));
+    assertEquals(heap.calcShortestPath("café", "中文"), offHeap.calcShortestPath("café", "中文"));
+    assertEquals(heap.showBridgeWords("naïve", "café"), offHeap.showBridgeWords("naïve", "café"));
+
+    // 重新构建后图回到堆上
+    offHeap.buildDirectedWeightedGraph();
+    assertNull(offHeap.getOffHeapGraph());
+    assertEquals(heap.getGraph(), offHeap.getGraph());
+  }
+
+  // 测试用例2：映射文件可以重新打开
+  @Test
+  public void testReopenMappedFile() throws Exception {
+    WordGraph graph = new WordGraph();
+    graph.processText("the quick fox jumps over the lazy dog and the quick cat");
+    Path file = Files.createTempFile("graph", ".bin");
+    try {
+      Map<String, Map<String, Integer>> expected = graph.getGraph();
+      OffHeapGraph created = OffHeapGraph.create(expected, file);
+
+      OffHeapGraph reopened = OffHeapGraph.open(file);
+      assertEquals(expected, reopened.asMap());
+      assertEquals(created.getEdgeCount(), reopened.getEdgeCount());
+      assertEquals(created.getVertexCount(), reopened.getVertexCount());
+      int the = reopened.idOf("the");
+      assertEquals("the", reopened.word(the));
+      assertEquals(2, reopened.weight(the, reopened.idOf("quick")));
+      assertEquals(0, reopened.weight(the, reopened.idOf("dog")));
+      assertEquals(-1, reopened.idOf("elephant"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,258 @@
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * 词图各项操作的调用计数与延迟直方图.
+ *
+ * <p>计数使用{@link LongAdder}，直方图按微秒的2的幂划分桶并用{@link AtomicLongArray}累加，
+ * 记录一次操作只需几次无锁原子操作。每次操作同时提交一个{@link GraphOperationEvent}，
+ * 全局实例在首次使用时注册到平台MBeanServer，对象名为{@value #OBJECT_NAME}。</p>
+ *
+ * <p>典型用法：</p>
+ * <pre>{@code
+ * try (OperationMetrics.Timer timer = OperationMetrics.global().start(Operation.BRIDGE)) {
+ *   timer.vertices(graph.size());
+ *   ...
+ * }
+ * }</pre>
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+  /** JMX对象名. */
+  public static final String OBJECT_NAME = "wordgraph:type=OperationMetrics";
+
+  /**
+   * 被统计的操作类型.
+   */
+  public enum Operation {
+    LOAD, BUILD, BRIDGE, GENERATE, PATH, PAGERANK, CENTRALITY, WALK, RENDER, EXPORT
+  }
+
+  // 桶i统计延迟在[2^(i-1), 2^i)微秒之间的操作，最后一个桶兜底
+  private static final int BUCKETS = 40;
+
+  private static final OperationMetrics GLOBAL = new OperationMetrics();
+
+  static {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(GLOBAL, name);
+      }
+    } catch (JMException | SecurityException e) {
+      // JMX不可用时仍可在进程内读取统计
+    }
+  }
+
+  private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+  /**
+   * 创建独立的统计实例，不注册到MBeanServer；程序中应使用{@link #global()}.
+   */
+  OperationMetrics() {
+    for (Operation operation : Operation.values()) {
+      stats.put(operation, new Stats());
+    }
+  }
+
+  /**
+   * 返回全局统计实例.
+   */
+  public static OperationMetrics global() {
+    return GLOBAL;
+  }
+
+  /**
+   * 开始计时一次操作.
+   *
+   * @param operation 操作类型
+   * @return 计时器，关闭时记录统计并提交JFR事件
+   */
+  public Timer start(Operation operation) {
+    return new Timer(this, operation);
+  }
+
+  /**
+   * 返回操作的调用次数.
+   */
+  public long getCount(Operation operation) {
+    return stats.get(operation).count.sum();
+  }
+
+  /**
+   * 返回操作的平均延迟(毫秒).
+   */
+  public double getMeanMillis(Operation operation) {
+    Stats s = stats.get(operation);
+    long count = s.count.sum();
+    return count == 0 ? 0.0 : s.totalNanos.sum() / 1e6 / count;
+  }
+
+  /**
+   * 返回操作的最大延迟(毫秒).
+   */
+  public double getMaxMillis(Operation operation) {
+    return stats.get(operation).maxNanos.get() / 1e6;
+  }
+
+  /**
+   * 按直方图估计操作延迟的分位数(毫秒)，结果为所在桶的上界.
+   *
+   * @param operation 操作类型
+   * @param quantile 分位数，取值(0, 1]
+   */
+  public double getPercentileMillis(Operation operation, double quantile) {
+    AtomicLongArray histogram = stats.get(operation).histogram;
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += histogram.get(i);
+    }
+    if (total == 0) {
+      return 0.0;
+    }
+    long threshold = (long) Math.ceil(total * quantile);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += histogram.get(i);
+      if (seen >= threshold) {
+        return (1L << i) / 1000.0;
+      }
+    }
+    return getMaxMillis(operation);
+  }
+
+  @Override
+  public Map<String, Long> getInvocationCounts() {
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (Operation operation : Operation.values()) {
+      result.put(operation.name(), getCount(operation));
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, Double> getMeanLatencyMillis() {
+    Map<String, Double> result = new LinkedHashMap<>();
+    for (Operation operation : Operation.values()) {
+      result.put(operation.name(), getMeanMillis(operation));
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, Double> getP99LatencyMillis() {
+    Map<String, Double> result = new LinkedHashMap<>();
+    for (Operation operation : Operation.values()) {
+      result.put(operation.name(), getPercentileMillis(operation, 0.99));
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, Double> getMaxLatencyMillis() {
+    Map<String, Double> result = new LinkedHashMap<>();
+    for (Operation operation : Operation.values()) {
+      result.put(operation.name(), getMaxMillis(operation));
+    }
+    return result;
+  }
+
+  @Override
+  public void reset() {
+    for (Stats s : stats.values()) {
+      s.count.reset();
+      s.totalNanos.reset();
+      s.maxNanos.reset();
+      for (int i = 0; i < BUCKETS; i++) {
+        s.histogram.set(i, 0);
+      }
+    }
+  }
+
+  /**
+   * 记录一次耗时为nanos纳秒的操作.
+   */
+  void record(Operation operation, long nanos) {
+    Stats s = stats.get(operation);
+    s.count.increment();
+    s.totalNanos.add(nanos);
+    s.maxNanos.accumulate(nanos);
+    long micros = nanos / 1000;
+    int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    s.histogram.incrementAndGet(bucket);
+  }
+
+  private static final class Stats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+  }
+
+  /**
+   * 一次操作的计时器，同时收集JFR事件所需的规模信息.
+   */
+  public static final class Timer implements AutoCloseable {
+    private final OperationMetrics metrics;
+    private final Operation operation;
+    private final long startNanos;
+    private final GraphOperationEvent event;
+
+    private Timer(OperationMetrics metrics, Operation operation) {
+      this.metrics = metrics;
+      this.operation = operation;
+      this.event = new GraphOperationEvent();
+      this.event.begin();
+      this.startNanos = System.nanoTime();
+    }
+
+    /** 记录处理的词元数. */
+    public Timer tokens(long tokens) {
+      event.tokens = tokens;
+      return this;
+    }
+
+    /** 记录涉及的顶点数. */
+    public Timer vertices(long vertices) {
+      event.vertices = vertices;
+      return this;
+    }
+
+    /** 记录涉及的边数. */
+    public Timer edges(long edges) {
+      event.edges = edges;
+      return this;
+    }
+
+    /** 记录迭代次数或步数. */
+    public Timer iterations(long iterations) {
+      event.iterations = iterations;
+      return this;
+    }
+
+    /** 记录输出的路径数. */
+    public Timer paths(long paths) {
+      event.paths = paths;
+      return this;
+    }
+
+    @Override
+    public void close() {
+      metrics.record(operation, System.nanoTime() - startNanos);
+      event.end();
+      if (event.shouldCommit()) {
+        event.operation = operation.name();
+        event.commit();
+      }
+    }
+  }
+}
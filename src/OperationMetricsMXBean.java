@@ -0,0 +1,34 @@
+import java.util.Map;
+
+/**
+ * 通过JMX导出的词图操作统计接口.
+ *
+ * <p>各映射的键为{@link OperationMetrics.Operation}的名称，延迟以毫秒为单位。</p>
+ */
+public interface OperationMetricsMXBean {
+
+  /**
+   * 返回各操作的调用次数.
+   */
+  Map<String, Long> getInvocationCounts();
+
+  /**
+   * 返回各操作的平均延迟.
+   */
+  Map<String, Double> getMeanLatencyMillis();
+
+  /**
+   * 返回各操作的P99延迟(按直方图桶上界估计).
+   */
+  Map<String, Double> getP99LatencyMillis();
+
+  /**
+   * 返回各操作的最大延迟.
+   */
+  Map<String, Double> getMaxLatencyMillis();
+
+  /**
+   * 清空全部统计.
+   */
+  void reset();
+}
@@ -0,0 +1,98 @@
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class OperationMetricsTest {
+
+  private static final OperationMetrics.Operation OP = OperationMetrics.Operation.BRIDGE;
+
+  private static Object row(TabularData table, String key) {
+    return table.get(new Object[] {key}).get("value");
+  }
+
+  // 测试用例1：桶边界，延迟恰为2的幂微秒时落入上一个桶，分位数取桶的上界
+  @Test
+  public void testBucketBoundaries() {
+    long[][] cases = {
+        // 纳秒, 期望的分位数上界(微秒)
+        {0, 1}, {999, 1}, {1_000, 2}, {1_999, 2}, {2_000, 4},
+        {1_023_999, 1024}, {1_024_000, 2048},
+    };
+    for (long[] c : cases) {
+      OperationMetrics metrics = new OperationMetrics();
+      metrics.record(OP, c[0]);
+      assertEquals("latency " + c[0] + " ns", c[1] / 1000.0,
+          metrics.getPercentileMillis(OP, 1.0), 1e-12);
+    }
+
+    // 超出范围的延迟落入最后一个桶
+    OperationMetrics metrics = new OperationMetrics();
+    metrics.record(OP, Long.MAX_VALUE / 2);
+    assertEquals((1L << 39) / 1000.0, metrics.getPercentileMillis(OP, 1.0), 1e-6);
+  }
+
+  // 测试用例2：分位数按向上取整的名次选择桶，计数、平均值和最大值精确统计
+  @Test
+  public void testPercentilesAndMoments() {
+    OperationMetrics metrics = new OperationMetrics();
+    assertEquals(0.0, metrics.getPercentileMillis(OP, 0.99), 0.0);
+    assertEquals(0.0, metrics.getMeanMillis(OP), 0.0);
+
+    for (int i = 0; i < 99; i++) {
+      metrics.record(OP, 1_500);  // [1, 2)微秒
+    }
+    metrics.record(OP, 5_000_000);  // 5毫秒，[4096, 8192)微秒
+    assertEquals(100, metrics.getCount(OP));
+    assertEquals(0.002, metrics.getPercentileMillis(OP, 0.5), 1e-12);
+    assertEquals(0.002, metrics.getPercentileMillis(OP, 0.99), 1e-12);
+    assertEquals(8.192, metrics.getPercentileMillis(OP, 0.991), 1e-12);
+    assertEquals(8.192, metrics.getPercentileMillis(OP, 1.0), 1e-12);
+    assertEquals((99 * 1_500 + 5_000_000) / 1e6 / 100, metrics.getMeanMillis(OP), 1e-12);
+    assertEquals(5.0, metrics.getMaxMillis(OP), 1e-12);
+    assertEquals(0, metrics.getCount(OperationMetrics.Operation.PATH));
+
+    metrics.reset();
+    assertEquals(0, metrics.getCount(OP));
+    assertEquals(0.0, metrics.getMaxMillis(OP), 0.0);
+    assertEquals(0.0, metrics.getPercentileMillis(OP, 1.0), 0.0);
+  }
+
+  // 测试用例3：通过MXBean读取的属性与直接查询一致，reset操作可远程调用
+  @Test
+  public void testMxBeanAttributes() throws Exception {
+    MBeanServer server = MBeanServerFactory.newMBeanServer();
+    ObjectName name = new ObjectName(OperationMetrics.OBJECT_NAME);
+    OperationMetrics metrics = new OperationMetrics();
+    server.registerMBean(metrics, name);
+    metrics.record(OP, 3_000_000);
+    metrics.record(OP, 1_000_000);
+
+    TabularData counts = (TabularData) server.getAttribute(name, "InvocationCounts");
+    assertEquals(OperationMetrics.Operation.values().length, counts.size());
+    assertEquals(2L, row(counts, "BRIDGE"));
+    assertEquals(0L, row(counts, "RENDER"));
+    assertEquals(2.0, (Double) row((TabularData) server.getAttribute(name,
+        "MeanLatencyMillis"), "BRIDGE"), 1e-9);
+    assertEquals(4.096, (Double) row((TabularData) server.getAttribute(name,
+        "P99LatencyMillis"), "BRIDGE"), 1e-9);
+    assertEquals(3.0, (Double) row((TabularData) server.getAttribute(name,
+        "MaxLatencyMillis"), "BRIDGE"), 1e-9);
+
+    server.invoke(name, "reset", new Object[0], new String[0]);
+    assertEquals(0, metrics.getCount(OP));
+  }
+
+  // 测试用例4：全局实例注册在平台MBeanServer上
+  @Test
+  public void testGlobalInstanceRegistered() throws Exception {
+    OperationMetrics.global();
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(OperationMetrics.OBJECT_NAME);
+    assertTrue(server.isRegistered(name));
+    assertTrue(server.getAttribute(name, "InvocationCounts") instanceof TabularData);
+  }
+}
@@ -0,0 +1,314 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 以种子单词为起点的个性化PageRank(带重启的随机游走).
+ *
+ * <p>随机游走每一步以概率α回到种子单词(多个种子按权重选择)，否则按边权重比例走向后继；
+ * 走到没有出边的单词时同样回到种子。单词v的得分为游走停留在v的稳态概率，
+ * 反映v与种子的相关程度。α取1-0.85，与{@link WordGraph#computePageRanks()}的阻尼系数一致。</p>
+ *
+ * <p>使用局部前向推送(Andersen-Chung-Lang)：每个单词保存估计值p和残差r，
+ * 初始时残差全部在种子上；反复选出r(u)不小于ε·出度(u)的单词u，
+ * 把α·r(u)计入p(u)，其余按转移概率推给后继，直到没有这样的单词。
+ * 结束时每个单词的残差不超过ε乘以其出度，总推送次数为O(1/(αε))，与图的规模无关，
+ * 因此只访问种子附近的单词。返回的得分是真实值的下界，与真实值的差不超过剩余残差之和。</p>
+ *
+ * <p>图在构建时转换为按编号保存的只读数组，之后不再修改；每次查询的状态都在局部变量中，
+ * 多个线程可以同时查询同一个对象。</p>
+ */
+public final class PersonalizedPageRank {
+
+  /** 默认重启概率. */
+  public static final double DEFAULT_ALPHA = 0.15;
+  /** 默认残差阈值. */
+  public static final double DEFAULT_EPSILON = 1e-5;
+
+  private final String[] words;
+  private final Map<String, Integer> ids;
+  private final int[] offsets;
+  private final int[] targets;
+  // 转移概率，即边权重除以源单词的出边权重之和
+  private final double[] probabilities;
+
+  /**
+   * 为图建立查询索引.
+   *
+   * @param graph 邻接表
+   */
+  public PersonalizedPageRank(Map<String, Map<String, Integer>> graph) {
+    Set<String> allNodes = new HashSet<>(graph.keySet());
+    for (Map<String, Integer> edges : graph.values()) {
+      allNodes.addAll(edges.keySet());
+    }
+    words = allNodes.toArray(new String[0]);
+    Arrays.sort(words);  // 编号与单词的字母顺序一致，结果不依赖散列顺序
+    ids = new HashMap<>(words.length * 4 / 3 + 1);
+    for (int i = 0; i < words.length; i++) {
+      ids.put(words[i], i);
+    }
+    offsets = new int[words.length + 1];
+    for (int i = 0; i < words.length; i++) {
+      Map<String, Integer> edges = graph.get(words[i]);
+      offsets[i + 1] = offsets[i] + (edges == null ? 0 : edges.size());
+    }
+    targets = new int[offsets[words.length]];
+    probabilities = new double[offsets[words.length]];
+    for (int i = 0; i < words.length; i++) {
+      Map<String, Integer> edges = graph.get(words[i]);
+      if (edges == null || edges.isEmpty()) {
+        continue;
+      }
+      long total = 0;
+      for (int weight : edges.values()) {
+        total += weight;
+      }
+      int position = offsets[i];
+      for (Map.Entry<String, Integer> edge : edges.entrySet()) {
+        targets[position] = ids.get(edge.getKey());
+        probabilities[position] = edge.getValue() / (double) total;
+        position++;
+      }
+    }
+  }
+
+  /**
+   * 一次查询的结果.
+   */
+  public static final class Result {
+    private final List<ScoredItem> top;
+    private final int pushes;
+    private final int touched;
+    private final double residual;
+
+    Result(List<ScoredItem> top, int pushes, int touched, double residual) {
+      this.top = top;
+      this.pushes = pushes;
+      this.touched = touched;
+      this.residual = residual;
+    }
+
+    /**
+     * 返回得分最高的单词(不含种子)，按得分从高到低排列.
+     */
+    public List<ScoredItem> getTop() {
+      return top;
+    }
+
+    /**
+     * 返回推送次数.
+     */
+    public int getPushes() {
+      return pushes;
+    }
+
+    /**
+     * 返回访问过的单词数.
+     */
+    public int getTouched() {
+      return touched;
+    }
+
+    /**
+     * 返回结束时剩余的残差总和，即尚未分配的概率质量.
+     */
+    public double getResidual() {
+      return residual;
+    }
+  }
+
+  /**
+   * 以编号为键的稀疏向量(开放寻址)，只为访问过的单词分配空间.
+   */
+  private static final class SparseVector {
+    private int[] keys = new int[64];
+    private double[] values = new double[64];
+    private int size = 0;
+
+    SparseVector() {
+      Arrays.fill(keys, -1);
+    }
+
+    private int slot(int key) {
+      int mask = keys.length - 1;
+      int slot = (key * 0x9E3779B9) >>> 7 & mask;
+      while (keys[slot] != -1 && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    double get(int key) {
+      int slot = slot(key);
+      return keys[slot] == key ? values[slot] : 0.0;
+    }
+
+    /**
+     * 把delta加到key的值上，返回新值.
+     */
+    double add(int key, double delta) {
+      int slot = slot(key);
+      if (keys[slot] != key) {
+        if (2 * (size + 1) > keys.length) {
+          grow();
+          slot = slot(key);
+        }
+        keys[slot] = key;
+        size++;
+      }
+      values[slot] += delta;
+      return values[slot];
+    }
+
+    void set(int key, double value) {
+      add(key, value - get(key));
+    }
+
+    private void grow() {
+      int[] oldKeys = keys;
+      double[] oldValues = values;
+      keys = new int[oldKeys.length * 2];
+      values = new double[oldKeys.length * 2];
+      Arrays.fill(keys, -1);
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != -1) {
+          int slot = slot(oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * 以默认参数查询与种子单词最相关的K个单词，各种子权重相同.
+   *
+   * @param seeds 种子单词，不在图中的单词被忽略
+   * @param k 结果数量
+   * @return 查询结果，没有有效种子时结果为空
+   */
+  public Result query(List<String> seeds, int k) {
+    Map<String, Double> weights = new HashMap<>();
+    for (String seed : seeds) {
+      weights.merge(seed, 1.0, Double::sum);
+    }
+    return query(weights, k, DEFAULT_ALPHA, DEFAULT_EPSILON);
+  }
+
+  /**
+   * 查询与种子单词最相关的K个单词.
+   *
+   * @param seedWeights 种子单词及其重启权重，不在图中的单词被忽略
+   * @param k 结果数量
+   * @param alpha 重启概率，在(0, 1)内
+   * @param epsilon 残差阈值，越小越精确、访问的范围越大
+   * @return 查询结果
+   */
+  public Result query(Map<String, Double> seedWeights, int k, double alpha, double epsilon) {
+    if (k <= 0) {
+      throw new IllegalArgumentException("k must be positive: " + k);
+    }
+    if (!(alpha > 0 && alpha < 1) || !(epsilon > 0)) {
+      throw new IllegalArgumentException("invalid alpha " + alpha + " or epsilon " + epsilon);
+    }
+    // 种子的重启分布
+    List<Integer> seedIds = new ArrayList<>();
+    List<Double> seedShares = new ArrayList<>();
+    double totalWeight = 0;
+    for (Map.Entry<String, Double> seed : seedWeights.entrySet()) {
+      Integer id = ids.get(seed.getKey());
+      if (id != null && seed.getValue() > 0) {
+        seedIds.add(id);
+        seedShares.add(seed.getValue());
+        totalWeight += seed.getValue();
+      }
+    }
+    if (seedIds.isEmpty()) {
+      return new Result(Collections.emptyList(), 0, 0, 0.0);
+    }
+
+    SparseVector estimate = new SparseVector();
+    SparseVector residual = new SparseVector();
+    ArrayDeque<Integer> active = new ArrayDeque<>();
+    for (int i = 0; i < seedIds.size(); i++) {
+      residual.add(seedIds.get(i), seedShares.get(i) / totalWeight);
+      active.add(seedIds.get(i));
+    }
+    int pushes = 0;
+    // 队列最前面的种子无论出度多大都推送一次，否则出度超过1/ε的种子得不到任何结果
+    int forced = seedIds.size();
+    while (!active.isEmpty()) {
+      int u = active.poll();
+      double r = residual.get(u);
+      int degree = offsets[u + 1] - offsets[u];
+      if (forced-- <= 0 && r < epsilon * Math.max(degree, 1)) {
+        continue;  // 已被推送过或残差不足，队列中可能有重复项
+      }
+      pushes++;
+      residual.set(u, 0.0);
+      estimate.add(u, alpha * r);
+      double remaining = (1 - alpha) * r;
+      if (degree == 0) {
+        // 没有出边时回到种子
+        for (int i = 0; i < seedIds.size(); i++) {
+          push(residual, active, seedIds.get(i), remaining * seedShares.get(i) / totalWeight,
+              epsilon);
+        }
+        continue;
+      }
+      for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+        push(residual, active, targets[e], remaining * probabilities[e], epsilon);
+      }
+    }
+
+    // 不含种子的前K个单词
+    Set<Integer> seedSet = new HashSet<>(seedIds);
+    PriorityQueue<ScoredItem> top = new PriorityQueue<>(k + 1,
+        ScoredItem.BY_SCORE_DESCENDING.reversed());
+    // 残差r(v)中至少有α·r(v)会停留在v，计入后仍是下界，且出度大的种子只推送一次时
+    // 其后继也有得分
+    double leftover = 0;
+    for (int slot = 0; slot < residual.keys.length; slot++) {
+      if (residual.keys[slot] != -1 && residual.values[slot] > 0) {
+        leftover += residual.values[slot];
+        estimate.add(residual.keys[slot], alpha * residual.values[slot]);
+      }
+    }
+    for (int slot = 0; slot < estimate.keys.length; slot++) {
+      int id = estimate.keys[slot];
+      if (id == -1 || seedSet.contains(id)) {
+        continue;
+      }
+      double score = estimate.values[slot];
+      if (top.size() == k && score <= top.peek().getScore()) {
+        continue;  // 不会进入前K个，不必创建结果对象
+      }
+      top.offer(new ScoredItem(words[id], score));
+      if (top.size() > k) {
+        top.poll();
+      }
+    }
+    List<ScoredItem> sorted = new ArrayList<>(top);
+    sorted.sort(ScoredItem.BY_SCORE_DESCENDING);
+    return new Result(sorted, pushes, estimate.size, leftover);
+  }
+
+  private void push(SparseVector residual, ArrayDeque<Integer> active, int v, double amount,
+                    double epsilon) {
+    double before = residual.get(v);
+    double after = residual.add(v, amount);
+    double threshold = epsilon * Math.max(offsets[v + 1] - offsets[v], 1);
+    // 残差刚越过阈值时入队，避免重复入队
+    if (before < threshold && after >= threshold) {
+      active.add(v);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PersonalizedPageRankTest {
+
+  /**
+   * 幂迭代计算的参考值：每步以alpha回到种子，无出边时也回到种子.
+   */
+  private static Map<String, Double> reference(Map<String, Map<String, Integer>> graph,
+                                               String seed, double alpha) {
+    Map<String, Double> scores = new HashMap<>();
+    scores.put(seed, 1.0);
+    Map<String, Double> visits = new HashMap<>();
+    for (int step = 0; step < 400; step++) {
+      Map<String, Double> next = new HashMap<>();
+      for (Map.Entry<String, Double> entry : scores.entrySet()) {
+        visits.merge(entry.getKey(), alpha * entry.getValue(), Double::sum);
+        double remaining = (1 - alpha) * entry.getValue();
+        Map<String, Integer> edges = graph.getOrDefault(entry.getKey(), Collections.emptyMap());
+        if (edges.isEmpty()) {
+          next.merge(seed, remaining, Double::sum);
+          continue;
+        }
+        long total = 0;
+        for (int weight : edges.values()) {
+          total += weight;
+        }
+        for (Map.Entry<String, Integer> edge : edges.entrySet()) {
+          next.merge(edge.getKey(), remaining * edge.getValue() / total, Double::sum);
+        }
+      }
+      scores = next;
+    }
+    return visits;
+  }
+
+  private static WordGraph randomGraph(int words, int tokens, long seed) {
+    Random random = new Random(seed);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < tokens; i++) {
+      text.append(CorpusGenerator.word(random.nextInt(words))).append(' ');
+    }
+    WordGraph graph = new WordGraph();
+    graph.processText(text.toString());
+    return graph;
+  }
+
+  // 测试用例1：得分与幂迭代的差不超过剩余残差，结果按得分排序且不含种子
+  @Test
+  public void testMatchesPowerIteration() {
+    WordGraph graph = randomGraph(50, 2000, 1);
+    PersonalizedPageRank ppr = graph.getPersonalizedPageRank();
+    String seed = CorpusGenerator.word(0);
+    PersonalizedPageRank.Result result = ppr.query(Collections.singletonMap(seed, 1.0), 100,
+        PersonalizedPageRank.DEFAULT_ALPHA, 1e-7);
+    Map<String, Double> expected = reference(graph.getGraph(), seed,
+        PersonalizedPageRank.DEFAULT_ALPHA);
+
+    assertEquals(49, result.getTop().size());
+    double previous = Double.MAX_VALUE;
+    for (ScoredItem item : result.getTop()) {
+      assertFalse(seed.equals(item.getWord()));
+      assertTrue(item.getScore() <= previous);
+      previous = item.getScore();
+      double exact = expected.get(item.getWord());
+      assertTrue(item.getScore() <= exact + 1e-12);
+      assertTrue(exact - item.getScore() <= result.getResidual() + 1e-12);
+    }
+    assertTrue(result.getResidual() < 1e-3);
+  }
+
+  // 测试用例2：只访问种子附近的单词
+  @Test
+  public void testQueryIsLocal() {
+    // 一条10000个单词的链，远处单词得到的质量按0.85的幂衰减，低于阈值后不再推送
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      text.append(CorpusGenerator.word(i)).append(' ');
+    }
+    WordGraph graph = new WordGraph();
+    graph.processText(text.toString());
+    PersonalizedPageRank.Result result = graph.getPersonalizedPageRank()
+        .query(Arrays.asList(CorpusGenerator.word(0)), 5);
+
+    assertTrue(result.getTouched() < 200);
+    assertEquals(Arrays.asList(CorpusGenerator.word(1), CorpusGenerator.word(2),
+        CorpusGenerator.word(3), CorpusGenerator.word(4), CorpusGenerator.word(5)),
+        result.getTop().stream().map(ScoredItem::getWord).collect(Collectors.toList()));
+    assertEquals(result.getTop(),
+        graph.relatedWords(5, CorpusGenerator.word(0).toUpperCase()));
+  }
+
+  // 测试用例3：多个线程同时查询同一个索引，结果与单线程相同
+  @Test
+  public void testConcurrentQueries() throws Exception {
+    WordGraph graph = randomGraph(2000, 50000, 2);
+    PersonalizedPageRank ppr = graph.getPersonalizedPageRank();
+    List<String> seeds = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      seeds.add(CorpusGenerator.word(i));
+    }
+    List<List<ScoredItem>> expected = new ArrayList<>();
+    for (String seed : seeds) {
+      expected.add(ppr.query(Collections.singletonList(seed), 10).getTop());
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<ScoredItem>>> futures = new ArrayList<>();
+      for (int round = 0; round < 5; round++) {
+        for (String seed : seeds) {
+          futures.add(executor.submit(() -> ppr.query(Collections.singletonList(seed), 10)
+              .getTop()));
+        }
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals(expected.get(i % seeds.size()), futures.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  // 测试用例4：没有有效种子时结果为空，图变化后重建索引
+  @Test
+  public void testUnknownSeedsAndRebuild() {
+    WordGraph graph = new WordGraph();
+    graph.processText("x y z");
+    assertTrue(graph.relatedWords(3, "missing").isEmpty());
+    PersonalizedPageRank first = graph.getPersonalizedPageRank();
+    assertSame(first, graph.getPersonalizedPageRank());
+    graph.processText("x q");
+    assertNotSame(first, graph.getPersonalizedPageRank());
+    assertEquals("q", graph.relatedWords(3, "x").get(0).getWord());
+  }
+}
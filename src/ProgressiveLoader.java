@@ -0,0 +1,326 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 边读边建图，并在加载过程中定期发布可查询的部分快照.
+ *
+ * <p>每读入一个词元就更新邻接表，因此读完文件时图也已建好，不再需要单独的构建阶段。
+ * 每隔一段时间发布一次{@link Progress}，其中的图是{@link WordGraph#isPartial()}为true的
+ * 独立快照，可以在其他线程上查询而不受后续加载影响。</p>
+ *
+ * <p>快照与上一个快照共用未变化的出边表，只复制上次发布后新增过边的源单词，
+ * 但仍需复制词表和重建可达性索引；发布间隔至少为上次发布耗时的若干倍，
+ * 使大图上的快照开销不超过加载时间的一小部分。设置了近似构建器时部分快照仍按精确计数，
+ * 加载完成后再按近似方式构建最终的图。</p>
+ */
+public final class ProgressiveLoader {
+
+  /** 默认的快照发布间隔. */
+  public static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 1000;
+  // 两次发布之间至少间隔上次发布耗时的这么多倍
+  private static final int SNAPSHOT_COST_FACTOR = 5;
+  // 每读入这么多词元检查一次时间和中断状态
+  private static final int CHECK_TOKENS = 4096;
+
+  private final long snapshotIntervalNanos;
+
+  /**
+   * 以默认间隔创建加载器.
+   */
+  public ProgressiveLoader() {
+    this(DEFAULT_SNAPSHOT_INTERVAL_MILLIS);
+  }
+
+  /**
+   * 创建加载器.
+   *
+   * @param snapshotIntervalMillis 发布部分快照的间隔
+   */
+  public ProgressiveLoader(long snapshotIntervalMillis) {
+    if (snapshotIntervalMillis <= 0) {
+      throw new IllegalArgumentException("interval must be positive: " + snapshotIntervalMillis);
+    }
+    this.snapshotIntervalNanos = snapshotIntervalMillis * 1_000_000L;
+  }
+
+  /**
+   * 加载进度.
+   */
+  public static final class Progress {
+    private final WordGraph graph;
+    private final long tokens;
+    private final long vertices;
+    private final long edges;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long elapsedNanos;
+
+    Progress(WordGraph graph, long tokens, long vertices, long edges, long bytesRead,
+             long totalBytes, long elapsedNanos) {
+      this.graph = graph;
+      this.tokens = tokens;
+      this.vertices = vertices;
+      this.edges = edges;
+      this.bytesRead = bytesRead;
+      this.totalBytes = totalBytes;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * 返回此时的图：加载过程中为部分快照，完成后为加载目标.
+     */
+    public WordGraph getGraph() {
+      return graph;
+    }
+
+    /**
+     * 是否已加载完成.
+     */
+    public boolean isComplete() {
+      return !graph.isPartial();
+    }
+
+    public long getTokens() {
+      return tokens;
+    }
+
+    /**
+     * 返回有出边的单词数.
+     */
+    public long getVertices() {
+      return vertices;
+    }
+
+    public long getEdges() {
+      return edges;
+    }
+
+    /**
+     * 返回已读取的文件字节数(压缩文件为压缩后的字节数).
+     */
+    public long getBytesRead() {
+      return bytesRead;
+    }
+
+    public long getTotalBytes() {
+      return totalBytes;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * 返回已读取字节占文件大小的比例.
+     */
+    public double getFraction() {
+      return totalBytes == 0 ? 1.0 : Math.min(1.0, (double) bytesRead / totalBytes);
+    }
+
+    /**
+     * 返回平均读取速度，单位为MB/s.
+     */
+    public double getMegabytesPerSecond() {
+      return elapsedNanos == 0 ? 0.0 : bytesRead / (1024.0 * 1024.0) / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%,d tokens, %,d vertices, %,d edges, %.1f MB/s (%.0f%%)",
+          tokens, vertices, edges, getMegabytesPerSecond(), getFraction() * 100);
+    }
+  }
+
+  /**
+   * 统计已读取字节数的输入流，计数可在其他线程中读取.
+   */
+  private static final class CountingInputStream extends FilterInputStream {
+    private final AtomicLong count;
+
+    CountingInputStream(InputStream in, AtomicLong count) {
+      super(in);
+      this.count = count;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value >= 0) {
+        count.incrementAndGet();
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      if (read > 0) {
+        count.addAndGet(read);
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count.addAndGet(skipped);
+      return skipped;
+    }
+  }
+
+  /**
+   * 一次加载的状态，只在加载线程中使用.
+   */
+  private final class Session {
+    private final Path file;
+    private final WordGraph target;
+    private final Consumer<Progress> listener;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final long totalBytes;
+    private final long start = System.nanoTime();
+    private final Vocabulary vocabulary = new Vocabulary();
+    private final TokenIdStream tokens = new TokenIdStream();
+    private final Map<String, Map<String, Integer>> graph = new HashMap<>();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<String, Integer>[] adjacency = new Map[1024];
+    private long edgeCount = 0;
+    private int previous = -1;
+    // 上次发布后新增过边的源单词编号
+    private final BitSet dirty = new BitSet();
+    private Map<String, Map<String, Integer>> published = new HashMap<>();
+    private long nextSnapshot;
+
+    Session(Path file, WordGraph target, Consumer<Progress> listener) throws IOException {
+      this.file = file;
+      this.target = target;
+      this.listener = listener;
+      this.totalBytes = Files.size(file);
+      this.nextSnapshot = start + snapshotIntervalNanos;
+    }
+
+    void accept(String word) {
+      int id = vocabulary.intern(word);
+      tokens.add(id);
+      if (previous >= 0) {
+        Map<String, Integer> edges = adjacency[previous];
+        if (edges == null) {
+          edges = new HashMap<>();
+          adjacency[previous] = edges;
+          graph.put(vocabulary.word(previous), edges);
+        }
+        // 使用词表中的实例作为键，其散列值已缓存，也不会在图中保留重复的字符串；
+        // 与WordGraph.buildDirectedWeightedGraph相同用put插入，邻接表的遍历顺序与批量建图一致
+        String next = vocabulary.word(id);
+        if (edges.put(next, edges.getOrDefault(next, 0) + 1) == null) {
+          edgeCount++;
+        }
+        dirty.set(previous);
+      }
+      if (id == adjacency.length) {
+        adjacency = Arrays.copyOf(adjacency, id * 2);
+      }
+      previous = id;
+      if (tokens.size() % CHECK_TOKENS == 0) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new UncheckedIOException(new InterruptedIOException("Loading interrupted"));
+        }
+        long now = System.nanoTime();
+        if (now >= nextSnapshot) {
+          publishSnapshot();
+          long cost = System.nanoTime() - now;
+          nextSnapshot = System.nanoTime() + Math.max(snapshotIntervalNanos,
+              cost * SNAPSHOT_COST_FACTOR);
+        }
+      }
+    }
+
+    private void publishSnapshot() {
+      Map<String, Map<String, Integer>> snapshot = new HashMap<>(published);
+      for (int id = dirty.nextSetBit(0); id >= 0; id = dirty.nextSetBit(id + 1)) {
+        snapshot.put(vocabulary.word(id), new HashMap<>(adjacency[id]));
+      }
+      dirty.clear();
+      published = snapshot;
+
+      Vocabulary words = new Vocabulary();
+      for (int id = 0; id < vocabulary.size(); id++) {
+        words.intern(vocabulary.word(id));
+      }
+      WordGraph partial = new WordGraph();
+      partial.setTokenizer(target.getTokenizer());
+      partial.restore(snapshot, words, null, tokens.size(), 0);
+      partial.markPartial();
+      listener.accept(progress(partial));
+    }
+
+    Progress progress(WordGraph graph) {
+      return new Progress(graph, tokens.size(), this.graph.size(), edgeCount, bytesRead.get(),
+          totalBytes, System.nanoTime() - start);
+    }
+
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    Progress run() throws IOException {
+      InputStream raw = new CountingInputStream(Files.newInputStream(file), bytesRead);
+      try (BufferedReader reader = CompressionCodecs.newReader(raw, file)) {
+        target.getTokenizer().tokenize(reader, this::accept);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      } catch (CharacterCodingException e) {
+        // 原来的加载同样拒绝非法输入；解码器的消息只有字节数，补上文件名以便在界面上提示
+        throw new IOException("File is not valid UTF-8 text: " + file.getFileName(), e);
+      }
+      // 最后一段不足CHECK_TOKENS个词元时循环中不会检查中断，写入target前再检查一次
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException("Loading interrupted");
+      }
+      tokens.trimToSize();
+      published = null;  // 不再发布快照，释放共用的出边表
+      if (target.getSketchGraphBuilder() == null) {
+        target.restore(graph, vocabulary, tokens, tokens.size(), 0);
+      } else {
+        target.restore(new HashMap<>(), vocabulary, tokens, tokens.size(), 0);
+        target.buildDirectedWeightedGraph();
+      }
+      Progress done = new Progress(target, tokens.size(), target.getGraph().size(),
+          target.getEdgeCount(), bytesRead.get(), totalBytes, System.nanoTime() - start);
+      listener.accept(done);
+      return done;
+    }
+  }
+
+  /**
+   * 加载文件到target，替换其原有内容，加载过程中定期向listener发布部分快照.
+   *
+   * <p>在调用线程中执行。listener在调用线程中被调用，最后一次调用传入加载完成的结果。
+   * 调用线程被中断时抛出{@link InterruptedIOException}，target保持不变；
+   * 文件不是合法的UTF-8文本时抛出{@link IOException}，target同样保持不变。</p>
+   *
+   * @param file 文本文件，可以是已注册格式的压缩文件
+   * @param target 加载目标，使用其分词器和构建方式
+   * @param listener 进度接收方
+   * @return 最终进度
+   */
+  public Progress load(Path file, WordGraph target, Consumer<Progress> listener)
+      throws IOException {
+    try (OperationMetrics.Timer timer =
+             OperationMetrics.global().start(OperationMetrics.Operation.LOAD)) {
+      Progress done = new Session(file, target, listener).run();
+      timer.tokens(done.getTokens()).vertices(done.getVertices()).edges(done.getEdges());
+      return done;
+    }
+  }
+}
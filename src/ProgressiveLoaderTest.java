@@ -0,0 +1,192 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ProgressiveLoaderTest {
+
+  private static Path writeCorpus(String suffix, int tokens) throws IOException {
+    Path file = Files.createTempFile("progressive", suffix);
+    OutputStream out = Files.newOutputStream(file);
+    if (suffix.endsWith(".gz")) {
+      out = new GZIPOutputStream(out);
+    }
+    try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+      writer.write(new CorpusGenerator(11, 2000, CorpusGenerator.DEFAULT_EXPONENT)
+          .generate(tokens));
+    }
+    return file;
+  }
+
+  // 测试用例1：加载结果与processTextFile相同，部分快照的计数单调增加
+  @Test
+  public void testSnapshotsAndFinalGraph() throws Exception {
+    Path file = writeCorpus(".txt.gz", 200000);
+    try {
+      WordGraph expected = new WordGraph();
+      expected.processTextFile(file.toString());
+
+      WordGraph target = new WordGraph();
+      List<ProgressiveLoader.Progress> updates = new ArrayList<>();
+      ProgressiveLoader.Progress done = new ProgressiveLoader(1)
+          .load(file, target, updates::add);
+
+      assertTrue(done.isComplete());
+      assertSame(target, done.getGraph());
+      assertSame(done, updates.get(updates.size() - 1));
+      assertFalse(target.isPartial());
+      assertEquals(expected.getGraph(), target.getGraph());
+      assertEquals(expected.getEdgeCount(), target.getEdgeCount());
+      assertEquals(expected.getWordCount(), target.getWordCount());
+      assertEquals(expected.showBridgeWords(CorpusGenerator.word(0), CorpusGenerator.word(1)),
+          target.showBridgeWords(CorpusGenerator.word(0), CorpusGenerator.word(1)));
+      assertEquals(Files.size(file), done.getBytesRead());
+      assertEquals(1.0, done.getFraction(), 0.0);
+
+      long tokens = 0;
+      for (ProgressiveLoader.Progress update : updates.subList(0, updates.size() - 1)) {
+        WordGraph partial = update.getGraph();
+        assertTrue(partial.isPartial());
+        assertFalse(update.isComplete());
+        assertTrue(update.getTokens() >= tokens);
+        tokens = update.getTokens();
+        assertEquals(update.getEdges(), partial.getEdgeCount());
+        // 快照中每条边的权重不超过最终权重
+        for (Map.Entry<String, Map<String, Integer>> source : partial.getGraph().entrySet()) {
+          for (Map.Entry<String, Integer> edge : source.getValue().entrySet()) {
+            assertTrue(edge.getValue() <= target.getGraph().get(source.getKey())
+                .get(edge.getKey()));
+          }
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // 测试用例2：近似构建在加载完成后进行
+  @Test
+  public void testSketchBuilderAppliedAtEnd() throws Exception {
+    Path file = writeCorpus(".txt", 50000);
+    try {
+      SketchGraphBuilder sketch = new SketchGraphBuilder(0.001, 0.01, 5);
+      WordGraph expected = new WordGraph();
+      expected.setSketchGraphBuilder(sketch);
+      expected.processTextFile(file.toString());
+      WordGraph target = new WordGraph();
+      target.setSketchGraphBuilder(sketch);
+      new ProgressiveLoader().load(file, target, progress -> { });
+      assertEquals(expected.getGraph(), target.getGraph());
+      assertEquals(expected.getMaxWeightOverestimate(), target.getMaxWeightOverestimate());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // 测试用例3：加载线程被中断时停止加载，目标保持不变
+  @Test
+  public void testInterruptLeavesTargetUnchanged() throws Exception {
+    Path file = writeCorpus(".txt", 100000);
+    try {
+      WordGraph target = new WordGraph();
+      Thread.currentThread().interrupt();
+      try {
+        new ProgressiveLoader().load(file, target, progress -> { });
+        fail("expected InterruptedIOException");
+      } catch (InterruptedIOException expected) {
+        assertTrue(target.isEmpty());
+      } finally {
+        Thread.interrupted();
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // 测试用例4：文件小于一个检查间隔时，中断仍在写入目标之前生效
+  @Test
+  public void testInterruptBeforeRestoreOnSmallFile() throws Exception {
+    Path file = writeCorpus(".txt", 100);
+    try {
+      WordGraph target = new WordGraph();
+      Thread.currentThread().interrupt();
+      try {
+        new ProgressiveLoader().load(file, target, progress -> { });
+        fail("expected InterruptedIOException");
+      } catch (InterruptedIOException expected) {
+        assertTrue(target.isEmpty());
+      } finally {
+        Thread.interrupted();
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // 测试用例5：边读边建的邻接表顺序与批量建图相同，最短路径的列出顺序和编号一致
+  @Test
+  public void testShortestPathsMatchBatchBuild() throws Exception {
+    Path file = writeCorpus(".txt", 5000);
+    try {
+      WordGraph batch = new WordGraph();
+      batch.processTextFile(file.toString());
+      WordGraph loaded = new WordGraph();
+      new ProgressiveLoader().load(file, loaded, progress -> { });
+      for (Map.Entry<String, Map<String, Integer>> entry : batch.getGraph().entrySet()) {
+        assertEquals(new ArrayList<>(entry.getValue().keySet()),
+            new ArrayList<>(loaded.getGraph().get(entry.getKey()).keySet()));
+      }
+      for (int rank = 0; rank < 10; rank++) {
+        String source = CorpusGenerator.word(rank);
+        assertEquals(batch.calcShortestPath(source, ""), loaded.calcShortestPath(source, ""));
+        String target = CorpusGenerator.word(rank + 20);
+        assertEquals(batch.calcShortestPath(source, target),
+            loaded.calcShortestPath(source, target));
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // 测试用例6：非法的UTF-8报告为错误而不是替换为U+FFFD，压缩文件也一样，目标保持不变
+  @Test
+  public void testMalformedUtf8IsReported() throws Exception {
+    for (String suffix : new String[] {".txt", ".txt.gz"}) {
+      Path file = Files.createTempFile("progressive", suffix);
+      try {
+        OutputStream out = Files.newOutputStream(file);
+        if (suffix.endsWith(".gz")) {
+          out = new GZIPOutputStream(out);
+        }
+        try (OutputStream stream = out) {
+          stream.write("valid words then ".getBytes(StandardCharsets.UTF_8));
+          stream.write(new byte[] {(byte) 0xC3, ' ', 'x'});
+        }
+        WordGraph target = new WordGraph();
+        target.processText("old graph");
+        try {
+          new ProgressiveLoader().load(file, target, progress -> { });
+          fail("expected IOException for " + suffix);
+        } catch (IOException expected) {
+          assertTrue(expected.getMessage(), expected.getMessage().contains("not valid UTF-8"));
+          assertTrue(expected.getCause() instanceof CharacterCodingException);
+          assertEquals(Integer.valueOf(1), target.getGraph().get("old").get("graph"));
+          assertNull(target.getGraph().get("valid"));
+        }
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,350 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于强连通分量的可达性索引.
+ *
+ * <p>构建时用迭代版Tarjan算法求出强连通分量，并把每个分量缩成一个点得到有向无环的凝聚图。
+ * 分量按拓扑序编号，因此拓扑序靠后的分量不可能到达靠前的分量。
+ * 在凝聚图上再做两次正反顺序的深度优先遍历，为每个分量记录后序区间[low, post]
+ * (GRAIL标签)：若u可达v，则v的区间必然包含在u的区间内。</p>
+ *
+ * <p>{@link #mayReach(String, String)}只比较拓扑序和区间，O(1)地排除绝大多数不可达的单词对；
+ * 返回true时仍可能不可达，需要用{@link #canReach(String, String)}或实际搜索确认。
+ * 索引是构建时图的快照，图变化后需要重新构建。</p>
+ */
+public final class ReachabilityIndex {
+
+  // 标签数量，越多排除越准确，构建代价也越高
+  private static final int LABELS = 2;
+
+  private final Map<String, Integer> ids;
+  private final int[] component;
+  private final int componentCount;
+  private final int[] dagOffsets;
+  private final int[] dagTargets;
+  private final int[][] low;
+  private final int[][] post;
+
+  private ReachabilityIndex(Map<String, Integer> ids, int[] component, int componentCount,
+                            int[] dagOffsets, int[] dagTargets) {
+    this.ids = ids;
+    this.component = component;
+    this.componentCount = componentCount;
+    this.dagOffsets = dagOffsets;
+    this.dagTargets = dagTargets;
+    this.low = new int[LABELS][];
+    this.post = new int[LABELS][];
+    for (int label = 0; label < LABELS; label++) {
+      computeLabels(label, label % 2 == 1);
+    }
+  }
+
+  /**
+   * 为有向图构建可达性索引，代价为O(V + E).
+   *
+   * @param graph 邻接表
+   * @return 可达性索引
+   */
+  public static ReachabilityIndex build(Map<String, Map<String, Integer>> graph) {
+    // 为所有顶点(包括只有入边的顶点)分配编号，并转换为CSR邻接数组
+    Map<String, Integer> ids = new HashMap<>();
+    long edgeTotal = 0;
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      ids.putIfAbsent(entry.getKey(), ids.size());
+      for (String target : entry.getValue().keySet()) {
+        ids.putIfAbsent(target, ids.size());
+      }
+      edgeTotal += entry.getValue().size();
+    }
+    int n = ids.size();
+    int[] offsets = new int[n + 1];
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      offsets[ids.get(entry.getKey()) + 1] = entry.getValue().size();
+    }
+    for (int v = 0; v < n; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+    int[] targets = new int[Math.toIntExact(edgeTotal)];
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      int position = offsets[ids.get(entry.getKey())];
+      for (String target : entry.getValue().keySet()) {
+        targets[position++] = ids.get(target);
+      }
+    }
+
+    int[] component = new int[n];
+    int count = tarjan(offsets, targets, component);
+
+    // 构建凝聚图，同一分量对之间只保留一条边
+    int[] degree = new int[count + 1];
+    int[] lastSeen = new int[count];
+    Arrays.fill(lastSeen, -1);
+    int[][] byComponent = groupByComponent(component, count);
+    for (int c = 0; c < count; c++) {
+      for (int v : byComponent[c]) {
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+          int d = component[targets[e]];
+          if (d != c && lastSeen[d] != c) {
+            lastSeen[d] = c;
+            degree[c + 1]++;
+          }
+        }
+      }
+    }
+    for (int c = 0; c < count; c++) {
+      degree[c + 1] += degree[c];
+    }
+    int[] dagTargets = new int[degree[count]];
+    Arrays.fill(lastSeen, -1);
+    for (int c = 0; c < count; c++) {
+      int position = degree[c];
+      for (int v : byComponent[c]) {
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+          int d = component[targets[e]];
+          if (d != c && lastSeen[d] != c) {
+            lastSeen[d] = c;
+            dagTargets[position++] = d;
+          }
+        }
+      }
+    }
+    return new ReachabilityIndex(ids, component, count, degree, dagTargets);
+  }
+
+  /**
+   * 迭代版Tarjan算法，按拓扑序为分量编号(0号分量没有来自其他分量的入边).
+   *
+   * @return 分量个数
+   */
+  private static int tarjan(int[] offsets, int[] targets, int[] component) {
+    int n = component.length;
+    int[] index = new int[n];
+    int[] lowLink = new int[n];
+    Arrays.fill(index, -1);
+    boolean[] onStack = new boolean[n];
+    int[] sccStack = new int[n];
+    int sccTop = 0;
+    // 显式调用栈：顶点及其下一条待处理边的位置
+    int[] callVertex = new int[n];
+    int[] callEdge = new int[n];
+    int nextIndex = 0;
+    int found = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (index[root] >= 0) {
+        continue;
+      }
+      int depth = 0;
+      callVertex[0] = root;
+      callEdge[0] = offsets[root];
+      index[root] = lowLink[root] = nextIndex++;
+      sccStack[sccTop++] = root;
+      onStack[root] = true;
+
+      while (depth >= 0) {
+        int v = callVertex[depth];
+        if (callEdge[depth] < offsets[v + 1]) {
+          int w = targets[callEdge[depth]++];
+          if (index[w] < 0) {
+            index[w] = lowLink[w] = nextIndex++;
+            sccStack[sccTop++] = w;
+            onStack[w] = true;
+            depth++;
+            callVertex[depth] = w;
+            callEdge[depth] = offsets[w];
+          } else if (onStack[w]) {
+            lowLink[v] = Math.min(lowLink[v], index[w]);
+          }
+          continue;
+        }
+        if (lowLink[v] == index[v]) {
+          int w;
+          do {
+            w = sccStack[--sccTop];
+            onStack[w] = false;
+            component[w] = found;
+          } while (w != v);
+          found++;
+        }
+        depth--;
+        if (depth >= 0) {
+          int parent = callVertex[depth];
+          lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+        }
+      }
+    }
+    // Tarjan先完成的分量在拓扑序的末尾，翻转编号得到拓扑序
+    for (int v = 0; v < n; v++) {
+      component[v] = found - 1 - component[v];
+    }
+    return found;
+  }
+
+  private static int[][] groupByComponent(int[] component, int count) {
+    int[] sizes = new int[count];
+    for (int c : component) {
+      sizes[c]++;
+    }
+    int[][] groups = new int[count][];
+    for (int c = 0; c < count; c++) {
+      groups[c] = new int[sizes[c]];
+      sizes[c] = 0;
+    }
+    for (int v = 0; v < component.length; v++) {
+      int c = component[v];
+      groups[c][sizes[c]++] = v;
+    }
+    return groups;
+  }
+
+  /**
+   * 在凝聚图上做一次深度优先遍历，计算后序编号及子树中的最小后序编号.
+   *
+   * @param label 标签编号
+   * @param reversed 是否以相反顺序选择根和后继，使两组标签互补
+   */
+  private void computeLabels(int label, boolean reversed) {
+    int[] labelLow = new int[componentCount];
+    int[] labelPost = new int[componentCount];
+    Arrays.fill(labelPost, -1);
+    int[] stack = new int[componentCount];
+    int[] edge = new int[componentCount];
+    int counter = 0;
+    for (int i = 0; i < componentCount; i++) {
+      int root = reversed ? componentCount - 1 - i : i;
+      if (labelPost[root] >= 0) {
+        continue;
+      }
+      int depth = 0;
+      stack[0] = root;
+      edge[0] = 0;
+      labelLow[root] = Integer.MAX_VALUE;
+      labelPost[root] = -2;  // 正在访问
+      while (depth >= 0) {
+        int c = stack[depth];
+        int degree = dagOffsets[c + 1] - dagOffsets[c];
+        if (edge[depth] < degree) {
+          int k = edge[depth]++;
+          int d = dagTargets[reversed ? dagOffsets[c + 1] - 1 - k : dagOffsets[c] + k];
+          if (labelPost[d] == -1) {
+            depth++;
+            stack[depth] = d;
+            edge[depth] = 0;
+            labelLow[d] = Integer.MAX_VALUE;
+            labelPost[d] = -2;
+          } else {
+            // 凝聚图无环，已访问的后继一定已经完成
+            labelLow[c] = Math.min(labelLow[c], labelLow[d]);
+          }
+          continue;
+        }
+        labelPost[c] = counter++;
+        labelLow[c] = Math.min(labelLow[c], labelPost[c]);
+        depth--;
+        if (depth >= 0) {
+          int parent = stack[depth];
+          labelLow[parent] = Math.min(labelLow[parent], labelLow[c]);
+        }
+      }
+    }
+    low[label] = labelLow;
+    post[label] = labelPost;
+  }
+
+  /**
+   * 返回顶点数.
+   */
+  public int getVertexCount() {
+    return component.length;
+  }
+
+  /**
+   * 返回强连通分量的个数.
+   */
+  public int getComponentCount() {
+    return componentCount;
+  }
+
+  /**
+   * 返回单词所在分量的拓扑序编号，不在图中时返回-1.
+   *
+   * @param word 单词
+   */
+  public int componentOf(String word) {
+    Integer id = ids.get(word);
+    return id == null ? -1 : component[id];
+  }
+
+  private boolean labelsAdmit(int from, int to) {
+    if (from > to) {
+      return false;  // 拓扑序靠后的分量无法到达靠前的分量
+    }
+    for (int label = 0; label < LABELS; label++) {
+      if (low[label][from] > low[label][to] || post[label][to] > post[label][from]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * O(1)判断from是否可能到达to.
+   *
+   * <p>返回false时一定不可达；返回true时两者在同一分量中(一定可达)，或者无法仅凭标签排除。
+   * 不在图中的单词只能到达它自身。</p>
+   *
+   * @param from 起点
+   * @param to 终点
+   */
+  public boolean mayReach(String from, String to) {
+    if (from.equals(to)) {
+      return true;
+    }
+    int source = componentOf(from);
+    int target = componentOf(to);
+    if (source < 0 || target < 0) {
+      return false;
+    }
+    return source == target || labelsAdmit(source, target);
+  }
+
+  /**
+   * 精确判断from是否可以到达to.
+   *
+   * <p>先用标签排除，再在凝聚图上做深度优先搜索，只展开标签允许到达终点的分量。</p>
+   *
+   * @param from 起点
+   * @param to 终点
+   */
+  public boolean canReach(String from, String to) {
+    if (!mayReach(from, to)) {
+      return false;
+    }
+    int source = componentOf(from);
+    int target = componentOf(to);
+    if (source == target) {
+      return true;
+    }
+    boolean[] visited = new boolean[componentCount];
+    int[] stack = new int[componentCount];
+    int top = 0;
+    stack[top++] = source;
+    visited[source] = true;
+    while (top > 0) {
+      int c = stack[--top];
+      for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+        int d = dagTargets[e];
+        if (d == target) {
+          return true;
+        }
+        if (!visited[d] && labelsAdmit(d, target)) {
+          visited[d] = true;
+          stack[top++] = d;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,93 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ReachabilityIndexTest {
+
+  private static Map<String, Map<String, Integer>> randomGraph(long seed, int vertices,
+                                                               int edges) {
+    Random random = new Random(seed);
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    for (int i = 0; i < edges; i++) {
+      String source = "v" + random.nextInt(vertices);
+      String target = "v" + random.nextInt(vertices);
+      graph.computeIfAbsent(source, k -> new HashMap<>()).merge(target, 1, Integer::sum);
+    }
+    return graph;
+  }
+
+  private static Set<String> reachableFrom(Map<String, Map<String, Integer>> graph,
+                                           String source) {
+    Set<String> seen = new HashSet<>();
+    Deque<String> queue = new ArrayDeque<>();
+    seen.add(source);
+    queue.add(source);
+    while (!queue.isEmpty()) {
+      Map<String, Integer> edges = graph.get(queue.poll());
+      if (edges != null) {
+        for (String next : edges.keySet()) {
+          if (seen.add(next)) {
+            queue.add(next);
+          }
+        }
+      }
+    }
+    return seen;
+  }
+
+  // 测试用例1：标签判断与精确判断都与广度优先搜索一致
+  @Test
+  public void testMatchesBreadthFirstSearch() {
+    for (long seed = 0; seed < 5; seed++) {
+      Map<String, Map<String, Integer>> graph = randomGraph(seed, 200, 260);
+      ReachabilityIndex index = ReachabilityIndex.build(graph);
+      List<String> vertices = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        vertices.add("v" + i);
+      }
+      for (String from : vertices) {
+        Set<String> reachable = reachableFrom(graph, from);
+        for (String to : vertices) {
+          boolean expected = reachable.contains(to);
+          assertEquals(from + "->" + to, expected, index.canReach(from, to));
+          if (expected) {
+            assertTrue(from + "->" + to, index.mayReach(from, to));
+          }
+        }
+      }
+    }
+  }
+
+  // 测试用例2：环被合并为一个分量，分量按拓扑序编号
+  @Test
+  public void testComponentsAreTopologicallyOrdered() {
+    WordGraph wordGraph = new WordGraph();
+    wordGraph.processText("a b c a d e");
+    ReachabilityIndex index = wordGraph.getReachabilityIndex();
+    assertEquals(3, index.getComponentCount());
+    assertEquals(index.componentOf("a"), index.componentOf("c"));
+    assertTrue(index.componentOf("a") < index.componentOf("d"));
+    assertTrue(index.componentOf("d") < index.componentOf("e"));
+    assertFalse(index.mayReach("e", "a"));
+    assertEquals(-1, index.componentOf("x"));
+  }
+
+  // 测试用例3：跨分量的最短路径正常返回，不可达时直接返回
+  @Test
+  public void testShortestPathAcrossComponents() {
+    WordGraph wordGraph = new WordGraph();
+    wordGraph.processText(new CorpusGenerator(11, 3000, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(20000) + " zzzq zzzr");
+    String result = wordGraph.calcShortestPath("aa", "ab");
+    assertTrue(result.startsWith("Shortest path from \"aa\" to \"ab\":"));
+    assertEquals("No path from \"zzzr\" to \"aa\"!", wordGraph.calcShortestPath("zzzr", "aa"));
+  }
+}
@@ -0,0 +1,163 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 在后台线程中预读源数据的输入流.
+ *
+ * <p>后台线程不断从源流(通常是解压流)读取数据块，放入容量固定的阻塞队列；
+ * 读取方从队列中取块。这样解压与分词在两个线程上重叠执行，
+ * 而缓冲的数据最多为{@code chunkSize * capacity}字节，读取方处理较慢时解压线程会被阻塞。</p>
+ *
+ * <p>源流抛出的异常(包括运行时异常和错误)会在读取方下一次读到该位置时重新抛出；
+ * 后台线程无论怎样结束都会放入结束标记，读取方不会永远等待。
+ * 关闭本流会中断后台线程并关闭源流。</p>
+ */
+public class ReadAheadInputStream extends InputStream {
+
+  /** 默认数据块大小. */
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+  /** 默认队列容量(块数). */
+  public static final int DEFAULT_CAPACITY = 8;
+
+  // 源流结束的标记块
+  private static final byte[] END = new byte[0];
+
+  private final BlockingQueue<byte[]> queue;
+  private final Thread producer;
+  private volatile Throwable failure;
+  private byte[] current = null;
+  private int position = 0;
+  private boolean finished = false;
+
+  /**
+   * 使用默认块大小和容量创建预读流.
+   *
+   * @param source 源流
+   * @param name 后台线程名称
+   */
+  public ReadAheadInputStream(InputStream source, String name) {
+    this(source, name, DEFAULT_CHUNK_SIZE, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * 创建预读流并立即启动后台线程.
+   *
+   * @param source 源流
+   * @param name 后台线程名称
+   * @param chunkSize 每个数据块的最大字节数
+   * @param capacity 队列中最多缓存的块数
+   */
+  public ReadAheadInputStream(InputStream source, String name, int chunkSize, int capacity) {
+    if (chunkSize <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("chunkSize and capacity must be positive");
+    }
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.producer = new Thread(() -> produce(source, chunkSize), name);
+    this.producer.setDaemon(true);
+    this.producer.start();
+  }
+
+  private void produce(InputStream source, int chunkSize) {
+    boolean closed = false;
+    try (InputStream in = source) {
+      while (!Thread.currentThread().isInterrupted()) {
+        byte[] chunk = new byte[chunkSize];
+        int filled = 0;
+        int read = 0;
+        // 尽量填满一个块，减少队列交接次数
+        while (filled < chunkSize && (read = in.read(chunk, filled, chunkSize - filled)) != -1) {
+          filled += read;
+        }
+        if (filled > 0) {
+          queue.put(filled == chunkSize ? chunk : Arrays.copyOf(chunk, filled));
+        }
+        if (read == -1) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      closed = true;  // 读取方已关闭
+    } catch (IOException | RuntimeException | Error e) {
+      failure = e;
+    } finally {
+      // 读取方已关闭时不再等待队列空出位置
+      try {
+        if (closed) {
+          queue.offer(END);
+        } else {
+          queue.put(END);
+        }
+      } catch (InterruptedException e) {
+        queue.offer(END);
+      }
+    }
+  }
+
+  private boolean fill() throws IOException {
+    if (finished) {
+      return false;
+    }
+    if (current != null && position < current.length) {
+      return true;
+    }
+    try {
+      current = queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for decompressed data");
+    }
+    position = 0;
+    if (current == END) {
+      finished = true;
+      current = null;
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      } else if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!fill()) {
+      return -1;
+    }
+    return current[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+    int count = Math.min(length, current.length - position);
+    System.arraycopy(current, position, buffer, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return current == null ? 0 : current.length - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    finished = true;
+    current = null;
+    producer.interrupt();
+    queue.clear();  // 解除可能阻塞在put上的后台线程
+  }
+}
@@ -0,0 +1,262 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按内容寻址的Graphviz渲染结果缓存.
+ *
+ * <p>缓存分两级：(图版本号, 裁剪选项)映射到DOT内容的SHA-256摘要，
+ * (摘要, 格式)映射到缓存目录中的渲染结果。图未变化时重复渲染既不重新生成DOT，
+ * 也不重新运行Graphviz，只把缓存文件复制到目标位置；
+ * 不同版本号但内容相同的图(例如重新加载同一文件)也共用同一份渲染结果。</p>
+ *
+ * <p>一次请求多个格式时只生成一份DOT，各格式的Graphviz进程同时启动并发渲染。
+ * 缓存文件以摘要为单位按最近使用顺序淘汰：渲染结果总数超过maxArtifacts，
+ * 或摘要数(包括只有DOT文件的摘要)超过maxArtifacts时，删除最久未用的摘要的DOT文件、
+ * 全部渲染结果和指向它的版本号条目，最近使用的摘要总是保留。</p>
+ */
+public final class RenderCache {
+
+  // 版本号到摘要的映射只占少量内存，保留的条目数多于渲染结果
+  private static final int MAX_DIGESTS = 256;
+
+  private final Path directory;
+  private final int maxArtifacts;
+  private final Map<String, String> digests = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+      return size() > MAX_DIGESTS;
+    }
+  };
+  // 摘要到已渲染格式的映射，按访问顺序排列，决定缓存文件的淘汰顺序
+  private final Map<String, Set<String>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private int artifactCount = 0;
+  private long hits = 0;
+  private long misses = 0;
+
+  /**
+   * 创建缓存.
+   *
+   * @param directory 缓存目录，必须已存在
+   * @param maxArtifacts 最多保留的渲染结果数
+   */
+  public RenderCache(Path directory, int maxArtifacts) {
+    if (maxArtifacts <= 0) {
+      throw new IllegalArgumentException("maxArtifacts must be positive: " + maxArtifacts);
+    }
+    this.directory = directory;
+    this.maxArtifacts = maxArtifacts;
+  }
+
+  /**
+   * 写入时同时计算摘要的通道.
+   */
+  private static final class DigestingChannel implements WritableByteChannel {
+    private final WritableByteChannel target;
+    private final MessageDigest digest;
+
+    DigestingChannel(WritableByteChannel target, MessageDigest digest) {
+      this.target = target;
+      this.digest = digest;
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+      ByteBuffer written = source.duplicate();
+      int count = target.write(source);
+      written.limit(written.position() + count);
+      digest.update(written);
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return target.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      target.close();
+    }
+  }
+
+  /**
+   * 渲染图并把结果复制到outputPath加各格式扩展名的位置，同时复制DOT文件.
+   *
+   * @param graph 邻接表
+   * @param version 图的版本号，见{@link WordGraph#getVersion()}
+   * @param options 裁剪选项
+   * @param outputPath 输出文件路径(不含扩展名)
+   * @param formats 输出格式(png, pdf, svg等)
+   * @return 各格式的输出文件，顺序与formats相同
+   */
+  public synchronized List<Path> render(Map<String, Map<String, Integer>> graph, long version,
+                                        RenderOptions options, String outputPath,
+                                        String... formats)
+      throws IOException, InterruptedException {
+    try (OperationMetrics.Timer timer =
+             OperationMetrics.global().start(OperationMetrics.Operation.RENDER)) {
+      timer.vertices(graph.size());
+      return renderCached(graph, version, options, outputPath, formats);
+    }
+  }
+
+  @SuppressFBWarnings("PATH_TRAVERSAL_OUT")
+  private List<Path> renderCached(Map<String, Map<String, Integer>> graph, long version,
+                                  RenderOptions options, String outputPath, String... formats)
+      throws IOException, InterruptedException {
+    String key = version + "|" + options;
+    String digest = digests.get(key);
+    if (digest == null || !entries.containsKey(digest) || !Files.exists(dotFile(digest))) {
+      digest = writeDot(options.apply(graph));
+      digests.put(key, digest);
+    }
+    Path dot = dotFile(digest);
+    Set<String> rendered = entries.computeIfAbsent(digest, k -> new HashSet<>());
+
+    // 缺少的格式各启动一个Graphviz进程，全部启动后再逐个等待
+    List<String> missing = new ArrayList<>();
+    List<Process> processes = new ArrayList<>();
+    try {
+      for (String format : formats) {
+        if (rendered.contains(format) && Files.exists(artifactFile(digest, format))) {
+          hits++;
+          continue;
+        }
+        if (missing.contains(format)) {
+          continue;
+        }
+        misses++;
+        missing.add(format);
+        processes.add(GraphVisualizer.startGraphviz(dot, partialFile(digest, format), format));
+      }
+      for (Process process : processes) {
+        GraphVisualizer.awaitGraphviz(process);
+      }
+    } finally {
+      for (Process process : processes) {
+        process.destroy();  // 出错时不留下仍在运行的进程，已结束的进程不受影响
+      }
+    }
+    for (String format : missing) {
+      Files.move(partialFile(digest, format), artifactFile(digest, format),
+          StandardCopyOption.REPLACE_EXISTING);
+      if (rendered.add(format)) {
+        artifactCount++;
+      }
+    }
+
+    Files.copy(dot, Paths.get(outputPath + ".dot"), StandardCopyOption.REPLACE_EXISTING);
+    List<Path> outputs = new ArrayList<>();
+    for (String format : formats) {
+      Path output = Paths.get(outputPath + "." + format);
+      Files.copy(artifactFile(digest, format), output, StandardCopyOption.REPLACE_EXISTING);
+      outputs.add(output);
+    }
+    evict();
+    return outputs;
+  }
+
+  private Path dotFile(String digest) {
+    return directory.resolve(digest + ".dot");
+  }
+
+  private Path artifactFile(String digest, String format) {
+    return directory.resolve(digest + "." + format);
+  }
+
+  private Path partialFile(String digest, String format) {
+    return directory.resolve(digest + "." + format + ".partial");
+  }
+
+  /**
+   * 生成DOT文件并返回其内容摘要；内容相同的DOT文件只保留一份.
+   */
+  private String writeDot(Map<String, Map<String, Integer>> graph) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+    }
+    Path partial = Files.createTempFile(directory, "render", ".dot.partial");
+    try {
+      FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      try (ChannelOutput out = new ChannelOutput(new DigestingChannel(channel, digest),
+          ByteBuffer.allocateDirect(ChannelOutput.DEFAULT_BUFFER_SIZE))) {
+        new DotGraphExporter().export(graph, out);
+      }
+      StringBuilder hex = new StringBuilder();
+      for (byte b : digest.digest()) {
+        hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+            .append(Character.forDigit(b & 0xF, 16));
+      }
+      String name = hex.toString();
+      Files.move(partial, dotFile(name), StandardCopyOption.REPLACE_EXISTING);
+      return name;
+    } finally {
+      Files.deleteIfExists(partial);
+    }
+  }
+
+  private void evict() throws IOException {
+    while (entries.size() > 1
+        && (artifactCount > maxArtifacts || entries.size() > maxArtifacts)) {
+      Map.Entry<String, Set<String>> eldest = entries.entrySet().iterator().next();
+      String digest = eldest.getKey();
+      entries.remove(digest);
+      artifactCount -= eldest.getValue().size();
+      digests.values().removeIf(digest::equals);
+      deleteFiles(digest, eldest.getValue());
+    }
+  }
+
+  private void deleteFiles(String digest, Set<String> formats) throws IOException {
+    for (String format : formats) {
+      Files.deleteIfExists(artifactFile(digest, format));
+    }
+    Files.deleteIfExists(dotFile(digest));
+  }
+
+  /**
+   * 返回命中缓存的格式数.
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * 返回需要运行Graphviz的格式数.
+   */
+  public synchronized long getMissCount() {
+    return misses;
+  }
+
+  /**
+   * 删除所有缓存文件.
+   */
+  public synchronized void clear() throws IOException {
+    for (Map.Entry<String, Set<String>> entry : entries.entrySet()) {
+      deleteFiles(entry.getKey(), entry.getValue());
+    }
+    entries.clear();
+    digests.clear();
+    artifactCount = 0;
+  }
+}
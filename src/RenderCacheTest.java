@@ -0,0 +1,145 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class RenderCacheTest {
+
+  private static Map<String, Map<String, Integer>> sampleGraph() {
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    graph.computeIfAbsent("a", k -> new HashMap<>()).put("b", 3);
+    graph.computeIfAbsent("a", k -> new HashMap<>()).put("c", 1);
+    graph.computeIfAbsent("b", k -> new HashMap<>()).put("c", 2);
+    graph.computeIfAbsent("c", k -> new HashMap<>()).put("a", 1);
+    return graph;
+  }
+
+  private static void deleteTree(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.deleteIfExists(file);
+      }
+    }
+    Files.deleteIfExists(directory);
+  }
+
+  private static long countFiles(Path directory, String suffix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(suffix)).count();
+    }
+  }
+
+  // 测试用例1：DOT文件与DOT导出器的输出相同，内容相同的图共用一份
+  @Test
+  public void testDotSharedByContent() throws Exception {
+    Path cacheDirectory = Files.createTempDirectory("render-cache");
+    Path outputDirectory = Files.createTempDirectory("render-output");
+    try {
+      RenderCache cache = new RenderCache(cacheDirectory, 4);
+      String first = outputDirectory.resolve("first").toString();
+      String second = outputDirectory.resolve("second").toString();
+      assertTrue(cache.render(sampleGraph(), 1, RenderOptions.NONE, first).isEmpty());
+      cache.render(sampleGraph(), 2, RenderOptions.NONE, second);
+
+      GraphExporters.export(sampleGraph(), outputDirectory.resolve("reference.dot"));
+      String expected = new String(Files.readAllBytes(outputDirectory.resolve("reference.dot")),
+          StandardCharsets.UTF_8);
+      assertEquals(expected, new String(Files.readAllBytes(outputDirectory.resolve("first.dot")),
+          StandardCharsets.UTF_8));
+      assertEquals(expected, new String(Files.readAllBytes(outputDirectory.resolve("second.dot")),
+          StandardCharsets.UTF_8));
+      assertEquals(1, countFiles(cacheDirectory, ".dot"));
+      assertEquals(0, countFiles(cacheDirectory, ".partial"));
+    } finally {
+      deleteTree(cacheDirectory);
+      deleteTree(outputDirectory);
+    }
+  }
+
+  // 测试用例2：裁剪选项去掉低权重的边，并作为缓存键的一部分
+  @Test
+  public void testPruningOptions() throws Exception {
+    Map<String, Map<String, Integer>> pruned = new RenderOptions(2, 0).apply(sampleGraph());
+    assertEquals(Integer.valueOf(3), pruned.get("a").get("b"));
+    assertNull(pruned.get("a").get("c"));
+    assertNull(pruned.get("c"));
+    assertEquals(new RenderOptions(2, 0), new RenderOptions(2, 0));
+
+    Path cacheDirectory = Files.createTempDirectory("render-cache");
+    Path outputDirectory = Files.createTempDirectory("render-output");
+    try {
+      RenderCache cache = new RenderCache(cacheDirectory, 4);
+      cache.render(sampleGraph(), 7, RenderOptions.NONE, outputDirectory.resolve("full")
+          .toString());
+      cache.render(sampleGraph(), 7, new RenderOptions(2, 0), outputDirectory.resolve("pruned")
+          .toString());
+      assertEquals(2, countFiles(cacheDirectory, ".dot"));
+      String dot = new String(Files.readAllBytes(outputDirectory.resolve("pruned.dot")),
+          StandardCharsets.UTF_8);
+      assertTrue(dot.contains("\"a\" -> \"b\""));
+      assertFalse(dot.contains("\"a\" -> \"c\""));
+    } finally {
+      deleteTree(cacheDirectory);
+      deleteTree(outputDirectory);
+    }
+  }
+
+  // 测试用例3：重复渲染命中缓存，多个格式一次完成(需要安装Graphviz)
+  @Test
+  public void testRepeatedRenderHitsCache() throws Exception {
+    Assume.assumeTrue(GraphVisualizer.isGraphvizAvailable());
+    Path cacheDirectory = Files.createTempDirectory("render-cache");
+    Path outputDirectory = Files.createTempDirectory("render-output");
+    try {
+      RenderCache cache = new RenderCache(cacheDirectory, 4);
+      String output = outputDirectory.resolve("graph").toString();
+      List<Path> images = cache.render(sampleGraph(), 3, RenderOptions.NONE, output,
+          "png", "svg");
+      assertEquals(Arrays.asList(outputDirectory.resolve("graph.png"),
+          outputDirectory.resolve("graph.svg")), images);
+      assertEquals(2, cache.getMissCount());
+      assertEquals(0, cache.getHitCount());
+
+      cache.render(sampleGraph(), 3, RenderOptions.NONE, output, "svg");
+      assertEquals(2, cache.getMissCount());
+      assertEquals(1, cache.getHitCount());
+      assertTrue(Files.size(outputDirectory.resolve("graph.svg")) > 0);
+    } finally {
+      deleteTree(cacheDirectory);
+      deleteTree(outputDirectory);
+    }
+  }
+
+  // 测试用例4：DOT文件和版本号条目随摘要一起按最近使用顺序淘汰
+  @Test
+  public void testDotFilesEvicted() throws Exception {
+    Path cacheDirectory = Files.createTempDirectory("render-cache");
+    Path outputDirectory = Files.createTempDirectory("render-output");
+    try {
+      RenderCache cache = new RenderCache(cacheDirectory, 2);
+      String output = outputDirectory.resolve("graph").toString();
+      for (int version = 1; version <= 5; version++) {
+        Map<String, Map<String, Integer>> graph = sampleGraph();
+        graph.get("a").put("v" + version, version);
+        cache.render(graph, version, RenderOptions.NONE, output);
+        assertTrue(countFiles(cacheDirectory, ".dot") <= 2);
+      }
+      assertEquals(2, countFiles(cacheDirectory, ".dot"));
+
+      cache.clear();
+      assertEquals(0, countFiles(cacheDirectory, ".dot"));
+    } finally {
+      deleteTree(cacheDirectory);
+      deleteTree(outputDirectory);
+    }
+  }
+}
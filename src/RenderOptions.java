@@ -0,0 +1,102 @@
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 渲染前对图的裁剪选项.
+ *
+ * <p>大图直接交给Graphviz既慢又难以阅读，可以只保留权重不低于阈值的边，
+ * 或只保留加权出度最大的若干个单词之间的边。选项是不可变的值对象，可作为缓存键的一部分。</p>
+ */
+public final class RenderOptions {
+
+  /** 不裁剪. */
+  public static final RenderOptions NONE = new RenderOptions(1, 0);
+
+  private final int minEdgeWeight;
+  private final int maxVertices;
+
+  /**
+   * 创建裁剪选项.
+   *
+   * @param minEdgeWeight 保留的边的最小权重
+   * @param maxVertices 最多保留的源单词数，0表示不限
+   */
+  public RenderOptions(int minEdgeWeight, int maxVertices) {
+    if (minEdgeWeight < 1 || maxVertices < 0) {
+      throw new IllegalArgumentException("invalid render options: minEdgeWeight="
+          + minEdgeWeight + ", maxVertices=" + maxVertices);
+    }
+    this.minEdgeWeight = minEdgeWeight;
+    this.maxVertices = maxVertices;
+  }
+
+  public int getMinEdgeWeight() {
+    return minEdgeWeight;
+  }
+
+  public int getMaxVertices() {
+    return maxVertices;
+  }
+
+  /**
+   * 按选项裁剪图，不需要裁剪时直接返回原图.
+   *
+   * @param graph 邻接表
+   * @return 裁剪后的邻接表
+   */
+  public Map<String, Map<String, Integer>> apply(Map<String, Map<String, Integer>> graph) {
+    if (minEdgeWeight <= 1 && (maxVertices == 0 || graph.size() <= maxVertices)) {
+      return graph;
+    }
+    Set<String> kept = null;
+    if (maxVertices > 0 && graph.size() > maxVertices) {
+      kept = new HashSet<>();
+      for (ScoredItem item : GraphAnalytics.topDegree(graph,
+          GraphAnalytics.DegreeKind.WEIGHTED_OUT, maxVertices)) {
+        kept.add(item.getWord());
+      }
+    }
+    Map<String, Map<String, Integer>> pruned = new HashMap<>();
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      if (kept != null && !kept.contains(entry.getKey())) {
+        continue;
+      }
+      Map<String, Integer> edges = new HashMap<>();
+      for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+        if (edge.getValue() >= minEdgeWeight
+            && (kept == null || kept.contains(edge.getKey()))) {
+          edges.put(edge.getKey(), edge.getValue());
+        }
+      }
+      if (!edges.isEmpty()) {
+        pruned.put(entry.getKey(), edges);
+      }
+    }
+    return pruned;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof RenderOptions)) {
+      return false;
+    }
+    RenderOptions that = (RenderOptions) other;
+    return minEdgeWeight == that.minEdgeWeight && maxVertices == that.maxVertices;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(minEdgeWeight, maxVertices);
+  }
+
+  @Override
+  public String toString() {
+    return "minEdgeWeight=" + minEdgeWeight + ",maxVertices=" + maxVertices;
+  }
+}
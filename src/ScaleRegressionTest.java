@@ -0,0 +1,267 @@
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * 规模回归测试：在10^4到10^7个词元的生成语料上检查结果正确性和每项操作的时间、内存预算.
+ *
+ * <p>不创建任何界面组件，可以在无显示器的环境中运行。每项操作的结果与参考实现
+ * (直接统计或逐个调用的旧接口)比较，耗时和分配字节数不得超过按规模线性增长的预算，
+ * 分配字节数由{@link com.sun.management.ThreadMXBean}统计所有线程得到。</p>
+ *
+ * <p>预算按开发机上实测值的数倍设定。系统属性{@code wordgraph.scale.budgetFactor}
+ * 按比例放宽预算(较慢的机器)。10^7的规模需要主动开启：默认只运行到10^6以控制测试时间，
+ * 测试用例4被跳过，把{@code wordgraph.scale.maxTokens}设为10000000时才运行。</p>
+ *
+ * <p>测试默认不输出，超出预算时实测值和预算写在断言消息中；
+ * 设置{@code wordgraph.scale.verbose=true}时每项操作打印一行实测值，用于重新标定预算。</p>
+ */
+public class ScaleRegressionTest {
+
+  private static final int VOCABULARY = 50_000;
+  private static final long SEED = 42;
+  private static final double BUDGET_FACTOR =
+      Double.parseDouble(System.getProperty("wordgraph.scale.budgetFactor", "1"));
+  private static final long MAX_TOKENS =
+      Long.getLong("wordgraph.scale.maxTokens", 1_000_000L);
+  private static final int BRIDGE_PAIRS = 10_000;
+  private static final boolean VERBOSE = Boolean.getBoolean("wordgraph.scale.verbose");
+
+  /**
+   * 一项操作的预算：固定部分加上与规模成正比的部分.
+   */
+  private static final class Budget {
+    private final String operation;
+    private final double baseMillis;
+    private final double nanosPerUnit;
+    private final long baseBytes;
+    private final double bytesPerUnit;
+
+    Budget(String operation, double baseMillis, double nanosPerUnit, long baseBytes,
+           double bytesPerUnit) {
+      this.operation = operation;
+      this.baseMillis = baseMillis;
+      this.nanosPerUnit = nanosPerUnit;
+      this.baseBytes = baseBytes;
+      this.bytesPerUnit = bytesPerUnit;
+    }
+  }
+
+  // 单位：建图、加载、N元语法为词元，最短路径、导出、堆外为边，批量桥接词为边数加单词对数
+  // (包括建立索引)；固定部分包括首次运行时的类加载和即时编译
+  private static final Budget BUILD = new Budget("build", 1_000, 3_000, 32L << 20, 300);
+  private static final Budget LOAD = new Budget("progressive load", 1_000, 6_000, 32L << 20, 400);
+  private static final Budget BRIDGE = new Budget("bridge batch", 1_000, 5_000, 32L << 20, 100);
+  private static final Budget PATHS = new Budget("delta-stepping", 1_000, 3_000, 32L << 20, 150);
+  private static final Budget NGRAM = new Budget("n-gram order 3", 1_000, 5_000, 32L << 20, 250);
+  private static final Budget EXPORT = new Budget("binary export", 1_000, 3_000, 16L << 20, 100);
+  private static final Budget OFF_HEAP = new Budget("off-heap copy", 1_000, 3_000, 16L << 20, 100);
+
+  private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+  private static com.sun.management.ThreadMXBean threadBean() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+      if (threads.isThreadAllocatedMemorySupported()) {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 返回每个存活线程已分配的字节数.
+   */
+  private static Map<Long, Long> allocatedBytes() {
+    Map<Long, Long> bytes = new HashMap<>();
+    if (THREADS == null) {
+      return bytes;
+    }
+    long[] ids = THREADS.getAllThreadIds();
+    long[] allocated = THREADS.getThreadAllocatedBytes(ids);
+    for (int i = 0; i < ids.length; i++) {
+      if (allocated[i] >= 0) {
+        bytes.put(ids[i], allocated[i]);
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * 运行操作并检查预算，返回操作结果.
+   *
+   * <p>分配字节数为各线程前后差值之和，期间结束的线程不计入。</p>
+   */
+  private static <T> T measure(Budget budget, long tokens, long units, Callable<T> operation)
+      throws Exception {
+    Map<Long, Long> before = allocatedBytes();
+    long start = System.nanoTime();
+    T result = operation.call();
+    long elapsed = System.nanoTime() - start;
+    Map<Long, Long> after = allocatedBytes();
+    long allocated = 0;
+    for (Map.Entry<Long, Long> entry : after.entrySet()) {
+      allocated += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+    }
+
+    double millis = elapsed / 1e6;
+    double maxMillis = (budget.baseMillis + budget.nanosPerUnit * units / 1e6) * BUDGET_FACTOR;
+    long maxBytes = (long) ((budget.baseBytes + budget.bytesPerUnit * units) * BUDGET_FACTOR);
+    if (VERBOSE) {
+      System.out.printf("%,12d tokens  %-18s %,10.1f ms (budget %,.0f)  %,14d bytes (budget %,d)%n",
+          tokens, budget.operation, millis, maxMillis, allocated, maxBytes);
+    }
+    assertTrue(tokens + " tokens: " + budget.operation + " took " + millis + " ms, budget "
+        + maxMillis, millis <= maxMillis);
+    if (THREADS != null) {
+      assertTrue(tokens + " tokens: " + budget.operation + " allocated " + allocated
+          + " bytes, budget " + maxBytes,
+          allocated <= maxBytes);
+    }
+    return result;
+  }
+
+  private static Set<String> allNodes(Map<String, Map<String, Integer>> graph) {
+    Set<String> nodes = new HashSet<>(graph.keySet());
+    for (Map<String, Integer> edges : graph.values()) {
+      nodes.addAll(edges.keySet());
+    }
+    return nodes;
+  }
+
+  private void runScale(int tokens) throws Exception {
+    Assume.assumeTrue("wordgraph.scale.maxTokens is " + MAX_TOKENS, tokens <= MAX_TOKENS);
+    CorpusGenerator generator = new CorpusGenerator(SEED, VOCABULARY,
+        CorpusGenerator.DEFAULT_EXPONENT);
+    String text = generator.generate(tokens);
+
+    // 建图：与直接统计相邻单词对的结果比较
+    WordGraph graph = new WordGraph();
+    measure(BUILD, tokens, tokens, () -> {
+      graph.processText(text);
+      return null;
+    });
+    List<String> words = graph.getTokenizer().tokenize(text);
+    Map<String, Map<String, Integer>> reference = new HashMap<>();
+    for (int i = 0; i + 1 < words.size(); i++) {
+      reference.computeIfAbsent(words.get(i), k -> new HashMap<>())
+          .merge(words.get(i + 1), 1, Integer::sum);
+    }
+    assertEquals(reference, graph.getGraph());
+    long edges = graph.getEdgeCount();
+
+    // 渐进加载：与processTextFile的结果相同
+    Path file = Files.createTempFile("scale", ".txt");
+    try {
+      Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+      WordGraph loaded = new WordGraph();
+      measure(LOAD, tokens, tokens,
+          () -> new ProgressiveLoader().load(file, loaded, progress -> { }));
+      assertEquals(reference, loaded.getGraph());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+
+    // 批量桥接词：与逐个调用showBridgeWords比较
+    Random random = new Random(SEED);
+    List<String[]> pairs = new ArrayList<>();
+    for (int i = 0; i < BRIDGE_PAIRS; i++) {
+      pairs.add(new String[] {CorpusGenerator.word(random.nextInt(VOCABULARY / 10)),
+          CorpusGenerator.word(random.nextInt(VOCABULARY / 10))});
+    }
+    List<BridgeBatch.Result> bridges = measure(BRIDGE, tokens, edges + BRIDGE_PAIRS, () -> {
+      List<BridgeBatch.Result> results = new ArrayList<>(pairs.size());
+      graph.getBridgeBatch().query(pairs.stream()).forEach(results::add);
+      return results;
+    });
+    for (int i = 0; i < pairs.size(); i += 7) {
+      String single = graph.showBridgeWords(pairs.get(i)[0], pairs.get(i)[1]);
+      BridgeBatch.Result result = bridges.get(i);
+      if (single.startsWith("err")) {
+        assertTrue(result.getBridges().isEmpty());
+      } else {
+        assertEquals(new HashSet<>(Arrays.asList(single.split(", "))),
+            new HashSet<>(result.getBridges()));
+      }
+    }
+
+    // 单源最短路径：Δ-stepping与Dijkstra的距离相同
+    Set<String> nodes = allNodes(graph.getGraph());
+    String source = CorpusGenerator.word(0);
+    ShortestPaths.Result parallel = measure(PATHS, tokens, edges,
+        () -> DeltaStepping.shortestPaths(graph.getGraph(), nodes, source));
+    assertEquals(ShortestPaths.dijkstra(graph.getGraph(), nodes, source, null).getDistances(),
+        parallel.getDistances());
+
+    // 三元语法：抽样的三元组计数与一遍直接统计的结果相同
+    NGramModel model = measure(NGRAM, tokens, tokens, () -> graph.getNGramModel(3));
+    Map<String, Integer> sampled = new HashMap<>();
+    Set<String> firstWords = new HashSet<>();
+    for (int i = 0; i + 3 <= words.size(); i += Math.max(1, words.size() / 50)) {
+      sampled.put(words.get(i) + " " + words.get(i + 1) + " " + words.get(i + 2), 0);
+      firstWords.add(words.get(i));
+    }
+    for (int j = 0; j + 3 <= words.size(); j++) {
+      if (firstWords.contains(words.get(j))) {
+        sampled.computeIfPresent(words.get(j) + " " + words.get(j + 1) + " " + words.get(j + 2),
+            (key, count) -> count + 1);
+      }
+    }
+    for (Map.Entry<String, Integer> entry : sampled.entrySet()) {
+      assertEquals(entry.getValue().intValue(), model.count(entry.getKey().split(" ")));
+    }
+
+    // 二进制导出再读回
+    Path exported = Files.createTempFile("scale", ".wgb");
+    try {
+      measure(EXPORT, tokens, edges, () -> GraphExporters.export(graph.getGraph(), exported));
+      assertEquals(reference, BinaryGraphExporter.read(exported));
+    } finally {
+      Files.deleteIfExists(exported);
+    }
+
+    // 堆外副本
+    OffHeapGraph offHeap = measure(OFF_HEAP, tokens, edges,
+        () -> OffHeapGraph.create(graph.getGraph()));
+    assertEquals(reference, offHeap.asMap());
+  }
+
+  // 测试用例1：10^4个词元
+  @Test
+  public void testTenThousandTokens() throws Exception {
+    runScale(10_000);
+  }
+
+  // 测试用例2：10^5个词元
+  @Test
+  public void testHundredThousandTokens() throws Exception {
+    runScale(100_000);
+  }
+
+  // 测试用例3：10^6个词元
+  @Test
+  public void testMillionTokens() throws Exception {
+    runScale(1_000_000);
+  }
+
+  // 测试用例4：10^7个词元，默认跳过，需设置wordgraph.scale.maxTokens=10000000
+  @Test
+  public void testTenMillionTokens() throws Exception {
+    runScale(10_000_000);
+  }
+}
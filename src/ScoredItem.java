@@ -0,0 +1,57 @@
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * 带分值的单词，用作排行榜查询的结果.
+ */
+public final class ScoredItem {
+
+  /** 分值从高到低、分值相同时按单词字母顺序排列. */
+  public static final Comparator<ScoredItem> BY_SCORE_DESCENDING =
+      Comparator.comparingDouble(ScoredItem::getScore).reversed()
+          .thenComparing(ScoredItem::getWord);
+
+  private final String word;
+  private final double score;
+
+  /**
+   * 创建结果项.
+   *
+   * @param word 单词
+   * @param score 分值
+   */
+  public ScoredItem(String word, double score) {
+    this.word = word;
+    this.score = score;
+  }
+
+  public String getWord() {
+    return word;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ScoredItem)) {
+      return false;
+    }
+    ScoredItem other = (ScoredItem) o;
+    return Double.compare(score, other.score) == 0 && word.equals(other.word);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(word, score);
+  }
+
+  @Override
+  public String toString() {
+    return word + "=" + score;
+  }
+}
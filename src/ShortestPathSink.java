@@ -0,0 +1,59 @@
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 接收单源最短路径结果的回调接口.
+ *
+ * <p>结果按 (距离, 单词) 升序逐个目标推送；每条等长最短路径单独回调一次，
+ * 回调结束后路径列表会被复用，实现方如需保留必须自行复制。
+ * 因此无论可达目标和等长路径有多少，调用方都只需常量级的额外内存。</p>
+ *
+ * @see TextPathSink 以原文本格式写入{@link java.io.Writer}的实现
+ */
+public interface ShortestPathSink {
+
+  /**
+   * 开始输出从源单词出发的结果.
+   *
+   * @param source 源单词
+   */
+  void begin(String source) throws IOException;
+
+  /**
+   * 开始输出到某个目标的全部最短路径.
+   *
+   * @param target 目标单词
+   * @param distance 最短距离
+   */
+  void beginTarget(String target, int distance) throws IOException;
+
+  /**
+   * 输出一条最短路径.
+   *
+   * @param index 路径序号(从1开始)
+   * @param path 由源单词到目标单词的路径，仅在本次回调期间有效
+   */
+  void path(int index, List<String> path) throws IOException;
+
+  /**
+   * 结束当前目标的输出.
+   *
+   * @param target 目标单词
+   */
+  void endTarget(String target) throws IOException;
+
+  /**
+   * 结束全部输出.
+   *
+   * @param source 源单词
+   * @param reachableCount 可达目标数(不含源单词自身)
+   */
+  void end(String source, int reachableCount) throws IOException;
+
+  /**
+   * 接收方是否已不再需要更多结果，返回true时生产方将提前结束.
+   */
+  default boolean isFull() {
+    return false;
+  }
+}
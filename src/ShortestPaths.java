@@ -0,0 +1,295 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 加权有向图上的单源最短路径核心.
+ *
+ * <p>使用Dijkstra算法同时记录所有等长最短路径的前驱，供
+ * {@link WordGraph#calcShortestPath(String, String)}等功能复用。
+ * 路径枚举采用显式栈回溯，逐条回调而不把所有路径保存在内存中。</p>
+ */
+public final class ShortestPaths {
+
+  private ShortestPaths() {
+  }
+
+  /**
+   * 按当前最短距离排序的节点二叉堆，调整步骤与{@link java.util.PriorityQueue}完全相同.
+   *
+   * <p>距离相同的节点的出队顺序由堆的调整过程决定，它又决定了前驱表的顺序和等长最短路径的
+   * 枚举顺序。这里逐步复现{@code PriorityQueue}的siftUp、siftDown和removeAt，
+   * 输出与原来的{@code remove(Object)}加重新插入完全一致；
+   * 同时记录每个节点在堆中的位置，删除时不再线性查找。</p>
+   */
+  private static final class NodeHeap {
+    private final Map<String, Integer> distances;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private String[] heap = new String[16];
+    private int size = 0;
+
+    NodeHeap(Map<String, Integer> distances) {
+      this.distances = distances;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void add(String node) {
+      if (size == heap.length) {
+        heap = Arrays.copyOf(heap, size * 2);
+      }
+      siftUp(size++, node);
+    }
+
+    String poll() {
+      String result = heap[0];
+      positions.remove(result);
+      int n = --size;
+      String last = heap[n];
+      heap[n] = null;
+      if (n > 0) {
+        siftDown(0, last, n);
+      }
+      return result;
+    }
+
+    /**
+     * 节点在堆中时将其删除.
+     */
+    void remove(String node) {
+      Integer index = positions.remove(node);
+      if (index == null) {
+        return;
+      }
+      int i = index;
+      int last = --size;
+      if (last == i) {
+        heap[i] = null;
+        return;
+      }
+      String moved = heap[last];
+      heap[last] = null;
+      siftDown(i, moved, last);
+      if (heap[i] == moved) {
+        siftUp(i, moved);
+      }
+    }
+
+    private int compare(String a, String b) {
+      return Integer.compare(distances.getOrDefault(a, Integer.MAX_VALUE),
+          distances.getOrDefault(b, Integer.MAX_VALUE));
+    }
+
+    private void siftUp(int k, String node) {
+      while (k > 0) {
+        int parent = (k - 1) >>> 1;
+        String e = heap[parent];
+        if (compare(node, e) >= 0) {
+          break;
+        }
+        place(k, e);
+        k = parent;
+      }
+      place(k, node);
+    }
+
+    private void siftDown(int k, String node, int n) {
+      int half = n >>> 1;
+      while (k < half) {
+        int child = (k << 1) + 1;
+        String c = heap[child];
+        int right = child + 1;
+        if (right < n && compare(c, heap[right]) > 0) {
+          child = right;
+          c = heap[child];
+        }
+        if (compare(node, c) <= 0) {
+          break;
+        }
+        place(k, c);
+        k = child;
+      }
+      place(k, node);
+    }
+
+    private void place(int k, String node) {
+      heap[k] = node;
+      positions.put(node, k);
+    }
+  }
+
+  /**
+   * 单源最短路径计算结果.
+   */
+  public static final class Result {
+    private final Map<String, Integer> distances;
+    private final Map<String, List<String>> predecessors;
+
+    Result(Map<String, Integer> distances, Map<String, List<String>> predecessors) {
+      this.distances = distances;
+      this.predecessors = predecessors;
+    }
+
+    /**
+     * 返回到各节点的最短距离，不可达节点为{@link Integer#MAX_VALUE}.
+     */
+    public Map<String, Integer> getDistances() {
+      return distances;
+    }
+
+    /**
+     * 返回各节点在最短路径上的全部前驱.
+     */
+    public Map<String, List<String>> getPredecessors() {
+      return predecessors;
+    }
+  }
+
+  /**
+   * 路径回调.
+   */
+  public interface PathVisitor {
+    /**
+     * 接收一条路径，返回false时停止枚举.
+     *
+     * @param index 路径序号(从1开始)
+     * @param path 由起点到终点的路径，仅在本次回调期间有效
+     */
+    boolean visit(int index, List<String> path) throws IOException;
+  }
+
+  /**
+   * 运行Dijkstra算法.
+   *
+   * @param graph 有向图结构
+   * @param allNodes 参与计算的全部节点
+   * @param source 起点
+   * @param target 终点，为null时计算到所有节点的最短路径
+   * @return 距离与前驱
+   */
+  public static Result dijkstra(Map<String, Map<String, Integer>> graph,
+                                Set<String> allNodes, String source, String target) {
+    // 初始化Dijkstra算法数据结构
+    Map<String, Integer> distances = new HashMap<>();           // 存储到每个节点的最短距离
+    Map<String, List<String>> predecessors = new HashMap<>();   // 存储前驱节点
+    for (String node : allNodes) {
+      distances.put(node, Integer.MAX_VALUE);                   // 初始距离设为无穷大
+      predecessors.put(node, new ArrayList<>());                // 初始化前驱列表
+    }
+    distances.put(source, 0);    // 起点到自身的距离为0
+
+    // 使用优先队列(按距离排序)来选择下一个处理的节点；距离变短时删除后重新插入，
+    // 堆记录节点位置，删除为O(log n)
+    NodeHeap queue = new NodeHeap(distances);
+    queue.add(source);
+    Set<String> processedNodes = new HashSet<>();
+
+    while (!queue.isEmpty()) {
+      String current = queue.poll(); // 取出当前距离最小的节点
+      if (processedNodes.contains(current)) {
+        continue; // 跳过已处理的节点
+      }
+      processedNodes.add(current);
+      if (current.equals(target)) {
+        break;  // 如果找到目标节点且不需要所有路径，提前退出
+      }
+      Integer currentDistance = distances.get(current);
+      if (currentDistance == Integer.MAX_VALUE) {
+        continue; // 不可达节点跳过
+      }
+
+      // 从图结构中获取当前节点的邻居(有出边的节点)
+      Map<String, Integer> neighbors = graph.get(current);
+      if (neighbors == null || neighbors.isEmpty()) {
+        continue; // 当前节点没有出边则跳过
+      }
+
+      // 遍历所有邻居节点
+      for (Map.Entry<String, Integer> neighborEntry : neighbors.entrySet()) {
+        String neighbor = neighborEntry.getKey();
+        Integer weight = neighborEntry.getValue();
+
+        // 只考虑在我们定义的节点集合中的邻居
+        if (!allNodes.contains(neighbor)) {
+          continue;
+        }
+
+        int newDistToNeighbor = currentDistance + weight;   // 计算新距离
+        Integer knownDistToNeighbor = distances.get(neighbor);
+
+        // 如果找到更短的路径
+        if (newDistToNeighbor < knownDistToNeighbor) {
+          distances.put(neighbor, newDistToNeighbor);   // 更新距离
+          predecessors.get(neighbor).clear();           // 清除旧前驱
+          predecessors.get(neighbor).add(current);      // 添加新前驱
+          queue.remove(neighbor);                       // 更新优先级(通过重新添加)
+          queue.add(neighbor);
+        } else if (newDistToNeighbor == knownDistToNeighbor
+            && newDistToNeighbor != Integer.MAX_VALUE) {
+          // 如果找到相同距离的路径
+          // 添加额外前驱(多路径)
+          predecessors.get(neighbor).add(current);
+        }
+      }
+    }
+    return new Result(distances, predecessors);
+  }
+
+  /**
+   * 按前驱关系回溯，逐条枚举从起点到终点的所有最短路径.
+   *
+   * @param predecessors 前驱表
+   * @param start 起点
+   * @param end 终点
+   * @param visitor 路径回调
+   * @return 枚举出的路径条数
+   */
+  public static int forEachPath(Map<String, List<String>> predecessors,
+                                String start, String end,
+                                PathVisitor visitor) throws IOException {
+    // 显式栈：nodes[i]为回溯到第i层的节点，next[i]为该节点下一个待展开的前驱下标
+    List<String> nodes = new ArrayList<>();
+    List<Integer> next = new ArrayList<>();
+    List<String> path = new ArrayList<>();
+    nodes.add(end);
+    next.add(0);
+    int count = 0;
+
+    while (!nodes.isEmpty()) {
+      int top = nodes.size() - 1;
+      String current = nodes.get(top);
+      if (current.equals(start)) {
+        // 栈中自底向上是终点到起点，反转后即为正向路径
+        path.clear();
+        for (int i = top; i >= 0; i--) {
+          path.add(nodes.get(i));
+        }
+        count++;
+        if (!visitor.visit(count, path)) {
+          return count;
+        }
+        nodes.remove(top);
+        next.remove(top);
+        continue;
+      }
+      List<String> predecessorList = predecessors.get(current);
+      int index = next.get(top);
+      if (predecessorList == null || index >= predecessorList.size()) {
+        nodes.remove(top);  // 回溯
+        next.remove(top);
+        continue;
+      }
+      next.set(top, index + 1);
+      nodes.add(predecessorList.get(index));
+      next.add(0);
+    }
+    return count;
+  }
+}
@@ -0,0 +1,220 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ShortestPathsTest {
+
+  /**
+   * 原实现的建图和最短路径查询，作为输出的参考.
+   *
+   * <p>按正则表达式切分，用put追加邻居，用{@link PriorityQueue}的remove加重新插入更新距离，
+   * 递归回溯枚举路径。</p>
+   */
+  private static final class LegacyGraph {
+    private final Map<String, Map<String, Integer>> graph = new HashMap<>();
+
+    LegacyGraph(String text) {
+      List<String> words = new ArrayList<>(Arrays.asList(
+          text.replaceAll("[^a-zA-Z]", " ").toLowerCase().split("\\s+")));
+      words.removeIf(String::isEmpty);
+      for (int i = 0; i < words.size() - 1; i++) {
+        graph.putIfAbsent(words.get(i), new HashMap<>());
+        Map<String, Integer> edges = graph.get(words.get(i));
+        edges.put(words.get(i + 1), edges.getOrDefault(words.get(i + 1), 0) + 1);
+      }
+    }
+
+    List<String> sources() {
+      return new ArrayList<>(graph.keySet());
+    }
+
+    String calcShortestPath(String word1, String word2) {
+      Set<String> allNodes = new HashSet<>(graph.keySet());
+      for (Map<String, Integer> neighborMap : graph.values()) {
+        allNodes.addAll(neighborMap.keySet());
+      }
+      boolean findAllPaths = word2.isEmpty();
+      Map<String, Integer> distances = new HashMap<>();
+      Map<String, List<String>> predecessors = new HashMap<>();
+      for (String node : allNodes) {
+        distances.put(node, Integer.MAX_VALUE);
+        predecessors.put(node, new ArrayList<>());
+      }
+      distances.put(word1, 0);
+      PriorityQueue<String> queue = new PriorityQueue<>(
+          Comparator.comparingInt(node -> distances.getOrDefault(node, Integer.MAX_VALUE)));
+      queue.add(word1);
+      Set<String> processedNodes = new HashSet<>();
+      while (!queue.isEmpty()) {
+        String current = queue.poll();
+        if (!processedNodes.add(current)) {
+          continue;
+        }
+        if (!findAllPaths && current.equals(word2)) {
+          break;
+        }
+        int currentDistance = distances.get(current);
+        Map<String, Integer> neighbors = graph.get(current);
+        if (currentDistance == Integer.MAX_VALUE || neighbors == null) {
+          continue;
+        }
+        for (Map.Entry<String, Integer> neighborEntry : neighbors.entrySet()) {
+          String neighbor = neighborEntry.getKey();
+          int newDistance = currentDistance + neighborEntry.getValue();
+          int knownDistance = distances.get(neighbor);
+          if (newDistance < knownDistance) {
+            distances.put(neighbor, newDistance);
+            predecessors.get(neighbor).clear();
+            predecessors.get(neighbor).add(current);
+            queue.remove(neighbor);
+            queue.add(neighbor);
+          } else if (newDistance == knownDistance && newDistance != Integer.MAX_VALUE) {
+            predecessors.get(neighbor).add(current);
+          }
+        }
+      }
+
+      StringBuilder result = new StringBuilder();
+      if (findAllPaths) {
+        result.append("Shortest paths from \"").append(word1)
+            .append("\" to all other reachable words:\n\n");
+        List<Map.Entry<String, Integer>> sortedPaths = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : distances.entrySet()) {
+          if (!entry.getKey().equals(word1) && entry.getValue() != Integer.MAX_VALUE) {
+            sortedPaths.add(entry);
+          }
+        }
+        sortedPaths.sort((e1, e2) -> {
+          int distComp = e1.getValue().compareTo(e2.getValue());
+          return (distComp != 0) ? distComp : e1.getKey().compareTo(e2.getKey());
+        });
+        if (sortedPaths.isEmpty()) {
+          result.append("No other words are reachable from \"").append(word1).append("\".\n");
+        }
+        for (Map.Entry<String, Integer> entry : sortedPaths) {
+          result.append("To \"").append(entry.getKey()).append("\" (distance: ")
+              .append(entry.getValue()).append("):\n");
+          List<List<String>> paths = new ArrayList<>();
+          findAllPaths(predecessors, paths, new ArrayList<>(), entry.getKey(), word1);
+          for (int i = 0; i < paths.size(); i++) {
+            result.append("  Path ").append(i + 1).append(": ")
+                .append(String.join(" -> ", paths.get(i))).append("\n");
+          }
+          result.append("\n");
+        }
+        return result.toString();
+      }
+      int targetDistance = distances.get(word2);
+      if (targetDistance == Integer.MAX_VALUE) {
+        return "No path from \"" + word1 + "\" to \"" + word2 + "\"!";
+      }
+      if (word1.equals(word2)) {
+        return "Shortest path from \"" + word1 + "\" to itself:\nDistance: 0\n\nPath 1: "
+            + word1 + "\n";
+      }
+      result.append("Shortest path from \"").append(word1).append("\" to \"")
+          .append(word2).append("\":\n");
+      result.append("Distance: ").append(targetDistance).append("\n\n");
+      List<List<String>> paths = new ArrayList<>();
+      findAllPaths(predecessors, paths, new ArrayList<>(), word2, word1);
+      for (int i = 0; i < paths.size(); i++) {
+        result.append("Path ").append(i + 1).append(": ")
+            .append(String.join(" -> ", paths.get(i))).append("\n");
+      }
+      return result.toString();
+    }
+
+    private static void findAllPaths(Map<String, List<String>> predecessors,
+                                     List<List<String>> result, List<String> currentPath,
+                                     String current, String start) {
+      currentPath.add(0, current);
+      if (current.equals(start)) {
+        result.add(new ArrayList<>(currentPath));
+      } else {
+        for (String predecessor : predecessors.get(current)) {
+          findAllPaths(predecessors, result, currentPath, predecessor, start);
+        }
+      }
+      currentPath.remove(0);
+    }
+  }
+
+  // 词表小、词元多的语料中等长路径很多，距离相同的节点的出队顺序决定输出
+  private static String tiedCorpus(int seed) {
+    return new CorpusGenerator(seed, 20 + seed * 5, 1.0).generate(300 + seed * 50);
+  }
+
+  // 测试用例1：从文本到所有目标的输出与原实现逐字相同，包括等长路径的顺序和编号
+  @Test
+  public void testAllTargetsMatchLegacyOutput() {
+    for (int seed = 0; seed < 20; seed++) {
+      String text = tiedCorpus(seed);
+      LegacyGraph legacy = new LegacyGraph(text);
+      WordGraph graph = new WordGraph();
+      graph.processText(text);
+      for (String source : legacy.sources().subList(0, 16)) {
+        assertEquals(seed + ": " + source, legacy.calcShortestPath(source, ""),
+            graph.calcShortestPath(source, ""));
+      }
+    }
+  }
+
+  // 测试用例2：两个单词之间的输出与原实现逐字相同
+  @Test
+  public void testWordPairsMatchLegacyOutput() {
+    for (int seed = 0; seed < 20; seed++) {
+      String text = tiedCorpus(seed);
+      LegacyGraph legacy = new LegacyGraph(text);
+      WordGraph graph = new WordGraph();
+      graph.processText(text);
+      List<String> sources = legacy.sources();
+      Random random = new Random(seed);
+      for (int i = 0; i < 100; i++) {
+        String word1 = sources.get(random.nextInt(sources.size()));
+        String word2 = sources.get(random.nextInt(sources.size()));
+        assertEquals(seed + ": " + word1 + " -> " + word2,
+            legacy.calcShortestPath(word1, word2), graph.calcShortestPath(word1, word2));
+      }
+    }
+  }
+
+  // 测试用例3：起点和终点在不同强连通分量时输出仍与原实现相同。
+  // 三段词表不同的语料依次相连，前一段可以到达后一段而不能返回；后一段中的单词
+  // 可能比终点更早被扩展，若跳过这些到不了终点的单词，等长路径的顺序就会改变
+  @Test
+  public void testPathsAcrossComponentsMatchLegacyOutput() {
+    String[] suffixes = {"", "x", "y"};
+    int compared = 0;
+    for (int seed = 0; seed < 6; seed++) {
+      StringBuilder text = new StringBuilder();
+      for (int part = 0; part < suffixes.length; part++) {
+        text.append(new CorpusGenerator(seed * 3 + part, 15 + seed, 1.0).generate(120 + seed * 10)
+            .replaceAll("([a-z]+)", "$1" + suffixes[part])).append(' ');
+      }
+      LegacyGraph legacy = new LegacyGraph(text.toString());
+      WordGraph graph = new WordGraph();
+      graph.processText(text.toString());
+      ReachabilityIndex index = graph.getReachabilityIndex();
+      for (String word1 : legacy.sources()) {
+        for (String word2 : legacy.sources()) {
+          if (index.componentOf(word1) != index.componentOf(word2)
+              && index.canReach(word1, word2)) {
+            compared++;
+            assertEquals(seed + ": " + word1 + " -> " + word2,
+                legacy.calcShortestPath(word1, word2), graph.calcShortestPath(word1, word2));
+          }
+        }
+      }
+    }
+    assertTrue(compared > 1000);
+  }
+}
@@ -0,0 +1,154 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 用Count-Min Sketch近似统计二元组、只为高频二元组建立边的图构建器.
+ *
+ * <p>每个二元组先在{@link CountMinSketch}中计数，估计次数首次达到阈值T时被提升为真实的边，
+ * 初始权重取此时的估计值，此后该边的出现次数在邻接表中精确累加，不再经过sketch。
+ * 出现次数少于T的长尾二元组只占用sketch中固定大小的计数器，不会产生嵌套映射的条目。</p>
+ *
+ * <p>设共有N个二元组，sketch参数为ε、δ，则对每条边：</p>
+ * <ul>
+ *   <li>真实次数不低于T的二元组一定成为边(估计值不会低估)；</li>
+ *   <li>边的权重w满足 c ≤ w ≤ c + εN，其中c为真实次数，后一个不等式以至少1-δ的概率成立；</li>
+ *   <li>真实次数低于T的二元组可能因高估而成为边，但其权重同样满足上述上界。</li>
+ * </ul>
+ *
+ * <p>因此在近似图上：{@code calcShortestPath}的每条边距离至多高估εN，长度为L的路径至多高估LεN，
+ * 被丢弃的低频边可能使距离变长或使单词对变为不可达；PageRank和{@code randomWalk}使用的转移概率
+ * 按保留下来的出边权重归一化，等价于把低于T的出边概率重新分配给高频出边。
+ * 阈值T越小、ε越小，近似图越接近精确图。</p>
+ */
+public final class SketchGraphBuilder {
+
+  private final double epsilon;
+  private final double delta;
+  private final int threshold;
+
+  /**
+   * 创建构建器.
+   *
+   * @param epsilon 相对误差ε，边权重至多高估εN
+   * @param delta 单条边超出误差上界的概率δ
+   * @param threshold 成为真实边所需的最小估计次数T
+   */
+  public SketchGraphBuilder(double epsilon, double delta, int threshold) {
+    if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+      throw new IllegalArgumentException("epsilon and delta must be in (0, 1)");
+    }
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("threshold must be positive: " + threshold);
+    }
+    this.epsilon = epsilon;
+    this.delta = delta;
+    this.threshold = threshold;
+  }
+
+  public double getEpsilon() {
+    return epsilon;
+  }
+
+  public double getDelta() {
+    return delta;
+  }
+
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * 一次近似构建的结果.
+   */
+  public static final class Result {
+    private final Map<String, Map<String, Integer>> graph;
+    private final long edgeCount;
+    private final long bigramCount;
+    private final long maxOverestimate;
+    private final long sketchBytes;
+
+    Result(Map<String, Map<String, Integer>> graph, long edgeCount, long bigramCount,
+           long maxOverestimate, long sketchBytes) {
+      this.graph = graph;
+      this.edgeCount = edgeCount;
+      this.bigramCount = bigramCount;
+      this.maxOverestimate = maxOverestimate;
+      this.sketchBytes = sketchBytes;
+    }
+
+    /**
+     * 返回只含高频边的邻接表.
+     */
+    public Map<String, Map<String, Integer>> getGraph() {
+      return graph;
+    }
+
+    public long getEdgeCount() {
+      return edgeCount;
+    }
+
+    /**
+     * 返回统计的二元组总数N.
+     */
+    public long getBigramCount() {
+      return bigramCount;
+    }
+
+    /**
+     * 返回边权重的高估上界⌈εN⌉，以至少1-δ的概率对每条边成立.
+     */
+    public long getMaxOverestimate() {
+      return maxOverestimate;
+    }
+
+    /**
+     * 返回sketch计数器占用的字节数.
+     */
+    public long getSketchBytes() {
+      return sketchBytes;
+    }
+  }
+
+  /**
+   * 根据词元编号序列构建近似图.
+   *
+   * @param tokens 词元编号序列
+   * @param vocabulary 编号对应的词表
+   * @return 构建结果
+   */
+  public Result build(TokenIdStream tokens, Vocabulary vocabulary) {
+    CountMinSketch sketch = CountMinSketch.withErrorBounds(epsilon, delta);
+    Map<String, Map<String, Integer>> graph = new HashMap<>();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Map<String, Integer>[] adjacency = new Map[vocabulary.size()];
+    long edgeCount = 0;
+    long bigrams = Math.max(0, tokens.size() - 1L);
+
+    for (int i = 0; i < tokens.size() - 1; i++) {
+      int current = tokens.get(i);
+      int nextId = tokens.get(i + 1);
+      String next = vocabulary.word(nextId);
+      Map<String, Integer> edges = adjacency[current];
+      if (edges != null) {
+        Integer weight = edges.get(next);
+        if (weight != null) {
+          edges.put(next, weight + 1);  // 已提升的边精确计数
+          continue;
+        }
+      }
+      int estimate = sketch.addAndEstimate(((long) current << 32) | nextId);
+      if (estimate >= threshold) {
+        if (edges == null) {
+          edges = new HashMap<>();
+          adjacency[current] = edges;
+          graph.put(vocabulary.word(current), edges);
+        }
+        edges.put(next, estimate);
+        edgeCount++;
+      }
+    }
+    // 误差上界使用sketch实际宽度对应的ε，不大于请求的ε
+    long maxOverestimate = (long) Math.ceil(sketch.getEpsilon() * bigrams);
+    return new Result(graph, edgeCount, bigrams, maxOverestimate, sketch.getMemoryBytes());
+  }
+}
@@ -0,0 +1,56 @@
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SketchGraphBuilderTest {
+
+  // 测试用例1：估计值不低于真实次数
+  @Test
+  public void testSketchNeverUnderestimates() {
+    CountMinSketch sketch = CountMinSketch.withErrorBounds(0.01, 0.01);
+    Map<Long, Integer> exact = new HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      long key = (i * 7919L) % 3001;
+      sketch.addAndEstimate(key);
+      exact.merge(key, 1, Integer::sum);
+    }
+    for (Map.Entry<Long, Integer> entry : exact.entrySet()) {
+      assertTrue(sketch.estimate(entry.getKey()) >= entry.getValue());
+    }
+    assertEquals(20000, sketch.getTotalCount());
+    assertTrue(sketch.getEpsilon() <= 0.01);
+  }
+
+  // 测试用例2：高频边全部保留，权重在误差界内，低频边被丢弃
+  @Test
+  public void testApproximateGraphWithinBounds() {
+    String text = new CorpusGenerator(21, 5000, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(200000);
+    WordGraph exact = new WordGraph();
+    exact.processText(text);
+
+    WordGraph approximate = new WordGraph();
+    approximate.setSketchGraphBuilder(new SketchGraphBuilder(0.0005, 0.01, 5));
+    approximate.processText(text);
+
+    long bound = approximate.getMaxWeightOverestimate();
+    assertTrue(bound > 0);
+    Map<String, Map<String, Integer>> sketched = approximate.getGraph();
+    for (Map.Entry<String, Map<String, Integer>> entry : exact.getGraph().entrySet()) {
+      for (Map.Entry<String, Integer> edge : entry.getValue().entrySet()) {
+        int trueCount = edge.getValue();
+        Map<String, Integer> edges = sketched.get(entry.getKey());
+        Integer weight = edges == null ? null : edges.get(edge.getKey());
+        if (trueCount >= 5) {
+          assertNotNull(weight);
+        }
+        if (weight != null) {
+          assertTrue(weight >= trueCount);
+          assertTrue(weight <= trueCount + bound);
+        }
+      }
+    }
+    assertTrue(approximate.getEdgeCount() < exact.getEdgeCount() / 2);
+  }
+}
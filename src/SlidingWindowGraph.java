@@ -0,0 +1,271 @@
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 只保留最近一段文本的有向词图，适合持续输入的文本流(聊天、日志等).
+ *
+ * <p>窗口由最近的N个词元或最近一段时间内的词元组成，词元编号保存在固定大小的环形缓冲区中。
+ * 新词元加入时为它与前一个词元之间的二元组加一条边；最旧的词元移出窗口时，
+ * 它与后继之间的二元组权重减一，权重减到0的边被删除，没有任何边的单词也随之从图和词表中删除。
+ * 因此图中的边数不超过N-1，词表大小不超过N，内存占用在构造时即可确定上界。</p>
+ *
+ * <p>时间窗口同样受容量N约束：即使词元尚未过期，缓冲区满时也会移出最旧的词元。
+ * 所有方法都是同步的，可以在一个线程中持续输入的同时在其他线程中查询。</p>
+ */
+public class SlidingWindowGraph {
+
+  private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+  private final int capacity;
+  private final long windowMillis;
+  private final LongSupplier clock;
+  private final Tokenizer tokenizer = new UnicodeTokenizer();
+
+  // 环形缓冲区：head为最旧词元的位置，size为窗口中的词元数
+  private final int[] ring;
+  private final long[] timestamps;
+  private int head = 0;
+  private int size = 0;
+
+  // 窗口内的词表，编号可回收；references记录每个编号在窗口中出现的次数
+  private final Map<String, Integer> ids = new HashMap<>();
+  private final String[] words;
+  private final int[] references;
+  private final int[] freeIds;
+  private int freeCount = 0;
+  private int nextId = 0;
+
+  private final Map<String, Map<String, Integer>> graph = new HashMap<>();
+  private long edgeCount = 0;
+  private long acceptedTokens = 0;
+
+  /**
+   * 创建只保留最近capacity个词元的窗口.
+   *
+   * @param capacity 窗口中的最大词元数
+   */
+  public SlidingWindowGraph(int capacity) {
+    this(capacity, Long.MAX_VALUE, System::currentTimeMillis);
+  }
+
+  /**
+   * 创建按时间过期的窗口.
+   *
+   * @param window 词元在窗口中保留的时长
+   * @param capacity 窗口中的最大词元数
+   */
+  public SlidingWindowGraph(Duration window, int capacity) {
+    this(capacity, window.toMillis(), System::currentTimeMillis);
+  }
+
+  /**
+   * 创建窗口.
+   *
+   * @param capacity 窗口中的最大词元数
+   * @param windowMillis 词元保留的毫秒数，{@link Long#MAX_VALUE}表示不按时间过期
+   * @param clock 当前时间(毫秒)的来源
+   */
+  public SlidingWindowGraph(int capacity, long windowMillis, LongSupplier clock) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    if (windowMillis <= 0) {
+      throw new IllegalArgumentException("windowMillis must be positive: " + windowMillis);
+    }
+    this.capacity = capacity;
+    this.windowMillis = windowMillis;
+    this.clock = clock;
+    this.ring = new int[capacity];
+    this.timestamps = windowMillis == Long.MAX_VALUE ? null : new long[capacity];
+    this.words = new String[capacity];
+    this.references = new int[capacity];
+    this.freeIds = new int[capacity];
+  }
+
+  /**
+   * 切分一段文本并依次加入窗口，与上一段文本的末尾相连.
+   *
+   * @param text 文本
+   */
+  public synchronized void feed(CharSequence text) {
+    long now = clock.getAsLong();
+    tokenizer.tokenize(text, word -> append(word, now));
+  }
+
+  /**
+   * 加入一个已切分好的单词.
+   *
+   * @param word 单词，按原样保存，调用方负责统一大小写
+   */
+  public synchronized void accept(String word) {
+    append(word, clock.getAsLong());
+  }
+
+  /**
+   * 移出所有已过期的词元.
+   */
+  public synchronized void expire() {
+    expireBefore(clock.getAsLong());
+  }
+
+  private void append(String word, long now) {
+    expireBefore(now);
+    if (size == capacity) {
+      evictOldest();
+    }
+    int id = intern(word);
+    if (size > 0) {
+      String previous = words[ring[(head + size - 1) % capacity]];
+      Map<String, Integer> edges = graph.computeIfAbsent(previous, k -> new HashMap<>());
+      if (edges.merge(word, 1, Integer::sum) == 1) {
+        edgeCount++;
+      }
+    }
+    int tail = (head + size) % capacity;
+    ring[tail] = id;
+    if (timestamps != null) {
+      timestamps[tail] = now;
+    }
+    size++;
+    acceptedTokens++;
+  }
+
+  private void expireBefore(long now) {
+    if (timestamps == null) {
+      return;
+    }
+    while (size > 0 && now - timestamps[head] >= windowMillis) {
+      evictOldest();
+    }
+  }
+
+  private void evictOldest() {
+    int id = ring[head];
+    String word = words[id];
+    if (size > 1) {
+      // 最旧词元与其后继之间的二元组随之移出窗口
+      String next = words[ring[(head + 1) % capacity]];
+      Map<String, Integer> edges = graph.get(word);
+      int weight = edges.get(next) - 1;
+      if (weight == 0) {
+        edges.remove(next);
+        edgeCount--;
+        if (edges.isEmpty()) {
+          graph.remove(word);
+        }
+      } else {
+        edges.put(next, weight);
+      }
+    }
+    release(id);
+    head = (head + 1) % capacity;
+    size--;
+  }
+
+  private int intern(String word) {
+    Integer existing = ids.get(word);
+    int id;
+    if (existing != null) {
+      id = existing;
+    } else {
+      id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+      words[id] = word;
+      ids.put(word, id);
+    }
+    references[id]++;
+    return id;
+  }
+
+  private void release(int id) {
+    if (--references[id] == 0) {
+      // 单词不再出现在窗口中，它的所有边都已删除
+      ids.remove(words[id]);
+      words[id] = null;
+      freeIds[freeCount++] = id;
+    }
+  }
+
+  /**
+   * 返回当前窗口中的词元数.
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * 返回窗口的最大词元数.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * 返回自创建以来加入的词元总数.
+   */
+  public synchronized long getAcceptedTokens() {
+    return acceptedTokens;
+  }
+
+  /**
+   * 返回当前窗口中不同单词的数量.
+   */
+  public synchronized int getVertexCount() {
+    return ids.size();
+  }
+
+  /**
+   * 返回当前窗口中不同边的数量.
+   */
+  public synchronized long getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * 单词是否出现在当前窗口中.
+   *
+   * @param word 单词
+   */
+  public synchronized boolean contains(String word) {
+    return ids.containsKey(word);
+  }
+
+  /**
+   * 返回当前窗口的图的副本.
+   */
+  public synchronized Map<String, Map<String, Integer>> snapshot() {
+    Map<String, Map<String, Integer>> copy = new HashMap<>();
+    for (Map.Entry<String, Map<String, Integer>> entry : graph.entrySet()) {
+      copy.put(entry.getKey(), Collections.unmodifiableMap(new HashMap<>(entry.getValue())));
+    }
+    return Collections.unmodifiableMap(copy);
+  }
+
+  /**
+   * 在当前窗口上查询桥接词，返回值约定与{@link WordGraph#showBridgeWords(String, String)}相同.
+   *
+   * @param word1 词语1
+   * @param word2 词语2
+   */
+  public synchronized String showBridgeWords(String word1, String word2) {
+    return GraphQueries.bridgeWords(graph, ids::containsKey, word1.toLowerCase(),
+        word2.toLowerCase());
+  }
+
+  /**
+   * 在当前窗口上随机游走.
+   *
+   * @return 随机游走路径信息
+   */
+  public synchronized String randomWalk() {
+    if (graph.isEmpty()) {
+      return "Graph is empty!";
+    }
+    List<String> path = GraphQueries.randomWalk(graph, SECURE_RANDOM);
+    return "Random walk: " + String.join(" -> ", path);
+  }
+}
@@ -0,0 +1,50 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SlidingWindowGraphTest {
+
+  // 测试用例1：窗口中的图与只加载最近N个词元构建的图一致
+  @Test
+  public void testMatchesGraphOfLastTokens() {
+    List<String> tokens = new UnicodeTokenizer().tokenize(
+        new CorpusGenerator(9, 300, CorpusGenerator.DEFAULT_EXPONENT).generate(5000));
+    SlidingWindowGraph window = new SlidingWindowGraph(500);
+    for (int i = 0; i < tokens.size(); i++) {
+      window.accept(tokens.get(i));
+      if (i % 997 == 0 || i == tokens.size() - 1) {
+        WordGraph expected = new WordGraph();
+        expected.processText(String.join(" ", tokens.subList(Math.max(0, i - 499), i + 1)));
+        assertEquals(expected.getGraph(), window.snapshot());
+        assertEquals(expected.getEdgeCount(), window.getEdgeCount());
+        assertEquals(expected.getVocabulary().size(), window.getVertexCount());
+      }
+    }
+    assertEquals(500, window.size());
+  }
+
+  // 测试用例2：按时间过期，度为0的单词被删除
+  @Test
+  public void testTimeWindowExpiresVertices() {
+    AtomicLong now = new AtomicLong(0);
+    SlidingWindowGraph window = new SlidingWindowGraph(100, 1000, now::get);
+    window.feed("the quick fox");
+    now.set(600);
+    window.feed("jumps over the dog");
+    assertEquals("fox", window.showBridgeWords("quick", "jumps"));
+
+    now.set(1200);
+    window.expire();
+    assertEquals(4, window.size());
+    assertFalse(window.contains("quick"));
+    assertFalse(window.snapshot().containsKey("fox"));
+    assertEquals("err1", window.showBridgeWords("quick", "jumps"));
+    assertEquals("over", window.showBridgeWords("jumps", "the"));
+
+    now.set(5000);
+    window.expire();
+    assertEquals(0, window.getVertexCount());
+    assertEquals("Graph is empty!", window.randomWalk());
+  }
+}
@@ -0,0 +1,91 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * 以{@link WordGraph#calcShortestPath(String, String)}的文本格式输出最短路径的接收器.
+ *
+ * <p>可选地限制写出的字符数，超出后停止接收并追加截断提示，适合在界面上预览。</p>
+ */
+public class TextPathSink implements ShortestPathSink {
+
+  private final Writer writer;
+  private final long maxChars;
+  private long written;
+  private boolean truncated;
+
+  /**
+   * 创建不限长度的文本接收器.
+   *
+   * @param writer 输出目标
+   */
+  public TextPathSink(Writer writer) {
+    this(writer, Long.MAX_VALUE);
+  }
+
+  /**
+   * 创建限制输出长度的文本接收器.
+   *
+   * @param writer 输出目标
+   * @param maxChars 最多写出的字符数
+   */
+  public TextPathSink(Writer writer, long maxChars) {
+    this.writer = writer;
+    this.maxChars = maxChars;
+  }
+
+  /**
+   * 输出是否因超出长度限制而被截断.
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  @Override
+  public void begin(String source) throws IOException {
+    write("Shortest paths from \"" + source + "\" to all other reachable words:\n\n");
+  }
+
+  @Override
+  public void beginTarget(String target, int distance) throws IOException {
+    write("To \"" + target + "\" (distance: " + distance + "):\n");
+  }
+
+  @Override
+  public void path(int index, List<String> path) throws IOException {
+    write("  Path " + index + ": " + String.join(" -> ", path) + "\n");
+  }
+
+  @Override
+  public void endTarget(String target) throws IOException {
+    write("\n");
+  }
+
+  @Override
+  public void end(String source, int reachableCount) throws IOException {
+    if (reachableCount == 0) {
+      write("No other words are reachable from \"" + source + "\".\n");
+    }
+    if (truncated) {
+      writer.write("\n... (output truncated, save to file for the full result)\n");
+    }
+    writer.flush();
+  }
+
+  @Override
+  public boolean isFull() {
+    return truncated;
+  }
+
+  private void write(String text) throws IOException {
+    if (truncated) {
+      return;
+    }
+    if (written + text.length() > maxChars) {
+      truncated = true;
+      return;
+    }
+    writer.write(text);
+    written += text.length();
+  }
+}
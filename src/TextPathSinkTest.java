@@ -0,0 +1,68 @@
+import java.io.StringWriter;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TextPathSinkTest {
+
+  private static final String TRUNCATION_MARKER =
+      "\n... (output truncated, save to file for the full result)\n";
+
+  // 原实现calcShortestPath("a", "")在该图上的输出，等长路径按原来的顺序排列
+  private static final String LEGACY_OUTPUT =
+      "Shortest paths from \"a\" to all other reachable words:\n\n"
+      + "To \"b\" (distance: 1):\n  Path 1: a -> b\n\n"
+      + "To \"c\" (distance: 1):\n  Path 1: a -> c\n\n"
+      + "To \"d\" (distance: 2):\n  Path 1: a -> b -> d\n  Path 2: a -> c -> d\n\n"
+      + "To \"f\" (distance: 2):\n  Path 1: a -> b -> f\n  Path 2: a -> c -> f\n\n"
+      + "To \"e\" (distance: 3):\n"
+      + "  Path 1: a -> b -> f -> e\n  Path 2: a -> c -> f -> e\n"
+      + "  Path 3: a -> b -> d -> e\n  Path 4: a -> c -> d -> e\n\n";
+
+  // 测试用例1：流式输出与原来的calcShortestPath(word1, "")文本完全相同，包括等长路径的顺序
+  @Test
+  public void testStreamMatchesLegacyOutput() throws Exception {
+    WordGraph graph = new WordGraph();
+    graph.processText("a b d a c d e b f e c f");
+    assertEquals(LEGACY_OUTPUT, graph.calcShortestPath("a", ""));
+
+    StringWriter writer = new StringWriter();
+    TextPathSink sink = new TextPathSink(writer);
+    assertNull(graph.streamShortestPaths("a", sink));
+    assertEquals(LEGACY_OUTPUT, writer.toString());
+    assertFalse(sink.isTruncated());
+  }
+
+  // 测试用例2：没有可达单词和起点不在图中
+  @Test
+  public void testNoReachableWords() throws Exception {
+    WordGraph graph = new WordGraph();
+    graph.processText("a b");
+    assertEquals("Shortest paths from \"b\" to all other reachable words:\n\n"
+        + "No other words are reachable from \"b\".\n", graph.calcShortestPath("b", ""));
+    assertEquals("Word \"z\" not in the graph!", graph.calcShortestPath("z", ""));
+  }
+
+  // 测试用例3：界面预览的2M字符上限截断输出并追加提示，截断前的内容与完整输出一致
+  @Test
+  public void testPreviewCapTruncatesWithMarker() throws Exception {
+    int cap = 2_000_000;  // 与GraphGui的预览上限相同
+    WordGraph graph = new WordGraph();
+    graph.processText(new CorpusGenerator(9, 60000, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(400000));
+    String source = CorpusGenerator.word(0);
+    String full = graph.calcShortestPath(source, "");
+    assertTrue("full output has " + full.length() + " chars", full.length() > cap);
+
+    StringWriter writer = new StringWriter();
+    TextPathSink sink = new TextPathSink(writer, cap);
+    assertNull(graph.streamShortestPaths(source, sink));
+    String preview = writer.toString();
+    assertTrue(sink.isTruncated());
+    assertTrue(sink.isFull());
+    assertTrue(preview.endsWith(TRUNCATION_MARKER));
+    String body = preview.substring(0, preview.length() - TRUNCATION_MARKER.length());
+    assertTrue(body.length() <= cap);
+    assertTrue(body.length() > cap - 1000);
+    assertTrue(full.startsWith(body));
+  }
+}
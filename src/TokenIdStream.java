@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/**
+ * 以{@code int}数组保存的词元编号序列.
+ *
+ * <p>配合{@link Vocabulary}使用，每个词元只占4字节，
+ * 而{@code List<String>}中每个词元需要一个引用和一个独立的字符串对象。</p>
+ */
+public final class TokenIdStream {
+
+  private int[] ids;
+  private int size = 0;
+
+  /**
+   * 创建空序列.
+   */
+  public TokenIdStream() {
+    this(1024);
+  }
+
+  /**
+   * 创建指定初始容量的空序列.
+   *
+   * @param capacity 初始容量
+   */
+  public TokenIdStream(int capacity) {
+    this.ids = new int[Math.max(1, capacity)];
+  }
+
+  /**
+   * 在末尾追加一个词元编号.
+   *
+   * @param id 编号
+   */
+  public void add(int id) {
+    if (size == ids.length) {
+      ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+    }
+    ids[size++] = id;
+  }
+
+  /**
+   * 返回第index个词元的编号.
+   *
+   * @param index 位置
+   */
+  public int get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " out of range [0, " + size + ")");
+    }
+    return ids[index];
+  }
+
+  /**
+   * 返回词元数.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * 释放未使用的容量.
+   */
+  public void trimToSize() {
+    if (ids.length > size) {
+      ids = Arrays.copyOf(ids, Math.max(1, size));
+    }
+  }
+}
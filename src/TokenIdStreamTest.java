@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TokenIdStreamTest {
+
+  // 测试用例1：从容量1开始逐个追加，按位置读回相同的编号
+  @Test
+  public void testAddAndGetWithGrowth() {
+    TokenIdStream stream = new TokenIdStream(0);
+    for (int i = 0; i < 100000; i++) {
+      stream.add(i * 7);
+    }
+    assertEquals(100000, stream.size());
+    for (int i = 0; i < stream.size(); i++) {
+      assertEquals(i * 7, stream.get(i));
+    }
+    try {
+      stream.get(100000);
+      fail("expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // 预期的异常
+    }
+  }
+
+  // 测试用例2：释放多余容量后内容不变，仍可继续追加；空序列也可以释放
+  @Test
+  public void testTrimToSize() {
+    TokenIdStream stream = new TokenIdStream(1000);
+    stream.add(3);
+    stream.add(5);
+    stream.trimToSize();
+    assertEquals(2, stream.size());
+    assertEquals(3, stream.get(0));
+    assertEquals(5, stream.get(1));
+    stream.add(8);
+    assertEquals(8, stream.get(2));
+
+    TokenIdStream empty = new TokenIdStream();
+    empty.trimToSize();
+    assertEquals(0, empty.size());
+    empty.add(1);
+    assertEquals(1, empty.get(0));
+  }
+
+  // 测试用例3：词元序列与词表一起还原原文的单词序列
+  @Test
+  public void testWordGraphTokenRoundTrip() {
+    WordGraph graph = new WordGraph();
+    graph.processText("To explore strange new worlds, to seek out new life");
+    TokenIdStream tokens = graph.getTokenStream();
+    Vocabulary vocabulary = graph.getVocabulary();
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < tokens.size(); i++) {
+      text.append(i > 0 ? " " : "").append(vocabulary.word(tokens.get(i)));
+    }
+    assertEquals("to explore strange new worlds to seek out new life", text.toString());
+    assertEquals(tokens.size(), graph.getWordCount());
+  }
+
+  // 测试用例4：装入多文件语料时不保留词元序列，依赖序列的功能保留已装入的图或退回二元模型
+  @Test
+  public void testCorpusWithoutTokenStream() {
+    Map<String, Map<String, Integer>> merged = new HashMap<>();
+    merged.computeIfAbsent("explore", k -> new HashMap<>()).put("strange", 1);
+    merged.computeIfAbsent("strange", k -> new HashMap<>()).put("new", 2);
+    merged.computeIfAbsent("new", k -> new HashMap<>()).put("explore", 1);
+    WordGraph graph = new WordGraph();
+    graph.installCorpus(merged, new HashSet<>(Arrays.asList("explore", "strange",
+        "new")), 42);
+
+    assertNull(graph.getTokenStream());
+    assertEquals(42, graph.getWordCount());
+    assertEquals(3, graph.getVocabulary().size());
+    long version = graph.getVersion();
+    graph.buildDirectedWeightedGraph();
+    assertTrue(graph.getVersion() != version);
+    assertEquals(Integer.valueOf(2), graph.getGraph().get("strange").get("new"));
+    assertNull(graph.getNGramModel(3));
+    assertEquals("explore strange new", graph.generateNewText("Explore new", 3));
+    assertEquals("strange", graph.showBridgeWords("explore", "new"));
+  }
+
+  // 测试用例5：重放词元序列建图时邻接表的顺序与原实现相同，等长路径的列出顺序和编号不变。
+  // big、new、no、a的散列值落在同一个桶里，merge会把新邻居插在桶头部而打乱顺序
+  @Test
+  public void testReplayKeepsLegacyPathOrder() {
+    WordGraph graph = new WordGraph();
+    graph.processText("The big end, the new end, the no end, the a end.");
+    assertEquals(Arrays.asList("big", "new", "no", "a"),
+        new ArrayList<>(graph.getGraph().get("the").keySet()));
+
+    // 原实现calcShortestPath的输出
+    assertEquals("Shortest paths from \"the\" to all other reachable words:\n\n"
+        + "To \"a\" (distance: 1):\n  Path 1: the -> a\n\n"
+        + "To \"big\" (distance: 1):\n  Path 1: the -> big\n\n"
+        + "To \"new\" (distance: 1):\n  Path 1: the -> new\n\n"
+        + "To \"no\" (distance: 1):\n  Path 1: the -> no\n\n"
+        + "To \"end\" (distance: 2):\n"
+        + "  Path 1: the -> big -> end\n  Path 2: the -> a -> end\n"
+        + "  Path 3: the -> new -> end\n  Path 4: the -> no -> end\n\n",
+        graph.calcShortestPath("the", ""));
+    assertEquals("Shortest path from \"the\" to \"end\":\nDistance: 2\n\n"
+        + "Path 1: the -> big -> end\nPath 2: the -> a -> end\n"
+        + "Path 3: the -> new -> end\nPath 4: the -> no -> end\n",
+        graph.calcShortestPath("the", "end"));
+  }
+}
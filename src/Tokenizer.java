@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 将文本切分为小写单词序列的分词器.
+ *
+ * <p>实现必须是无状态且线程安全的：同一实例可以被多个线程同时用于不同的输入。
+ * 基于{@link Reader}的方法以流式方式读取，不要求整段文本驻留内存。</p>
+ *
+ * @see UnicodeTokenizer 默认实现
+ */
+public interface Tokenizer {
+
+  /**
+   * 从字符流中读取文本并逐个输出单词.
+   *
+   * @param reader 输入字符流，调用方负责关闭
+   * @param sink 单词接收器
+   */
+  void tokenize(Reader reader, Consumer<String> sink) throws IOException;
+
+  /**
+   * 切分一段文本并逐个输出单词.
+   *
+   * @param text 输入文本
+   * @param sink 单词接收器
+   */
+  default void tokenize(CharSequence text, Consumer<String> sink) {
+    try {
+      tokenize(new StringReader(text.toString()), sink);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);  // StringReader不会抛出IOException
+    }
+  }
+
+  /**
+   * 切分一段文本并返回单词列表.
+   *
+   * @param text 输入文本
+   * @return 单词列表
+   */
+  default List<String> tokenize(CharSequence text) {
+    List<String> result = new ArrayList<>();
+    tokenize(text, result::add);
+    return result;
+  }
+}
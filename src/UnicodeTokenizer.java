@@ -0,0 +1,320 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 基于码点分类表的Unicode分词器，保留中日文和带重音的单词.
+ *
+ * <p>基本多文种平面(BMP)内每个字符的类别(分隔符、字母、表意文字)和折叠后的小写形式
+ * 都在类加载时预先计算到查找表中，分词时只需一次数组访问；ASCII字符走更小的专用表，
+ * 且与旧实现一致：只有英文字母构成单词，数字和标点都是分隔符。
+ * 不成对的代理项(损坏的UTF-16)视为分隔符，不会把两侧的字母连成一个单词。
+ * 大小写折叠采用{@code toLowerCase(toUpperCase(c))}的简单折叠，
+ * 使"ß"/"ẞ"、希腊字母终形等大小写变体归一到同一形式。</p>
+ *
+ * <p>连续的表意文字(汉字、假名)按{@link CjkMode}切分：逐字成词，或生成相邻两字的重叠二元组。
+ * 组合用附加符号(Unicode类别M)视为所在单词的一部分。</p>
+ */
+public class UnicodeTokenizer implements Tokenizer {
+
+  /**
+   * 表意文字的切分方式.
+   */
+  public enum CjkMode {
+    /** 每个表意文字单独成词. */
+    CHARACTER,
+    /** 连续表意文字生成重叠的二元组，单独的一个字则原样成词. */
+    BIGRAM
+  }
+
+  private static final byte SEPARATOR = 0;
+  private static final byte LETTER = 1;
+  private static final byte MARK = 2;
+  private static final byte IDEOGRAPH = 3;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  // ASCII快速路径：0表示分隔符，否则为折叠后的小写字母
+  private static final char[] ASCII_FOLD = new char[128];
+  private static final byte[] BMP_CLASS = new byte[65536];
+  private static final char[] BMP_FOLD = new char[65536];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      ASCII_FOLD[c] = c;
+      ASCII_FOLD[c - 'a' + 'A'] = c;
+    }
+    for (int c = 0; c < 65536; c++) {
+      BMP_CLASS[c] = classify(c);
+      int folded = fold(c);
+      BMP_FOLD[c] = Character.charCount(folded) == 1 ? (char) folded : (char) c;
+    }
+    for (int c = 0; c < 128; c++) {
+      BMP_CLASS[c] = ASCII_FOLD[c] != 0 ? LETTER : SEPARATOR;
+    }
+  }
+
+  private final CjkMode cjkMode;
+
+  /**
+   * 创建逐字切分表意文字的分词器.
+   */
+  public UnicodeTokenizer() {
+    this(CjkMode.CHARACTER);
+  }
+
+  /**
+   * 创建分词器.
+   *
+   * @param cjkMode 表意文字的切分方式
+   */
+  public UnicodeTokenizer(CjkMode cjkMode) {
+    this.cjkMode = cjkMode;
+  }
+
+  /**
+   * 返回表意文字的切分方式.
+   */
+  public CjkMode getCjkMode() {
+    return cjkMode;
+  }
+
+  private static byte classify(int codePoint) {
+    if (isIdeograph(codePoint)) {
+      return IDEOGRAPH;
+    }
+    switch (Character.getType(codePoint)) {
+      case Character.UPPERCASE_LETTER:
+      case Character.LOWERCASE_LETTER:
+      case Character.TITLECASE_LETTER:
+      case Character.MODIFIER_LETTER:
+      case Character.OTHER_LETTER:
+        return LETTER;
+      case Character.NON_SPACING_MARK:
+      case Character.COMBINING_SPACING_MARK:
+      case Character.ENCLOSING_MARK:
+        return MARK;
+      default:
+        return SEPARATOR;
+    }
+  }
+
+  private static boolean isIdeograph(int codePoint) {
+    if (Character.isIdeographic(codePoint)) {
+      return true;
+    }
+    Character.UnicodeScript script;
+    try {
+      script = Character.UnicodeScript.of(codePoint);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return (script == Character.UnicodeScript.HIRAGANA
+        || script == Character.UnicodeScript.KATAKANA)
+        && Character.isLetter(codePoint);
+  }
+
+  private static int fold(int codePoint) {
+    return Character.toLowerCase(Character.toUpperCase(codePoint));
+  }
+
+  /**
+   * 按分词时的规则对文本做大小写折叠，用于把用户输入与分词得到的单词比较.
+   *
+   * <p>与{@link String#toLowerCase()}不同，结果不受默认区域设置影响。</p>
+   *
+   * @param text 输入文本
+   * @return 折叠后的文本
+   */
+  public static String foldCase(CharSequence text) {
+    StringBuilder folded = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = Character.codePointAt(text, i);
+      folded.appendCodePoint(codePoint < BMP_FOLD.length ? BMP_FOLD[codePoint] : fold(codePoint));
+      i += Character.charCount(codePoint);
+    }
+    return folded.toString();
+  }
+
+  @Override
+  public void tokenize(Reader reader, Consumer<String> sink) throws IOException {
+    Session session = new Session(sink);
+    char[] buffer = new char[BUFFER_SIZE];
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      session.feed(buffer, read);
+    }
+    session.finish();
+  }
+
+  @Override
+  public void tokenize(CharSequence text, Consumer<String> sink) {
+    Session session = new Session(sink);
+    char[] buffer = new char[Math.min(BUFFER_SIZE, Math.max(16, text.length()))];
+    for (int start = 0; start < text.length(); start += buffer.length) {
+      int end = Math.min(text.length(), start + buffer.length);
+      for (int i = start; i < end; i++) {
+        buffer[i - start] = text.charAt(i);
+      }
+      session.feed(buffer, end - start);
+    }
+    session.finish();
+  }
+
+  /**
+   * 一次分词过程的状态，可跨缓冲区边界延续单词、代理对和表意文字序列.
+   *
+   * <p>单词直接写入可增长的字符数组，ASCII字母连续出现时在内层循环中逐个查表写入，
+   * 不经过{@link StringBuilder}的容量检查。不成对的代理项不是字符，视为分隔符。</p>
+   */
+  private final class Session {
+    private final Consumer<String> sink;
+    private char[] word = new char[32];
+    private int wordLength;
+    private char pendingHigh;
+    private int previousIdeograph = -1;
+    private boolean bigramEmitted;
+
+    Session(Consumer<String> sink) {
+      this.sink = sink;
+    }
+
+    void feed(char[] buffer, int length) {
+      int i = 0;
+      while (i < length) {
+        char c = buffer[i];
+        if (pendingHigh != 0) {
+          char high = pendingHigh;
+          pendingHigh = 0;
+          if (Character.isLowSurrogate(c)) {
+            int codePoint = Character.toCodePoint(high, c);
+            accept(classify(codePoint), fold(codePoint));
+            i++;
+            continue;
+          }
+          // 不成对的高代理项结束当前单词，随后照常处理c
+          endWord();
+          endIdeographRun();
+        }
+        if (c < 128) {
+          i = asciiRun(buffer, i, length);
+        } else {
+          if (Character.isHighSurrogate(c)) {
+            pendingHigh = c;
+          } else {
+            accept(BMP_CLASS[c], BMP_FOLD[c]);
+          }
+          i++;
+        }
+      }
+    }
+
+    /**
+     * 处理从from开始的连续ASCII字符，返回第一个非ASCII字符的下标或length.
+     *
+     * <p>连续的字母每个只需一次查表，是否为ASCII与是否为字母合并为一个条件，
+     * 折叠结果无条件写入单词数组；分隔符结束当前单词。</p>
+     */
+    private int asciiRun(char[] buffer, int from, int length) {
+      int i = from;
+      while (i < length) {
+        char c = buffer[i];
+        if (c >= 128) {
+          return i;
+        }
+        if (ASCII_FOLD[c] == 0) {
+          endWord();
+          endIdeographRun();
+          i++;
+          continue;
+        }
+        endIdeographRun();
+        ensureCapacity(length - i);
+        char[] chars = word;
+        int n = wordLength;
+        while (i < length) {
+          char next = buffer[i];
+          char folded = ASCII_FOLD[next & 0x7F];
+          if ((folded == 0) | (next >= 128)) {
+            break;
+          }
+          chars[n++] = folded;
+          i++;
+        }
+        wordLength = n;
+      }
+      return i;
+    }
+
+    private void ensureCapacity(int extra) {
+      if (wordLength + extra > word.length) {
+        word = Arrays.copyOf(word, Math.max(word.length * 2, wordLength + extra));
+      }
+    }
+
+    private void append(int codePoint) {
+      ensureCapacity(2);
+      wordLength += Character.toChars(codePoint, word, wordLength);
+    }
+
+    private void accept(byte category, int folded) {
+      switch (category) {
+        case LETTER:
+          endIdeographRun();
+          append(folded);
+          break;
+        case MARK:
+          // 附加符号只跟随在字母之后，单独出现时视为分隔符
+          if (wordLength > 0) {
+            append(folded);
+          }
+          break;
+        case IDEOGRAPH:
+          endWord();
+          ideograph(folded);
+          break;
+        default:
+          endWord();
+          endIdeographRun();
+          break;
+      }
+    }
+
+    private void ideograph(int codePoint) {
+      if (cjkMode == CjkMode.CHARACTER) {
+        sink.accept(new String(Character.toChars(codePoint)));
+        return;
+      }
+      if (previousIdeograph >= 0) {
+        sink.accept(new StringBuilder(4).appendCodePoint(previousIdeograph)
+            .appendCodePoint(codePoint).toString());
+        bigramEmitted = true;
+      }
+      previousIdeograph = codePoint;
+    }
+
+    private void endIdeographRun() {
+      if (previousIdeograph >= 0) {
+        if (!bigramEmitted) {
+          // 长度为1的表意文字序列，原样输出
+          sink.accept(new String(Character.toChars(previousIdeograph)));
+        }
+        previousIdeograph = -1;
+        bigramEmitted = false;
+      }
+    }
+
+    private void endWord() {
+      if (wordLength > 0) {
+        sink.accept(new String(word, 0, wordLength));
+        wordLength = 0;
+      }
+    }
+
+    void finish() {
+      endWord();
+      endIdeographRun();
+    }
+  }
+}
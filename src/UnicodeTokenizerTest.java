@@ -0,0 +1,90 @@
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class UnicodeTokenizerTest {
+
+  // 测试用例1：ASCII文本与旧正则实现结果一致
+  @Test
+  public void testAsciiMatchesLegacyBehaviour() {
+    UnicodeTokenizer tokenizer = new UnicodeTokenizer();
+    assertEquals(Arrays.asList("the", "scientist", "don", "t", "abc"),
+        tokenizer.tokenize("The SCIENTIST, don't 42abc!"));
+  }
+
+  // 测试用例2：保留带重音的单词并做大小写折叠
+  @Test
+  public void testAccentedWordsAreKept() {
+    UnicodeTokenizer tokenizer = new UnicodeTokenizer();
+    assertEquals(Arrays.asList("café", "straße", "été"),
+        tokenizer.tokenize("Café STRAßE Été"));
+  }
+
+  // 测试用例3：汉字逐字切分
+  @Test
+  public void testCjkCharacterMode() {
+    UnicodeTokenizer tokenizer = new UnicodeTokenizer(UnicodeTokenizer.CjkMode.CHARACTER);
+    assertEquals(Arrays.asList("独", "属", "于", "b", "的", "文", "件"),
+        tokenizer.tokenize("独属于b2的文件"));
+  }
+
+  // 测试用例4：汉字二元组切分，单字序列原样输出
+  @Test
+  public void testCjkBigramMode() {
+    UnicodeTokenizer tokenizer = new UnicodeTokenizer(UnicodeTokenizer.CjkMode.BIGRAM);
+    assertEquals(Arrays.asList("独属", "属于", "b", "的文", "文件", "在", "c"),
+        tokenizer.tokenize("独属于b2的文件，在C"));
+  }
+
+  // 测试用例5：增补平面字符跨越缓冲区边界
+  @Test
+  public void testSupplementaryCharactersAcrossBuffers() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 8191; i++) {
+      text.append(' ');
+    }
+    text.append("𠀀x");
+    assertEquals(Arrays.asList("𠀀", "x"),
+        new UnicodeTokenizer().tokenize(text));
+  }
+
+  // 测试用例6：不成对的代理项视为分隔符，包括跨越缓冲区边界时
+  @Test
+  public void testUnpairedSurrogatesSeparateWords() {
+    UnicodeTokenizer tokenizer = new UnicodeTokenizer();
+    assertEquals(Arrays.asList("ab", "cd"), tokenizer.tokenize("ab\uD800cd"));
+    assertEquals(Arrays.asList("ab", "cd"), tokenizer.tokenize("ab\uD800\uD800CD"));
+    assertEquals(Arrays.asList("ab", "cd"), tokenizer.tokenize("ab\uDC00cd"));
+    assertEquals(Arrays.asList("ab", "é"), tokenizer.tokenize("ab\uD800É"));
+    assertEquals(Arrays.asList("ab"), tokenizer.tokenize("ab\uD800"));
+
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 8190; i++) {
+      text.append(' ');
+    }
+    text.append("ab\uD800cd");
+    assertEquals(Arrays.asList("ab", "cd"), tokenizer.tokenize(text));
+  }
+
+  // 测试用例7：长单词跨越缓冲区边界，混合文本与旧正则实现结果一致
+  @Test
+  public void testLongWordsAndMixedText() {
+    StringBuilder longWord = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      longWord.append((char) ('A' + i % 26));
+    }
+    UnicodeTokenizer tokenizer = new UnicodeTokenizer();
+    assertEquals(Arrays.asList("x", longWord.toString().toLowerCase(), "y"),
+        tokenizer.tokenize("x " + longWord + " y"));
+
+    StringBuilder mixed = new StringBuilder();
+    String[] words = new CorpusGenerator(3, 500, CorpusGenerator.DEFAULT_EXPONENT)
+        .generate(20000).split(" ");
+    for (int i = 0; i < words.length; i++) {
+      String word = i % 7 == 0 ? words[i].toUpperCase() : words[i];
+      mixed.append(word).append(i % 5 == 0 ? ", " : i % 11 == 0 ? "42" : " ");
+    }
+    String legacy = mixed.toString().replaceAll("[^a-zA-Z]", " ").toLowerCase().trim();
+    assertEquals(Arrays.asList(legacy.split("\\s+")), tokenizer.tokenize(mixed));
+  }
+}
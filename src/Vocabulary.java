@@ -0,0 +1,100 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单词与紧凑整数编号之间的双向字典.
+ *
+ * <p>每个不同的单词只保存一个{@link String}实例，编号从0开始连续分配，
+ * 可以用{@code int}代替字符串保存词元序列。本类不是线程安全的。</p>
+ */
+public final class Vocabulary {
+
+  private final Map<String, Integer> ids = new HashMap<>();
+  private String[] words = new String[16];
+  private int size = 0;
+
+  /**
+   * 返回单词的编号，首次出现时分配新编号.
+   *
+   * @param word 单词
+   * @return 编号
+   */
+  public int intern(String word) {
+    Integer id = ids.get(word);
+    if (id != null) {
+      return id;
+    }
+    if (size == words.length) {
+      words = Arrays.copyOf(words, size * 2);
+    }
+    words[size] = word;
+    ids.put(word, size);
+    return size++;
+  }
+
+  /**
+   * 返回单词的编号，不存在时返回-1.
+   *
+   * @param word 单词
+   */
+  public int idOf(String word) {
+    Integer id = ids.get(word);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * 字典中是否包含该单词.
+   *
+   * @param word 单词
+   */
+  public boolean contains(String word) {
+    return ids.containsKey(word);
+  }
+
+  /**
+   * 返回编号对应的单词.
+   *
+   * @param id 编号
+   * @return 单词的唯一实例
+   */
+  public String word(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("id " + id + " out of range [0, " + size + ")");
+    }
+    return words[id];
+  }
+
+  /**
+   * 返回不同单词的数量.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * 字典是否为空.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * 按编号顺序返回所有单词的只读视图.
+   */
+  public List<String> words() {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        return word(index);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+}
@@ -0,0 +1,69 @@
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class VocabularyTest {
+
+  // 测试用例1：编号从0开始连续分配，重复的单词得到同一编号和同一实例
+  @Test
+  public void testInternRoundTrip() {
+    Vocabulary vocabulary = new Vocabulary();
+    assertTrue(vocabulary.isEmpty());
+    assertEquals(0, vocabulary.intern("the"));
+    assertEquals(1, vocabulary.intern("new"));
+    assertEquals(0, vocabulary.intern(new String("the")));
+    assertEquals(2, vocabulary.size());
+
+    assertEquals(1, vocabulary.idOf("new"));
+    assertEquals(-1, vocabulary.idOf("missing"));
+    assertTrue(vocabulary.contains("the"));
+    assertFalse(vocabulary.contains("missing"));
+    assertEquals("new", vocabulary.word(1));
+    assertSame(vocabulary.word(0), vocabulary.word(vocabulary.idOf(new String("the"))));
+    assertEquals(Arrays.asList("the", "new"), vocabulary.words());
+  }
+
+  // 测试用例2：超过初始容量后继续增长，编号与单词保持对应
+  @Test
+  public void testGrowth() {
+    Vocabulary vocabulary = new Vocabulary();
+    int count = 10000;
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, vocabulary.intern(CorpusGenerator.word(i)));
+    }
+    assertEquals(count, vocabulary.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(CorpusGenerator.word(i), vocabulary.word(i));
+      assertEquals(i, vocabulary.idOf(CorpusGenerator.word(i)));
+    }
+    List<String> words = vocabulary.words();
+    assertEquals(count, words.size());
+    assertEquals(CorpusGenerator.word(count - 1), words.get(count - 1));
+  }
+
+  // 测试用例3：越界的编号抛出异常，单词视图只读
+  @Test
+  public void testOutOfRange() {
+    Vocabulary vocabulary = new Vocabulary();
+    vocabulary.intern("only");
+    try {
+      vocabulary.word(1);
+      fail("expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // 预期的异常
+    }
+    try {
+      vocabulary.word(-1);
+      fail("expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // 预期的异常
+    }
+    try {
+      vocabulary.words().add("other");
+      fail("expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException expected) {
+      assertEquals(1, vocabulary.size());
+    }
+  }
+}
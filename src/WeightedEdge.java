@@ -0,0 +1,65 @@
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * 带权重的有向边.
+ */
+public final class WeightedEdge {
+
+  /** 权重从高到低、权重相同时按源单词和目标单词排列. */
+  public static final Comparator<WeightedEdge> BY_WEIGHT_DESCENDING =
+      Comparator.comparingInt(WeightedEdge::getWeight).reversed()
+          .thenComparing(WeightedEdge::getSource)
+          .thenComparing(WeightedEdge::getTarget);
+
+  private final String source;
+  private final String target;
+  private final int weight;
+
+  /**
+   * 创建一条边.
+   *
+   * @param source 源单词
+   * @param target 目标单词
+   * @param weight 权重(出现次数)
+   */
+  public WeightedEdge(String source, String target, int weight) {
+    this.source = source;
+    this.target = target;
+    this.weight = weight;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public String getTarget() {
+    return target;
+  }
+
+  public int getWeight() {
+    return weight;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof WeightedEdge)) {
+      return false;
+    }
+    WeightedEdge other = (WeightedEdge) o;
+    return weight == other.weight && source.equals(other.source) && target.equals(other.target);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(source, target, weight);
+  }
+
+  @Override
+  public String toString() {
+    return source + " -> " + target + " (" + weight + ")";
+  }
+}
@@ -0,0 +1,231 @@
+import java.util.Arrays;
+
+/**
+ * 以小写UTF-8字节序列为键的只读单词字典，查询时不创建中间字符串.
+ *
+ * <p>词表中的单词按编号依次编码到一个字节数组中，每个单词的散列值在构建时预先计算，
+ * 散列表是开放寻址的int数组，只保存编号。查询直接读取{@link CharSequence}的一段字符
+ * 或UTF-8字节切片，逐个码点做与{@link UnicodeTokenizer}相同的大小写折叠并编码，
+ * 再按散列值找到候选单词逐字节比较，整个过程不分配内存；
+ * 而{@code toLowerCase()}、{@code split}和以{@code String}为键的查找每次都会创建新对象。</p>
+ *
+ * <p>编号与构建时的{@link Vocabulary}相同，通过{@link Vocabulary#word(int)}取得单词的唯一实例，
+ * 其散列值已经缓存，再用它查找邻接表也不会分配内存。编码后的查询写入每个线程自己的缓冲区，
+ * 对象构建后不再修改，可以被多个线程同时查询。</p>
+ */
+public final class WordDictionary {
+
+  private static final int EMPTY = -1;
+  private static final int MAX_UTF8_BYTES = 4;  // 一个码点最多编码为4字节
+
+  // 第id个单词折叠后的UTF-8编码为bytes[starts[id], starts[id + 1])
+  private final byte[] bytes;
+  private final int[] starts;
+  private final int[] hashes;
+  // 槽位到编号的开放寻址表，长度为2的幂且至少是单词数的两倍
+  private final int[] table;
+  private final int maxLength;
+  private final ThreadLocal<byte[]> buffers;
+
+  /**
+   * 为词表中的单词建立字典.
+   *
+   * <p>折叠后相同的单词只保留编号最小的一个。</p>
+   *
+   * @param vocabulary 词表，之后新增的单词不会被收录
+   */
+  public WordDictionary(Vocabulary vocabulary) {
+    int n = vocabulary.size();
+    starts = new int[n + 1];
+    hashes = new int[n];
+    table = new int[Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1];
+    Arrays.fill(table, EMPTY);
+    byte[] encoded = new byte[64];
+    int longest = 0;
+    for (int id = 0; id < n; id++) {
+      String word = vocabulary.word(id);
+      int start = starts[id];
+      int capacity = start + word.length() * MAX_UTF8_BYTES;
+      if (capacity > encoded.length) {
+        encoded = Arrays.copyOf(encoded, Math.max(encoded.length * 2, capacity));
+      }
+      int end = encode(word, 0, word.length(), encoded, start, capacity);
+      starts[id + 1] = end;
+      hashes[id] = hash(encoded, start, end);
+      longest = Math.max(longest, end - start);
+      if (find(encoded, encoded, start, end, hashes[id]) == EMPTY) {
+        insert(id);
+      }
+    }
+    bytes = Arrays.copyOf(encoded, starts[n]);
+    maxLength = longest;
+    // 查询编码后超过最长的单词时即可判定不存在，缓冲区不必更大
+    buffers = ThreadLocal.withInitial(() -> new byte[maxLength]);
+  }
+
+  private void insert(int id) {
+    int mask = table.length - 1;
+    int slot = hashes[id] & mask;
+    while (table[slot] != EMPTY) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = id;
+  }
+
+  /**
+   * 在表中查找key[from, to)，单词的编码保存在pool中.
+   */
+  private int find(byte[] pool, byte[] key, int from, int to, int hash) {
+    int mask = table.length - 1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      int id = table[slot];
+      if (id == EMPTY) {
+        return EMPTY;
+      }
+      int start = starts[id];
+      int end = starts[id + 1];
+      if (hashes[id] == hash && Arrays.equals(pool, start, end, key, from, to)) {
+        return id;
+      }
+    }
+  }
+
+  /**
+   * 返回单词数.
+   */
+  public int size() {
+    return hashes.length;
+  }
+
+  /**
+   * 返回单词的编号，不存在时返回-1.
+   *
+   * @param word 单词，不区分大小写
+   */
+  public int idOf(CharSequence word) {
+    return idOf(word, 0, word.length());
+  }
+
+  /**
+   * 返回text[start, end)这段字符对应的单词编号，不存在时返回-1.
+   *
+   * @param text 文本
+   * @param start 起始下标(含)
+   * @param end 结束下标(不含)
+   */
+  public int idOf(CharSequence text, int start, int end) {
+    byte[] buffer = buffers.get();
+    int length = encode(text, start, end, buffer, 0, maxLength);
+    return length < 0 ? EMPTY : find(bytes, buffer, 0, length, hash(buffer, 0, length));
+  }
+
+  /**
+   * 返回UTF-8字节切片对应的单词编号，不存在时返回-1.
+   *
+   * <p>不合法的字节序列按U+FFFD处理。</p>
+   *
+   * @param utf8 UTF-8编码的文本
+   * @param offset 起始下标
+   * @param length 字节数
+   */
+  public int idOf(byte[] utf8, int offset, int length) {
+    byte[] buffer = buffers.get();
+    int end = offset + length;
+    int size = 0;
+    int i = offset;
+    while (i < end) {
+      int b = utf8[i];
+      int codePoint;
+      if (b >= 0) {
+        codePoint = b;
+        i++;
+      } else {
+        int count = (b & 0xE0) == 0xC0 ? 2 : (b & 0xF0) == 0xE0 ? 3 : (b & 0xF8) == 0xF0 ? 4 : 0;
+        codePoint = count == 0 ? 0xFFFD : b & (0x7F >> count);
+        int k = 1;
+        for (; k < count && i + k < end && (utf8[i + k] & 0xC0) == 0x80; k++) {
+          codePoint = codePoint << 6 | utf8[i + k] & 0x3F;
+        }
+        if (k < count || count == 0) {
+          codePoint = 0xFFFD;
+          k = Math.max(k, 1);
+        }
+        i += k;
+      }
+      size = append(fold(codePoint), buffer, size, maxLength);
+      if (size < 0) {
+        return EMPTY;
+      }
+    }
+    return find(bytes, buffer, 0, size, hash(buffer, 0, size));
+  }
+
+  /**
+   * 与{@link UnicodeTokenizer}相同的大小写折叠.
+   */
+  private static int fold(int codePoint) {
+    if (codePoint < 0x80) {
+      return codePoint >= 'A' && codePoint <= 'Z' ? codePoint + ('a' - 'A') : codePoint;
+    }
+    return Character.toLowerCase(Character.toUpperCase(codePoint));
+  }
+
+  /**
+   * 把text[start, end)折叠后编码到out[pos, limit)，返回结束位置，超出limit时返回-1.
+   */
+  private static int encode(CharSequence text, int start, int end, byte[] out, int pos,
+                            int limit) {
+    int i = start;
+    while (i < end) {
+      char c = text.charAt(i);
+      int codePoint = c;
+      if (Character.isHighSurrogate(c) && i + 1 < end
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+      }
+      i += Character.charCount(codePoint);
+      pos = append(fold(codePoint), out, pos, limit);
+      if (pos < 0) {
+        return -1;
+      }
+    }
+    return pos;
+  }
+
+  /**
+   * 把码点的UTF-8编码写到out[pos]，返回结束位置，超出limit时返回-1.
+   */
+  private static int append(int codePoint, byte[] out, int pos, int limit) {
+    if (codePoint < 0x80) {
+      if (pos >= limit) {
+        return -1;
+      }
+      out[pos] = (byte) codePoint;
+      return pos + 1;
+    }
+    int count = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    if (pos + count > limit) {
+      return -1;
+    }
+    for (int k = count - 1; k > 0; k--) {
+      out[pos + k] = (byte) (0x80 | codePoint & 0x3F);
+      codePoint >>>= 6;
+    }
+    out[pos] = (byte) ((0xF00 >> count) | codePoint);  // 首字节的高位为count个1
+    return pos + count;
+  }
+
+  /**
+   * FNV-1a散列，再用MurmurHash3的终结步骤打散低位.
+   */
+  private static int hash(byte[] key, int from, int to) {
+    int h = 0x811C9DC5;
+    for (int i = from; i < to; i++) {
+      h = (h ^ (key[i] & 0xFF)) * 0x01000193;
+    }
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    return h;
+  }
+}
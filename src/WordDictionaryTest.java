@@ -0,0 +1,86 @@
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class WordDictionaryTest {
+
+  private static Vocabulary vocabulary(String... words) {
+    Vocabulary vocabulary = new Vocabulary();
+    for (String word : words) {
+      vocabulary.intern(word);
+    }
+    return vocabulary;
+  }
+
+  // 测试用例1：按字符序列、字符区间和UTF-8字节切片查找，不区分大小写
+  @Test
+  public void testLookup() {
+    Vocabulary vocabulary = vocabulary("the", "café", "数据", "😀x", "new");
+    WordDictionary dictionary = new WordDictionary(vocabulary);
+
+    assertEquals(5, dictionary.size());
+    for (int id = 0; id < vocabulary.size(); id++) {
+      String word = vocabulary.word(id);
+      assertEquals(id, dictionary.idOf(word));
+      assertEquals(id, dictionary.idOf(word.toUpperCase()));
+      byte[] utf8 = ("  " + word + " ").getBytes(StandardCharsets.UTF_8);
+      assertEquals(id, dictionary.idOf(utf8, 2, utf8.length - 3));
+    }
+    assertEquals(1, dictionary.idOf(new StringBuilder("CAFÉ")));
+    assertEquals(4, dictionary.idOf("a New day", 2, 5));
+    assertEquals(-1, dictionary.idOf("a New day", 2, 4));
+    assertEquals(-1, dictionary.idOf("them"));
+    assertEquals(-1, dictionary.idOf("a much longer word than any other"));
+    assertEquals(-1, dictionary.idOf(""));
+    assertEquals(-1, dictionary.idOf(new byte[] {(byte) 0xC3}, 0, 1));
+  }
+
+  // 测试用例2：WordGraph的查询结果与转为小写后按字符串查找相同
+  @Test
+  public void testWordGraphQueries() {
+    WordGraph graph = new WordGraph();
+    graph.processText("To explore strange new worlds, to seek out new life and new civilizations");
+    assertEquals("strange", graph.showBridgeWords("EXPLORE", "New"));
+    assertEquals("err1", graph.showBridgeWords("missing", "new"));
+    assertEquals("err2", graph.showBridgeWords("new", "missing"));
+    assertEquals("explore strange new", graph.generateNewText("Explore NEW"));
+    assertEquals("explore strange new", graph.generateNewText("Explore NEW", 3));
+    assertEquals("unknown words", graph.generateNewText("Unknown WORDS"));
+    assertEquals(" to explore", graph.generateNewText("  TO\texplore "));
+    assertEquals("", graph.generateNewText(""));
+    assertEquals("", graph.generateNewText(" \t "));
+    assertEquals("explore strange new çafé", graph.generateNewText("explore new ÇAFÉ", 4));
+    assertEquals(graph.calPageRank("new"), graph.calPageRank("NEW"), 1e-4);
+    assertEquals(0.0, graph.calPageRank("missing"), 0.0);
+    assertTrue(graph.calPageRank("new") > 0);
+  }
+
+  // 测试用例3：查找已知和未知单词都不分配内存
+  @Test
+  public void testLookupDoesNotAllocate() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    WordDictionary dictionary = new WordDictionary(vocabulary("alpha", "beta", "gamma"));
+    String text = "Alpha BETA delta gamma";
+    byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+    int found = 0;
+    for (int i = 0; i < 1000; i++) {
+      found += dictionary.idOf(text, 0, 5) + dictionary.idOf(utf8, 6, 4);  // 预热
+    }
+    long before = threads.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < 100_000; i++) {
+      found += dictionary.idOf(text, 0, 5) + dictionary.idOf(text, 11, 16)
+          + dictionary.idOf(utf8, 17, 5) + dictionary.idOf(utf8, 6, 4);
+    }
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+    assertEquals(1000 * 1 + 100_000 * (0 - 1 + 2 + 1), found);
+    // 只允许与查找次数无关的少量分配
+    assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+  }
+}
@@ -0,0 +1,1047 @@
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 由文本构建的加权有向词图及其上的全部查询算法.
+ *
+ * <p>本类不依赖任何Swing组件，可在无图形环境(测试、基准测试、服务端)中直接使用；
+ * {@link GraphGui}只负责界面交互并将各项功能委托给本类。</p>
+ *
+ * <p>图以邻接表表示：键为源单词，值为其后继单词到出现次数(边权重)的映射。
+ * 每次重新构建图时{@link #getVersion()}递增，可用于缓存失效判断。</p>
+ *
+ * <p>加载的文本不以字符串列表保存：不同单词收录在{@link Vocabulary}中，
+ * 词元序列只以{@code int}编号保存在{@link TokenIdStream}里，用于重新构建图。</p>
+ */
+public class WordGraph {
+
+  // 构建时为HashMap；移到堆外后为OffHeapGraph的只读视图，重新构建时恢复为HashMap
+  private Map<String, Map<String, Integer>> graph = new HashMap<>();
+  private OffHeapGraph offHeapGraph = null;
+  // 每个不同单词只保存一份，词元序列以编号形式保存
+  private Vocabulary vocabulary = new Vocabulary();
+  // 由CorpusLoader装入时不保留词元序列，此时为null
+  private TokenIdStream tokens = new TokenIdStream();
+  private long version = 0;
+  // 所有对象共用的版本计数器，使版本号在对象之间也唯一
+  private static final AtomicLong VERSIONS = new AtomicLong();
+  private long edgeCount = 0;
+  private long tokenCount = 0;
+  // 非null时使用Count-Min Sketch近似构建，只保留高频边
+  private SketchGraphBuilder sketchBuilder = null;
+  private long maxWeightOverestimate = 0;
+  private Tokenizer tokenizer = new UnicodeTokenizer();
+  private ReachabilityIndex reachability = ReachabilityIndex.build(Collections.emptyMap());
+  // 按需构建的N元语法模型及其对应的图版本号
+  private NGramModel nGramModel = null;
+  private long nGramVersion = -1;
+  // 按需构建的批量桥接词索引及其对应的图版本号
+  private BridgeBatch bridgeBatch = null;
+  private long bridgeBatchVersion = -1;
+  // 按需构建的个性化PageRank索引及其对应的图版本号
+  private PersonalizedPageRank personalizedPageRank = null;
+  private long personalizedPageRankVersion = -1;
+  // 按需构建的字节键字典及其对应的图版本号，用于查询时不分配内存地查找单词
+  private WordDictionary wordDictionary = null;
+  private long wordDictionaryVersion = -1;
+  // ProgressiveLoader在加载过程中发布的快照只包含已读入的部分文本
+  private boolean partial = false;
+  private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+  // 单词数达到该值时所有目标的最短路径改用DeltaStepping
+  private static final int DELTA_STEPPING_MIN_VERTICES = 10_000;
+  private static final OperationMetrics METRICS = OperationMetrics.global();
+
+  /**
+   * 返回有向图的只读视图.
+   */
+  public Map<String, Map<String, Integer>> getGraph() {
+    return Collections.unmodifiableMap(graph);
+  }
+
+  /**
+   * 返回已处理的单词(词元)总数.
+   */
+  public int getWordCount() {
+    return (int) Math.min(tokenCount, Integer.MAX_VALUE);
+  }
+
+  /**
+   * 返回词元总数的完整值.
+   *
+   * <p>多文件语料的词元数可能超出{@link #getWordCount()}的int范围，保存快照时使用本方法。</p>
+   */
+  long getTokenCount() {
+    return tokenCount;
+  }
+
+  /**
+   * 返回已加载文本的词表.
+   */
+  public Vocabulary getVocabulary() {
+    return vocabulary;
+  }
+
+  /**
+   * 返回已加载文本的词元编号序列，编号对应{@link #getVocabulary()}.
+   *
+   * @return 词元序列，通过{@link CorpusLoader}装入时不保留序列，返回null
+   */
+  public TokenIdStream getTokenStream() {
+    return tokens;
+  }
+
+  /**
+   * 返回图中不同边的数量.
+   */
+  public long getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * 是否为加载过程中的部分快照，见{@link ProgressiveLoader}.
+   *
+   * <p>部分快照上的查询结果只反映已读入的文本，加载完成后的图不是部分快照。</p>
+   */
+  public boolean isPartial() {
+    return partial;
+  }
+
+  void markPartial() {
+    partial = true;
+  }
+
+  /**
+   * 返回图的版本号，每次重新构建图时递增.
+   *
+   * <p>版本号取自全局计数器，不同对象构建出的图版本号也不相同(尚未构建的空图均为0)，
+   * 因此可以单独作为缓存键。</p>
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * 图中是否没有任何边.
+   */
+  public boolean isEmpty() {
+    return graph.isEmpty();
+  }
+
+  /**
+   * 清空已加载的单词和图.
+   */
+  public void clear() {
+    vocabulary = new Vocabulary();
+    tokens = new TokenIdStream();
+    // 按版本缓存的索引不会再被使用，及早释放
+    nGramModel = null;
+    bridgeBatch = null;
+    personalizedPageRank = null;
+    wordDictionary = null;
+    buildDirectedWeightedGraph();
+  }
+
+  /**
+   * 用快照中的数据替换当前内容，供{@link GraphWorkspace}重新载入被换出的图，
+   * 以及{@link ProgressiveLoader}装入边读边建的图.
+   *
+   * @param restored 邻接表，所有权转移给本对象
+   * @param vocabulary 词表
+   * @param tokens 词元序列，没有保留序列时为null
+   * @param tokenCount 词元总数
+   * @param maxWeightOverestimate 近似构建时的权重高估上界
+   */
+  void restore(Map<String, Map<String, Integer>> restored, Vocabulary vocabulary,
+               TokenIdStream tokens, long tokenCount, long maxWeightOverestimate) {
+    graph = restored;
+    offHeapGraph = null;
+    edgeCount = 0;
+    for (Map<String, Integer> edges : graph.values()) {
+      edgeCount += edges.size();
+    }
+    this.vocabulary = vocabulary;
+    this.tokens = tokens;
+    this.tokenCount = tokenCount;
+    this.maxWeightOverestimate = maxWeightOverestimate;
+    version = VERSIONS.incrementAndGet();
+    reachability = ReachabilityIndex.build(graph);
+  }
+
+  /**
+   * 装入外部合并好的图，替换当前内容.
+   *
+   * <p>供{@link CorpusLoader}使用：多文件加载不保留完整的词元序列，只保留词表，
+   * 因此之后调用{@link #buildDirectedWeightedGraph()}不会重新统计，只会使版本号递增。</p>
+   *
+   * @param merged 合并后的邻接表，所有权转移给本对象
+   * @param vocabulary 出现过的全部单词
+   * @param tokens 词元总数
+   */
+  public void installCorpus(Map<String, Map<String, Integer>> merged,
+                            Set<String> vocabulary, long tokens) {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.BUILD)) {
+      graph = new HashMap<>(merged);
+      offHeapGraph = null;
+      edgeCount = 0;
+      for (Map<String, Integer> edges : graph.values()) {
+        edgeCount += edges.size();
+      }
+      this.vocabulary = new Vocabulary();
+      for (String word : vocabulary) {
+        this.vocabulary.intern(word);
+      }
+      this.tokens = null;
+      tokenCount = tokens;
+      maxWeightOverestimate = 0;
+      version = VERSIONS.incrementAndGet();
+      reachability = ReachabilityIndex.build(graph);
+      timer.tokens(tokens).vertices(graph.size()).edges(edgeCount);
+    }
+  }
+
+  /**
+   * 处理文本文件，按当前分词器切分单词并构建有向图.
+   *
+   * <p>扩展名为.gz等已注册压缩格式的文件会在后台线程中流式解压，见{@link CompressionCodecs}。</p>
+   *
+   * @param filePath 文件路径
+   */
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+  public void processTextFile(String filePath) throws IOException {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.LOAD)) {
+      Vocabulary loadedVocabulary = new Vocabulary();
+      TokenIdStream loadedTokens = new TokenIdStream();
+      // 流式读取并分词，不再把整个文件拼接到内存中
+      try (BufferedReader reader = CompressionCodecs.newReader(Paths.get(filePath))) {
+        tokenizer.tokenize(reader, word -> loadedTokens.add(loadedVocabulary.intern(word)));
+      }
+      loadedTokens.trimToSize();
+      vocabulary = loadedVocabulary;
+      tokens = loadedTokens;
+      buildDirectedWeightedGraph();
+      timer.tokens(tokenCount).vertices(graph.size()).edges(edgeCount);
+    }
+  }
+
+  /**
+   * 处理文本内容：按当前分词器切分单词(统一折叠为小写)，并构建有向图.
+   *
+   * @param content 文本内容
+   */
+  public void processText(String content) {
+    Vocabulary loadedVocabulary = new Vocabulary();
+    TokenIdStream loadedTokens = new TokenIdStream();
+    tokenizer.tokenize(content, word -> loadedTokens.add(loadedVocabulary.intern(word)));
+    loadedTokens.trimToSize();
+    vocabulary = loadedVocabulary;
+    tokens = loadedTokens;
+    buildDirectedWeightedGraph();
+  }
+
+  /**
+   * 返回当前使用的分词器.
+   */
+  public Tokenizer getTokenizer() {
+    return tokenizer;
+  }
+
+  /**
+   * 设置加载文本时使用的分词器，对之后加载的文本生效.
+   *
+   * @param tokenizer 分词器
+   */
+  public void setTokenizer(Tokenizer tokenizer) {
+    this.tokenizer = tokenizer;
+  }
+
+  /**
+   * 设置构建图的方式，对之后的构建生效.
+   *
+   * @param sketchBuilder 近似构建器，为null时精确统计所有二元组
+   * @see SketchGraphBuilder 近似构建的误差界
+   */
+  public void setSketchGraphBuilder(SketchGraphBuilder sketchBuilder) {
+    this.sketchBuilder = sketchBuilder;
+  }
+
+  /**
+   * 返回近似构建器，精确构建时返回null.
+   */
+  public SketchGraphBuilder getSketchGraphBuilder() {
+    return sketchBuilder;
+  }
+
+  /**
+   * 返回当前图中边权重相对真实次数的最大高估量，精确构建时为0.
+   *
+   * <p>近似构建时该上界以至少1-δ的概率对每条边成立，见{@link SketchGraphBuilder}。</p>
+   */
+  public long getMaxWeightOverestimate() {
+    return maxWeightOverestimate;
+  }
+
+  /**
+   * 构建加权有向图.
+   */
+  public void buildDirectedWeightedGraph() {
+    if (tokens == null) {
+      version = VERSIONS.incrementAndGet();  // 多文件语料没有可重放的词元序列，保留已装入的图
+      return;
+    }
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.BUILD)) {
+      graph = new HashMap<>();
+      offHeapGraph = null;
+      tokenCount = tokens.size();
+      edgeCount = 0;
+      version = VERSIONS.incrementAndGet();
+
+      if (sketchBuilder != null) {
+        SketchGraphBuilder.Result result = sketchBuilder.build(tokens, vocabulary);
+        graph.putAll(result.getGraph());
+        edgeCount = result.getEdgeCount();
+        maxWeightOverestimate = result.getMaxOverestimate();
+        reachability = ReachabilityIndex.build(graph);
+        timer.tokens(tokenCount).vertices(graph.size()).edges(edgeCount);
+        return;
+      }
+      maxWeightOverestimate = 0;
+
+      // 按源单词编号直接找到出边表，省去每个词元一次的散列查找
+      @SuppressWarnings({"unchecked", "rawtypes"})
+      Map<String, Integer>[] adjacency = new Map[vocabulary.size()];
+      for (int i = 0; i < tokens.size() - 1; i++) {
+        int current = tokens.get(i);
+        String next = vocabulary.word(tokens.get(i + 1));
+
+        // 更新或创建边及其权重
+        Map<String, Integer> edges = adjacency[current];
+        if (edges == null) {
+          edges = new HashMap<>();
+          adjacency[current] = edges;
+          graph.put(vocabulary.word(current), edges);
+        }
+        // 与原实现一样用put追加新的邻居：merge把新键插在桶的头部，会改变邻接表的遍历顺序，
+        // 而等长的最短路径按这个顺序列出和编号
+        if (edges.put(next, edges.getOrDefault(next, 0) + 1) == null) {
+          edgeCount++;
+        }
+      }
+      reachability = ReachabilityIndex.build(graph);
+      timer.tokens(tokenCount).vertices(graph.size()).edges(edgeCount);
+    }
+  }
+
+  /**
+   * 把当前图复制到堆外内存，之后的查询都在堆外副本上执行.
+   *
+   * <p>堆上的邻接表随即被释放，适合一次构建、多次查询的大图；
+   * 重新构建或装入语料时图会回到堆上。</p>
+   *
+   * @param mappedFile 映射文件，为null时使用直接缓冲区
+   */
+  public void moveGraphOffHeap(Path mappedFile) throws IOException {
+    OffHeapGraph copy = mappedFile == null
+        ? OffHeapGraph.create(graph) : OffHeapGraph.create(graph, mappedFile);
+    offHeapGraph = copy;
+    graph = copy.asMap();
+  }
+
+  /**
+   * 返回图的堆外副本，图在堆上时返回null.
+   */
+  public OffHeapGraph getOffHeapGraph() {
+    return offHeapGraph;
+  }
+
+  /**
+   * 返回加载时构建的可达性索引.
+   */
+  public ReachabilityIndex getReachabilityIndex() {
+    return reachability;
+  }
+
+  /**
+   * 要求函数2：查询桥接词.
+   *
+   * @param word1 带查询的词语1
+   * @param word2 带查询的词语2
+   * @return bridgeWords 形如桥接词1, 桥接词2, ... 的桥接词列表
+   */
+  public String showBridgeWords(String word1, String word2) {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.BRIDGE)) {
+      timer.vertices(graph.size());
+      // 在字典中按小写形式查找，得到词表中的实例，不创建小写副本
+      WordDictionary dictionary = getWordDictionary();
+      int id1 = dictionary.idOf(word1);
+      if (id1 < 0) {
+        return "err1";
+      }
+      int id2 = dictionary.idOf(word2);
+      if (id2 < 0) {
+        return "err2";
+      }
+      // 两个单词都已确认在词表中
+      return GraphQueries.bridgeWords(graph, word -> true, vocabulary.word(id1),
+          vocabulary.word(id2));
+    }
+  }
+
+  /**
+   * 返回以小写字节序列为键的单词字典，同一版本的图只构建一次.
+   *
+   * <p>字典的编号与{@link #getVocabulary()}相同，查询时不创建字符串。</p>
+   */
+  public WordDictionary getWordDictionary() {
+    if (wordDictionary == null || wordDictionaryVersion != version) {
+      wordDictionary = new WordDictionary(vocabulary);
+      wordDictionaryVersion = version;
+    }
+    return wordDictionary;
+  }
+
+  /**
+   * 返回from之后第一个不是空白的下标，空白与正则表达式{@code \s}相同.
+   */
+  private static int skipSpaces(CharSequence text, int from) {
+    int length = text.length();
+    while (from < length && isSplitSpace(text.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+
+  /**
+   * 返回from之后第一个空白的下标，没有空白时返回文本长度.
+   */
+  private static int wordEnd(CharSequence text, int from) {
+    int length = text.length();
+    while (from < length && !isSplitSpace(text.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+
+  /**
+   * 是否为正则表达式{@code \s}匹配的空白字符.
+   */
+  private static boolean isSplitSpace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+  }
+
+  /**
+   * 把输入文本中的一个单词以小写追加到输出.
+   *
+   * @param known 单词在词表中的实例，词表外的单词为null，此时逐个码点转为小写
+   */
+  private static void appendWord(StringBuilder out, String known, CharSequence text,
+      int start, int end) {
+    if (known != null) {
+      out.append(known);
+      return;
+    }
+    for (int i = start; i < end; ) {
+      int codePoint = Character.codePointAt(text, i);
+      out.appendCodePoint(Character.toLowerCase(codePoint));
+      i += Character.charCount(codePoint);
+    }
+  }
+
+  /**
+   * 返回批量查询桥接词的索引，同一版本的图只构建一次.
+   *
+   * <p>适合一次查询大量单词对，结果与{@link #showBridgeWords(String, String)}相同，
+   * 但以{@link BridgeBatch.Status}和单词列表表示。</p>
+   */
+  public BridgeBatch getBridgeBatch() {
+    if (bridgeBatch == null || bridgeBatchVersion != version) {
+      bridgeBatch = new BridgeBatch(graph, vocabulary);
+      bridgeBatchVersion = version;
+    }
+    return bridgeBatch;
+  }
+
+  /**
+   * 要求函数3：根据桥接词生成新文本.
+   *
+   * @param inputText 输入文本
+   * @return 输入文本和输出文本拼接结果
+   */
+  public String generateNewText(String inputText) {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.GENERATE)) {
+      timer.vertices(graph.size());
+      WordDictionary dictionary = getWordDictionary();
+      StringBuilder result = new StringBuilder(inputText.length() + 16);
+      // 切分方式与split("\\s+")相同：开头的空白产生一个空单词，末尾的空白被忽略；
+      // 单词以字符区间在字典中查找，不创建中间字符串
+      int length = inputText.length();
+      int start = 0;
+      int end = wordEnd(inputText, 0);
+      String previous = null;
+      int count = 0;
+      while (true) {
+        int id = dictionary.idOf(inputText, start, end);
+        String word = id >= 0 ? vocabulary.word(id) : null;
+        if (count > 0) {
+          if (previous != null && word != null
+              && graph.containsKey(previous) && graph.containsKey(word)) {
+            Set<String> bridgeWords = new HashSet<>();
+            Map<String, Integer> neighbors1 = graph.get(previous);
+
+            for (String neighbor : neighbors1.keySet()) {
+              if (graph.containsKey(neighbor) && graph.get(neighbor).containsKey(word)) {
+                bridgeWords.add(neighbor);
+              }
+            }
+
+            if (!bridgeWords.isEmpty()) {
+              // 随机选择桥接词
+              String[] bridges = bridgeWords.toArray(new String[0]);
+
+              int randomIndex = SECURE_RANDOM.nextInt(bridges.length);
+              String selected = bridges[randomIndex];
+
+              result.append(' ').append(selected);
+            }
+          }
+          result.append(' ');
+        }
+        appendWord(result, word, inputText, start, end);
+        previous = word;
+        count++;
+        start = skipSpaces(inputText, end);
+        if (start == length) {
+          break;
+        }
+        end = wordEnd(inputText, start);
+      }
+      timer.tokens(count);
+      return result.toString();
+    }
+  }
+
+  /**
+   * 返回由词元序列统计的N元语法模型，同一版本的图只构建一次.
+   *
+   * @param order 最大阶数
+   * @return 模型，没有保留词元序列时返回null
+   */
+  public NGramModel getNGramModel(int order) {
+    if (tokens == null) {
+      return null;
+    }
+    if (nGramModel == null || nGramVersion != version || nGramModel.getOrder() != order) {
+      nGramModel = NGramModel.build(tokens, vocabulary, order);
+      nGramVersion = version;
+    }
+    return nGramModel;
+  }
+
+  /**
+   * 根据桥接词生成新文本，桥接词的选择考虑更长的上下文.
+   *
+   * <p>order为2时与{@link #generateNewText(String)}相同；更高阶时在相邻两个单词之间
+   * 插入的桥接词要求与前面最多order-3个已生成单词一起在原文中连续出现，
+   * 按出现次数加权选择，找不到时逐步缩短上下文。没有词元序列时退回二元桥接词。</p>
+   *
+   * @param inputText 输入文本
+   * @param order N元语法的阶数，至少为2
+   * @return 输入文本和输出文本拼接结果
+   */
+  public String generateNewText(String inputText, int order) {
+    if (order < 2) {
+      throw new IllegalArgumentException("order must be at least 2: " + order);
+    }
+    NGramModel model = order > 2 ? getNGramModel(order) : null;
+    if (model == null) {
+      return generateNewText(inputText);
+    }
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.GENERATE)) {
+      timer.vertices(graph.size());
+      WordDictionary dictionary = getWordDictionary();
+      StringBuilder result = new StringBuilder(inputText.length() + 16);
+      // 桥接词只看前面最多order-3个已生成单词，按顺序存放在context末尾，
+      // 前面不足的位置和词表外的单词为null
+      String[] context = new String[order - 3];
+      int length = inputText.length();
+      int start = 0;
+      int end = wordEnd(inputText, 0);
+      String previous = null;
+      int count = 0;
+      while (true) {
+        int id = dictionary.idOf(inputText, start, end);
+        String word = id >= 0 ? vocabulary.word(id) : null;
+        if (count > 0) {
+          String bridge = previous != null && word != null
+              ? model.bridge(context, previous, word, SECURE_RANDOM) : null;
+          shiftIn(context, previous);
+          if (bridge != null) {
+            result.append(' ').append(bridge);
+            shiftIn(context, bridge);
+          }
+          result.append(' ');
+        }
+        appendWord(result, word, inputText, start, end);
+        previous = word;
+        count++;
+        start = skipSpaces(inputText, end);
+        if (start == length) {
+          break;
+        }
+        end = wordEnd(inputText, start);
+      }
+      timer.tokens(count);
+      return result.toString();
+    }
+  }
+
+  /**
+   * 把word追加到window末尾，丢弃最前面的单词.
+   */
+  private static void shiftIn(String[] window, String word) {
+    if (window.length > 0) {
+      System.arraycopy(window, 1, window, 0, window.length - 1);
+      window[window.length - 1] = word;
+    }
+  }
+
+  /**
+   * 要求函数4：计算最短路径.
+   *
+   * @param word1 用于查找最短路径的词1
+   * @param word2 用于查找最短路径的词2（如果为空，则计算word1到所有其他单词的最短路径）
+   * @return 最短路径，可以直接用于输出
+   */
+  public String calcShortestPath(String word1, String word2) {
+    boolean findAllPaths = word2 == null || word2.trim().isEmpty();
+    if (findAllPaths) {
+      // 输出从word1到所有其他可达单词的最短路径
+      StringWriter writer = new StringWriter();
+      try {
+        String error = streamShortestPaths(word1, new TextPathSink(writer));
+        return error != null ? error : writer.toString();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);  // StringWriter不会抛出IOException
+      }
+    }
+
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.PATH)) {
+      Set<String> allNodesInGraph = collectPathNodes();
+      timer.vertices(allNodesInGraph.size()).edges(edgeCount);
+      String error = validatePathWords(allNodesInGraph, word1, word2);
+      if (error != null) {
+        return error;
+      }
+      // 可达性索引以O(1)排除大部分不可达的单词对
+      if (!reachability.mayReach(word1, word2)) {
+        return "No path from \"" + word1 + "\" to \"" + word2 + "\"!";
+      }
+      // 搜索本身不剪枝：距离相同的节点的出队顺序取决于堆中的全部节点，
+      // 跳过到不了终点的节点会改变等长路径的列出顺序
+      ShortestPaths.Result paths = ShortestPaths.dijkstra(graph, allNodesInGraph, word1, word2);
+
+      // 输出到特定word2的路径
+      StringBuilder resultBuilder = new StringBuilder();
+      Integer targetDistance = paths.getDistances().get(word2);
+      if (targetDistance == Integer.MAX_VALUE) {
+        return "No path from \"" + word1 + "\" to \"" + word2 + "\"!";
+      }
+      if (word1.equals(word2)) {
+        // 处理起点和终点相同的情况
+        resultBuilder.append("Shortest path from \"").append(word1).append("\" to itself:\n");
+        resultBuilder.append("Distance: 0\n\nPath 1: ").append(word1).append("\n");
+      } else {
+        // 输出到word2的路径信息
+        resultBuilder.append("Shortest path from \"").append(word1).append("\" to \"")
+            .append(word2).append("\":\n");
+        resultBuilder.append("Distance: ").append(targetDistance).append("\n\n");
+        // 输出所有最短路径
+        try {
+          int pathCount = ShortestPaths.forEachPath(paths.getPredecessors(), word1, word2,
+              (index, path) -> {
+                resultBuilder.append("Path ").append(index).append(": ")
+                    .append(String.join(" -> ", path)).append("\n");
+                return true;
+              });
+          timer.paths(pathCount);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      return resultBuilder.toString();
+    }
+  }
+
+  /**
+   * 计算word1到所有可达单词的最短路径，并按目标逐个推送给接收器.
+   *
+   * <p>目标按距离和字母顺序输出，每条等长最短路径产生时立即回调，
+   * 不会在内存中拼接完整结果，适合将大图的结果直接写入文件。</p>
+   *
+   * @param word1 起点单词
+   * @param sink 结果接收器
+   * @return 起点不在图中等错误的提示信息，成功时返回null
+   * @throws IOException 接收器写出失败时抛出
+   */
+  public String streamShortestPaths(String word1, ShortestPathSink sink) throws IOException {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.PATH)) {
+      Set<String> allNodesInGraph = collectPathNodes();
+      timer.vertices(allNodesInGraph.size()).edges(edgeCount);
+      String error = validatePathWords(allNodesInGraph, word1, null);
+      if (error != null) {
+        return error;
+      }
+      // 大图用并行的Δ-stepping；小图保持Dijkstra，等长路径的输出顺序与以往相同
+      ShortestPaths.Result paths = allNodesInGraph.size() >= DELTA_STEPPING_MIN_VERTICES
+          ? DeltaStepping.shortestPaths(graph, allNodesInGraph, word1)
+          : ShortestPaths.dijkstra(graph, allNodesInGraph, word1, null);
+
+      // 收集所有可达目标(排除起点自身和不可达节点)，按距离和单词字母顺序排序
+      List<Map.Entry<String, Integer>> sortedTargets = new ArrayList<>();
+      for (Map.Entry<String, Integer> entry : paths.getDistances().entrySet()) {
+        if (!entry.getKey().equals(word1) && entry.getValue() != Integer.MAX_VALUE) {
+          sortedTargets.add(entry);
+        }
+      }
+      sortedTargets.sort((e1, e2) -> {
+        int distComp = e1.getValue().compareTo(e2.getValue());
+        return (distComp != 0) ? distComp : e1.getKey().compareTo(e2.getKey());
+      });
+
+      sink.begin(word1);
+      long pathCount = 0;
+      for (Map.Entry<String, Integer> entry : sortedTargets) {
+        if (sink.isFull()) {
+          break;
+        }
+        String target = entry.getKey();
+        sink.beginTarget(target, entry.getValue());
+        pathCount += ShortestPaths.forEachPath(paths.getPredecessors(), word1, target,
+            (index, path) -> {
+              sink.path(index, path);
+              return !sink.isFull();
+            });
+        sink.endTarget(target);
+      }
+      timer.paths(pathCount);
+      sink.end(word1, sortedTargets.size());
+      return null;
+    }
+  }
+
+  /**
+   * 确定最短路径计算需要考虑的所有节点集合.
+   */
+  private Set<String> collectPathNodes() {
+    // 包括有边的节点和可能来自输入文本的孤立单词
+    Set<String> allNodesInGraph = new HashSet<>();
+    if (!graph.isEmpty()) {
+      allNodesInGraph.addAll(graph.keySet()); // Nodes with outgoing edges
+      for (Map<String, Integer> neighborMap : graph.values()) {
+        allNodesInGraph.addAll(neighborMap.keySet()); // Nodes with incoming edges
+      }
+    }
+
+    // 如果图(边结构)为空但文件中有加载单词
+    // 将所有唯一单词视为(孤立的)节点
+    if (allNodesInGraph.isEmpty() && !vocabulary.isEmpty()) {
+      allNodesInGraph.addAll(vocabulary.words());
+    }
+    return allNodesInGraph;
+  }
+
+  /**
+   * 验证最短路径查询的单词，返回错误信息或null.
+   */
+  private static String validatePathWords(Set<String> allNodesInGraph, String word1,
+                                          String word2) {
+    if (allNodesInGraph.isEmpty()) {
+      return "The graph is effectively empty. No words to calculate paths for.";
+    }
+    if (!allNodesInGraph.contains(word1)) {
+      return "Word \"" + word1 + "\" not in the graph!";
+    }
+    if (word2 != null && !allNodesInGraph.contains(word2)) {
+      return "Word \"" + word2 + "\" not in the graph!";
+    }
+    return null;
+  }
+
+  /**
+   * 要求函数5：计算单词的PageRank值，计算全部节点.
+   *
+   * @param word 要查询的单词
+   * @return 该单词的PageRank值
+   */
+  public Double calPageRank(String word) {
+    // 图中的单词都在词表中，不在词表中的单词不必收集图中的节点
+    int id = getWordDictionary().idOf(word);
+    if (id < 0) {
+      return 0.0;
+    }
+    word = vocabulary.word(id);
+
+    // 检查要查询的词是否存在于图中，收集到的节点集合直接用于计算
+    Set<String> allNodes = collectGraphNodes();
+    if (!allNodes.contains(word)) {
+      return 0.0; // 单词不在图中
+    }
+    return computePageRanks(allNodes).getOrDefault(word, 0.0);
+  }
+
+  /**
+   * 计算图中所有节点的PageRank值.
+   *
+   * <p>先用随机游走的访问频率作为初始值，再进行最多100轮幂迭代，结果归一化为总和1。</p>
+   *
+   * @return 单词到PageRank值的映射，图为空时返回空映射
+   */
+  public Map<String, Double> computePageRanks() {
+    // 首先收集图中所有节点，包括只作为目标节点的节点
+    return computePageRanks(collectGraphNodes());
+  }
+
+  /**
+   * 在已收集的节点集合上计算PageRank值.
+   *
+   * @param allNodes {@link #collectGraphNodes()}的结果
+   */
+  private Map<String, Double> computePageRanks(Set<String> allNodes) {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.PAGERANK)) {
+      if (allNodes.isEmpty()) {
+        return new HashMap<>();
+      }
+
+      int numNodes = allNodes.size();
+
+      // 参数设置
+      final int maxIterations = 100; // 最大迭代次数
+      final double tolerance = 1e-6; // 收敛阈值
+
+      // 进行随机游走统计访问频次
+      Map<String, Integer> visitCounts = new HashMap<>();
+
+      List<String> nodes = new ArrayList<>(graph.keySet());
+      String currentNode = nodes.get(SECURE_RANDOM.nextInt(nodes.size()));
+      Map<String, Double> prValues = new HashMap<>();
+
+      for (int i = 0; i < 10000; i++) {
+        visitCounts.put(currentNode, visitCounts.getOrDefault(currentNode, 0) + 1);
+
+        // 检查当前节点是否在图中，以及该节点是否有出边
+        if (!graph.containsKey(currentNode) || graph.get(currentNode).isEmpty()) {
+          // 如果当前节点不在图中或没有出边，随机选择一个新节点
+          currentNode = nodes.get(SECURE_RANDOM.nextInt(nodes.size()));
+          continue;
+        }
+
+        // 安全地获取邻居节点
+        Map<String, Integer> currentNeighbors = graph.get(currentNode);
+        List<String> neighbors = new ArrayList<>(currentNeighbors.keySet());
+
+        if (neighbors.isEmpty()) {
+          // 如果没有邻居，随机选择一个新节点
+          currentNode = nodes.get(SECURE_RANDOM.nextInt(nodes.size()));
+          continue;
+        }
+
+        currentNode = neighbors.get(SECURE_RANDOM.nextInt(neighbors.size()));
+      }
+
+      // 归一化为初始PR值
+      double sumPre = visitCounts.values().stream().mapToInt(Integer::intValue).sum();
+      for (String node : allNodes) {
+
+        prValues.put(node, visitCounts.getOrDefault(node, 0) / sumPre);
+      }
+
+      // PageRank迭代计算
+      int iterations = 0;
+      for (int i = 0; i < maxIterations; i++) {
+        iterations = i + 1;
+        Map<String, Double> newPrValues = new HashMap<>();
+
+        // 初始化新的PR值
+        for (String node : allNodes) {
+          newPrValues.put(node, (1 - 0.85) / numNodes);
+        }
+
+        // 计算每个节点的PR值贡献
+        for (String node : allNodes) {
+
+          double pr = prValues.get(node);
+
+          if (graph.containsKey(node) && !graph.get(node).isEmpty()) {
+            // 有出边的节点
+            Map<String, Integer> outEdges = graph.get(node);
+            int totalWeight = outEdges.values().stream().mapToInt(Integer::intValue).sum();
+
+            for (Map.Entry<String, Integer> edge : outEdges.entrySet()) {
+              String target = edge.getKey();
+              double weight = edge.getValue() / (double) totalWeight;
+              newPrValues.put(target, newPrValues.get(target) + 0.85 * pr * weight);
+            }
+          } else {
+            // 出度为0的节点或不在图中作为源节点的节点
+            // 将PR值均匀分配给所有节点
+            for (String target : allNodes) {
+              newPrValues.put(target, newPrValues.get(target) + 0.85 * pr / numNodes);
+            }
+          }
+        }
+
+        // 检查是否收敛
+        double diff = 0.0;
+        for (String node : allNodes) {
+          diff += Math.abs(newPrValues.get(node) - prValues.get(node));
+        }
+
+        // 更新PR值
+        prValues = newPrValues;
+
+        if (diff < tolerance) {
+          break; // 收敛
+        }
+      }
+
+      // 归一化PR值，确保总和为1
+      double sum = prValues.values().stream().mapToDouble(Double::doubleValue).sum();
+      if (sum > 0) {
+        for (Map.Entry<String, Double> entry : prValues.entrySet()) {
+          prValues.put(entry.getKey(), entry.getValue() / sum);
+        }
+      }
+
+      timer.vertices(numNodes).edges(edgeCount).iterations(iterations);
+      return prValues;
+    }
+  }
+
+  /**
+   * 收集图中所有节点，包括只作为目标节点的节点.
+   */
+  private Set<String> collectGraphNodes() {
+    // 添加所有作为源节点的节点
+    Set<String> allNodes = new HashSet<>(graph.keySet());
+
+    // 添加所有作为目标节点的节点
+    for (Map<String, Integer> edges : graph.values()) {
+      allNodes.addAll(edges.keySet());
+    }
+    return allNodes;
+  }
+
+  /**
+   * 返回权重最大的K条边.
+   *
+   * @param k 结果数量
+   * @see GraphAnalytics#topEdges(Map, int)
+   */
+  public List<WeightedEdge> topEdges(int k) {
+    return GraphAnalytics.topEdges(graph, k);
+  }
+
+  /**
+   * 返回度最大的K个单词.
+   *
+   * @param kind 度的统计方式
+   * @param k 结果数量
+   * @see GraphAnalytics#topDegree(Map, GraphAnalytics.DegreeKind, int)
+   */
+  public List<ScoredItem> topDegree(GraphAnalytics.DegreeKind kind, int k) {
+    return GraphAnalytics.topDegree(graph, kind, k);
+  }
+
+  /**
+   * 计算全部PageRank值并返回最高的K个单词.
+   *
+   * @param k 结果数量
+   */
+  public List<ScoredItem> topPageRank(int k) {
+    return GraphAnalytics.topScores(computePageRanks(), k);
+  }
+
+  /**
+   * 返回个性化PageRank的查询索引，同一版本的图只构建一次.
+   *
+   * <p>索引只读，可以在多个线程中同时查询。</p>
+   */
+  public PersonalizedPageRank getPersonalizedPageRank() {
+    if (personalizedPageRank == null || personalizedPageRankVersion != version) {
+      personalizedPageRank = new PersonalizedPageRank(graph);
+      personalizedPageRankVersion = version;
+    }
+    return personalizedPageRank;
+  }
+
+  /**
+   * 返回与种子单词最相关的K个单词，按以种子为重启点的个性化PageRank排序.
+   *
+   * <p>只访问种子附近的单词，不需要计算全部PageRank值。</p>
+   *
+   * @param k 结果数量
+   * @param seeds 种子单词，不区分大小写，不在图中的单词被忽略
+   * @return 不含种子的单词及其得分，没有有效种子时为空
+   * @see PersonalizedPageRank#query(List, int)
+   */
+  public List<ScoredItem> relatedWords(int k, String... seeds) {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.PAGERANK)) {
+      WordDictionary dictionary = getWordDictionary();
+      List<String> words = new ArrayList<>(seeds.length);
+      for (String seed : seeds) {
+        int id = dictionary.idOf(seed);
+        if (id >= 0) {
+          words.add(vocabulary.word(id));
+        }
+      }
+      PersonalizedPageRank.Result result = getPersonalizedPageRank().query(words, k);
+      timer.vertices(result.getTouched()).iterations(result.getPushes());
+      return result.getTop();
+    }
+  }
+
+  /**
+   * 计算介数中心性和接近中心性，单词数超过预算时抽样源单词.
+   *
+   * @param sourceBudget 最多处理的源单词数
+   * @see Centrality#compute(Map, int, java.util.Random)
+   */
+  public Centrality.Result computeCentrality(int sourceBudget) {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.CENTRALITY)) {
+      Centrality.Result result = Centrality.compute(graph, sourceBudget, SECURE_RANDOM);
+      timer.vertices(result.getVertexCount()).edges(edgeCount)
+          .iterations(result.getSourceCount());
+      return result;
+    }
+  }
+
+  /**
+   * 要求函数6：随机游走.
+   *
+   * @return 随机游走路径信息
+   */
+  public String randomWalk() {
+    try (OperationMetrics.Timer timer = METRICS.start(OperationMetrics.Operation.WALK)) {
+      if (graph.isEmpty()) {
+        return "Graph is empty!";
+      }
+
+      List<String> path = GraphQueries.randomWalk(graph, SECURE_RANDOM);
+      timer.vertices(graph.size()).iterations(path.size() - 1L);
+      return "Random walk: " + String.join(" -> ", path);
+    }
+  }
+}